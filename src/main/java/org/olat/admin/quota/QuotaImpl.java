@@ -79,7 +79,7 @@ public class QuotaImpl implements Quota {
 			remainingQuotaKB = quotaInKB;
 		} else {
 			VFSContainer container = VFSManager.olatRootContainer(path, null);
-			long actualUsage = VFSManager.getUsageKB(container);
+			long actualUsage = VFSManager.getQuotaUsageKB(container);
 			if (quotaInKB - actualUsage < 0) {
 				remainingQuotaKB = 0l;
 			} else {
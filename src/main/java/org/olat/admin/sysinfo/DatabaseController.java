@@ -44,10 +44,11 @@ public class DatabaseController extends BasicController {
 	
 	private final VelocityContainer mainVC;
 	private final SegmentViewComponent segmentView;
-	private final Link enableLink, disableLink, clearLink, statisticsLink, queriesLink, entitiesLink;
+	private final Link enableLink, disableLink, clearLink, statisticsLink, queriesLink, entitiesLink, regionsLink;
 	
 	private HibernateQueriesController queriesCtrl;
 	private HibernateEntitiesController entitiesCtrl;
+	private HibernateCacheRegionsController regionsCtrl;
 	private HibernateStatisticsController statisticsCtrl;
 	
 	@Autowired
@@ -69,6 +70,8 @@ public class DatabaseController extends BasicController {
 		segmentView.addSegment(queriesLink, false);
 		entitiesLink = LinkFactory.createLink("hibernate.entities", mainVC, this);
 		segmentView.addSegment(entitiesLink, false);
+		regionsLink = LinkFactory.createLink("hibernate.regions", mainVC, this);
+		segmentView.addSegment(regionsLink, false);
 		
 		Statistics statistics = dbInstance.getStatistics();
 		mainVC.contextPut("isStatisticsEnabled", statistics.isStatisticsEnabled());
@@ -106,6 +109,8 @@ public class DatabaseController extends BasicController {
 					doOpenQueries(ureq);
 				} else if (clickedLink == entitiesLink) {
 					doOpenEntities(ureq);
+				} else if (clickedLink == regionsLink) {
+					doOpenRegions(ureq);
 				}
 			}
 		} 
@@ -140,4 +145,14 @@ public class DatabaseController extends BasicController {
 		}
 		mainVC.put("segmentCmp", entitiesCtrl.getInitialComponent());
 	}
+	
+	private void doOpenRegions(UserRequest ureq) {
+		if(regionsCtrl == null) {
+			regionsCtrl = new HibernateCacheRegionsController(ureq, getWindowControl());
+			listenTo(regionsCtrl);
+		} else {
+			regionsCtrl.loadModel();
+		}
+		mainVC.put("segmentCmp", regionsCtrl.getInitialComponent());
+	}
 }
@@ -0,0 +1,209 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.admin.sysinfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.persistence.SortKey;
+import org.olat.core.gui.UserRequest;
+import org.olat.core.gui.components.form.flexible.FormItemContainer;
+import org.olat.core.gui.components.form.flexible.elements.FlexiTableElement;
+import org.olat.core.gui.components.form.flexible.impl.FormBasicController;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.DefaultFlexiColumnModel;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.DefaultFlexiTableDataModel;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableColumnModel;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableDataModelFactory;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.SortableFlexiTableDataModel;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.SortableFlexiTableModelDelegate;
+import org.olat.core.gui.control.Controller;
+import org.olat.core.gui.control.WindowControl;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Statistics of the second level cache per region (entities and queries).
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class HibernateCacheRegionsController extends FormBasicController {
+	
+	private FlexiTableElement table;
+	private RegionStatisticsDataModel tableModel;
+	
+	@Autowired
+	private DB dbInstance;
+
+	public HibernateCacheRegionsController(UserRequest ureq, WindowControl wControl) {
+		super(ureq, wControl, LAYOUT_BAREBONE);
+		
+		initForm(ureq);
+		loadModel();
+	}
+
+	@Override
+	protected void initForm(FormItemContainer formLayout, Controller listener, UserRequest ureq) {
+		FlexiTableColumnModel columnsModel = FlexiTableDataModelFactory.createFlexiTableColumnModel();
+		for(RegionCols col:RegionCols.values()) {
+			columnsModel.addFlexiColumnModel(new DefaultFlexiColumnModel(col.i18nKey(), col.ordinal(), true, col.name()));
+		}
+
+		tableModel = new RegionStatisticsDataModel(columnsModel);
+		table = uifactory.addTableElement(getWindowControl(), "regions", tableModel, 50, true, getTranslator(), formLayout);
+		table.setAndLoadPersistedPreferences(ureq, "HibernateCacheRegionStatistics");
+		table.setExportEnabled(true);
+		table.setPageSize(250);
+	}
+
+	@Override
+	protected void formOK(UserRequest ureq) {
+		//
+	}
+
+	public void loadModel() {
+		Statistics statistics = dbInstance.getStatistics();
+		String[] regions = statistics.getSecondLevelCacheRegionNames();
+		List<RegionInfos> infos = new ArrayList<>(regions.length);
+		for(String region:regions) {
+			try {
+				CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+				if(regionStats != null) {
+					infos.add(new RegionInfos(region, regionStats));
+				}
+			} catch (IllegalArgumentException e) {
+				logWarn("No statistics for region: " + region, e);
+			}
+		}
+		tableModel.setObjects(infos);
+		table.reset();
+	}
+	
+	@Override
+	protected void doDispose() {
+		//
+	}
+	
+	private static class RegionInfos {
+		
+		private final String region;
+		private final long hits;
+		private final long misses;
+		private final long puts;
+		private final long elements;
+		private final long hitRatio;
+		
+		public RegionInfos(String region, CacheRegionStatistics statistics) {
+			this.region = region;
+			hits = statistics.getHitCount();
+			misses = statistics.getMissCount();
+			puts = statistics.getPutCount();
+			elements = statistics.getElementCountInMemory();
+			long total = hits + misses;
+			hitRatio = total == 0 ? 0l : Math.round((100.0d * hits) / total);
+		}
+
+		public String getRegion() {
+			return region;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		public long getMisses() {
+			return misses;
+		}
+
+		public long getPuts() {
+			return puts;
+		}
+
+		public long getElements() {
+			return elements;
+		}
+
+		public long getHitRatio() {
+			return hitRatio;
+		}
+	}
+	
+	private static class RegionStatisticsDataModel extends DefaultFlexiTableDataModel<RegionInfos>
+		implements SortableFlexiTableDataModel<RegionInfos> {
+		
+		public RegionStatisticsDataModel(FlexiTableColumnModel columnModel) {
+			super(columnModel);
+		}
+
+		@Override
+		public void sort(SortKey orderBy) {
+			if(orderBy != null) {
+				List<RegionInfos> views = new SortableFlexiTableModelDelegate<>(orderBy, this, null).sort();
+				super.setObjects(views);
+			}
+		}
+		
+		@Override
+		public Object getValueAt(int row, int col) {
+			RegionInfos infos = getObject(row);
+			return getValueAt(infos, col);
+		}
+
+		@Override
+		public Object getValueAt(RegionInfos row, int col) {
+			switch(RegionCols.values()[col]) {
+				case region: return row.getRegion();
+				case hits: return row.getHits();
+				case misses: return row.getMisses();
+				case puts: return row.getPuts();
+				case hitRatio: return row.getHitRatio();
+				case elements: return row.getElements();
+				default: return null;
+			}
+		}
+
+		@Override
+		public DefaultFlexiTableDataModel<RegionInfos> createCopyWithEmptyList() {
+			return new RegionStatisticsDataModel(getTableColumnModel());
+		}
+	}
+	
+	public enum RegionCols {
+		region("hibernate.region.region"),
+		hits("hibernate.query.hits"),
+		misses("hibernate.query.miss"),
+		puts("hibernate.query.puts"),
+		hitRatio("hibernate.region.hit.ratio"),
+		elements("hibernate.region.elements");
+		
+		private final String i18nKey;
+		
+		private RegionCols(String i18nKey) {
+			this.i18nKey = i18nKey;
+		}
+		
+		public String i18nKey() {
+			return i18nKey;
+		}
+	}
+}
@@ -34,6 +34,7 @@ import javax.persistence.TypedQuery;
 import org.olat.basesecurity.Grant;
 import org.olat.basesecurity.Group;
 import org.olat.basesecurity.GroupMembership;
+import org.olat.basesecurity.GroupMembershipDelegate;
 import org.olat.basesecurity.GroupMembershipInheritance;
 import org.olat.basesecurity.IdentityRef;
 import org.olat.basesecurity.model.GrantImpl;
@@ -58,6 +59,12 @@ public class GroupDAO {
 	@Autowired
 	private DB dbInstance;
 	
+	private final List<GroupMembershipDelegate> delegates = new ArrayList<>();
+	
+	public void addDelegate(GroupMembershipDelegate delegate) {
+		delegates.add(delegate);
+	}
+	
 	public Group createGroup() {
 		GroupImpl group = new GroupImpl();
 		group.setCreationDate(new Date());
@@ -102,6 +109,7 @@ public class GroupDAO {
 		membership.setRole(role);
 		membership.setInheritanceMode(inheritanceMode);
 		dbInstance.getCurrentEntityManager().persist(membership);
+		membershipChanged(group, identity);
 		
 		Set<GroupMembership> members = ((GroupImpl)group).getMembers();
 		if(members == null) {
@@ -136,6 +144,7 @@ public class GroupDAO {
 		membership.setRole(role);
 		membership.setInheritanceMode(inheritanceMode);
 		dbInstance.getCurrentEntityManager().persist(membership);
+		membershipChanged(group, identity);
 	}
 	
 	public GroupMembership updateInheritanceMode(GroupMembership membership, GroupMembershipInheritance inheritanceMode) {
@@ -151,10 +160,14 @@ public class GroupDAO {
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
 		}
+		membershipsChanged(group, memberships);
 		return memberships.size();
 	}
 	
 	public int removeMemberships(Group group, String role) {
+		if(!delegates.isEmpty()) {
+			membershipsChanged(group, getMemberships(group, role));
+		}
 		return dbInstance.getCurrentEntityManager().createNamedQuery("deleteMembershipsByGroupAndRole")
 				.setParameter("groupKey", group.getKey())
 				.setParameter("role", role)
@@ -170,6 +183,7 @@ public class GroupDAO {
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
 		}
+		membershipsChanged(group, memberships);
 		return memberships.size();
 	}
 	
@@ -183,10 +197,21 @@ public class GroupDAO {
 		for(GroupMembership membership:memberships) {
 			em.remove(membership);
 		}
+		membershipsChanged(group, memberships);
 		return memberships.size();
 	}
 	
 	public int removeMemberships(IdentityRef identity) {
+		if(!delegates.isEmpty()) {
+			List<Group> groups = dbInstance.getCurrentEntityManager()
+					.createQuery("select distinct membership.group from bgroupmember as membership where membership.identity.key=:identityKey", Group.class)
+					.setParameter("identityKey", identity.getKey())
+					.getResultList();
+			for(Group group:groups) {
+				membershipChanged(group, identity);
+			}
+		}
+		
 		String deleteQuery = "delete from bgroupmember as membership where membership.identity.key=:identityKey";
 		
 		return dbInstance.getCurrentEntityManager()
@@ -196,6 +221,27 @@ public class GroupDAO {
 	
 	public void removeMembership(GroupMembership membership) {
 		dbInstance.getCurrentEntityManager().remove(membership);
+		membershipChanged(membership.getGroup(), membership.getIdentity());
+	}
+	
+	private void membershipChanged(Group group, IdentityRef identity) {
+		if(delegates.isEmpty()) return;
+		
+		List<Long> identityKeys = Collections.singletonList(identity.getKey());
+		for(GroupMembershipDelegate delegate:delegates) {
+			delegate.membershipChanged(group, identityKeys);
+		}
+	}
+	
+	private void membershipsChanged(Group group, List<GroupMembership> memberships) {
+		if(delegates.isEmpty() || memberships.isEmpty()) return;
+		
+		Set<Long> identityKeys = memberships.stream()
+				.map(membership -> membership.getIdentity().getKey())
+				.collect(Collectors.toSet());
+		for(GroupMembershipDelegate delegate:delegates) {
+			delegate.membershipChanged(group, identityKeys);
+		}
 	}
 	
 	public int countMembers(Group group) {
@@ -237,6 +237,11 @@ public class CalendarNotificationHandler implements NotificationsHandler {
 		}
 	}
 
+	@Override
+	public boolean isSubscriptionInfoShareable() {
+		return true;
+	}
+
 	@Override
 	public String getType() {
 		return "CalendarManager";
@@ -25,11 +25,16 @@
 package org.olat.commons.coordinate.cluster.jms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
@@ -60,6 +65,11 @@ import org.olat.core.util.resource.OresHelper;
 /**
  * This class realizes a clustered (multiple java vm) system event bus. it uses JMS 
  * (per default, apache activeMQ 4.1.4 is configured using spring) as an implementation.
+ * <p>
+ * The events are collected during a short time window (batchWindow) and sent
+ * together in one JMS message, up to batchSize events per message. The same
+ * event sent several times to the same resource within a window is only sent
+ * once, at the position of its last occurrence.
  * 
  * @author Felix Jost
  */
@@ -74,9 +84,14 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	private long sendInterval = 5000; // 1000 miliseconds between each "ping/alive/info" message, can be set using spring
 	private long jmsMsgDelayLimit = 10000;  // max duration of ClusterInfoEvent send-receive time in ms
 	
+	private long batchWindow = 20; // time in ms events are collected before being sent
+	private int batchSize = 200; // max. number of events in one JMS message
+	
 	// counters
 	private long latestSentMsgId = -1;
-	private long numOfSentMessages = 0;
+	private volatile long numOfSentMessages = 0;
+	private volatile long numOfSentEvents = 0;
+	private volatile long numOfCoalescedEvents = 0;
 	
 	// stats
 	private List<String> msgsSent = new ArrayList<>(); 
@@ -106,8 +121,15 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	private final SimpleProbe mrtgProbeJMSProcessingTime_ = new SimpleProbe();
 	
 	private final SimpleProbe mrtgProbeJMSEnqueueTime_ = new SimpleProbe();
+	private final SimpleProbe mrtgProbeJMSSendLatency_ = new SimpleProbe();
+	private final SimpleProbe mrtgProbeJMSBatchSize_ = new SimpleProbe();
 	
-	private ExecutorService jmsExecutor;
+	// the JMS session of the producer is only used by the single thread of this executor
+	private ScheduledExecutorService jmsExecutor;
+	private final Object pendingLock = new Object();
+	private List<JMSWrapper> pendingEvents = new ArrayList<>();
+	private boolean flushScheduled = false;
+	private final Map<Class<?>,Boolean> coalescableEventTypes = new ConcurrentHashMap<>();
 	
 	/**
 	 * [used by spring]
@@ -119,7 +141,7 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	}
 
 	public void springInit() throws JMSException {
-		jmsExecutor = Executors.newSingleThreadExecutor();
+		jmsExecutor = Executors.newSingleThreadScheduledExecutor();
 		
 		connection = connectionFactory.createConnection();
 		sessionConsumer = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
@@ -183,6 +205,20 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		return mrtgProbeJMSEnqueueTime_;
 	}
 	
+	/**
+	 * @return The time in milliseconds between the fire of an event and its send to JMS
+	 */
+	public SimpleProbe getMrtgProbeJMSSendLatency() {
+		return mrtgProbeJMSSendLatency_;
+	}
+	
+	/**
+	 * @return The number of events per JMS message
+	 */
+	public SimpleProbe getMrtgProbeJMSBatchSize() {
+		return mrtgProbeJMSBatchSize_;
+	}
+	
 	/* (non-Javadoc)
 	 * @see org.olat.core.util.event.GenericEventListener#event(org.olat.core.gui.control.Event)
 	 */
@@ -226,40 +262,143 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		// (the receiver will detect whether messages are from itself and thus can be ignored, since they were already sent directly.
 		final long msgId = ++latestSentMsgId;
 		final Integer nodeId = clusterConfig.getNodeId();
+		final JMSWrapper wrapper = new JMSWrapper(nodeId, msgId, ores, event);
 		
-		jmsExecutor.execute(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					ObjectMessage message = sessionProducer.createObjectMessage();
-					message.setObject(new JMSWrapper(nodeId, msgId, ores, event));
-					if(strict) {
-						producer.send(message);
-					} else {
-						producer.send(message, DeliveryMode.NON_PERSISTENT, 3, 5000);
-					}
-				} catch (Exception e) {
-					log.error("Cannot send JMS message", e);
-					// cluster:::: what shall we do here: the JMS bus is broken! and we thus cannot know if other nodes are alive.
-					// if we are the only node running, then we could continue.
-					// a) either throw an exception - meaning olat doesn't really run at all and produces redscreens all the time and logging in is not possible.
-					// b) or warn in the log/jmx - but surveillance is critical here!!
-					// -> do the more fail-fast option a) at the moment for correctness reasons.
-					System.err.println("###############################################################################################");
-					System.err.println("### ClusterEventBus: communication error with JMS - cannot send messages!!!" + e);
-					System.err.println("###############################################################################################");
-					
-					throw new OLATRuntimeException("communication error with JMS - cannot send messages!!!", e);
+		if(strict && batchWindow > 0) {
+			boolean flushNow = false;
+			boolean scheduleFlush = false;
+			synchronized(pendingLock) {
+				pendingEvents.add(wrapper);
+				if(pendingEvents.size() % batchSize == 0) {
+					flushNow = true;
+				} else if(!flushScheduled) {
+					flushScheduled = scheduleFlush = true;
 				}
-				numOfSentMessages++;
 			}
-		});
+			
+			if(flushNow) {
+				jmsExecutor.execute(this::flushPendingEvents);
+			} else if(scheduleFlush) {
+				jmsExecutor.schedule(this::flushPendingEvents, batchWindow, TimeUnit.MILLISECONDS);
+			}
+		} else {
+			// the info events are not persistent and are sent alone
+			jmsExecutor.execute(() -> send(Collections.singletonList(wrapper), strict));
+		}
 
 		// store it for later access by the admin controller
 		String sentMsg = "sent msg: from node:" + nodeId + ", olat-id:" + msgId + ", ores:"	+ ores.getResourceableTypeName() + ":" + ores.getResourceableId()+", event:"+event;
 		addToSentScreen(sentMsg);
 		if (log.isDebugEnabled()) log.debug(sentMsg);
 	}
+	
+	/**
+	 * Send the collected events in batches. Must be called by the thread
+	 * of the JMS executor.
+	 */
+	private void flushPendingEvents() {
+		List<JMSWrapper> events;
+		synchronized(pendingLock) {
+			events = pendingEvents;
+			pendingEvents = new ArrayList<>();
+			flushScheduled = false;
+		}
+		if(events.isEmpty()) {
+			return;
+		}
+		
+		List<JMSWrapper> uniqueEvents = coalesce(events);
+		numOfCoalescedEvents += events.size() - uniqueEvents.size();
+		for(int i=0; i<uniqueEvents.size(); i += batchSize) {
+			List<JMSWrapper> batch = uniqueEvents.subList(i, Math.min(i + batchSize, uniqueEvents.size()));
+			send(new ArrayList<>(batch), true);
+		}
+	}
+	
+	/**
+	 * Remove the duplicates, the same event for the same resource. The event
+	 * is kept at the position of its last occurrence.
+	 * 
+	 * @param events The list of events in the fire order
+	 * @return The list of events without duplicates
+	 */
+	List<JMSWrapper> coalesce(List<JMSWrapper> events) {
+		if(events.size() == 1) {
+			return events;
+		}
+		
+		Map<Object,JMSWrapper> uniqueEvents = new LinkedHashMap<>();
+		for(JMSWrapper wrapper:events) {
+			MultiUserEvent event = wrapper.getMultiUserEvent();
+			Object key;
+			if(isCoalescable(event)) {
+				OLATResourceable ores = wrapper.getOres();
+				key = Arrays.asList(ores.getResourceableTypeName(), ores.getResourceableId(), event);
+			} else {
+				key = wrapper;
+			}
+			uniqueEvents.remove(key);
+			uniqueEvents.put(key, wrapper);
+		}
+		return uniqueEvents.size() == events.size() ? events : new ArrayList<>(uniqueEvents.values());
+	}
+	
+	/**
+	 * An event can be coalesced if it's a plain multi user event (which only
+	 * has a command) or if it implements its own equals method.
+	 * 
+	 * @param event The event
+	 * @return true if two equal events are interchangeable
+	 */
+	private boolean isCoalescable(MultiUserEvent event) {
+		return coalescableEventTypes.computeIfAbsent(event.getClass(), type -> {
+			if(type == MultiUserEvent.class) {
+				return Boolean.TRUE;
+			}
+			try {
+				Class<?> declaringClass = type.getMethod("equals", Object.class).getDeclaringClass();
+				return Boolean.valueOf(declaringClass != Event.class);
+			} catch (NoSuchMethodException e) {
+				return Boolean.FALSE;
+			}
+		}).booleanValue();
+	}
+	
+	private void send(List<JMSWrapper> wrappers, boolean strict) {
+		try {
+			ObjectMessage message = sessionProducer.createObjectMessage();
+			if(wrappers.size() == 1) {
+				message.setObject(wrappers.get(0));
+			} else {
+				message.setObject(new JMSWrapperBatch(wrappers));
+			}
+			if(strict) {
+				producer.send(message);
+			} else {
+				producer.send(message, DeliveryMode.NON_PERSISTENT, 3, 5000);
+			}
+		} catch (Exception e) {
+			log.error("Cannot send JMS message", e);
+			// cluster:::: what shall we do here: the JMS bus is broken! and we thus cannot know if other nodes are alive.
+			// if we are the only node running, then we could continue.
+			// a) either throw an exception - meaning olat doesn't really run at all and produces redscreens all the time and logging in is not possible.
+			// b) or warn in the log/jmx - but surveillance is critical here!!
+			// -> do the more fail-fast option a) at the moment for correctness reasons.
+			System.err.println("###############################################################################################");
+			System.err.println("### ClusterEventBus: communication error with JMS - cannot send messages!!!" + e);
+			System.err.println("###############################################################################################");
+			
+			throw new OLATRuntimeException("communication error with JMS - cannot send messages!!!", e);
+		}
+		
+		numOfSentMessages++;
+		numOfSentEvents += wrappers.size();
+		mrtgProbeJMSBatchSize_.addMeasurement(wrappers.size());
+		long now = System.currentTimeMillis();
+		for(JMSWrapper wrapper:wrappers) {
+			mrtgProbeJMSSendLatency_.addMeasurement(now - wrapper.getFiredTime());
+		}
+	}
 
 	/**
 	 * called by springs org.springframework.jms.listener.DefaultMessageListenerContainer, see coredefaultconfig.xml
@@ -312,41 +451,50 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		ObjectMessage om = (ObjectMessage) message;
 		try {
 			// unpack
-			JMSWrapper jmsWrapper = (JMSWrapper) om.getObject();
-			Integer nodeId = jmsWrapper.getNodeId();			
-			MultiUserEvent event = jmsWrapper.getMultiUserEvent();
-			OLATResourceable ores = jmsWrapper.getOres();
-			boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
-
-			String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
-			nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
-			", event:"+event+"}";
-
+			Object obj = om.getObject();
+			List<JMSWrapper> jmsWrappers;
+			if(obj instanceof JMSWrapperBatch) {
+				jmsWrappers = ((JMSWrapperBatch)obj).getWrappers();
+			} else {
+				jmsWrappers = Collections.singletonList((JMSWrapper)obj);
+			}
+			
 			// stats
 			final long jmsTimestamp = om.getJMSTimestamp();
 			if (jmsTimestamp!=0) {
 				final long deliveryTime = receiveTime - jmsTimestamp;
 				if (deliveryTime>1500) {
 					// then issue a log statement
-					log.warn("message received with long delivery time (longer than 1500ms: {}): {}", deliveryTime, recMsg);
+					log.warn("message received with long delivery time (longer than 1500ms: {}): {} events", deliveryTime, jmsWrappers.size());
 				}
 				mrtgProbeJMSDeliveryTime_.addMeasurement(deliveryTime);
 			}
 			
-			addToReceivedScreen(recMsg);
-			if (log.isDebugEnabled()) log.debug(recMsg);
-			
-			// message with destination and source both having this vm are ignored here, since they were already 
-			// "inline routed" when having been sent (direct call within the vm).
-			// distribute the unmarshalled event to all JVM wide listeners for this channel.
-			doFire(event, ores);
+			for(JMSWrapper jmsWrapper:jmsWrappers) {
+				Integer nodeId = jmsWrapper.getNodeId();			
+				MultiUserEvent event = jmsWrapper.getMultiUserEvent();
+				OLATResourceable ores = jmsWrapper.getOres();
+				boolean fromSameNode = clusterConfig.getNodeId().equals(nodeId);
+	
+				String recMsg = "received msg: "+(fromSameNode? "[same node]":"")+" from node:" + 
+				nodeId + ", olat-id:" + jmsWrapper.getMsgId() + ", ores:" + ores.getResourceableTypeName() + ":" + ores.getResourceableId() +
+				", event:"+event+"}";
+				
+				addToReceivedScreen(recMsg);
+				if (log.isDebugEnabled()) log.debug(recMsg);
+				
+				// message with destination and source both having this vm are ignored here, since they were already 
+				// "inline routed" when having been sent (direct call within the vm).
+				// distribute the unmarshalled event to all JVM wide listeners for this channel.
+				doFire(event, ores);
+			}
 			
 			// stats
 			final long doneTime = System.currentTimeMillis();
 			final long processingTime = doneTime - receiveTime;
 			if (processingTime>500) {
 				// then issue a log statement
-				log.warn("message received with long processing time (longer than 500ms: {}): {}", processingTime, recMsg);
+				log.warn("message received with long processing time (longer than 500ms: {}): {} events", processingTime, jmsWrappers.size());
 			}
 			mrtgProbeJMSProcessingTime_.addMeasurement(processingTime);
 		} catch (Error er) {
@@ -392,6 +540,24 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 	public long getNumOfSentMessages() {
 		return numOfSentMessages;
 	}
+	
+	/**
+	 * [used by spring to auto export mbean data]
+	 * 
+	 * @return the number of events sent, a message can transport several events
+	 */
+	public long getNumOfSentEvents() {
+		return numOfSentEvents;
+	}
+	
+	/**
+	 * [used by spring to auto export mbean data]
+	 * 
+	 * @return the number of duplicate events which were not sent
+	 */
+	public long getNumOfCoalescedEvents() {
+		return numOfCoalescedEvents;
+	}
 
 	/**
 	 * [used by spring to auto export mbean data]
@@ -410,12 +576,26 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		List<PerfItem> l = new ArrayList<>(2);
 		l.add(new PerfItem("Cluster Events Sent", -1, -1, 1, -1, -1, -1, -1, -1, -1, -1, -1, msgsSentCount));
 		l.add(new PerfItem("Cluster Events Received",  -1, -1, 1, -1, -1, -1, -1,  -1, -1, -1, -1, msgsReceivedCount));
+		l.add(toPerfItem("JMS Send Latency", mrtgProbeJMSSendLatency_));
+		l.add(toPerfItem("JMS Events per Message", mrtgProbeJMSBatchSize_));
+		l.add(toPerfItem("JMS Delivery Time", mrtgProbeJMSDeliveryTime_));
+		l.add(toPerfItem("JMS Processing Time", mrtgProbeJMSProcessingTime_));
 		return l;
 	}
 	
+	private PerfItem toPerfItem(String name, SimpleProbe probe) {
+		int num = probe.getNum();
+		int avg = num == 0 ? -1 : probe.getAvg();
+		return new PerfItem(name, -1, probe.getMax(), -1, avg, -1, -1, -1, -1, -1, -1, -1, num);
+	}
+	
 	void resetStats() {
 		msgsSentCount = 0;
 		msgsReceivedCount = 0;
+		mrtgProbeJMSSendLatency_.reset();
+		mrtgProbeJMSBatchSize_.reset();
+		mrtgProbeJMSDeliveryTime_.reset();
+		mrtgProbeJMSProcessingTime_.reset();
 	}
 	
 	private void addToSentScreen(String msg) {
@@ -467,13 +647,21 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		log.info("ClusterEventBus: Set stop flag for ClusterInfoEvent-Thread.");
 		isClusterInfoEventThreadRunning = false;
 		try {
-			jmsExecutor.shutdownNow();
+			// send the last collected events, the delayed flush is still executed after shutdown
+			jmsExecutor.execute(this::flushPendingEvents);
+			jmsExecutor.shutdown();
+			if(!jmsExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+				jmsExecutor.shutdownNow();
+			}
 			sessionProducer.close();
 			sessionConsumer.close();
 			connection.close();
 			log.info("ClusterEventBus stopped");
 		} catch (JMSException e) {
 			log.warn("Exception in stop ClusteredSearchProvider, ",e);
+		} catch (InterruptedException e) {
+			log.warn("Interrupted while sending the last events", e);
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -495,6 +683,24 @@ public class ClusterEventBus extends AbstractEventBus implements MessageListener
 		this.jmsMsgDelayLimit = jmsMsgDelayLimit;
 	}
 
+	/**
+	 * [used by spring]
+	 * 
+	 * @param batchWindow The time in milliseconds the events are collected before being sent, 0 to send them one by one
+	 */
+	public void setBatchWindow(long batchWindow) {
+		this.batchWindow = batchWindow;
+	}
+
+	/**
+	 * [used by spring]
+	 * 
+	 * @param batchSize The max. number of events sent in one JMS message
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = Math.max(1, batchSize);
+	}
+
 	/**
 	 * [used by spring]
 	 */
@@ -46,6 +46,8 @@ public class JMSWrapper implements Serializable {
 	private final MultiUserEvent event;
 	private final long msgId;
 	private final Integer nodeId;
+	// only used by the sender to measure the time spent in the batch
+	private final transient long firedTime = System.currentTimeMillis();
 	
 	JMSWrapper(Integer nodeId, long msgId, OLATResourceable ores, MultiUserEvent event) {
 		// in order to make this class serializable, we extract the base types
@@ -81,6 +83,10 @@ public class JMSWrapper implements Serializable {
 	public Integer getNodeId() {
 		return nodeId;
 	}
+	
+	long getFiredTime() {
+		return firedTime;
+	}
 
 
 }
@@ -138,6 +138,11 @@ public class InfoMessageNotificationHandler implements NotificationsHandler {
 		return translator.translate("notification.title", new String[]{displayName});
 	}
 	
+	@Override
+	public boolean isSubscriptionInfoShareable() {
+		return true;
+	}
+
 	@Override
 	public String getType() {
 		return "InfoMessage";
@@ -212,6 +212,11 @@ public class FolderNotificationsHandler implements NotificationsHandler {
 		return title.getInfoContent("text/plain");
 	}
 
+	@Override
+	public boolean isSubscriptionInfoShareable() {
+		return true;
+	}
+
 	@Override
 	public String getType() {
 		return "FolderModule";
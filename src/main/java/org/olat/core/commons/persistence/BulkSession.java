@@ -0,0 +1,70 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.persistence;
+
+/**
+ * A bulk session persists a large number of entities in the current
+ * transaction. The inserts and updates are sent to the database in JDBC
+ * batches and the persistence context is flushed and cleared every N entities
+ * to keep the memory usage constant. After a clear, all entities loaded
+ * before in the current entity manager are detached, don't use a bulk session
+ * in a loop which works with lazy loaded relations of managed entities.
+ * <p>
+ * The bulk session doesn't commit, the caller is responsible of the transaction.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface BulkSession extends AutoCloseable {
+	
+	/**
+	 * Persist a new entity.
+	 * 
+	 * @param entity The entity
+	 */
+	public void persist(Object entity);
+	
+	/**
+	 * Merge an entity.
+	 * 
+	 * @param entity The entity
+	 * @return The merged entity, it will be detached at the next flush
+	 */
+	public <U> U merge(U entity);
+	
+	/**
+	 * Flush and clear the pending entities now.
+	 */
+	public void flush();
+	
+	/**
+	 * @return The number of entities persisted or merged in this session
+	 */
+	public int getCount();
+	
+	/**
+	 * Flush the remaining entities and restore the settings of the
+	 * entity manager.
+	 */
+	@Override
+	public void close();
+
+}
@@ -0,0 +1,92 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.persistence;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class BulkSessionImpl implements BulkSession {
+	
+	private final int flushSize;
+	private final Session session;
+	private final EntityManager em;
+	private final Integer previousBatchSize;
+	
+	private int count = 0;
+	private int pending = 0;
+	
+	BulkSessionImpl(EntityManager em, int flushSize) {
+		this.em = em;
+		this.flushSize = Math.max(1, flushSize);
+		session = em.unwrap(Session.class);
+		previousBatchSize = session.getJdbcBatchSize();
+		session.setJdbcBatchSize(Integer.valueOf(this.flushSize));
+	}
+
+	@Override
+	public void persist(Object entity) {
+		em.persist(entity);
+		increment();
+	}
+
+	@Override
+	public <U> U merge(U entity) {
+		U merged = em.merge(entity);
+		increment();
+		return merged;
+	}
+	
+	private void increment() {
+		count++;
+		if(++pending >= flushSize) {
+			flush();
+		}
+	}
+
+	@Override
+	public void flush() {
+		if(pending > 0) {
+			em.flush();
+			em.clear();
+			pending = 0;
+		}
+	}
+
+	@Override
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+	public void close() {
+		try {
+			flush();
+		} finally {
+			session.setJdbcBatchSize(previousBatchSize);
+		}
+	}
+}
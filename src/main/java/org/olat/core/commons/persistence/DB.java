@@ -146,4 +146,14 @@ public interface DB {
 	 * @return
 	 */
 	public EntityManager getCurrentEntityManager();
-}
\ No newline at end of file
+	
+	/**
+	 * Open a bulk session on the current entity manager which flushes
+	 * and clears the persistence context every flushSize entities. Use it
+	 * with try-with-resources, the session doesn't commit.
+	 * 
+	 * @param flushSize The number of entities between two flushes
+	 * @return A bulk session
+	 */
+	public BulkSession openBulkSession(int flushSize);
+}
@@ -272,6 +272,15 @@ public class DBImpl implements DB, Destroyable {
 		return threadBoundedEm;
 	}
 	
+	@Override
+	public BulkSession openBulkSession(int flushSize) {
+		EntityManager em = getCurrentEntityManager();
+		if (unusableTrx(em.getTransaction())) { // some program bug
+			throw new DBRuntimeException("cannot open a bulk session in a transaction that is rolledback or committed");
+		}
+		return new BulkSessionImpl(em, flushSize);
+	}
+	
 	private Session getSession(EntityManager em) {
 		return em.unwrap(Session.class);
 	}
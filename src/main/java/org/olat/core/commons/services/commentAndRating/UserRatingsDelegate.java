@@ -19,6 +19,7 @@
  */
 package org.olat.core.commons.services.commentAndRating;
 
+import org.olat.basesecurity.IdentityRef;
 import org.olat.core.id.OLATResourceable;
 
 /**
@@ -34,5 +35,17 @@ public interface UserRatingsDelegate {
 	public boolean accept(OLATResourceable ores, String resSubPath);
 	
 	public boolean update(OLATResourceable ores, String resSubPath, double newAverageRating, long numOfRatings);
+	
+	/**
+	 * Called after the rating of a single user changed.
+	 * 
+	 * @param ores The rated resource
+	 * @param resSubPath The sub path
+	 * @param identity The user who rates
+	 * @param rating The new rating of the user or null if deleted
+	 */
+	public default void updateUserRating(OLATResourceable ores, String resSubPath, IdentityRef identity, Integer rating) {
+		//
+	}
 
 }
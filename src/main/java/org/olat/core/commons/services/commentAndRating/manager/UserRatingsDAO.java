@@ -245,6 +245,8 @@ public class UserRatingsDAO {
 		OLATResourceable ores = OresHelper.createOLATResourceableInstance(rating.getResName(), rating.getResId());
 		for(UserRatingsDelegate delegate:delegates) {
 			if(delegate.accept(ores, rating.getResSubPath())) {
+				delegate.updateUserRating(ores, rating.getResSubPath(), rating.getCreator(), rating.getRating());
+				
 				StringBuilder sb = new StringBuilder();
 				sb.append("select count(rating.key), sum(rating.rating) from userrating as rating")
 				  .append(" where rating.resName=:resname and rating.resId=:resId");
@@ -293,16 +295,18 @@ public class UserRatingsDAO {
 			dbInstance.getCurrentEntityManager().remove(rating);
 			dbInstance.commit();
 			OLATResourceable ores = OresHelper.createOLATResourceableInstance(rating.getResName(), rating.getResId());
-			recalculateDelegateRatings(ores, rating.getResSubPath());
+			recalculateDelegateRatings(ores, rating.getResSubPath(), identity);
 		}
 		return ratings.size();
 	}
 	
-	private void recalculateDelegateRatings(OLATResourceable ores, String resSubPath) {
+	private void recalculateDelegateRatings(OLATResourceable ores, String resSubPath, IdentityRef identity) {
 		if(delegates == null || delegates.isEmpty()) return;
 
 		for(UserRatingsDelegate delegate:delegates) {
 			if(delegate.accept(ores, resSubPath)) {
+				delegate.updateUserRating(ores, resSubPath, identity, null);
+				
 				StringBuilder sb = new StringBuilder();
 				sb.append("select count(rating.key), sum(rating.rating) from userrating as rating")
 				  .append(" where rating.resName=:resname and rating.resId=:resId");
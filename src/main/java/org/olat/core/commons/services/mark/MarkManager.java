@@ -33,6 +33,13 @@ import org.olat.core.id.OLATResourceable;
  */
 public interface MarkManager {
 	
+	/**
+	 * Register a delegate which is informed when a mark is set or removed.
+	 * 
+	 * @param delegate The delegate
+	 */
+	public void addDelegate(MarkDelegate delegate);
+	
 	public List<Mark> getMarks(OLATResourceable ores, Identity identity, Collection<String> subPaths);
 	
 	public Set<Long> getMarkResourceIds(Identity identity, String resourceTypeName, Collection<String> subPaths);
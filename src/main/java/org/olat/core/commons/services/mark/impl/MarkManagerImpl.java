@@ -32,6 +32,7 @@ import javax.persistence.TypedQuery;
 
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.services.mark.Mark;
+import org.olat.core.commons.services.mark.MarkDelegate;
 import org.olat.core.commons.services.mark.MarkManager;
 import org.olat.core.commons.services.mark.MarkResourceStat;
 import org.olat.core.id.Identity;
@@ -52,6 +53,13 @@ public class MarkManagerImpl implements MarkManager {
 	
 	@Autowired
 	private DB dbInstance;
+	
+	private final List<MarkDelegate> delegates = new ArrayList<>();
+	
+	@Override
+	public void addDelegate(MarkDelegate delegate) {
+		delegates.add(delegate);
+	}
 
 	@Override
 	public List<Mark> getMarks(OLATResourceable ores, Identity identity, Collection<String> subPath) {
@@ -180,6 +188,7 @@ public class MarkManagerImpl implements MarkManager {
 			mark.setBusinessPath(businessPath);
 			mark.setCreator(identity);
 			dbInstance.saveObject(mark);
+			updateDelegates(ores, subPath, identity, true);
 		}
 		return mark;
 	}
@@ -206,6 +215,17 @@ public class MarkManagerImpl implements MarkManager {
 		MarkImpl mark = loadMark(ores, identity, subPath);
 		if(mark != null) {
 			dbInstance.deleteObject(mark);
+			updateDelegates(ores, subPath, identity, false);
+		}
+	}
+	
+	private void updateDelegates(OLATResourceable ores, String subPath, Identity identity, boolean marked) {
+		if(delegates.isEmpty()) return;
+		
+		for(MarkDelegate delegate:delegates) {
+			if(delegate.accept(ores, subPath)) {
+				delegate.markChanged(ores, subPath, identity, marked);
+			}
 		}
 	}
 	
@@ -62,6 +62,19 @@ public interface NotificationsHandler {
 	 */
 	public String createTitleInfo(Subscriber subscriber, Locale locale);
 
+	/**
+	 * The notifications email job calculates the subscription info only once
+	 * per publisher and language and filters the items by date for every
+	 * subscriber. This is only allowed if the info doesn't depend on the
+	 * identity of the subscriber and all the items have a date.
+	 * 
+	 * @return true if the subscription info can be shared by all the
+	 * 		subscribers of a publisher
+	 */
+	public default boolean isSubscriptionInfoShareable() {
+		return false;
+	}
+
   /**
    * Return handler type e.g. Forum, AssessmentManager, FolderModule etc.
    * @return
@@ -27,6 +27,7 @@
 package org.olat.core.commons.services.notifications;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -136,6 +137,26 @@ public class SubscriptionInfo {
 		this.customUrl = customUrl;
 	}
 
+	/**
+	 * Copy the info for an other subscriber, only the items newer than
+	 * the specified date are kept.
+	 * 
+	 * @param subscriberKey The key of the subscriber
+	 * @param compareDate The date of the last notification of the subscriber
+	 * @return A new subscription info
+	 */
+	public SubscriptionInfo filter(Long subscriberKey, Date compareDate) {
+		List<SubscriptionListItem> items = new ArrayList<>(subsList.size());
+		for(SubscriptionListItem item:subsList) {
+			if(item.getDate() == null || compareDate.before(item.getDate())) {
+				items.add(item);
+			}
+		}
+		SubscriptionInfo info = new SubscriptionInfo(subscriberKey, type, title, items);
+		info.setCustomUrl(customUrl);
+		return info;
+	}
+
 	/**
 	 * @return The number of subscription list items, meaning the number of news
 	 *         items for this subscription
@@ -0,0 +1,169 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.notifications.manager;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.olat.core.commons.services.notifications.Publisher;
+import org.olat.core.commons.services.notifications.SubscriptionInfo;
+
+/**
+ * The state of one run of the notifications email job, shared by all
+ * the partitions. It holds the publishers with news, precomputed once
+ * per publisher type, and the subscription infos which can be shared
+ * between all the subscribers of the same publisher.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class NotificationsDigest {
+	
+	private final Date defaultCompareDate;
+	private final int numOfPartitions;
+	private final Map<String,Map<Long,Date>> publishersWithNews;
+	private final Map<SharedInfoKey,SubscriptionInfo> sharedInfos = new ConcurrentHashMap<>();
+	
+	private final AtomicInteger donePartitions = new AtomicInteger();
+	private final AtomicLong processedIdentities = new AtomicLong();
+	private final AtomicLong sentMails = new AtomicLong();
+	private final AtomicLong computedInfos = new AtomicLong();
+	private final AtomicLong sharedInfosHits = new AtomicLong();
+	
+	public NotificationsDigest(Date defaultCompareDate, Map<String,Map<Long,Date>> publishersWithNews, int numOfPartitions) {
+		this.defaultCompareDate = defaultCompareDate;
+		this.publishersWithNews = publishersWithNews;
+		this.numOfPartitions = numOfPartitions;
+	}
+
+	/**
+	 * @return The oldest date the notifications go back to, the shared
+	 * 		subscription infos are calculated from this date.
+	 */
+	public Date getDefaultCompareDate() {
+		return defaultCompareDate;
+	}
+	
+	public int getNumOfPartitions() {
+		return numOfPartitions;
+	}
+	
+	/**
+	 * @param publisher The publisher
+	 * @param compareDate The date of the last email sent to the subscriber
+	 * @return true if the publisher has news after the specified date
+	 */
+	public boolean hasNews(Publisher publisher, Date compareDate) {
+		Map<Long,Date> publishers = publishersWithNews.getOrDefault(publisher.getType(), Collections.emptyMap());
+		Date latestNews = publishers.get(publisher.getKey());
+		return latestNews != null && compareDate.before(latestNews);
+	}
+	
+	/**
+	 * Return the subscription info of the publisher in the specified language, the
+	 * info is calculated only once for all the subscribers.
+	 * 
+	 * @param publisher The publisher
+	 * @param locale The language
+	 * @param creator Create the subscription info from the default compare date
+	 * @return The subscription info, never null
+	 */
+	public SubscriptionInfo getSharedInfo(Publisher publisher, Locale locale, Supplier<SubscriptionInfo> creator) {
+		SharedInfoKey key = new SharedInfoKey(publisher.getKey(), locale);
+		SubscriptionInfo info = sharedInfos.get(key);
+		if(info == null) {
+			info = sharedInfos.computeIfAbsent(key, k -> {
+				computedInfos.incrementAndGet();
+				return creator.get();
+			});
+		} else {
+			sharedInfosHits.incrementAndGet();
+		}
+		return info;
+	}
+	
+	public void incrementProcessedIdentities() {
+		processedIdentities.incrementAndGet();
+	}
+	
+	public void incrementSentMails() {
+		sentMails.incrementAndGet();
+	}
+	
+	public int incrementDonePartitions() {
+		return donePartitions.incrementAndGet();
+	}
+	
+	public int getDonePartitions() {
+		return donePartitions.get();
+	}
+	
+	public long getProcessedIdentities() {
+		return processedIdentities.get();
+	}
+	
+	public long getSentMails() {
+		return sentMails.get();
+	}
+	
+	public long getComputedInfos() {
+		return computedInfos.get();
+	}
+	
+	public long getSharedInfosHits() {
+		return sharedInfosHits.get();
+	}
+	
+	private static class SharedInfoKey {
+		
+		private final Long publisherKey;
+		private final Locale locale;
+		
+		public SharedInfoKey(Long publisherKey, Locale locale) {
+			this.publisherKey = publisherKey;
+			this.locale = locale;
+		}
+
+		@Override
+		public int hashCode() {
+			return publisherKey.hashCode() + (locale == null ? 0 : 31 * locale.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof SharedInfoKey) {
+				SharedInfoKey key = (SharedInfoKey)obj;
+				return publisherKey.equals(key.publisherKey) && Objects.equals(locale, key.locale);
+			}
+			return false;
+		}
+	}
+}
@@ -41,6 +41,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
@@ -66,6 +67,7 @@ import org.olat.core.commons.services.notifications.model.NoSubscriptionInfo;
 import org.olat.core.commons.services.notifications.model.PublisherImpl;
 import org.olat.core.commons.services.notifications.model.SubscriberImpl;
 import org.olat.core.commons.services.notifications.ui.NotificationSubscriptionController;
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
 import org.olat.core.gui.control.Event;
 import org.olat.core.gui.translator.Translator;
 import org.olat.core.helpers.Settings;
@@ -113,6 +115,14 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	private static final int BATCH_SIZE = 500;
 	private static final String LATEST_EMAIL_USER_PROP = "noti_latest_email";
 	private static final SubscriptionInfo NOSUBSINFO = new NoSubscriptionInfo();
+	private static final String EMAIL_STYLE = "<style>"
+			+ ".o_m_sub h4 {margin: 0 0 10px 0;}"
+			+ ".o_m_sub ul {padding: 0 0 5px 20px; margin: 0;}"
+			+ ".o_m_sub ul li {padding: 0; margin: 1px 0;}"
+			+ ".o_m_go {padding: 5px 0 0 0}"
+			+ ".o_date {font-size: 90%; color: #888}"
+			+ ".o_m_footer {background: #FAFAFA; border: 1px solid #eee; border-radius: 5px; padding: 0 0.5em 0.5em 0.5em; margin: 1em 0 1em 0;' class='o_m_h'}"
+			+ "</style>";
 
 	private final OLATResourceable oresMyself = OresHelper.lookupType(NotificationsManagerImpl.class);
 	private final OLATResourceable asyncSubscription = OresHelper.createOLATResourceableType("NotificationsManagerAsyncSub");
@@ -123,11 +133,14 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	private String defaultNotificationInterval;
 	private static final Map<String, Integer> INTERVAL_DEF_MAP = buildIntervalMap();
 	private Object lockObject = new Object();
+	private int digestParallelism = 4;
+	private int digestPartitionSize = BATCH_SIZE;
 	
 	private DB dbInstance;
 	private BaseSecurity securityManager;
 	private PropertyManager propertyManager;
 	private CoordinatorManager coordinatorManager;
+	private TaskExecutorManager taskExecutorManager;
 
 	/**
 	 * [used by Spring]
@@ -160,8 +173,32 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	public void setCoordinatorManager(CoordinatorManager coordinatorManager) {
 		this.coordinatorManager = coordinatorManager;
 	}
+	
+	/**
+	 * [used by Spring]
+	 * @param taskExecutorManager
+	 */
+	public void setTaskExecutorManager(TaskExecutorManager taskExecutorManager) {
+		this.taskExecutorManager = taskExecutorManager;
+	}
 
 
+	/**
+	 * [used by Spring]
+	 * @param digestParallelism The number of threads which send the notifications emails
+	 */
+	public void setDigestParallelism(int digestParallelism) {
+		this.digestParallelism = digestParallelism;
+	}
+	
+	/**
+	 * [used by the unit tests]
+	 * @param digestPartitionSize The number of identities processed by a partition
+	 */
+	public void setDigestPartitionSize(int digestPartitionSize) {
+		this.digestPartitionSize = digestPartitionSize;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, asyncSubscription);
@@ -332,56 +369,159 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 		log.info(Tracing.M_AUDIT, "starting notification cronjob to send email");
 		WorkThreadInformations.setLongRunningTask("sendNotifications");
 		
-		int counter = 0;
-		int closeConnection = 0;
-		List<Identity> identities;
-		do {
-			identities = securityManager.loadVisibleIdentities(counter, BATCH_SIZE);
-			for(Identity identity:identities) {
+		long start = System.currentTimeMillis();
+		Date defaultCompareDate = getDefaultCompareDate();
+		Map<String,Map<Long,Date>> publishersWithNews = getPublishersWithNews(defaultCompareDate);
+		List<Long> identityKeys = securityManager.loadVisibleIdentityKeys();
+		dbInstance.commitAndCloseSession();
+		
+		List<List<Long>> partitions = new ArrayList<>();
+		for(int i=0; i<identityKeys.size(); i += digestPartitionSize) {
+			partitions.add(identityKeys.subList(i, Math.min(identityKeys.size(), i + digestPartitionSize)));
+		}
+		NotificationsDigest digest = new NotificationsDigest(defaultCompareDate, publishersWithNews, partitions.size());
+		
+		List<Runnable> tasks = partitions.stream()
+				.map(partition -> (Runnable)() -> processPartitionByEmail(partition, digest))
+				.collect(Collectors.toList());
+		taskExecutorManager.executeInParallel(tasks, digestParallelism);
+		
+		// done, purge last entry
+		WorkThreadInformations.unsetLongRunningTask("sendNotifications");
+		log.info(Tracing.M_AUDIT, "end notification cronjob to send email: {} identities, {} emails, {} subscription infos shared {} times in {} ms",
+				digest.getProcessedIdentities(), digest.getSentMails(), digest.getComputedInfos(), digest.getSharedInfosHits(),
+				(System.currentTimeMillis() - start));
+	}
+	
+	/**
+	 * Send the notifications emails for a slice of identities. The subscribers
+	 * and the date of the latest email of all the identities are loaded at once.
+	 * 
+	 * @param identityKeys The keys of the identities
+	 * @param digest The state of the job
+	 */
+	private void processPartitionByEmail(List<Long> identityKeys, NotificationsDigest digest) {
+		long start = System.currentTimeMillis();
+		int partitionSentMails = 0;
+		try {
+			WorkThreadInformations.set("Send notifications to " + identityKeys.size() + " identities");
+			Map<Identity,List<Subscriber>> identityToSubscribers = getEnabledSubscribersWithIdentity(identityKeys);
+			Map<Long,Property> latestEmailProperties = new HashMap<>();
+			if(!identityToSubscribers.isEmpty()) {
+				List<Property> properties = propertyManager
+						.findProperties(new ArrayList<>(identityToSubscribers.keySet()), null, null, LATEST_EMAIL_USER_PROP);
+				for(Property property:properties) {
+					latestEmailProperties.put(property.getIdentity().getKey(), property);
+				}
+			}
+			
+			int count = 0;
+			Map<Locale,Translator> translators = new HashMap<>();
+			for(Map.Entry<Identity,List<Subscriber>> entry:identityToSubscribers.entrySet()) {
+				Identity identity = entry.getKey();
 				Roles roles = securityManager.getRoles(identity);
 				if(roles.isGuestOnly()) {
 					continue;
 				}
-	
-				closeConnection++;
-				processSubscribersByEmail(identity);
-				if(closeConnection % 20 == 0) {
-					dbInstance.commitAndCloseSession();
+				
+				Property latestEmailProperty = latestEmailProperties.get(identity.getKey());
+				if(processSubscribersByEmail(identity, entry.getValue(), latestEmailProperty, translators, digest)) {
+					partitionSentMails++;
+					digest.incrementSentMails();
+				}
+				digest.incrementProcessedIdentities();
+				if(++count % 20 == 0) {
+					dbInstance.commit();
 				}
 			}
-			counter += identities.size();
+		} catch (Exception e) {
+			log.error("Error while sending notifications", e);
+		} finally {
 			dbInstance.commitAndCloseSession();
-		} while(identities.size() == BATCH_SIZE);
+			WorkThreadInformations.unset();
+		}
 		
-		// done, purge last entry
-		WorkThreadInformations.unsetLongRunningTask("sendNotifications");
-		log.info(Tracing.M_AUDIT, "end notification cronjob to send email");
+		int done = digest.incrementDonePartitions();
+		log.info(Tracing.M_AUDIT, "Notifications partition {}/{}: {} identities, {} emails in {} ms",
+				done, digest.getNumOfPartitions(), identityKeys.size(), partitionSentMails, (System.currentTimeMillis() - start));
+	}
+	
+	/**
+	 * @param identityKeys A list of identity keys
+	 * @return A map of the identities which have at least one enabled subscriber and their subscribers
+	 */
+	private Map<Identity,List<Subscriber>> getEnabledSubscribersWithIdentity(List<Long> identityKeys) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("select sub from notisub as sub")
+		  .append(" inner join fetch sub.publisher as publisher")
+		  .append(" inner join fetch sub.identity as ident")
+		  .append(" inner join fetch ident.user as identUser")
+		  .append(" where ident.key in (:identityKeys) and sub.enabled=true");
+		
+		Map<Identity,List<Subscriber>> identityToSubscribers = new HashMap<>();
+		for(List<Long> chunkOfIdentityKeys : PersistenceHelper.collectionOfChunks(identityKeys)) {
+			List<Subscriber> subscribers = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Subscriber.class)
+				.setParameter("identityKeys", chunkOfIdentityKeys)
+				.getResultList();
+			for(Subscriber subscriber:subscribers) {
+				identityToSubscribers
+					.computeIfAbsent(subscriber.getIdentity(), ident -> new ArrayList<>())
+					.add(subscriber);
+			}
+		}
+		return identityToSubscribers;
 	}
 	
-	private void processSubscribersByEmail(Identity ident) {
+	/**
+	 * The publishers with news since the specified date, grouped by type.
+	 * 
+	 * @param compareDate The date
+	 * @return A map type -> publisher key -> date of the latest news
+	 */
+	private Map<String,Map<Long,Date>> getPublishersWithNews(Date compareDate) {
+		String q = "select pub.key, pub.type, pub.latestNewsDate from notipublisher as pub where pub.state=:state and pub.latestNewsDate>=:compareDate";
+		List<Object[]> rawObjects = dbInstance.getCurrentEntityManager()
+				.createQuery(q, Object[].class)
+				.setParameter("state", PUB_STATE_OK)
+				.setParameter("compareDate", compareDate)
+				.getResultList();
+		
+		Map<String,Map<Long,Date>> publishersWithNews = new HashMap<>();
+		for(Object[] rawObject:rawObjects) {
+			Long key = (Long)rawObject[0];
+			String type = (String)rawObject[1];
+			Date latestNews = (Date)rawObject[2];
+			publishersWithNews
+				.computeIfAbsent(type, t -> new HashMap<>())
+				.put(key, latestNews);
+		}
+		return publishersWithNews;
+	}
+	
+	private boolean processSubscribersByEmail(Identity ident, List<Subscriber> subscribers, Property latestEmailProperty,
+			Map<Locale,Translator> translators, NotificationsDigest digest) {
 		if(ident.getStatus().compareTo(Identity.STATUS_VISIBLE_LIMIT) >= 0) {
-			return;//send only to active user
+			return false;//send only to active user
 		}
 		
 		String userInterval = getUserIntervalOrDefault(ident);
 		if("never".equals(userInterval)) {
-			return;
+			return false;
 		}
 
 		long start = System.currentTimeMillis();
 		Date compareDate = getCompareDateFromInterval(userInterval);
-		Property p = propertyManager.findProperty(ident, null, null, null, LATEST_EMAIL_USER_PROP);
-		if(p != null) {
-		  	Date latestEmail = new Date(p.getLongValue());
+		if(latestEmailProperty != null) {
+		  	Date latestEmail = new Date(latestEmailProperty.getLongValue());
 		  	if(latestEmail.after(compareDate)) {
-		  		return;//nothing to do
+		  		return false;//nothing to do
 		  	}
 		}
 
-		Date defaultCompareDate = getDefaultCompareDate();
-		List<Subscriber> subscribers = getSubscribers(ident, true);
+		Date defaultCompareDate = digest.getDefaultCompareDate();
 		if(subscribers.isEmpty()) {
-			return;
+			return false;
 		}
 		
 		String langPrefs = null;
@@ -410,7 +550,7 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 					//no notification older than a month
 					latestEmail = defaultCompareDate;
 				}
-				subsitem = createSubscriptionItem(sub, locale, SubscriptionInfo.MIME_HTML, SubscriptionInfo.MIME_HTML, latestEmail);
+				subsitem = createDigestSubscriptionItem(sub, locale, latestEmail, digest);
 			}	else if(latestEmail != null && latestEmail.after(compareDate)) {
 				//already send an email within the user's settings interval
 				//veto = true;
@@ -422,11 +562,52 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 			latestSub = sub;
 		}
 		
-		Translator translator = Util.createPackageTranslator(NotificationSubscriptionController.class, locale);
-		notifySubscribersByEmail(latestSub, items, subsToUpdate, translator, start, veto);
+		Translator translator = translators.computeIfAbsent(locale,
+				loc -> Util.createPackageTranslator(NotificationSubscriptionController.class, loc));
+		return notifySubscribersByEmail(latestSub, items, subsToUpdate, translator, start, veto);
+	}
+	
+	/**
+	 * Create the item for the notifications email. If the handler allows it, the
+	 * subscription info is calculated once per publisher and filtered for the
+	 * specified subscriber.
+	 * 
+	 * @param subscriber The subscriber
+	 * @param locale The language of the subscriber
+	 * @param latestEmailed The date of the last email sent to the subscriber
+	 * @param digest The state of the job
+	 * @return The item or null if there isn't any news
+	 */
+	private SubscriptionItem createDigestSubscriptionItem(Subscriber subscriber, Locale locale, Date latestEmailed, NotificationsDigest digest) {
+		try {
+			Publisher pub = subscriber.getPublisher();
+			NotificationsHandler notifHandler = getNotificationsHandler(pub);
+			if(notifHandler == null || !notifHandler.isSubscriptionInfoShareable()) {
+				return createSubscriptionItem(subscriber, locale, SubscriptionInfo.MIME_HTML, SubscriptionInfo.MIME_HTML, latestEmailed);
+			}
+			
+			SubscriptionItem si = null;
+			if(isPublisherValid(pub) && digest.hasNews(pub, latestEmailed)) {
+				SubscriptionInfo sharedInfo = digest.getSharedInfo(pub, locale, () -> {
+					SubscriptionInfo info = notifHandler.createSubscriptionInfo(subscriber, locale, digest.getDefaultCompareDate());
+					return info == null ? NOSUBSINFO : info;
+				});
+				if(sharedInfo.hasNews()) {
+					SubscriptionInfo subsInfo = sharedInfo.filter(subscriber.getKey(), latestEmailed);
+					if(subsInfo.hasNews()) {
+						si = createSubscriptionItem(subsInfo, subscriber, locale, SubscriptionInfo.MIME_HTML, SubscriptionInfo.MIME_HTML);
+					}
+				}
+			}
+			return si;
+		} catch (Exception e) {
+			log.error("Cannot generate a subscription item.", e);
+			return null;
+		}
 	}
 	
-	private void notifySubscribersByEmail(Subscriber latestSub, List<SubscriptionItem> items, List<Subscriber> subsToUpdate, Translator translator, long start, boolean veto) {
+	private boolean notifySubscribersByEmail(Subscriber latestSub, List<SubscriptionItem> items, List<Subscriber> subsToUpdate, Translator translator, long start, boolean veto) {
+		boolean sent = false;
 		if(veto) {
 			if(latestSub != null) {
 				log.info(Tracing.M_AUDIT, latestSub.getIdentity().getKey() + " already received notification email within prefs interval");
@@ -448,12 +629,12 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 				StringBuilder mailLog = new StringBuilder();
 				mailLog.append("Notifications mailed for ").append(curIdent.getKey()).append(' ').append(items.size()).append(' ').append((System.currentTimeMillis() - start)).append("ms");
 				log.info(Tracing.M_AUDIT, mailLog.toString());
+				sent = true;
 			} else {
 				log.info(Tracing.M_AUDIT, "Error sending notification email to : " + curIdent.getKey());
 			}
 		}
-		//collecting the SubscriptionItem can potentially make a lot of DB calls
-		dbInstance.intermediateCommit();
+		return sent;
 	}
 
 	@Override
@@ -537,15 +718,8 @@ public class NotificationsManagerImpl implements NotificationsManager, UserDataD
 	
 	private boolean sendEmail(Identity to, Translator translator, List<SubscriptionItem> subItems) {
 		String title = translator.translate("rss.title", new String[] { NotificationHelper.getFormatedName(to) });
-		StringBuilder htmlText = new StringBuilder();
-		htmlText.append("<style>");
-		htmlText.append(".o_m_sub h4 {margin: 0 0 10px 0;}");
-		htmlText.append(".o_m_sub ul {padding: 0 0 5px 20px; margin: 0;}");
-		htmlText.append(".o_m_sub ul li {padding: 0; margin: 1px 0;}");
-		htmlText.append(".o_m_go {padding: 5px 0 0 0}");
-		htmlText.append(".o_date {font-size: 90%; color: #888}");		
-		htmlText.append(".o_m_footer {background: #FAFAFA; border: 1px solid #eee; border-radius: 5px; padding: 0 0.5em 0.5em 0.5em; margin: 1em 0 1em 0;' class='o_m_h'}");
-		htmlText.append("</style>");
+		StringBuilder htmlText = new StringBuilder(2048 * (subItems.size() + 1));
+		htmlText.append(EMAIL_STYLE);
 		
 		for (Iterator<SubscriptionItem> it_subs = subItems.iterator(); it_subs.hasNext();) {
 			SubscriptionItem subitem = it_subs.next();
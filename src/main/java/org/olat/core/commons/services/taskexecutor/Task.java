@@ -41,5 +41,11 @@ public interface Task {
 	public Identity getCreator();
 	
 	public List<Identity> getModifiers();
+	
+	/**
+	 * @return The progress of a running task between 0 and 1, or null
+	 * 		if the task doesn't report its progress
+	 */
+	public Double getProgress();
 
 }
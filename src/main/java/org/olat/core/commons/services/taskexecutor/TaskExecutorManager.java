@@ -55,6 +55,19 @@ public interface TaskExecutorManager extends Executor {
 	
 	public void executeTaskToDo();
 	
+	/**
+	 * Run the tasks in the pool shared by the parallel batches, at most
+	 * the specified number of tasks at the same time, and wait until all
+	 * of them are done. Every task runs in its own transaction, an error
+	 * is logged and doesn't stop the other tasks. With a parallelism of 1,
+	 * the tasks run in the thread of the caller. A task must not call this
+	 * method itself.
+	 * 
+	 * @param tasks The tasks
+	 * @param parallelism The maximum number of tasks running at the same time
+	 */
+	public void executeInParallel(List<? extends Runnable> tasks, int parallelism);
+	
 	/**
 	 * Pick a task for edition, but don't forget to return it!
 	 * 
@@ -81,6 +94,14 @@ public interface TaskExecutorManager extends Executor {
 	 */
 	public void updateAndReturn(Task task, LongRunnable runnableTask, Identity modifier, Date scheduledDate);
 	
+	/**
+	 * Save the progress of a running task.
+	 * 
+	 * @param task The task
+	 * @param progress The progress between 0 and 1
+	 */
+	public void updateProgress(Task task, Double progress);
+	
 	public <T extends Runnable> T getPersistedRunnableTask(Task task, Class<T> type);
 	
 	public List<Task> getTasks(OLATResource resource);
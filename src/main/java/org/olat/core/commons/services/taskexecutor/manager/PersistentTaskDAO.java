@@ -205,6 +205,23 @@ public class PersistentTaskDAO {
 		return ptask;
 	}
 	
+	/**
+	 * Update only the progress of the task, the serialized runnable and
+	 * the status are not touched.
+	 * 
+	 * @param task The task
+	 * @param progress The progress between 0 and 1
+	 */
+	public void updateProgress(Task task, Double progress) {
+		dbInstance.getCurrentEntityManager()
+				.createQuery("update extask task set task.progress=:progress, task.lastModified=:now where task.key=:taskKey")
+				.setParameter("progress", progress)
+				.setParameter("now", new Date())
+				.setParameter("taskKey", task.getKey())
+				.executeUpdate();
+		dbInstance.commit();
+	}
+	
 	public List<Identity> getModifiers(Task task) {
 		return dbInstance.getCurrentEntityManager()
 				.createNamedQuery("loadTaskModifiers", Identity.class)
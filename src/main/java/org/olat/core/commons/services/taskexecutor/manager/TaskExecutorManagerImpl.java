@@ -31,7 +31,10 @@ import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.logging.log4j.Logger;
@@ -71,6 +74,7 @@ public class TaskExecutorManagerImpl implements TaskExecutorManager {
 	private final ExecutorService taskExecutor;
 	private final ExecutorService sequentialTaskExecutor;
 	private final ExecutorService lowPriorityTaskExecutor;
+	private final ExecutorService parallelTaskExecutor;
 	
 	private DB dbInstance;
 	private Scheduler scheduler;
@@ -81,10 +85,12 @@ public class TaskExecutorManagerImpl implements TaskExecutorManager {
 	/**
 	 * [used by spring]
 	 */
-	private TaskExecutorManagerImpl(ExecutorService mpTaskExecutor, ExecutorService sequentialTaskExecutor, ExecutorService lowPriorityTaskExecutor) {
+	private TaskExecutorManagerImpl(ExecutorService mpTaskExecutor, ExecutorService sequentialTaskExecutor,
+			ExecutorService lowPriorityTaskExecutor, ExecutorService parallelTaskExecutor) {
 		this.taskExecutor = mpTaskExecutor;
 		this.sequentialTaskExecutor = sequentialTaskExecutor;
 		this.lowPriorityTaskExecutor = lowPriorityTaskExecutor;
+		this.parallelTaskExecutor = parallelTaskExecutor;
 	}
 	
 	/**
@@ -116,6 +122,7 @@ public class TaskExecutorManagerImpl implements TaskExecutorManager {
 		taskExecutor.shutdownNow();
 		sequentialTaskExecutor.shutdownNow();
 		lowPriorityTaskExecutor.shutdownNow();
+		parallelTaskExecutor.shutdownNow();
 	}
 	
 	@Override
@@ -159,6 +166,39 @@ public class TaskExecutorManagerImpl implements TaskExecutorManager {
 		}
 	}
 
+	@Override
+	public void executeInParallel(List<? extends Runnable> tasks, int parallelism) {
+		if(parallelism <= 1 || tasks.size() <= 1) {
+			for(Runnable task:tasks) {
+				task.run();
+			}
+			return;
+		}
+		
+		// every worker takes the next task until all are done
+		ConcurrentLinkedQueue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>(tasks);
+		int numOfWorkers = Math.min(parallelism, tasks.size());
+		List<Future<?>> workers = new ArrayList<>(numOfWorkers);
+		for(int i=0; i<numOfWorkers; i++) {
+			workers.add(parallelTaskExecutor.submit(() -> {
+				for(Runnable task=pendingTasks.poll(); task != null; task=pendingTasks.poll()) {
+					new DBSecureRunnable(task).run();
+				}
+			}));
+		}
+		
+		for(Future<?> worker:workers) {
+			try {
+				worker.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.error("Interrupted while waiting the parallel tasks", e);
+			} catch (ExecutionException e) {
+				log.error("Error while running the parallel tasks", e.getCause());
+			}
+		}
+	}
+
 	@Override
 	public void executeTaskToDo() {
 		try {
@@ -230,6 +270,11 @@ public class TaskExecutorManagerImpl implements TaskExecutorManager {
 		persistentTaskDao.updateTask(task, runnableTask, modifier, scheduledDate);
 	}
 
+	@Override
+	public void updateProgress(Task task, Double progress) {
+		persistentTaskDao.updateProgress(task, progress);
+	}
+
 	@Override
 	public void delete(Task task) {
 		persistentTaskDao.delete(task);
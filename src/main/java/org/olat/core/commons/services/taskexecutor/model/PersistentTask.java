@@ -118,6 +118,9 @@ public class PersistentTask implements Task, CreateInfo, ModifiedInfo, Persistab
 	
 	@Column(name="e_task", nullable=false, insertable=true, updatable=true)
 	private String task;
+	
+	@Column(name="e_progress", nullable=true, insertable=true, updatable=true)
+	private Double progress;
 
 	@Override
 	public Long getKey() {
@@ -241,6 +244,15 @@ public class PersistentTask implements Task, CreateInfo, ModifiedInfo, Persistab
 	public void setTask(String task) {
 		this.task = task;
 	}
+
+	@Override
+	public Double getProgress() {
+		return progress;
+	}
+
+	public void setProgress(Double progress) {
+		this.progress = progress;
+	}
 	
 	@Override
 	public int hashCode() {
@@ -110,6 +110,15 @@ public interface VFSRepositoryService {
 	
 	public void itemSaved(VFSLeaf leaf, Identity savedBy);
 	
+	/**
+	 * The usage of local folders is calculated once and maintained
+	 * with the changes made by this service.
+	 * 
+	 * @param container The container with a quota
+	 * @return The usage of the container in KB
+	 */
+	public long getQuotaUsageKB(VFSContainer container);
+	
 	public VFSMetadata updateMetadata(VFSMetadata data);
 	
 	/**
@@ -192,6 +201,27 @@ public interface VFSRepositoryService {
 	 */
 	public VFSLeaf getThumbnail(VFSLeaf file, VFSMetadata metadata, int maxWidth, int maxHeight, boolean fill);
 	
+	/**
+	 * Return the thumbnail if it's already generated. If not, its generation
+	 * is queued and the method returns null without waiting.
+	 * 
+	 * @param file The file
+	 * @param maxWidth
+	 * @param maxHeight
+	 * @param fill
+	 * @return The thumbnail or null
+	 */
+	public VFSLeaf getGeneratedThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill);
+	
+	/**
+	 * @param file The file
+	 * @param maxWidth
+	 * @param maxHeight
+	 * @param fill
+	 * @return true if the thumbnail is queued or in generation
+	 */
+	public boolean isThumbnailPending(VFSLeaf file, int maxWidth, int maxHeight, boolean fill);
+	
 	public void resetThumbnails(VFSLeaf file);
 	
 	/**
@@ -0,0 +1,56 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import org.olat.core.util.event.MultiUserEvent;
+
+/**
+ * Propagate a change of the size of a directory to the quota usage ledgers
+ * of the other cluster nodes.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class QuotaUsageEvent extends MultiUserEvent {
+
+	private static final long serialVersionUID = -4250186340416296012L;
+	public static final String QUOTA_USAGE = "quota-usage-update";
+	
+	private final String relativePath;
+	private final long deltaBytes;
+	
+	public QuotaUsageEvent(String relativePath, long deltaBytes) {
+		super(QUOTA_USAGE);
+		this.relativePath = relativePath;
+		this.deltaBytes = deltaBytes;
+	}
+
+	public String getRelativePath() {
+		return relativePath;
+	}
+
+	/**
+	 * @return The number of bytes added (or removed if negative) to the directory
+	 */
+	public long getDeltaBytes() {
+		return deltaBytes;
+	}
+}
@@ -295,6 +295,50 @@ public class VFSMetadataDAO {
 			.getResultList();
 	}
 	
+	/**
+	 * The last modification of the metadata of all the files and directories
+	 * under the specified relative path.
+	 * 
+	 * @param relativePath The relative path
+	 * @return The date or null if there isn't any metadata
+	 */
+	public Date getLastModified(String relativePath) {
+		String q = "select max(metadata.lastModified) from filemetadata metadata where metadata.relativePath like :relativePath";
+		List<Date> lastModified = dbInstance.getCurrentEntityManager()
+			.createQuery(q, Date.class)
+			.setParameter("relativePath", relativePath + "%")
+			.getResultList();
+		return lastModified.isEmpty() ? null : lastModified.get(0);
+	}
+	
+	/**
+	 * The size of the files which are not deleted and of all the revisions
+	 * under the specified relative path.
+	 *
+	 * @param relativePath The relative path of the directory
+	 * @return The size in bytes
+	 */
+	public long getUsage(String relativePath) {
+		String filesQuery = "select sum(metadata.fileSize) from filemetadata metadata where metadata.directory=false and metadata.deleted=false and (metadata.relativePath=:relativePath or metadata.relativePath like :subPaths)";
+		List<Long> filesSize = dbInstance.getCurrentEntityManager()
+			.createQuery(filesQuery, Long.class)
+			.setParameter("relativePath", relativePath)
+			.setParameter("subPaths", relativePath + "/%")
+			.getResultList();
+
+		String revisionsQuery = "select sum(rev.size) from vfsrevision rev inner join rev.metadata metadata where metadata.relativePath=:relativePath or metadata.relativePath like :subPaths";
+		List<Long> revisionsSize = dbInstance.getCurrentEntityManager()
+			.createQuery(revisionsQuery, Long.class)
+			.setParameter("relativePath", relativePath)
+			.setParameter("subPaths", relativePath + "/%")
+			.getResultList();
+		return sum(filesSize) + sum(revisionsSize);
+	}
+
+	private static long sum(List<Long> sizes) {
+		return sizes.isEmpty() || sizes.get(0) == null ? 0l : sizes.get(0).longValue();
+	}
+
 	public void increaseDownloadCount(String relativePath, String filename) {
 		String updateQuery = "update vfsmetadatadownloadcount set downloadCount=downloadCount+1 where filename=:filename and relativePath=:relativePath";
 		dbInstance.getCurrentEntityManager()
@@ -0,0 +1,281 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.modules.bc.FolderModule;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.core.util.vfs.LocalFolderImpl;
+import org.olat.core.util.vfs.NamedContainerImpl;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSManager;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The ledger holds the disk usage of the directories with a quota. The usage
+ * is calculated once by summing the sizes of the files and revisions in the
+ * metadata, then it is maintained with the changes reported by the VFS
+ * repository service (creation of the metadata, save, delete, move and
+ * revisions of files). The reconciliation job calculates again the directories
+ * which were not calculated since max. age and removes the idle ones.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class VFSQuotaUsageLedger implements GenericEventListener, InitializingBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(VFSQuotaUsageLedger.class);
+	private static final OLATResourceable quotaUsageChannel = OresHelper.createOLATResourceableType("VFSQuotaUsageLedger");
+	
+	@Value("${vfs.quota.ledger.enabled:true}")
+	private boolean enabled;
+	@Value("${vfs.quota.ledger.max.age:3600000}")
+	private long maxAge;
+	@Value("${vfs.quota.ledger.max.idle:21600000}")
+	private long maxIdle;
+	
+	private final AtomicLong numOfCalculations = new AtomicLong();
+	private final ConcurrentMap<String,QuotaUsage> usages = new ConcurrentHashMap<>();
+	
+	@Autowired
+	private FolderModule folderModule;
+	@Autowired
+	private VFSMetadataDAO metadataDao;
+	@Autowired
+	private CoordinatorManager coordinatorManager;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, quotaUsageChannel);
+	}
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	/**
+	 * [used by Spring and for the unit tests]
+	 * 
+	 * @param maxAge Max. time in milliseconds between two calculations of a directory
+	 */
+	public void setMaxAge(long maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * @return The number of directories in the ledger
+	 */
+	public int getNumOfEntries() {
+		return usages.size();
+	}
+	
+	/**
+	 * @return The number of calculations of the usage of a directory since the start
+	 */
+	public long getNumOfCalculations() {
+		return numOfCalculations.get();
+	}
+
+	@Override
+	public void event(Event event) {
+		if(event instanceof QuotaUsageEvent) {
+			QuotaUsageEvent e = (QuotaUsageEvent)event;
+			if(!e.isEventOnThisNode()) {
+				applyLocally(e.getRelativePath(), e.getDeltaBytes());
+			}
+		}
+	}
+
+	/**
+	 * Return the usage of the container in KB. The usage of a local
+	 * folder comes from the ledger, it's only calculated the first time.
+	 * The usage of the other containers is calculated.
+	 * 
+	 * @param container The container with the quota
+	 * @return The usage in KB
+	 */
+	public long getUsageKB(VFSContainer container) {
+		if(container instanceof NamedContainerImpl) {
+			container = ((NamedContainerImpl)container).getDelegate();
+		}
+		if(!enabled || !(container instanceof LocalFolderImpl)) {
+			return VFSManager.getUsageKB(container);
+		}
+		
+		File directory = ((LocalFolderImpl)container).getBasefile();
+		String relativePath = getRelativePath(directory);
+		if(relativePath == null || relativePath.isEmpty()) {
+			return VFSManager.getUsageKB(container);
+		}
+		
+		QuotaUsage usage = usages.computeIfAbsent(relativePath, QuotaUsage::new);
+		return usage.getBytes() / 1024;
+	}
+	
+	/**
+	 * Add the specified number of bytes to the usage of the directory
+	 * and all its parents.
+	 * 
+	 * @param directory The directory which content has changed
+	 * @param deltaBytes The number of bytes added, negative if removed
+	 */
+	public void addBytes(File directory, long deltaBytes) {
+		if(!enabled || deltaBytes == 0) return;
+		
+		String relativePath = getRelativePath(directory);
+		if(relativePath != null) {
+			applyLocally(relativePath, deltaBytes);
+			fireEvent(new QuotaUsageEvent(relativePath, deltaBytes));
+		}
+	}
+	
+	/**
+	 * Calculate again the directories which were not calculated since
+	 * max. age and remove the directories which were not used since
+	 * max. idle time.
+	 */
+	public void reconcile() {
+		long now = System.currentTimeMillis();
+		int reconciled = 0;
+		for(Iterator<Map.Entry<String,QuotaUsage>> it=usages.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<String,QuotaUsage> entry = it.next();
+			QuotaUsage usage = entry.getValue();
+			try {
+				if(now - usage.getLastAccess() > maxIdle) {
+					it.remove();
+				} else if(now - usage.getLastCalculation() > maxAge) {
+					usage.calculate();
+					reconciled++;
+				}
+			} catch (Exception e) {
+				log.error("Cannot reconcile quota usage of: {}", entry.getKey(), e);
+			}
+		}
+		if(reconciled > 0) {
+			log.debug("Quota usage reconciled for {} directories in {} ms", reconciled, (System.currentTimeMillis() - now));
+		}
+	}
+	
+	private void applyLocally(String relativePath, long deltaBytes) {
+		for(String path=relativePath; path != null; path=getParentPath(path)) {
+			QuotaUsage usage = usages.get(path);
+			if(usage != null) {
+				usage.add(deltaBytes);
+			}
+		}
+	}
+	
+	private void fireEvent(QuotaUsageEvent event) {
+		coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, quotaUsageChannel);
+	}
+	
+	/**
+	 * @param directory The directory
+	 * @return The path relative to the root folder, without leading and ending slash
+	 * 		or null if the directory is not in the root folder.
+	 */
+	private String getRelativePath(File directory) {
+		if(directory == null) return null;
+		
+		Path relativePath = folderModule.getCanonicalRootPath().relativize(directory.getAbsoluteFile().toPath().normalize());
+		String path = relativePath.toString().replace('\\', '/');
+		if(path.startsWith("..")) {
+			return null;
+		}
+		return path;
+	}
+	
+	private static String getParentPath(String path) {
+		if(path.isEmpty()) {
+			return null;
+		}
+		int index = path.lastIndexOf('/');
+		return index < 0 ? "" : path.substring(0, index);
+	}
+	
+	private class QuotaUsage {
+		
+		private final String relativePath;
+		private final AtomicLong bytes = new AtomicLong();
+		private volatile boolean calculated = false;
+		private volatile long lastCalculation;
+		private volatile long lastAccess;
+		
+		public QuotaUsage(String relativePath) {
+			this.relativePath = relativePath;
+			lastAccess = System.currentTimeMillis();
+		}
+		
+		public long getBytes() {
+			lastAccess = System.currentTimeMillis();
+			if(!calculated) {
+				synchronized(this) {
+					if(!calculated) {
+						calculate();
+					}
+				}
+			}
+			return Math.max(0l, bytes.get());
+		}
+		
+		public long getLastAccess() {
+			return lastAccess;
+		}
+		
+		public long getLastCalculation() {
+			return lastCalculation;
+		}
+		
+		public void add(long deltaBytes) {
+			bytes.addAndGet(deltaBytes);
+		}
+		
+		/**
+		 * The changes reported during the calculation are kept. They can be
+		 * counted twice which over-estimate the usage until the next one.
+		 */
+		public synchronized void calculate() {
+			long before = bytes.get();
+			long size = metadataDao.getUsage(relativePath);
+			bytes.addAndGet(size - before);
+			lastCalculation = System.currentTimeMillis();
+			calculated = true;
+			numOfCalculations.incrementAndGet();
+		}
+	}
+}
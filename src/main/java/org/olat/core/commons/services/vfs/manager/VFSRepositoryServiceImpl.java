@@ -48,6 +48,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.zip.Adler32;
@@ -81,6 +82,7 @@ import org.olat.core.commons.services.vfs.VFSVersionModule;
 import org.olat.core.commons.services.vfs.impl.VFSContextInfoUnknown;
 import org.olat.core.commons.services.vfs.impl.VFSContextInfoUnknownPathResolver;
 import org.olat.core.commons.services.vfs.manager.MetaInfoReader.Thumbnail;
+import org.olat.core.commons.services.vfs.manager.VFSThumbnailQueue.Priority;
 import org.olat.core.commons.services.vfs.model.VFSFileStatistics;
 import org.olat.core.commons.services.vfs.model.VFSMetadataImpl;
 import org.olat.core.commons.services.vfs.model.VFSRevisionImpl;
@@ -153,6 +155,10 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 	private CoordinatorManager coordinatorManager;
 	@Autowired
 	private BaseSecurity securityManager;
+	@Autowired
+	private VFSQuotaUsageLedger quotaUsageLedger;
+	@Autowired
+	private VFSThumbnailQueue thumbnailQueue;
 	// Autowired liste by setVfsContextInfoResolver() method
 	private List<VFSContextInfoResolver> vfsContextInfoResolver;
 	
@@ -175,9 +181,19 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		File file = toFile(event.getRelativePath(), event.getFilename());
 		if(file.exists()) {
 			try {
-				Date lastModified = new Date(file.lastModified());
-				metadataDao.updateMetadata(file.length(), lastModified, event.getRelativePath(), event.getFilename());
-				dbInstance.commit();
+				// update the metadata instance of the session, the caller which fired the event holds it
+				VFSMetadataImpl metadata = (VFSMetadataImpl)metadataDao.getMetadata(event.getRelativePath(), event.getFilename(), false);
+				if(metadata != null) {
+					long previousSize = metadata.isDeleted() ? 0l : metadata.getFileSize();
+					long size = file.length();
+					metadata.setFileSize(size);
+					metadata.setFileLastModified(new Date(file.lastModified()));
+					metadata.setDeleted(false);
+					metadataDao.updateMetadata(metadata);
+					dbInstance.commit();
+					// every node receives the event, the first one which updates the size reports the change
+					quotaUsageLedger.addBytes(file.getParentFile(), size - previousSize);
+				}
 			} catch (Exception e) {
 				log.error("Cannot update file size of: " + event.getRelativePath() + " " + event.getFilename(), e);
 			}
@@ -295,6 +311,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 			
 			VFSMetadata parent = getMetadataFor(file.getParentFile());
 			metadata = metadataDao.createMetadata(uuid, relativePath, filename, new Date(), size, directory, uri, "file", parent);
+			quotaUsageLedger.addBytes(file.getParentFile(), size);
 		} else if(file.isFile() && (file.length() != metadata.getFileSize() || !file.exists() != metadata.isDeleted())) {
 			AsyncFileSizeUpdateEvent event = new AsyncFileSizeUpdateEvent(relativePath, filename);
 			coordinatorManager.getCoordinator().getEventBus().fireEventToListenersOf(event, fileSizeSubscription);
@@ -473,11 +490,31 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		String relativePath = getContainerRelativePath(leaf);
 		Date lastModified = new Date(leaf.getLastModified());
 		boolean metadataExists = metadataDao.getMetadata(relativePath, leaf.getName(), false) != null;
-		// Ensure the existence of the matadata before the update.
+		// Ensure the existence of the matadata before the update, a new metadata counts the size in the quota usage
 		VFSMetadata vfsMetadata = getMetadataFor(leaf);
+		// the size in the quota usage is the one of the metadata, if the metadata
+		// were already created (e.g. by the upload), the delta is calculated from them
+		long countedSize = vfsMetadata == null || vfsMetadata.isDeleted() ? 0l : vfsMetadata.getFileSize();
 		Identity initializedBy = metadataExists? vfsMetadata.getFileInitializedBy(): savedBy;
-		metadataDao.updateMetadata(leaf.getSize(), lastModified, initializedBy, savedBy, relativePath, leaf.getName());
+		long size = leaf.getSize();
+		metadataDao.updateMetadata(size, lastModified, initializedBy, savedBy, relativePath, leaf.getName());
 		dbInstance.commitAndCloseSession();
+		if(vfsMetadata != null) {
+			updateQuotaUsage(leaf, size - countedSize);
+		}
+		pregenerateThumbnails(leaf, vfsMetadata);
+	}
+	
+	private void updateQuotaUsage(VFSLeaf leaf, long deltaBytes) {
+		File file = toFile(leaf);
+		if(file != null) {
+			quotaUsageLedger.addBytes(file.getParentFile(), deltaBytes);
+		}
+	}
+
+	@Override
+	public long getQuotaUsageKB(VFSContainer container) {
+		return quotaUsageLedger.getUsageKB(container);
 	}
 
 	@Override
@@ -493,6 +530,11 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		deleteThumbnailsOfMetadata(data);
 		deleteRevisionsOfMetadata(data);
 
+		File file = toFile(data);
+		if(file != null && !data.isDirectory() && !data.isDeleted()) {
+			quotaUsageLedger.addBytes(file.getParentFile(), -data.getFileSize());
+		}
+
 		data = dbInstance.getCurrentEntityManager().getReference(VFSMetadataImpl.class, data.getKey());
 		metadataDao.removeMetadata(data);
 		if(children.isEmpty()) {
@@ -511,7 +553,9 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 			File revFile = getRevisionFile(revision);
 			if(revFile != null && revFile.exists()) {
 				try {
+					long revSize = revFile.length();
 					Files.delete(revFile.toPath());
+					quotaUsageLedger.addBytes(revFile.getParentFile(), -revSize);
 				} catch (IOException e) {
 					log.error("Cannot delete revision: {}", revFile, e);
 				}
@@ -567,6 +611,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		
 		VFSMetadataImpl metadata = (VFSMetadataImpl)getMetadataFor(item);
 		if(metadata != null) { // concurrent delete possible
+			boolean alreadyDeleted = metadata.isDeleted();
 			metadata.setDeleted(true);
 			if(item instanceof VFSLeaf) {
 				VFSLeaf file = (VFSLeaf)item;
@@ -576,6 +621,10 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 				if(file.canVersion() == VFSConstants.YES) {
 					addToRevisions(file, metadata, author, false, "", true);
 				}
+				// the caller deletes the file itself
+				if(!alreadyDeleted) {
+					updateQuotaUsage(file, -metadata.getFileSize());
+				}
 			}
 			metadataDao.updateMetadata(metadata);
 		}
@@ -603,6 +652,7 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 					String relativePath = getRelativePath(targetFile.getParentFile());
 					targetMetadata = metadataDao.createMetadata(UUID.randomUUID().toString(), relativePath, targetFile.getName(),
 							new Date(), targetFile.length(), false, targetFile.toURI().toString(), "file", parentMetadata);
+					quotaUsageLedger.addBytes(targetFile.getParentFile(), targetFile.length());
 				}
 				targetMetadata.copyValues(sourceMetadata, true);
 				if(source.canVersion() == VFSConstants.YES || target.canVersion() == VFSConstants.YES) {
@@ -627,7 +677,9 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 						sourceRevision.getFileLastModifiedBy(), sourceRevision.getRevisionComment(), targetMetadata,
 						sourceRevision);
 				VFSLeaf targetRevFile = getRevisionLeaf(targetMetadata, (VFSRevisionImpl)targetRevision);
-				VFSManager.copyContent(sourceRevFile, targetRevFile, true, savedBy);
+				if(VFSManager.copyContent(sourceRevFile, targetRevFile, true, savedBy)) {
+					updateQuotaUsage(targetRevFile, targetRevision.getSize());
+				}
 			}
 		}
 		return allOk;
@@ -686,7 +738,8 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		if(relativePath != null) {
 			VFSThumbnailMetadata thumbnail = thumbnailDao.findThumbnail(relativePath, file.getName(), fill, maxWidth, maxHeight);
 			if(thumbnail == null) {
-				thumbnailLeaf = generateThumbnail(file, metadata, fill, maxWidth, maxHeight);
+				Future<VFSLeaf> future = queueThumbnail(file, metadata, relativePath, fill, maxWidth, maxHeight, Priority.REQUEST);
+				thumbnailLeaf = thumbnailQueue.await(future);
 			} else {
 				VFSItem item = parentContainer.resolve(thumbnail.getFilename());
 				if(item instanceof VFSLeaf) {
@@ -699,6 +752,19 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 
 	@Override
 	public VFSLeaf getThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill) {
+		return getThumbnail(file, maxWidth, maxHeight, fill, Priority.REQUEST);
+	}
+	
+	@Override
+	public VFSLeaf getGeneratedThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill) {
+		return getThumbnail(file, maxWidth, maxHeight, fill, Priority.DISPLAY);
+	}
+	
+	/**
+	 * @param priority REQUEST waits for the thumbnail, the other priorities only queue
+	 * 		the generation of the missing thumbnail and return null
+	 */
+	private VFSLeaf getThumbnail(VFSLeaf file, int maxWidth, int maxHeight, boolean fill, Priority priority) {
 		VFSLeaf thumbnailLeaf = null;
 		
 		VFSContainer parentContainer = getSecureParentContainer(file);
@@ -706,11 +772,15 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		if(relativePath != null) {
 			VFSThumbnailMetadata thumbnail = thumbnailDao.findThumbnail(relativePath, file.getName(), fill, maxWidth, maxHeight);
 			if(thumbnail == null) {
-				VFSMetadata metadata = metadataDao.getMetadata(relativePath, file.getName(), false);
-				if(metadata == null) {// fallback and generated the needed database entries
-					metadata = getMetadataFor(file);
+				String key = thumbnailKey(relativePath, file.getName(), fill, maxWidth, maxHeight);
+				if(priority == Priority.REQUEST || !thumbnailQueue.isPending(key)) {
+					// if the metadata are missing, the worker creates them in its own transaction
+					VFSMetadata metadata = metadataDao.getMetadata(relativePath, file.getName(), false);
+					Future<VFSLeaf> future = queueThumbnail(file, metadata, relativePath, fill, maxWidth, maxHeight, priority);
+					if(priority == Priority.REQUEST) {
+						thumbnailLeaf = thumbnailQueue.await(future);
+					}
 				}
-				thumbnailLeaf = generateThumbnail(file, metadata, fill, maxWidth, maxHeight);
 			} else {
 				VFSItem item = parentContainer.resolve(thumbnail.getFilename());
 				if(item instanceof VFSLeaf) {
@@ -724,6 +794,69 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		return thumbnailLeaf;
 	}
 	
+	@Override
+	public boolean isThumbnailPending(VFSLeaf file, int maxWidth, int maxHeight, boolean fill) {
+		String relativePath = getContainerRelativePath(file);
+		return relativePath != null
+				&& thumbnailQueue.isPending(thumbnailKey(relativePath, file.getName(), fill, maxWidth, maxHeight));
+	}
+	
+	private void pregenerateThumbnails(VFSLeaf file, VFSMetadata metadata) {
+		if(file.getName().startsWith("._oo_") || !thumbnailService.isThumbnailPossible(file)) return;
+		
+		String relativePath = getContainerRelativePath(file);
+		if(relativePath == null) return;
+		
+		for(int[] size:thumbnailQueue.getPregenerationSizes()) {
+			queueThumbnail(file, metadata, relativePath, false, size[0], size[1], Priority.PREGENERATION);
+		}
+	}
+	
+	private Future<VFSLeaf> queueThumbnail(VFSLeaf file, VFSMetadata metadata, String relativePath,
+			boolean fill, int maxWidth, int maxHeight, Priority priority) {
+		String key = thumbnailKey(relativePath, file.getName(), fill, maxWidth, maxHeight);
+		return thumbnailQueue.submit(key, file, priority,
+				() -> generateQueuedThumbnail(file, metadata, relativePath, fill, maxWidth, maxHeight));
+	}
+	
+	private String thumbnailKey(String relativePath, String filename, boolean fill, int maxWidth, int maxHeight) {
+		return relativePath + "/" + filename + "?" + fill + "_" + maxWidth + "_" + maxHeight;
+	}
+	
+	/**
+	 * Called by the workers of the thumbnail queue. The thumbnail can be generated
+	 * between the queuing and the execution of the task (by an other node or if the
+	 * queue was full), check it before. The metadata are reloaded to not merge
+	 * an outdated copy, the worker doesn't depend on the transaction of the
+	 * thread which queued the task and creates them if they are not found.
+	 */
+	private VFSLeaf generateQueuedThumbnail(VFSLeaf file, VFSMetadata metadata, String relativePath,
+			boolean fill, int maxWidth, int maxHeight) {
+		VFSThumbnailMetadata thumbnail = thumbnailDao.findThumbnail(relativePath, file.getName(), fill, maxWidth, maxHeight);
+		if(thumbnail != null) {
+			VFSItem item = getSecureParentContainer(file).resolve(thumbnail.getFilename());
+			if(item instanceof VFSLeaf) {
+				return (VFSLeaf)item;
+			}
+			thumbnailDao.removeThumbnail(thumbnail);
+			dbInstance.commit();
+		}
+		if(!file.exists()) {
+			return null;
+		}
+		VFSMetadata currentMetadata = null;
+		if(metadata != null && metadata.getKey() != null) {
+			currentMetadata = metadataDao.loadMetadata(metadata.getKey());
+		}
+		if(currentMetadata == null) {
+			currentMetadata = getMetadataFor(file);
+			if(currentMetadata == null) {
+				return null;
+			}
+		}
+		return generateThumbnail(file, currentMetadata, fill, maxWidth, maxHeight);
+	}
+	
 	private VFSLeaf generateThumbnail(VFSLeaf file, VFSMetadata metadata, boolean fill, int maxWidth, int maxHeight) {
 		String name = file.getName();
 		String thumbnailName = generateFilenameForThumbnail(name, fill, maxWidth, maxHeight);
@@ -1009,6 +1142,9 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 
 		File revFile = new File(currentFile.getParentFile(), uuid);
 		if (sameFile || copyContent(currentFile, revFile)) {
+			if(!sameFile) {
+				quotaUsageLedger.addBytes(revFile.getParentFile(), revFile.length());
+			}
 			if(pruneRevision && !tempVersion && maxNumOfVersions >= 0 && revisions.size() > maxNumOfVersions) {
 				int numOfVersionsToDelete = Math.min(revisions.size(), (revisions.size() - maxNumOfVersions));
 				if(numOfVersionsToDelete > 0) {
@@ -1103,7 +1239,10 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		for(String fileToDelete:filenamesToDelete.keySet()) {
 			try {
 				File file = new File(directory, fileToDelete);
-				Files.deleteIfExists(file.toPath());
+				long revSize = file.length();
+				if(Files.deleteIfExists(file.toPath())) {
+					quotaUsageLedger.addBytes(directory, -revSize);
+				}
 			} catch (IOException e) {
 				log.error("Cannot the version of a file", e);
 			}
@@ -1236,6 +1375,13 @@ public class VFSRepositoryServiceImpl implements VFSRepositoryService, GenericEv
 		}
 		
 		metadata = metadataDao.updateMetadata(metadata);
+		// the file and its revisions are moved
+		long movedSize = metadata.isDeleted() ? 0l : metadata.getFileSize();
+		for(VFSRevision revision:revisions) {
+			movedSize += revision.getSize();
+		}
+		quotaUsageLedger.addBytes(currentFile.getParentFile(), -movedSize);
+		quotaUsageLedger.addBytes(targetFile.getParentFile(), movedSize);
 		return metadata;
 	}
 
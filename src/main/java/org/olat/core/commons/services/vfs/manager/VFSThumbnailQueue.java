@@ -0,0 +1,392 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The queue generates the thumbnails with a limited number of workers. The
+ * tasks are ordered by priority: the thumbnails a request waits for first,
+ * then the ones displayed with a placeholder and at last the pre-generated
+ * ones. The workers reserve the estimated memory needed to decode the
+ * original file from a budget before they start, big images wait until the
+ * budget is free. Concurrent requests for the same thumbnail share the same
+ * task.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class VFSThumbnailQueue implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(VFSThumbnailQueue.class);
+	
+	private static final int ONE_MB = 1024 * 1024;
+	private static final int DEFAULT_ESTIMATE_MB = 16;
+	
+	@Value("${vfs.thumbnails.workers:2}")
+	private int workers;
+	@Value("${vfs.thumbnails.queue.size:1000}")
+	private int maxQueueSize;
+	@Value("${vfs.thumbnails.memory.budget:256}")
+	private int memoryBudgetMB;
+	@Value("${vfs.thumbnails.wait.timeout:30000}")
+	private long waitTimeout;
+	@Value("${vfs.thumbnails.pregeneration.sizes:200x200}")
+	private String pregenerationSizes;
+	
+	private ThreadPoolExecutor executor;
+	private Semaphore memoryBudget;
+	
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong generated = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong deduplicated = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final ConcurrentMap<String,ThumbnailTask> tasks = new ConcurrentHashMap<>();
+	
+	@Autowired
+	private DB dbInstance;
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		int numOfWorkers = Math.max(1, workers);
+		memoryBudget = new Semaphore(Math.max(1, memoryBudgetMB), true);
+		executor = new ThreadPoolExecutor(numOfWorkers, numOfWorkers, 0l, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<>(), new ThumbnailThreadFactory());
+		executor.prestartAllCoreThreads();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if(executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setMaxQueueSize(int maxQueueSize) {
+		this.maxQueueSize = maxQueueSize;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setMemoryBudgetMB(int memoryBudgetMB) {
+		this.memoryBudgetMB = memoryBudgetMB;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setWaitTimeout(long waitTimeout) {
+		this.waitTimeout = waitTimeout;
+	}
+	
+	/**
+	 * [used by Spring and for the unit tests]
+	 * 
+	 * @param pregenerationSizes A comma separated list of sizes, e.g. 200x200,570x570
+	 */
+	public void setPregenerationSizes(String pregenerationSizes) {
+		this.pregenerationSizes = pregenerationSizes;
+	}
+	
+	/**
+	 * @return The sizes (max. width and max. height) of the thumbnails generated after a file is saved
+	 */
+	public List<int[]> getPregenerationSizes() {
+		List<int[]> sizes = new ArrayList<>(2);
+		if(StringHelper.containsNonWhitespace(pregenerationSizes)) {
+			for(String size:pregenerationSizes.split("[,]")) {
+				String[] dimensions = size.trim().split("[xX]");
+				if(dimensions.length == 2 && StringHelper.isLong(dimensions[0]) && StringHelper.isLong(dimensions[1])) {
+					sizes.add(new int[] { Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]) });
+				}
+			}
+		}
+		return sizes;
+	}
+	
+	/**
+	 * @return The number of thumbnails queued or in generation
+	 */
+	public int getNumOfPendingTasks() {
+		return tasks.size();
+	}
+	
+	public long getNumOfGenerated() {
+		return generated.get();
+	}
+	
+	public long getNumOfFailed() {
+		return failed.get();
+	}
+	
+	/**
+	 * @return The number of requests which joined an already queued task
+	 */
+	public long getNumOfDeduplicated() {
+		return deduplicated.get();
+	}
+	
+	/**
+	 * @return The number of tasks refused because the queue was full
+	 */
+	public long getNumOfRejected() {
+		return rejected.get();
+	}
+	
+	public boolean isPending(String key) {
+		return tasks.containsKey(key);
+	}
+	
+	/**
+	 * Queue the generation of a thumbnail. If a task with the same key is
+	 * already queued, it's returned and its priority is raised if needed.
+	 * Only the tasks with the priority REQUEST are accepted if the queue
+	 * is full.
+	 * 
+	 * @param key The key which identifies the thumbnail (file and size)
+	 * @param file The original file
+	 * @param priority The priority
+	 * @param generator The generator, called in a worker thread
+	 * @return The future of the thumbnail or null if the queue is full
+	 */
+	public Future<VFSLeaf> submit(String key, VFSLeaf file, Priority priority, Callable<VFSLeaf> generator) {
+		ThumbnailTask task = new ThumbnailTask(key, priority, sequence.incrementAndGet(), file, generator);
+		ThumbnailTask existingTask = tasks.putIfAbsent(key, task);
+		if(existingTask != null) {
+			deduplicated.incrementAndGet();
+			raisePriority(existingTask, priority);
+			return existingTask;
+		}
+		
+		if(priority != Priority.REQUEST && executor.getQueue().size() >= maxQueueSize) {
+			tasks.remove(key, task);
+			rejected.incrementAndGet();
+			log.debug("Thumbnail queue full, reject: {}", key);
+			return null;
+		}
+		executor.execute(task);
+		return task;
+	}
+	
+	private void raisePriority(ThumbnailTask task, Priority priority) {
+		if(priority.ordinal() < task.getPriority().ordinal()) {
+			// the worker threads are started, the queue can be modified directly
+			if(executor.getQueue().remove(task)) {
+				task.setPriority(priority);
+				executor.getQueue().offer(task);
+			}
+		}
+	}
+	
+	/**
+	 * Wait for the thumbnail max. the configured timeout. The generation
+	 * goes on if the timeout is reached.
+	 * 
+	 * @param future The future returned by submit
+	 * @return The thumbnail or null if the generation failed or takes too long
+	 */
+	public VFSLeaf await(Future<VFSLeaf> future) {
+		if(future == null) return null;
+		
+		try {
+			return future.get(waitTimeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (TimeoutException e) {
+			log.warn("Thumbnail not generated after {} ms, queue: {}", waitTimeout, tasks.size());
+			return null;
+		} catch (ExecutionException e) {
+			log.warn("Cannot generate thumbnail", e.getCause());
+			return null;
+		}
+	}
+	
+	/**
+	 * Estimate the memory needed to decode the file. The dimensions of the images
+	 * are read from their header, the other files (PDF...) get an estimate based
+	 * on their size.
+	 * 
+	 * @param file The original file
+	 * @return The estimated memory in MB, at least 1
+	 */
+	public int estimateMemoryMB(VFSLeaf file) {
+		String suffix = FileUtils.getFileSuffix(file.getName());
+		long bytes = 0l;
+		if(StringHelper.containsNonWhitespace(suffix)) {
+			Iterator<ImageReader> readers = ImageIO.getImageReadersBySuffix(suffix.toLowerCase());
+			if(readers.hasNext()) {
+				bytes = decodedImageSize(file, readers.next());
+			}
+		}
+		if(bytes <= 0l) {
+			bytes = Math.max(DEFAULT_ESTIMATE_MB * (long)ONE_MB, file.getSize() * 4l);
+		}
+		long mb = (bytes + ONE_MB - 1) / ONE_MB;
+		return (int)Math.max(1l, Math.min(mb, Integer.MAX_VALUE));
+	}
+	
+	private long decodedImageSize(VFSLeaf file, ImageReader reader) {
+		try(InputStream in = file.getInputStream();
+				ImageInputStream stream = in == null ? null : new MemoryCacheImageInputStream(in)) {
+			if(stream == null) return 0l;
+			
+			reader.setInput(stream);
+			int index = reader.getMinIndex();
+			// 4 bytes per pixel for the original and the scaled copies
+			return 2l * 4l * reader.getWidth(index) * reader.getHeight(index);
+		} catch (IOException | RuntimeException e) {
+			log.debug("Cannot read image header: {}", file.getName());
+			return 0l;
+		} finally {
+			reader.dispose();
+		}
+	}
+	
+	private VFSLeaf generate(VFSLeaf file, Callable<VFSLeaf> generator) throws Exception {
+		int permits = Math.min(estimateMemoryMB(file), Math.max(1, memoryBudgetMB));
+		memoryBudget.acquire(permits);
+		try {
+			VFSLeaf thumbnail = generator.call();
+			dbInstance.commitAndCloseSession();
+			generated.incrementAndGet();
+			return thumbnail;
+		} catch (Exception e) {
+			dbInstance.rollbackAndCloseSession();
+			failed.incrementAndGet();
+			throw e;
+		} finally {
+			memoryBudget.release(permits);
+		}
+	}
+	
+	public enum Priority {
+		/**
+		 * A request waits for the thumbnail
+		 */
+		REQUEST,
+		/**
+		 * A placeholder is displayed until the thumbnail is ready
+		 */
+		DISPLAY,
+		/**
+		 * The thumbnail is generated in advance after a file was saved
+		 */
+		PREGENERATION
+	}
+	
+	private class ThumbnailTask extends FutureTask<VFSLeaf> implements Comparable<ThumbnailTask> {
+		
+		private final String key;
+		private final long seq;
+		private volatile Priority priority;
+		
+		public ThumbnailTask(String key, Priority priority, long seq, VFSLeaf file, Callable<VFSLeaf> generator) {
+			super(() -> VFSThumbnailQueue.this.generate(file, generator));
+			this.key = key;
+			this.seq = seq;
+			this.priority = priority;
+		}
+		
+		public Priority getPriority() {
+			return priority;
+		}
+		
+		public void setPriority(Priority priority) {
+			this.priority = priority;
+		}
+		
+		@Override
+		protected void done() {
+			tasks.remove(key, this);
+		}
+
+		@Override
+		public int compareTo(ThumbnailTask o) {
+			int c = Integer.compare(priority.ordinal(), o.priority.ordinal());
+			if(c == 0) {
+				c = Long.compare(seq, o.seq);
+			}
+			return c;
+		}
+	}
+	
+	private static class ThumbnailThreadFactory implements ThreadFactory {
+		
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "vfs-thumbnails-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			thread.setPriority(Thread.NORM_PRIORITY - 1);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.ui.media;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.olat.core.gui.media.DefaultMediaResource;
+
+/**
+ * A placeholder delivered while the thumbnail is generated. It's never
+ * cached, the browser loads the real thumbnail the next time the
+ * page is rendered.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ThumbnailPlaceholderMediaResource extends DefaultMediaResource {
+	
+	private static final byte[] PLACEHOLDER = ("<svg xmlns='http://www.w3.org/2000/svg' width='48' height='48' viewBox='0 0 48 48'>"
+			+ "<circle cx='24' cy='24' r='18' fill='none' stroke='#ccc' stroke-width='4' stroke-dasharray='84 30'>"
+			+ "<animateTransform attributeName='transform' type='rotate' from='0 24 24' to='360 24 24' dur='1.2s' repeatCount='indefinite'/>"
+			+ "</circle></svg>").getBytes(StandardCharsets.UTF_8);
+	
+	public ThumbnailPlaceholderMediaResource() {
+		setContentType("image/svg+xml");
+		setSize(Long.valueOf(PLACEHOLDER.length));
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		return new ByteArrayInputStream(PLACEHOLDER);
+	}
+}
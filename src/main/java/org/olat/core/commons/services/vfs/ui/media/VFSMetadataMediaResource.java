@@ -24,6 +24,7 @@ import org.olat.core.commons.services.vfs.VFSMetadata;
 import org.olat.core.commons.services.vfs.VFSRepositoryService;
 import org.olat.core.util.vfs.VFSItem;
 import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.core.util.vfs.VFSManager;
 import org.olat.core.util.vfs.VFSMediaResource;
 
 /**
@@ -53,4 +54,10 @@ public class VFSMetadataMediaResource extends VFSMediaResource {
 		}
 		return leaf;
 	}
+
+	@Override
+	public String getETag() {
+		VFSLeaf leaf = getLeaf();
+		return leaf == null ? null : VFSManager.getETag(metadata, leaf);
+	}
 }
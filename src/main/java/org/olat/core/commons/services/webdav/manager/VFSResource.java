@@ -19,6 +19,7 @@
  */
 package org.olat.core.commons.services.webdav.manager;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -32,6 +33,7 @@ import org.olat.core.commons.services.webdav.servlets.WebResource;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.vfs.JavaIOItem;
+import org.olat.core.util.vfs.LocalFileImpl;
 import org.olat.core.util.vfs.VFSConstants;
 import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSItem;
@@ -127,6 +129,11 @@ public class VFSResource implements WebResource {
 		return mimeType;
 	}
 
+	@Override
+	public File getLocalFile() {
+		return item instanceof LocalFileImpl ? ((LocalFileImpl)item).getBasefile() : null;
+	}
+
 	@Override
 	public InputStream getInputStream() {
 		return (item instanceof VFSLeaf ? ((VFSLeaf)item).getInputStream() : null);
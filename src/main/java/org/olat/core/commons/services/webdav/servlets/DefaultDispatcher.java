@@ -17,6 +17,7 @@
 package org.olat.core.commons.services.webdav.servlets;
 
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -39,6 +40,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.logging.log4j.Logger;
+import org.olat.core.gui.media.LocalFileDelivery;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.servlets.URLEncoder;
 
@@ -513,6 +515,9 @@ public abstract class DefaultDispatcher implements Serializable {
                         renderResult = resource.getInputStream();
                     }
                     copy(resource, renderResult, writer, encoding);
+                } else if (resource.isFile() && resource.getLocalFile() != null && contentWritten == 0) {
+                    // Output the file without copying it through the heap
+                    serveLocalFile(request, resource.getLocalFile(), 0, contentLength - 1, ostream);
                 } else {
                     // Output is via an InputStream
                     if (resource.isDirectory()) {
@@ -562,7 +567,9 @@ public abstract class DefaultDispatcher implements Serializable {
                     } catch (IllegalStateException e) {
                         // Silent catch
                     }
-                    if (ostream != null) {
+                    if (ostream != null && resource.getLocalFile() != null) {
+                        serveLocalFile(request, resource.getLocalFile(), range.start, range.end, ostream);
+                    } else if (ostream != null) {
                         copy(resource, ostream, range);
                     } else {
                         // we should not get here
@@ -968,6 +975,31 @@ public abstract class DefaultDispatcher implements Serializable {
     }
 
 
+    /**
+     * Send a range of a file of the local file system. The servlet container
+     * sends it itself if it supports sendfile, else the file is transferred
+     * with a file channel.
+     *
+     * @param request   The servlet request we are processing
+     * @param file      The file
+     * @param start     Start of the range
+     * @param end       End of the range (inclusive)
+     * @param ostream   The output stream to write to
+     *
+     * @exception IOException if an input/output error occurs
+     */
+    private void serveLocalFile(HttpServletRequest request, File file,
+                      long start, long end, ServletOutputStream ostream)
+        throws IOException {
+
+        if (LocalFileDelivery.canSendfile(request, end - start + 1)) {
+            LocalFileDelivery.sendfile(request, file, start, end);
+        } else {
+            LocalFileDelivery.transfer(file, start, end, ostream);
+        }
+    }
+
+
     /**
      * Copy the contents of the specified input stream to the specified
      * output stream, and ensure that both streams are closed before returning
@@ -1088,27 +1120,35 @@ public abstract class DefaultDispatcher implements Serializable {
         throws IOException {
 
         IOException exception = null;
+        File localFile = resource.getLocalFile();
 
         while ( (exception == null) && (ranges.hasNext()) ) {
 
-            InputStream resourceInputStream = resource.getInputStream();
-            try (InputStream istream = new BufferedInputStream(resourceInputStream, input)) {
+            Range currentRange = ranges.next();
 
-                Range currentRange = ranges.next();
+            // Writing MIME header.
+            ostream.println();
+            ostream.println("--" + mimeSeparation);
+            if (contentType != null)
+                ostream.println("Content-Type: " + contentType);
+            ostream.println("Content-Range: bytes " + currentRange.start
+                           + "-" + currentRange.end + "/"
+                           + currentRange.length);
+            ostream.println();
 
-                // Writing MIME header.
-                ostream.println();
-                ostream.println("--" + mimeSeparation);
-                if (contentType != null)
-                    ostream.println("Content-Type: " + contentType);
-                ostream.println("Content-Range: bytes " + currentRange.start
-                               + "-" + currentRange.end + "/"
-                               + currentRange.length);
-                ostream.println();
-
-                // Printing content
-                exception = copyRange(istream, ostream, currentRange.start,
-                                      currentRange.end);
+            // Printing content
+            if (localFile != null) {
+                try {
+                    LocalFileDelivery.transfer(localFile, currentRange.start, currentRange.end, ostream);
+                } catch (IOException e) {
+                    exception = e;
+                }
+            } else {
+                InputStream resourceInputStream = resource.getInputStream();
+                try (InputStream istream = new BufferedInputStream(resourceInputStream, input)) {
+                    exception = copyRange(istream, ostream, currentRange.start,
+                                          currentRange.end);
+                }
             }
         }
 
@@ -16,6 +16,7 @@
  */
 package org.olat.core.commons.services.webdav.servlets;
 
+import java.io.File;
 import java.io.InputStream;
 
 /**
@@ -85,6 +86,14 @@ public interface WebResource {
      */
     String getMimeType();
 
+    /**
+     * @return The file of the local file system which holds the unchanged
+     *          content of this resource, or <code>null</code>
+     */
+    default File getLocalFile() {
+        return null;
+    }
+
     /**
      * Obtain an InputStream based on the contents of this resource.
      *
@@ -36,6 +36,7 @@ import org.olat.core.gui.components.table.TableDataModel;
 public abstract class DefaultFlexiTableDataModel<U> implements FlexiTableDataModel<U>, TableDataModel<U> {
 	private List<U> rows;
 	private FlexiTableColumnModel columnModel;
+	private FlexiTableSortKeyCache sortKeyCache;
 	
 	public DefaultFlexiTableDataModel(FlexiTableColumnModel columnModel) {
 		rows = new ArrayList<>();
@@ -67,6 +68,19 @@ public abstract class DefaultFlexiTableDataModel<U> implements FlexiTableDataMod
 	@Override
 	public void setObjects(List<U> objects) {
 		this.rows = new ArrayList<>(objects);
+		if(sortKeyCache != null) {
+			sortKeyCache.clear();
+		}
+	}
+	
+	/**
+	 * @return The cache of the sort keys of this model, created on demand
+	 */
+	public FlexiTableSortKeyCache getSortKeyCache() {
+		if(sortKeyCache == null) {
+			sortKeyCache = new FlexiTableSortKeyCache();
+		}
+		return sortKeyCache;
 	}
 	
 	@Override
@@ -20,6 +20,7 @@
 package org.olat.core.gui.components.form.flexible.impl.elements.table;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,17 +38,28 @@ import org.olat.core.gui.components.table.TableDataModel;
  * 
  * Don't forget to implement the getObject(int row, int col) method :-)
  * 
+ * The model can be virtualized with a row budget: only the rows around the
+ * current page are held, the others are released and loaded again on demand.
+ * A prefetch size loads the following rows with the current page, and a
+ * FlexiTableKeysetDataSourceDelegate continues a page after the last loaded
+ * row instead of using an offset.
+ * 
  * Initial date: 30.04.2013<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  * @param <U>
  */
 public abstract class DefaultFlexiTableDataSourceModel<U> implements FlexiTableDataSource<U>, TableDataModel<U> {
+	
+	public static final int DEFAULT_ROW_BUDGET = 200;
+	
 	private List<U> rows;
 	private FlexiTableColumnModel columnModel;
 	private FlexiTableDataSourceDelegate<U> sourceDelegate;
 	
 	private int rowCount;
+	private int rowBudget = -1;
+	private int prefetchSize = 0;
 	
 	public DefaultFlexiTableDataSourceModel(FlexiTableDataSourceDelegate<U> sourceDelegate, FlexiTableColumnModel columnModel) {
 		this.rows = new ArrayList<>(100);
@@ -105,6 +117,36 @@ public abstract class DefaultFlexiTableDataSourceModel<U> implements FlexiTableD
 		return nextObject;
 	}
 	
+	/**
+	 * Return the objects at the specified indexes and load the missing
+	 * ones page by page. The objects are collected before the next page
+	 * is loaded, the row budget cannot release them.
+	 * 
+	 * @param rowIndexes The indexes of the rows
+	 * @param tableEl The table element to load the pages
+	 * @return A list of objects in the order of the indexes
+	 */
+	public List<U> getObjects(Collection<Integer> rowIndexes, FlexiTableElement tableEl) {
+		List<Integer> sortedIndexes = new ArrayList<>(rowIndexes);
+		sortedIndexes.sort(null);
+		
+		List<U> objects = new ArrayList<>(sortedIndexes.size());
+		for(Integer rowIndex:sortedIndexes) {
+			int index = rowIndex.intValue();
+			if(index < 0 || index >= getRowCount()) {
+				continue;
+			}
+			if(!isRowLoaded(index)) {
+				tableEl.preloadPageOfObjectIndex(index);
+			}
+			U object = getObject(index);
+			if(object != null) {
+				objects.add(object);
+			}
+		}
+		return objects;
+	}
+	
 	public int getIndexOfObject(U object) {
 		if(object != null && rows != null) {
 			return rows.indexOf(object);
@@ -124,6 +166,48 @@ public abstract class DefaultFlexiTableDataSourceModel<U> implements FlexiTableD
 		return rows;
 	}
 	
+	/**
+	 * @return The number of rows currently held by the model
+	 */
+	public int getNumOfLoadedRows() {
+		int count = 0;
+		if(rows != null) {
+			for(U row:rows) {
+				if(row != null) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+	
+	public int getRowBudget() {
+		return rowBudget;
+	}
+
+	/**
+	 * The maximum number of rows held by the model after a page was loaded.
+	 * The rows far away of the current page are released. A full load
+	 * (export, select all) is not limited.
+	 * 
+	 * @param rowBudget The number of rows or -1 for no limit
+	 */
+	public void setRowBudget(int rowBudget) {
+		this.rowBudget = rowBudget;
+	}
+
+	public int getPrefetchSize() {
+		return prefetchSize;
+	}
+
+	/**
+	 * @param prefetchSize The number of rows loaded after the requested page
+	 * 		if the page needs to be loaded
+	 */
+	public void setPrefetchSize(int prefetchSize) {
+		this.prefetchSize = prefetchSize;
+	}
+	
 	@Override
 	public void setObjects(List<U> objects) {
 		this.rows = new ArrayList<>(objects);
@@ -196,7 +280,7 @@ public abstract class DefaultFlexiTableDataSourceModel<U> implements FlexiTableD
 
 		if(!force && !rows.isEmpty()) {
 			correctMaxResults = maxResults <= 0 ? rowCount : maxResults;
-			int maxRowsResults = maxResults <= 0 ? (rowCount - firstResult) : maxResults;
+			int maxRowsResults = maxResults <= 0 ? rowCount : (firstResult + maxResults);
 			for(int i=firstResult; i<maxRowsResults && i<rows.size(); i++) {
 				if(rows.get(i) == null) {
 					break;
@@ -206,12 +290,28 @@ public abstract class DefaultFlexiTableDataSourceModel<U> implements FlexiTableD
 				}
 			}
 			//check if all datas are loaded
-			if(correctMaxResults == 0) {
-				return new DefaultResultInfos<>(rowCount, rowCount, rows); 
+			if(correctMaxResults == 0 || (rowCount > 0 && correctedFirstResult >= rowCount)) {
+				if(maxResults > 0) {
+					applyRowBudget(firstResult, maxResults);
+				}
+				return new DefaultResultInfos<>(rowCount, rowCount, rows);
 			}
 		}
 		
-		ResultInfos<U> newRows = sourceDelegate.getRows(query, filters, addQueries, correctedFirstResult, correctMaxResults, orderBy);
+		if(!force && prefetchSize > 0 && maxResults > 0) {
+			correctMaxResults += prefetchSize;
+		}
+		
+		ResultInfos<U> newRows;
+		if(correctedFirstResult > 0 && isRowLoaded(correctedFirstResult - 1)
+				&& sourceDelegate instanceof FlexiTableKeysetDataSourceDelegate
+				&& ((FlexiTableKeysetDataSourceDelegate<U>)sourceDelegate).isKeysetPagingSupported(orderBy)) {
+			U previousRow = rows.get(correctedFirstResult - 1);
+			newRows = ((FlexiTableKeysetDataSourceDelegate<U>)sourceDelegate)
+					.getRowsAfter(previousRow, query, filters, addQueries, correctMaxResults, orderBy);
+		} else {
+			newRows = sourceDelegate.getRows(query, filters, addQueries, correctedFirstResult, correctMaxResults, orderBy);
+		}
 		if(firstResult == 0) {
 			if(newRows.getObjects().size() < correctMaxResults) {
 				rowCount = newRows.getObjects().size();
@@ -235,9 +335,34 @@ public abstract class DefaultFlexiTableDataSourceModel<U> implements FlexiTableD
 				rows.add(newRows.getObjects().get(i));
 			}
 		}
+		if(maxResults > 0) {
+			applyRowBudget(firstResult, maxResults);
+		}
 		return new DefaultResultInfos<>(newRows.getNextFirstResult(), newRows.getCorrectedRowCount(), rows);
 	}
 	
+	/**
+	 * Release the rows outside of a window around the requested page
+	 * to hold at most the number of rows of the budget.
+	 * 
+	 * @param firstResult The first row of the requested page
+	 * @param maxResults The size of the requested page
+	 */
+	private void applyRowBudget(int firstResult, int maxResults) {
+		if(rowBudget <= 0 || rows.size() <= rowBudget) return;
+		
+		int windowSize = Math.min(rowBudget, maxResults + prefetchSize);
+		int margin = (rowBudget - windowSize) / 2;
+		int keepFrom = Math.max(0, firstResult - margin);
+		int keepTo = Math.min(rows.size(), firstResult + windowSize + margin);
+		for(int i=0; i<keepFrom; i++) {
+			rows.set(i, null);
+		}
+		if(keepTo < rows.size()) {
+			rows.subList(keepTo, rows.size()).clear();
+		}
+	}
+	
 	@Override
 	public FlexiTableColumnModel getTableColumnModel() {
 		return columnModel;
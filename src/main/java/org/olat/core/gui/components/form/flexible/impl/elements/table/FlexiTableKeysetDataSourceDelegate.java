@@ -0,0 +1,56 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components.form.flexible.impl.elements.table;
+
+import java.util.List;
+
+import org.olat.core.commons.persistence.ResultInfos;
+import org.olat.core.commons.persistence.SortKey;
+import org.olat.core.gui.components.form.flexible.elements.FlexiTableFilter;
+
+/**
+ * A data source which can continue a page after the last loaded row
+ * (keyset paging) instead of counting and skipping the rows before with
+ * an offset. The model uses it every time the row just before the requested
+ * page is already loaded, the offset paging stays the fallback for random
+ * access to a page.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface FlexiTableKeysetDataSourceDelegate<V> extends FlexiTableDataSourceDelegate<V> {
+	
+	/**
+	 * @param orderBy The current sort order
+	 * @return true if the rows can be loaded with getRowsAfter with this sort order
+	 */
+	public boolean isKeysetPagingSupported(SortKey... orderBy);
+	
+	/**
+	 * Load the rows which follow the specified row in the current sort order.
+	 * 
+	 * @param previousRow The last row before the requested page
+	 * @param maxResults The number of rows to load or -1 for all the remaining rows
+	 * @return The rows following the previous row, the next first result is not used
+	 */
+	public ResultInfos<V> getRowsAfter(V previousRow, String query, List<FlexiTableFilter> filters, List<String> condQueries, int maxResults, SortKey... orderBy);
+
+}
@@ -0,0 +1,71 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components.form.flexible.impl.elements.table;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cache of the collation keys of the strings sorted in a table. The key only
+ * depends on the string and the locale, the cache can be reused by every
+ * column sorted with the same rows. It's emptied when the rows of the table
+ * model are set, if the locale changes or if it holds too many strings
+ * compared to the number of rows.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class FlexiTableSortKeyCache {
+	
+	private static final int MAX_KEYS_PER_ROW = 4;
+	
+	private Locale locale;
+	private final Map<String,CollationKey> collationKeys = new HashMap<>();
+	
+	/**
+	 * Prepare the cache for a sort.
+	 * 
+	 * @param sortLocale The locale of the collator
+	 * @param rowCount The number of rows to sort
+	 */
+	public synchronized void prepare(Locale sortLocale, int rowCount) {
+		if(locale == null || !locale.equals(sortLocale)
+				|| collationKeys.size() > Math.max(1024, rowCount * MAX_KEYS_PER_ROW)) {
+			collationKeys.clear();
+			locale = sortLocale;
+		}
+	}
+	
+	public synchronized CollationKey getCollationKey(String value, Collator collator) {
+		return collationKeys.computeIfAbsent(value, collator::getCollationKey);
+	}
+	
+	public synchronized int size() {
+		return collationKeys.size();
+	}
+	
+	public synchronized void clear() {
+		collationKeys.clear();
+	}
+}
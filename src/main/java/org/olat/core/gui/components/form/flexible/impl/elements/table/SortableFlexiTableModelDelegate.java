@@ -22,6 +22,7 @@ package org.olat.core.gui.components.form.flexible.impl.elements.table;
 import java.sql.Timestamp;
 import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -34,6 +35,10 @@ import org.olat.core.commons.persistence.SortKey;
  * Replicate the same mechanism as in the TableController but
  * as delegate.
  * 
+ * The default sort extracts the value of the column once per row and converts
+ * it to a sort key (collation key for the strings, time for the dates), then
+ * the rows are sorted by these keys. The collation keys are cached by
+ * the table model if it's a DefaultFlexiTableDataModel.
  * 
  * Initial date: 11.02.2014<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
@@ -41,9 +46,15 @@ import org.olat.core.commons.persistence.SortKey;
  */
 public class SortableFlexiTableModelDelegate<T> {
 	
+	/**
+	 * Number of rows above which the sort runs in parallel
+	 */
+	public static final int PARALLEL_SORT_THRESHOLD = 8192;
+	
 	private boolean asc;
 	private int columnIndex;
 	private final SortKey orderBy;
+	private final Locale locale;
 	private final Collator collator; 
 	private final SortableFlexiTableDataModel<T> tableModel;
 	
@@ -59,11 +70,8 @@ public class SortableFlexiTableModelDelegate<T> {
 			asc = orderBy == null || orderBy.isAsc();
 		}
 		
-		if (locale != null) {
-			collator = Collator.getInstance(locale);
-		} else {
-			collator = Collator.getInstance();
-		}
+		this.locale = locale == null ? Locale.getDefault() : locale;
+		collator = Collator.getInstance(this.locale);
 	}
 	
 	public int getColumnIndex() {
@@ -104,7 +112,56 @@ public class SortableFlexiTableModelDelegate<T> {
 	}
 	
 	protected void sort(List<T> rows) {
-		Collections.sort(rows, new DefaultComparator());
+		int size = rows.size();
+		if(size < 2) return;
+		
+		FlexiTableSortKeyCache cache = null;
+		if(tableModel instanceof DefaultFlexiTableDataModel) {
+			cache = ((DefaultFlexiTableDataModel<?>)tableModel).getSortKeyCache();
+			cache.prepare(locale, size);
+		}
+		
+		List<SortKeyRow<T>> keyedRows = new ArrayList<>(size);
+		for(T row:rows) {
+			Object value = tableModel.getValueAt(row, columnIndex);
+			keyedRows.add(new SortKeyRow<>(row, value, getSortKey(value, cache)));
+		}
+		
+		@SuppressWarnings("unchecked")
+		SortKeyRow<T>[] keyedRowsArray = keyedRows.toArray(new SortKeyRow[size]);
+		if(size >= PARALLEL_SORT_THRESHOLD) {
+			Arrays.parallelSort(keyedRowsArray, new SortKeyComparator());
+		} else {
+			Arrays.sort(keyedRowsArray, new SortKeyComparator());
+		}
+		for(int i=0; i<size; i++) {
+			rows.set(i, keyedRowsArray[i].getRow());
+		}
+	}
+	
+	/**
+	 * Convert the value of a cell in a key which can be compared cheaply.
+	 * 
+	 * @param value The value of the cell
+	 * @param cache A cache for the collation keys (optional)
+	 * @return The collation key for strings, the time for the dates, the value
+	 * 		itself for comparables or its string representation
+	 */
+	protected final Object getSortKey(Object value, FlexiTableSortKeyCache cache) {
+		if(value == null) {
+			return null;
+		}
+		if(value instanceof String) {
+			String string = (String)value;
+			return cache == null ? collator.getCollationKey(string) : cache.getCollationKey(string, collator);
+		}
+		if(value instanceof Date) {
+			return Long.valueOf(((Date)value).getTime());
+		}
+		if(value instanceof Comparable) {
+			return value;
+		}
+		return value.toString();
 	}
 	
 	private static final FlexiColumnModel getColumnModel(String orderBy, FlexiTableColumnModel columnModel) {
@@ -182,6 +239,79 @@ public class SortableFlexiTableModelDelegate<T> {
 		return ba? (bb? 0: -1):(bb? 1: 0);
 	}
 	
+	/**
+	 * Compare two values of the column with the default order.
+	 */
+	protected final int compareValues(Object val1, Object val2) {
+		if (val1 == null || val2 == null) {
+			return compareNullObjects(val1, val2);
+		}
+		if (val1 instanceof String && val2 instanceof String) {
+			return collator.compare(val1, val2);
+		}
+		if(val1 instanceof Date && val2 instanceof Date) {
+			return compareDateAndTimestamps((Date)val1, (Date)val2);
+		}
+		if (val1 instanceof Comparable && val2 instanceof Comparable) {
+			@SuppressWarnings("rawtypes")
+			Comparable c1 = (Comparable)val1;
+			@SuppressWarnings("rawtypes")
+			Comparable c2 = (Comparable)val2;
+			@SuppressWarnings("unchecked")
+			int s = c1.compareTo(c2);
+			return s;
+		}
+		return val1.toString().compareTo(val2.toString());
+	}
+	
+	private static class SortKeyRow<U> {
+		
+		private final U row;
+		private final Object value;
+		private final Object sortKey;
+		
+		public SortKeyRow(U row, Object value, Object sortKey) {
+			this.row = row;
+			this.value = value;
+			this.sortKey = sortKey;
+		}
+		
+		public U getRow() {
+			return row;
+		}
+		
+		public Object getValue() {
+			return value;
+		}
+		
+		public Object getSortKey() {
+			return sortKey;
+		}
+	}
+	
+	/**
+	 * Null first, then the keys of the same type with their natural order. Keys
+	 * of different types are compared with the values of the column like the
+	 * default comparator does.
+	 */
+	private class SortKeyComparator implements Comparator<SortKeyRow<T>> {
+
+		@Override
+		public int compare(SortKeyRow<T> r1, SortKeyRow<T> r2) {
+			Object k1 = r1.getSortKey();
+			Object k2 = r2.getSortKey();
+			if(k1 == null || k2 == null) {
+				return compareNullObjects(k1, k2);
+			}
+			if(k1.getClass() == k2.getClass()) {
+				@SuppressWarnings("unchecked")
+				Comparable<Object> c1 = (Comparable<Object>)k1;
+				return c1.compareTo(k2);
+			}
+			return compareValues(r1.getValue(), r2.getValue());
+		}
+	}
+	
 	public class ReverseComparator implements Comparator<T> {
 		
 		private final Comparator<T> delegate;
@@ -202,26 +332,7 @@ public class SortableFlexiTableModelDelegate<T> {
 		public int compare(T t1, T t2) {
 			Object val1 = tableModel.getValueAt(t1, columnIndex);
 			Object val2 = tableModel.getValueAt(t2, columnIndex);
-			
-			if (val1 == null || val2 == null) {
-				return compareNullObjects(val1, val2);
-			}
-			if (val1 instanceof String && val2 instanceof String) {
-				return collator.compare(val1, val2);
-			}
-			if(val1 instanceof Date && val2 instanceof Date) {
-				return compareDateAndTimestamps((Date)val1, (Date)val2);
-			}
-			if (val1 instanceof Comparable && val2 instanceof Comparable) {
-				@SuppressWarnings("rawtypes")
-				Comparable c1 = (Comparable)val1;
-				@SuppressWarnings("rawtypes")
-				Comparable c2 = (Comparable)val2;
-				@SuppressWarnings("unchecked")
-				int s = c1.compareTo(c2);
-				return s;
-			}
-			return val1.toString().compareTo(val2.toString());
+			return compareValues(val1, val2);
 		}
 	}
 }
\ No newline at end of file
@@ -136,6 +136,11 @@ public class FileMediaResource implements MediaResource {
 		return Long.valueOf(file.lastModified());
 	}
 
+	@Override
+	public File getLocalFile() {
+		return file;
+	}
+
 	@Override
 	public void release() {
 		// void
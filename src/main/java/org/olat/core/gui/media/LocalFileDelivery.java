@@ -0,0 +1,112 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.media;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Deliver files of the local file system without copying them through
+ * a byte array on the heap. If the servlet container supports it (Tomcat
+ * with the NIO / NIO2 / APR connectors), the file is handed to the container
+ * which sends it with sendfile after the servlet returns. Else the file is
+ * transferred with a FileChannel.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LocalFileDelivery {
+	
+	public static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+	public static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+	public static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+	public static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+	
+	/**
+	 * Under this size, writing the file directly is cheaper (same as
+	 * the default of the DefaultServlet of Tomcat).
+	 */
+	private static final long SENDFILE_MIN_SIZE = 48l * 1024l;
+	
+	private LocalFileDelivery() {
+		//
+	}
+	
+	/**
+	 * @param request The request
+	 * @param length The number of bytes to send
+	 * @return true if the servlet container can send the file itself
+	 */
+	public static boolean canSendfile(HttpServletRequest request, long length) {
+		return length >= SENDFILE_MIN_SIZE
+				&& Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR));
+	}
+	
+	/**
+	 * Let the servlet container send the range of the file. The content
+	 * length must be set and nothing must be written in the response.
+	 * 
+	 * @param request The request
+	 * @param file The file
+	 * @param start The first byte
+	 * @param end The last byte (inclusive)
+	 */
+	public static void sendfile(HttpServletRequest request, File file, long start, long end) {
+		request.setAttribute(SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+		request.setAttribute(SENDFILE_START_ATTR, Long.valueOf(start));
+		request.setAttribute(SENDFILE_END_ATTR, Long.valueOf(end + 1));
+	}
+	
+	/**
+	 * Transfer the range of the file to the output stream with a FileChannel
+	 * which starts at the right position, instead of skipping the bytes of
+	 * an input stream. The output stream is not closed.
+	 * 
+	 * @param file The file
+	 * @param start The first byte
+	 * @param end The last byte (inclusive)
+	 * @param out The output stream
+	 * @return The number of bytes transferred
+	 * @throws IOException
+	 */
+	public static long transfer(File file, long start, long end, OutputStream out) throws IOException {
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			WritableByteChannel target = Channels.newChannel(out);
+			long last = Math.min(end + 1, channel.size());
+			long position = start;
+			while(position < last) {
+				long transferred = channel.transferTo(position, last - position, target);
+				if(transferred <= 0) {
+					break;// the file was truncated
+				}
+				position += transferred;
+			}
+			return position - start;
+		}
+	}
+}
@@ -26,6 +26,7 @@
 
 package org.olat.core.gui.media;
 
+import java.io.File;
 import java.io.InputStream;
 
 import javax.servlet.http.HttpServletResponse;
@@ -57,6 +58,24 @@ public interface MediaResource {
 	 */
 	public Long getLastModified();
 	
+	/**
+	 * @return A strong entity tag for the content or null if not available
+	 */
+	public default String getETag() {
+		return null;
+	}
+	
+	/**
+	 * The file is delivered without going through the input stream, the
+	 * resource must deliver the content of the file unchanged and must not
+	 * delete it in release().
+	 * 
+	 * @return The file on the local file system or null
+	 */
+	public default File getLocalFile() {
+		return null;
+	}
+	
 	/**
 	 * 
 	 * @return The cache duration in seconds. If 0, all the headers
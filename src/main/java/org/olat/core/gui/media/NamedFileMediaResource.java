@@ -85,6 +85,12 @@ public class NamedFileMediaResource extends FileMediaResource {
 		hres.setHeader("Content-Description", StringHelper.urlEncodeUTF8(fileDescription));
 	}
 
+	@Override
+	public File getLocalFile() {
+		// a file deleted after delivery cannot be sent by the servlet container
+		return deleteAfterDelivery ? null : file;
+	}
+
 	@Override
 	public void release() {
 		if (deleteAfterDelivery && file.exists()) {
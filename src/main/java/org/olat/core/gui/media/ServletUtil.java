@@ -28,6 +28,7 @@ package org.olat.core.gui.media;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -140,15 +141,27 @@ public class ServletUtil {
 	public static void serveResource(HttpServletRequest httpReq, HttpServletResponse httpResp, MediaResource mr) {
 		boolean debug = log.isDebugEnabled();
 		try {
-			Long lastModified = mr.getLastModified();
-			if (lastModified != null) {
-				// give browser a chance to cache images
-				long ifModifiedSince = httpReq.getDateHeader("If-Modified-Since");
-				long lastMod = lastModified.longValue();
-				if (ifModifiedSince >= (lastMod / 1000L) * 1000L) {
+			String eTag = mr.getETag();
+			String ifNoneMatch = httpReq.getHeader("If-None-Match");
+			if (eTag != null) {
+				httpResp.setHeader("ETag", eTag);
+				if (ifNoneMatch != null && matchETag(ifNoneMatch, eTag)) {
 					httpResp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
 					return;
 				}
+			}
+			
+			Long lastModified = mr.getLastModified();
+			if (lastModified != null) {
+				// give browser a chance to cache images, If-None-Match has precedence
+				if (eTag == null || ifNoneMatch == null) {
+					long ifModifiedSince = httpReq.getDateHeader("If-Modified-Since");
+					long lastMod = lastModified.longValue();
+					if (ifModifiedSince >= (lastMod / 1000L) * 1000L) {
+						httpResp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+						return;
+					}
+				}
 				httpResp.setDateHeader("Last-Modified", lastModified.longValue());
 			}
 
@@ -160,7 +173,7 @@ public class ServletUtil {
 				if (mime != null) {
 					httpResp.setContentType(mime);
 				}
-				serveFullResource(httpReq, httpResp, mr);
+				serveFullResource(httpReq, httpResp, mr, eTag);
 			}
 			
 			// else there is no stream, but probably just headers
@@ -195,7 +208,29 @@ public class ServletUtil {
 		return false;
 	}
 	
-	private static void serveFullResource(HttpServletRequest httpReq, HttpServletResponse httpResp,  MediaResource mr) {
+	/**
+	 * @param ifNoneMatch The value of the If-None-Match header
+	 * @param eTag The entity tag of the resource
+	 * @return true if one of the tags match (weak comparison)
+	 */
+	protected static boolean matchETag(String ifNoneMatch, String eTag) {
+		if ("*".equals(ifNoneMatch.trim())) {
+			return true;
+		}
+		String opaqueTag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+		for (StringTokenizer tokenizer = new StringTokenizer(ifNoneMatch, ","); tokenizer.hasMoreTokens(); ) {
+			String tag = tokenizer.nextToken().trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals(opaqueTag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static void serveFullResource(HttpServletRequest httpReq, HttpServletResponse httpResp,  MediaResource mr, String eTag) {
 		boolean debug = log.isDebugEnabled();
 		
 		InputStream in = null;
@@ -209,7 +244,7 @@ public class ServletUtil {
 			Long size = mr.getSize();
 			Long lastModified = mr.getLastModified();
 			// accept range to deliver videos for iPad (implementation based on Tomcat)
-			List<Range> ranges = parseRange(httpReq, httpResp, (lastModified == null ? -1 : lastModified.longValue()), (size == null ? 0 : size.longValue()));
+			List<Range> ranges = parseRange(httpReq, httpResp, (lastModified == null ? -1 : lastModified.longValue()), (size == null ? 0 : size.longValue()), eTag);
 			if(ranges != null && mr.acceptRanges()) {
 				httpResp.setHeader("Accept-Ranges", "bytes");
 			}
@@ -217,6 +252,12 @@ public class ServletUtil {
 			// maybe some more preparations
 			mr.prepare(httpResp);
 			
+			File localFile = Settings.isDebuging() ? null : mr.getLocalFile();
+			if (localFile != null && localFile.isFile()) {
+				serveLocalFile(httpReq, httpResp, localFile, ranges);
+				return;
+			}
+			
 			in = mr.getInputStream();
 
 			// serve the Resource
@@ -272,6 +313,48 @@ public class ServletUtil {
 		}
 	}
 	
+	/**
+	 * Deliver the file without copying it in the heap, the servlet container sends it
+	 * if it supports sendfile, else it's transferred with a file channel.
+	 */
+	private static void serveLocalFile(HttpServletRequest httpReq, HttpServletResponse httpResp, File file, List<Range> ranges)
+	throws IOException {
+		if (httpResp.isCommitted()) {
+			return;// range not satisfiable
+		}
+		
+		long start = 0;
+		long end = file.length() - 1;
+		boolean partial = ranges != null && ranges.size() == 1;
+		if (partial) {
+			Range range = ranges.get(0);
+			httpResp.addHeader("Content-Range", "bytes " + range.start + "-" + range.end + "/" + range.length);
+			httpResp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			start = range.start;
+			end = range.end;
+		}
+		
+		long length = end - start + 1;
+		httpResp.setContentLengthLong(length);
+		if (length <= 0) {
+			return;
+		}
+		
+		if (LocalFileDelivery.canSendfile(httpReq, length)) {
+			LocalFileDelivery.sendfile(httpReq, file, start, end);
+		} else if (partial) {
+			SessionStatsManager stats = CoreSpringFactory.getImpl(SessionStatsManager.class);
+			try {
+				stats.incrementConcurrentStreamCounter();
+				LocalFileDelivery.transfer(file, start, end, httpResp.getOutputStream());
+			} finally {
+				stats.decrementConcurrentStreamCounter();
+			}
+		} else {
+			LocalFileDelivery.transfer(file, start, end, httpResp.getOutputStream());
+		}
+	}
+	
 	public static final void handleIOException(String msg, Exception e) {
 		try {
 			String className = e.getClass().getSimpleName();
@@ -338,12 +421,17 @@ public class ServletUtil {
 		return exception;
 	}
 
-	protected static List<Range> parseRange(HttpServletRequest request, HttpServletResponse response, long lastModified, long fileLength)
+	protected static List<Range> parseRange(HttpServletRequest request, HttpServletResponse response, long lastModified, long fileLength, String eTag)
 			throws IOException {
 		
 		String headerValue = request.getHeader("If-Range");
 
-    if (headerValue != null) {
+    if (headerValue != null && (headerValue.startsWith("\"") || headerValue.startsWith("W/"))) {
+        // If-Range with an entity tag, only a strong tag can match
+        if (eTag == null || eTag.startsWith("W/") || !eTag.equals(headerValue.trim())) {
+            return Collections.emptyList();
+        }
+    } else if (headerValue != null) {
         long headerValueTime = (-1L);
         try {
           headerValueTime = request.getDateHeader("If-Range");
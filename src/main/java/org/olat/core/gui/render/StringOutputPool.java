@@ -19,14 +19,21 @@
  */
 package org.olat.core.gui.render;
 
-import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * the pool is based on the implementation of Slobodan Celenkovic:<br/>
+ * A striped pool of string outputs organized in size classes. The class
+ * of a buffer is the largest power of 4 (starting at 256 characters) which
+ * is lower or equal to its capacity, an allocation looks in the class of the
+ * requested size and in the next bigger one.<br>
+ * The small classes are striped by thread to prevent contention between the
+ * rendering threads, every slot is taken and given back with a compare and set,
+ * no lock is needed. The buffers of the classes from 16K characters are held by
+ * soft references, the classes from 256K characters are shared between all
+ * threads and have only a few slots.<br>
+ * The first version of the pool was based on the implementation of Slobodan Celenkovic:<br/>
  * http://www.jroller.com/slobodan/date/20050309<br/>
  * 
  * Initial date: 10.01.2013<br>
@@ -35,102 +42,170 @@ import java.util.List;
  */
 public class StringOutputPool {
 
-	/** Max pool size */
-  protected final static int MAX_STR_BUILDER_POOL_SIZE = 50;
-
-  /** General purpose pool for StringBuilder instances. */
-  private static List<Reference<StringOutput>> stringBuilders = new ArrayList<>(MAX_STR_BUILDER_POOL_SIZE+1);
-
-  /** Auxiliary pool for small size builders. It is a simple sparse array with
-      elements not sorted. Buffers are simply placed in and taken out. In
-      general, when storing buffers preference is given to large buffers. */
-  private static final StringOutput auxStringBuilders[] =
-    new StringOutput[ 10 ];
-
-
-  /** Allocates a string builder instance using recycling. Doesn't guarantee
-      that the returned object will have the requested size!
-      @param size (optional) builder size
-      @return builder instance */
-  public static StringOutput allocStringBuilder(final int size)  {
-    assert size > 0;
-    if ( size < 4096 ) {        // Smaller buffer? -> use auxiliary pool
-      synchronized ( auxStringBuilders ) {
-        for(int index=0; index < auxStringBuilders.length; index++)
-          if ((auxStringBuilders[index] != null) &&
-              (auxStringBuilders[index].capacity() >= size)) {
-          	StringOutput res = auxStringBuilders[ index ];
-            auxStringBuilders[ index ] = null;
-            return res;
-          }
-      }
-      return new StringOutput(size);
-    } else {// Bigger buffers? -> use primary pool
-      synchronized ( stringBuilders ) { // pool lookup
-        if ( stringBuilders.isEmpty())  {
-        	return new StringOutput(size);
-        }
-
-        StringOutput res =null;
-        for (Iterator<Reference<StringOutput>> seq=stringBuilders.iterator(); seq.hasNext(); ) {
-          res = seq.next().get();
-          if ( res == null ) {
-          	seq.remove(); // no longer available, cleanup
-          }  else if ( res.capacity() >= size ) {
-            seq.remove();
-            return res;
-          }
-        } // for
-      } // sync
-    } // else
+	/** Capacity of the smallest class */
+	private static final int MIN_CAPACITY = 256;
+	/** Buffers bigger than this (in characters) are never retained */
+	protected static final int MAX_CAPACITY = 8 * 1024 * 1024;
+	/** 256, 1K, 4K, 16K, 64K, 256K, 1M, 4M */
+	private static final int NUM_OF_CLASSES = 8;
+	/** From this class, the buffers are held by soft references */
+	private static final int FIRST_SOFT_CLASS = 3;
+	/** From this class, the slots are shared by all threads */
+	private static final int FIRST_SHARED_CLASS = 5;
+	private static final int[] SLOTS_PER_CLASS = { 4, 4, 4, 2, 2, 4, 2, 1 };
+	
+	private static final int NUM_OF_STRIPES = numOfStripes();
+	private static final int STRIPE_MASK = NUM_OF_STRIPES - 1;
+	
+	@SuppressWarnings("unchecked")
+	private static final AtomicReferenceArray<Object>[] pool = new AtomicReferenceArray[NUM_OF_CLASSES];
+	static {
+		for(int i=0; i<NUM_OF_CLASSES; i++) {
+			int stripes = i >= FIRST_SHARED_CLASS ? 1 : NUM_OF_STRIPES;
+			pool[i] = new AtomicReferenceArray<>(stripes * SLOTS_PER_CLASS[i]);
+		}
+	}
+	
+	private static final AtomicLong retainedChars = new AtomicLong();
+	
+	private StringOutputPool() {
+		//
+	}
+	
+	private static int numOfStripes() {
+		int cpus = Math.min(16, Runtime.getRuntime().availableProcessors());
+		int stripes = 1;
+		while(stripes < cpus) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
 
-    return new StringOutput(size);
-  } // allocStringBuilder
-  
-  /** Supplies object instance for recycling. The object could have been
-  allocated using any means. Caller must not continue using it after this
-  method call.
-  @param obj discarded builder instance */
+	/** Allocates a string builder instance using recycling. The returned
+	    object has at least the requested capacity.
+	    @param size (optional) builder size
+	    @return builder instance */
+	public static StringOutput allocStringBuilder(final int size)  {
+		assert size > 0;
+		// small requests are served by the smallest class
+		int sizeClass = Math.max(0, sizeClass(size));
+		int stripe = stripe();
+		StringOutput res = take(sizeClass, stripe);
+		if(res == null && sizeClass + 1 < NUM_OF_CLASSES) {
+			res = take(sizeClass + 1, stripe);
+		}
+		if(res != null) {
+			// the class holds buffers from its lower bound
+			res.ensureCapacity(size);
+			return res;
+		}
+		return new StringOutput(Math.max(size, MIN_CAPACITY));
+	}
+	
+	/** Supplies object instance for recycling. The object could have been
+	    allocated using any means. Caller must not continue using it after this
+	    method call.
+	    @param obj discarded builder instance */
 	public static void free(final StringOutput obj) {
-		if ( obj.capacity() < 4096 ) { // Smaller buffer? -> use auxiliary pool
-		  synchronized ( auxStringBuilders ) {
-		    int minIndex =-1, minSize = Integer.MAX_VALUE, size =0;
-		    for(int index=0; index < auxStringBuilders.length; index++) {
-		      if ( auxStringBuilders[index] == null ) {
-		        obj.setLength(0);
-		        auxStringBuilders[ index ] = obj;
-		        return;
-		      }
-		
-		      if ((size= auxStringBuilders[index].capacity()) < minSize) {
-		        minIndex = index;
-		        minSize = size;
-		      }
-		    }
+		int capacity = obj.capacity();
+		if(capacity > MAX_CAPACITY) {
+			return;// too big, don't return it to prevent memory leak
+		}
+		int sizeClass = sizeClass(capacity);
+		if(sizeClass < 0) {
+			return;// too small to be worth it
+		}
 		
-		    if ( minSize < obj.capacity() ) {
-		      obj.setLength(0);
-		      auxStringBuilders[minIndex] = obj;
-		    }
-		  }
-		} else if(obj.capacity() < 250000) {
-			// Bigger buffers? -> use primary pool, too big, don't return it to prevent memory leak
-		  synchronized ( stringBuilders ) {
-	      obj.setLength(0);
-		    stringBuilders.add(0, new SoftReference<>(obj));
-		    if ( stringBuilders.size() > MAX_STR_BUILDER_POOL_SIZE ) {
-		      stringBuilders.remove(MAX_STR_BUILDER_POOL_SIZE);
-		    }
-		  }
+		obj.setLength(0);
+		AtomicReferenceArray<Object> slots = pool[sizeClass];
+		int numOfSlots = SLOTS_PER_CLASS[sizeClass];
+		int base = sizeClass >= FIRST_SHARED_CLASS ? 0 : stripe() * numOfSlots;
+		Object pooled = sizeClass >= FIRST_SOFT_CLASS ? new SoftOutput(obj) : obj;
+		for(int i=base; i<base + numOfSlots; i++) {
+			Object current = slots.get(i);
+			if(current == null || (current instanceof SoftOutput && ((SoftOutput)current).get() == null)) {
+				if(slots.compareAndSet(i, current, pooled)) {
+					if(current != null) {
+						retainedChars.addAndGet(-((SoftOutput)current).capacity);
+					}
+					retainedChars.addAndGet(capacity);
+					return;
+				}
+			}
 		}
-	} // free
+		// the pool is full, the buffer is left to the garbage collector
+	}
 	
 	/** Frees the string builder and returns its contents before cleanup.
-	  @param obj buffer to free
-	  @return buffer's contents before cleanup */
+	    @param obj buffer to free
+	    @return buffer's contents before cleanup */
 	public static String freePop(final StringOutput obj) {
 		String res = obj.toString();
 		free( obj );
 		return res;
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * @return The approximative number of bytes held by the pool, the
+	 * 		buffers cleared by the garbage collector but not yet removed
+	 * 		from the pool are counted too.
+	 */
+	public static long getRetainedBytes() {
+		return retainedChars.get() * 2l;
+	}
+	
+	private static StringOutput take(int sizeClass, int stripe) {
+		AtomicReferenceArray<Object> slots = pool[sizeClass];
+		int numOfSlots = SLOTS_PER_CLASS[sizeClass];
+		int base = sizeClass >= FIRST_SHARED_CLASS ? 0 : stripe * numOfSlots;
+		for(int i=base; i<base + numOfSlots; i++) {
+			Object current = slots.get(i);
+			if(current != null && slots.compareAndSet(i, current, null)) {
+				StringOutput res;
+				int capacity;
+				if(current instanceof SoftOutput) {
+					SoftOutput ref = (SoftOutput)current;
+					res = ref.get();
+					capacity = ref.capacity;
+				} else {
+					res = (StringOutput)current;
+					capacity = res.capacity();
+				}
+				retainedChars.addAndGet(-capacity);
+				if(res != null) {
+					return res;
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * @param size A size or a capacity in characters
+	 * @return The index of the largest class lower or equal to the
+	 * 		specified size, or -1 if the size is smaller than the smallest class
+	 */
+	protected static int sizeClass(int size) {
+		if(size < MIN_CAPACITY) {
+			return -1;
+		}
+		// classes are power of 4 starting at 256 = 4^4
+		int log4 = (31 - Integer.numberOfLeadingZeros(size)) / 2;
+		return Math.min(log4 - 4, NUM_OF_CLASSES - 1);
+	}
+	
+	private static int stripe() {
+		long id = Thread.currentThread().getId();
+		return (int)(id ^ (id >>> 16)) & STRIPE_MASK;
+	}
+	
+	private static class SoftOutput extends SoftReference<StringOutput> {
+		
+		private final int capacity;
+		
+		public SoftOutput(StringOutput referent) {
+			super(referent);
+			capacity = referent.capacity();
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.logging.activity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManager;
+
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Write the user activity logs (o_loggingtable) outside of the request
+ * transaction. The logging objects are queued in a bounded queue and
+ * a single background thread persists them in JDBC batches. If the queue
+ * is full, the entry is dropped and counted, the request thread never
+ * waits for the database. The queue is drained when the application
+ * shuts down.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class UserActivityLogWriter implements InitializingBean, DisposableBean, Runnable {
+	
+	private static final Logger log = Tracing.createLoggerFor(UserActivityLogWriter.class);
+	
+	private DB dbInstance;
+	private boolean asyncEnabled;
+	private int queueSize = 10000;
+	private int batchSize = 250;
+	private long flushInterval = 1000l;
+	
+	private Thread writerThread;
+	private BlockingQueue<LoggingObject> queue;
+	private volatile boolean running;
+	
+	private final AtomicLong written = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong flushCount = new AtomicLong();
+	private final AtomicLong flushTotalTime = new AtomicLong();
+	private final AtomicLong flushMaxTime = new AtomicLong();
+	
+	/**
+	 * [used by Spring]
+	 * @param dbInstance
+	 */
+	public void setDbInstance(DB dbInstance) {
+		this.dbInstance = dbInstance;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param asyncEnabled
+	 */
+	public void setAsyncEnabled(boolean asyncEnabled) {
+		this.asyncEnabled = asyncEnabled;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param queueSize
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param batchSize
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * [used by Spring]
+	 * @param flushInterval The maximum time in milliseconds an entry waits in the queue
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(asyncEnabled) {
+			queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+			running = true;
+			writerThread = new Thread(this, "UserActivityLogWriter");
+			writerThread.setDaemon(true);
+			writerThread.start();
+			log.info("Asynchronous user activity logging enabled (queue: {}, batch: {}, interval: {}ms)", queueSize, batchSize, flushInterval);
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if(writerThread != null) {
+			running = false;
+			writerThread.interrupt();
+			try {
+				writerThread.join(30000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// the thread has ended or hangs, write the rest in this thread
+			if(!writerThread.isAlive() && !queue.isEmpty()) {
+				drain();
+			}
+			writerThread = null;
+			log.info("User activity log writer stopped: {} written, {} dropped, {} failed", written.get(), dropped.get(), failed.get());
+		}
+	}
+	
+	public boolean isAsyncEnabled() {
+		return asyncEnabled && running;
+	}
+	
+	/**
+	 * Queue the log entry. If the asynchronous writer is not enabled
+	 * or not running, the entry is saved in the current transaction.
+	 * 
+	 * @param logObj The log entry
+	 */
+	public void write(LoggingObject logObj) {
+		if(isAsyncEnabled()) {
+			if(!queue.offer(logObj)) {
+				long numOfDropped = dropped.incrementAndGet();
+				if(numOfDropped % 1000 == 1) {
+					log.warn("User activity log queue full, {} entries dropped until now", numOfDropped);
+				}
+			}
+		} else {
+			dbInstance.saveObject(logObj);
+		}
+	}
+	
+	public int getQueueSize() {
+		return queue == null ? 0 : queue.size();
+	}
+	
+	public long getWrittenCount() {
+		return written.get();
+	}
+	
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+	
+	public long getFailedCount() {
+		return failed.get();
+	}
+	
+	/**
+	 * @return The average duration of a flush in milliseconds
+	 */
+	public long getFlushAverageTime() {
+		long count = flushCount.get();
+		return count == 0 ? 0l : flushTotalTime.get() / count;
+	}
+	
+	/**
+	 * @return The maximum duration of a flush in milliseconds
+	 */
+	public long getFlushMaxTime() {
+		return flushMaxTime.get();
+	}
+
+	@Override
+	public void run() {
+		List<LoggingObject> batch = new ArrayList<>(batchSize);
+		while(running) {
+			try {
+				LoggingObject first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+				if(first != null) {
+					batch.add(first);
+					queue.drainTo(batch, batchSize - 1);
+					flush(batch);
+				}
+			} catch (InterruptedException e) {
+				// shutdown, the queue will be drained below
+			} catch (Exception e) {
+				log.error("", e);
+			} finally {
+				batch.clear();
+			}
+		}
+		drain();
+	}
+	
+	private void drain() {
+		List<LoggingObject> batch = new ArrayList<>(batchSize);
+		while(queue.drainTo(batch, batchSize) > 0) {
+			flush(batch);
+			batch.clear();
+		}
+	}
+	
+	private void flush(List<LoggingObject> batch) {
+		long start = System.nanoTime();
+		try {
+			EntityManager em = dbInstance.getCurrentEntityManager();
+			em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+			for(LoggingObject logObj:batch) {
+				em.persist(logObj);
+			}
+			dbInstance.commitAndCloseSession();
+			written.addAndGet(batch.size());
+		} catch (Exception e) {
+			log.error("Cannot write {} user activity logs", batch.size(), e);
+			failed.addAndGet(batch.size());
+			dbInstance.rollbackAndCloseSession();
+		}
+		
+		long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		flushCount.incrementAndGet();
+		flushTotalTime.addAndGet(duration);
+		flushMaxTime.accumulateAndGet(duration, Math::max);
+	}
+}
@@ -24,11 +24,10 @@
 */
 package org.olat.core.util.event;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.gui.control.Controller;
@@ -41,72 +40,67 @@ import org.olat.core.util.event.businfo.BusListenerInfo;
 
 /**
  * abstract class for common services of the system bus
+ * <p>
+ * The registry of listeners is lock-free for the dispatch of the events: the
+ * maps are concurrent and every agency publishes an immutable array of its
+ * listeners which is replaced (copy-on-write) on registration and deregistration.
+ * The writes are only serialized per resource.
+ * 
  * @author Felix Jost
  */
 public abstract class AbstractEventBus implements EventBus {
 
-	private final Map<String, EventAgency> infocenter;
-	private final Map<String, EventAgency> typeInfocenter;
+	private final ConcurrentMap<String, EventAgency> infocenter;
+	private final ConcurrentMap<String, EventAgency> typeInfocenter;
 	private final Logger log = Tracing.createLoggerFor(this.getClass());
 
 	public AbstractEventBus() {
-		infocenter = new HashMap<>();
-		typeInfocenter = new HashMap<>();
+		infocenter = new ConcurrentHashMap<>();
+		typeInfocenter = new ConcurrentHashMap<>();
 	}
 
 	@Override
 	public void registerFor(GenericEventListener gel, Identity identity, OLATResourceable ores) {
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) {
-			EventAgency ea = null;
-			if (oresId == null) {
-				// return the eventagency which listens to all events with the type of
-				// the ores
-				ea = typeInfocenter.get(typeName);
-				if (ea == null) { // we are the first listener -> create an agency
-					ea = new EventAgency();
-					typeInfocenter.put(typeName, ea);
-				}
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				ea = infocenter.get(oresStr);
-				if (ea == null) { // we are the first listener
-					ea = new EventAgency();
-					infocenter.put(oresStr, ea);
-				}
-			}
-			ea.addListener(gel, identity);
+		if (oresId == null) {
+			// the eventagency which listens to all events with the type of the ores
+			typeInfocenter.compute(typeName, (key, ea) -> addListener(ea, gel));
+		} else {
+			// type and id
+			String oresStr = typeName + "::" + oresId;
+			infocenter.compute(oresStr, (key, ea) -> addListener(ea, gel));
+		}
+	}
+	
+	private static EventAgency addListener(EventAgency ea, GenericEventListener gel) {
+		if (ea == null) { // we are the first listener -> create an agency
+			ea = new EventAgency();
 		}
+		ea.addListener(gel);
+		return ea;
 	}
 
 	@Override
 	public void deregisterFor(GenericEventListener gel, OLATResourceable ores) {
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) {
-			if (oresId == null) {
-				EventAgency ea = typeInfocenter.get(typeName);
-				if (ea != null) {
-					ea.removeListener(gel);
-					if(ea.getListenerCount() == 0) {
-						typeInfocenter.remove(typeName);
-					}
-				}
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				EventAgency ea = infocenter.get(oresStr);
-				if (ea != null) {
-					ea.removeListener(gel);
-					if(ea.getListenerCount() == 0) {
-						infocenter.remove(typeName);
-					}
-				}
-			}
+		if (oresId == null) {
+			typeInfocenter.computeIfPresent(typeName, (key, ea) -> removeListener(ea, gel));
+		} else {
+			// type and id
+			String oresStr = typeName + "::" + oresId;
+			infocenter.computeIfPresent(oresStr, (key, ea) -> removeListener(ea, gel));
 		}
 	}
+	
+	/**
+	 * @return The agency or null if the agency has no listeners anymore and must be removed
+	 */
+	private static EventAgency removeListener(EventAgency ea, GenericEventListener gel) {
+		ea.removeListener(gel);
+		return ea.getListenerCount() == 0 ? null : ea;
+	}
 
 	public abstract int getListeningIdentityCntFor(OLATResourceable ores);
 	
@@ -124,19 +118,17 @@ public abstract class AbstractEventBus implements EventBus {
 
 		GenericEventListener[] listenersArr = null;
 		GenericEventListener[] listenersTypeArr = null;
-		synchronized (infocenter) {  
-			if (oresId != null) {
-				String oresStr = typeName + "::" + oresId;
-				EventAgency ea = infocenter.get(oresStr);
-				if (ea != null) {
-					listenersArr = ea.getListeners();
-				}
-			}
-			EventAgency ea = typeInfocenter.get(typeName);
+		if (oresId != null) {
+			String oresStr = typeName + "::" + oresId;
+			EventAgency ea = infocenter.get(oresStr);
 			if (ea != null) {
-				listenersTypeArr = ea.getListeners();
+				listenersArr = ea.getListeners();
 			}
 		}
+		EventAgency ea = typeInfocenter.get(typeName);
+		if (ea != null) {
+			listenersTypeArr = ea.getListeners();
+		}
 
 		doFire(event, listenersArr);
 		doFire(event, listenersTypeArr);
@@ -180,97 +172,135 @@ public abstract class AbstractEventBus implements EventBus {
 	
 	protected final BusListenerInfo createBusListenerInfo() {
 		BusListenerInfo bii = new BusListenerInfo();
-		synchronized(infocenter) { // o_clusterOK by:fj: extract quickly so that we can later serialize and send across the wire. data affects only one vm.
-			// for all types: the name of the type + "::"+ the id (integer) is used as key
-			List<String> infocenterKeys = new ArrayList<>(infocenter.keySet());
-			for (String derivedOres: infocenterKeys) {
-				EventAgency ea = infocenter.get(derivedOres);
-				int cnt = ea.getListenerCount();
-				// only add those with at least one current listener. Telling that a resource has no listeners is unneeded since we update 
-				// the whole table on each clusterInfoEvent (cluster:: could be improved by only sending the delta of listeners)
-				if (cnt > 0) {
-					bii.addEntry(derivedOres, cnt);
-				} else {
-					infocenter.remove(derivedOres);
-				}
-			}
-			infocenterKeys = null;
-			
-			// for all types: the name of the type is used as key
-			List<String> typeInfocenterKeys = new ArrayList<>(typeInfocenter.keySet());
-			for (String derivedOres: typeInfocenterKeys) {
-				EventAgency ea = typeInfocenter.get(derivedOres);
-				int cnt = ea.getListenerCount();
-				if (cnt > 0) {
-					bii.addEntry(derivedOres, cnt);
-				} else {
-					typeInfocenter.remove(derivedOres);
-				}
+		// o_clusterOK by:fj: extract quickly so that we can later serialize and send across the wire. data affects only one vm.
+		// for all types: the name of the type + "::"+ the id (integer) is used as key
+		collectBusListenerInfo(infocenter, bii);
+		// for all types: the name of the type is used as key
+		collectBusListenerInfo(typeInfocenter, bii);
+		return bii;
+	}
+	
+	private void collectBusListenerInfo(ConcurrentMap<String, EventAgency> agencies, BusListenerInfo bii) {
+		for (String derivedOres: agencies.keySet()) {
+			EventAgency ea = agencies.get(derivedOres);
+			int cnt = ea == null ? 0 : ea.getListenerCount();
+			// only add those with at least one current listener. Telling that a resource has no listeners is unneeded since we update 
+			// the whole table on each clusterInfoEvent (cluster:: could be improved by only sending the delta of listeners)
+			if (cnt > 0) {
+				bii.addEntry(derivedOres, cnt);
+			} else {
+				// remove the agency only if nobody registered in the meantime
+				agencies.computeIfPresent(derivedOres, (key, agency) -> agency.cleanUp() == 0 ? null : agency);
 			}
 		}
-		return bii;
 	}
 	
 	protected final int getLocalListeningIdentityCntFor(OLATResourceable ores) {
 		int cnt = 0;
 		final Long oresId = ores.getResourceableId();
 		final String typeName = ores.getResourceableTypeName();
-		synchronized (infocenter) { 
-			EventAgency ea = null;
-			if (oresId == null) {
-				ea = typeInfocenter.get(typeName);	
-			} else {
-				// type and id
-				String oresStr = typeName + "::" + oresId;
-				ea = infocenter.get(oresStr);
-			}
-			if (ea != null) {
-				cnt = ea.getListenerCount();
-			}
+		EventAgency ea = null;
+		if (oresId == null) {
+			ea = typeInfocenter.get(typeName);	
+		} else {
+			// type and id
+			String oresStr = typeName + "::" + oresId;
+			ea = infocenter.get(oresStr);
+		}
+		if (ea != null) {
+			cnt = ea.getListenerCount();
 		}
 		return cnt;
 	}
 	
 	/**
 	 * Description: <br>
-	 * The listeners map is not synchronized, but need to be. The synchronization
-	 * is done by the infocenter map. Make sure that you always access instances of
-	 * this class in a synchronized(infocenter).
+	 * The listeners are hold as weak references in an immutable array which is
+	 * replaced on every change. The readers only need the volatile read of the array,
+	 * the writers are synchronized on the agency.
 	 * 
 	 * @author Felix Jost
 	 * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
 	 */
 	private static class EventAgency {
-		private WeakHashMap<GenericEventListener, Long> listeners = new WeakHashMap<>();
+		
+		private static final ListenerRef[] EMPTY = new ListenerRef[0];
+		
+		private volatile ListenerRef[] listeners = EMPTY;
 		
 		/**
-		 * @param event
+		 * @return A snapshot of the listeners still alive
 		 */
 		GenericEventListener[] getListeners() {
-			return listeners.keySet().toArray(new GenericEventListener[listeners.size()]);
+			final ListenerRef[] refs = listeners;
+			GenericEventListener[] liArr = new GenericEventListener[refs.length];
+			int count = 0;
+			for(int i=0; i<refs.length; i++) {
+				GenericEventListener gel = refs[i].get();
+				if(gel != null) {
+					liArr[count++] = gel;
+				}
+			}
+			return count == liArr.length ? liArr : Arrays.copyOf(liArr, count);
 		}
 
 		/**
-		 * impl note: the underlying impl takes a weakHashMap, so unused entries are
-		 * cleared. an instance may not be added twice (make no sense anyway), since we
-		 * are using a map, not a list.
+		 * impl note: the listeners are weak references, so unused entries are
+		 * cleared. an instance may not be added twice (make no sense anyway).
 		 * 
 		 * @param gel the instance which wants to listen to events.
-		 * @param identity the identity belonging to the listener, or null if there is
-		 *          none (e.g. the LockManager = the 'System')
 		 */
-		void addListener(GenericEventListener gel, Identity identity) {
-			if (!listeners.containsKey(gel)) {
-				Long identityKey = (identity != null? identity.getKey() : null);
-				listeners.put(gel, identityKey);
+		synchronized void addListener(GenericEventListener gel) {
+			final ListenerRef[] refs = listeners;
+			ListenerRef[] newRefs = new ListenerRef[refs.length + 1];
+			int count = 0;
+			for(int i=0; i<refs.length; i++) {
+				GenericEventListener listener = refs[i].get();
+				if(listener == null) {
+					continue;// expunge the garbage collected listeners
+				} else if(listener.equals(gel)) {
+					return;
+				}
+				newRefs[count++] = refs[i];
 			}
+			newRefs[count++] = new ListenerRef(gel);
+			listeners = count == newRefs.length ? newRefs : Arrays.copyOf(newRefs, count);
 		}
 
 		/**
 		 * @param gel
 		 */
-		void removeListener(GenericEventListener gel) {
-			listeners.remove(gel);
+		synchronized void removeListener(GenericEventListener gel) {
+			final ListenerRef[] refs = listeners;
+			ListenerRef[] newRefs = new ListenerRef[refs.length];
+			int count = 0;
+			for(int i=0; i<refs.length; i++) {
+				GenericEventListener listener = refs[i].get();
+				if(listener != null && !listener.equals(gel)) {
+					newRefs[count++] = refs[i];
+				}
+			}
+			listeners = count == 0 ? EMPTY : Arrays.copyOf(newRefs, count);
+		}
+		
+		/**
+		 * Remove the garbage collected listeners.
+		 * 
+		 * @return The number of listeners
+		 */
+		synchronized int cleanUp() {
+			final ListenerRef[] refs = listeners;
+			ListenerRef[] newRefs = new ListenerRef[refs.length];
+			int count = 0;
+			for(int i=0; i<refs.length; i++) {
+				if(refs[i].get() != null) {
+					newRefs[count++] = refs[i];
+				}
+			}
+			if(count != refs.length) {
+				listeners = count == 0 ? EMPTY : Arrays.copyOf(newRefs, count);
+			}
+			return count;
 		}
 		
 		/**
@@ -278,7 +308,21 @@ public abstract class AbstractEventBus implements EventBus {
 		 * @return the current number of listeners listening to this channel/eventagency 
 		 */
 		int getListenerCount() {
-			return listeners.size();	
+			final ListenerRef[] refs = listeners;
+			int count = 0;
+			for(int i=0; i<refs.length; i++) {
+				if(refs[i].get() != null) {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+	
+	private static class ListenerRef extends WeakReference<GenericEventListener> {
+		
+		public ListenerRef(GenericEventListener gel) {
+			super(gel);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.i18n;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable, compiled view of a bundle for a locale: the values are
+ * resolved (references to other keys replaced) and the fallback chain
+ * (overlay, variant, country, default and fallback locale) is flattened.
+ * A lookup is a single hash lookup without building any key string.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public final class I18nCompiledBundle {
+	
+	private final String bundleName;
+	private final Locale locale;
+	private final Map<String,String> values;
+	
+	I18nCompiledBundle(String bundleName, Locale locale, Map<String,String> values) {
+		this.bundleName = bundleName;
+		this.locale = locale;
+		this.values = new HashMap<>(values);
+	}
+	
+	public String getBundleName() {
+		return bundleName;
+	}
+	
+	public Locale getLocale() {
+		return locale;
+	}
+	
+	public int size() {
+		return values.size();
+	}
+	
+	/**
+	 * @param key The key
+	 * @return The resolved value or null if the key doesn't exist in the bundle
+	 * 		and its fallbacks
+	 */
+	public String getValue(String key) {
+		return values.get(key);
+	}
+}
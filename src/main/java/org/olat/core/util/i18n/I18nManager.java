@@ -46,6 +46,8 @@ import java.util.Comparator;
 import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -55,6 +57,7 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
@@ -140,6 +143,8 @@ public class I18nManager {
 	private ConcurrentMap<String, Properties> cachedBundles = new ConcurrentHashMap<>();
 	private ConcurrentMap<String, String> cachedJSTranslatorData = new ConcurrentHashMap<>();
 	private ConcurrentMap<String, Deque<String>> referencingBundlesIndex = new ConcurrentHashMap<>();
+	// keys: bundle name, locale, values: the compiled bundles by lookup flags (overlay, fallback to default)
+	private volatile ConcurrentMap<String, ConcurrentMap<Locale, AtomicReferenceArray<I18nCompiledBundle>>> compiledBundles = new ConcurrentHashMap<>();
 	private boolean cachingEnabled = true;
 	
 	private final I18nModule i18nModule;
@@ -201,8 +206,92 @@ public class I18nManager {
 	 *         possible and not found
 	 */
 	public String getLocalizedString(String bundleName, String key, Object[] args, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale) {
+		if (cachingEnabled && bundleName != null && locale != null) {
+			String msg = getCompiledBundle(bundleName, locale, overlayEnabled, fallBackToDefaultLocale).getValue(key);
+			if (msg == null) {
+				return null;
+			}
+			return decorateAndFormat(bundleName, key, args, msg, true);
+		}
 		return getLocalizedString(bundleName, key, args, locale, overlayEnabled, fallBackToDefaultLocale, true, true, true, 0);
 	}
+	
+	/**
+	 * The compiled bundle holds the values resolved with the complete fallback
+	 * chain. It's compiled on the first use and dropped as soon as a bundle is
+	 * changed.
+	 * 
+	 * @param bundleName The bundle
+	 * @param locale The locale
+	 * @param overlayEnabled true: lookup first in overlay
+	 * @param fallBackToDefaultLocale true: fallback to the default locale
+	 * @return The compiled bundle, never null
+	 */
+	public I18nCompiledBundle getCompiledBundle(String bundleName, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale) {
+		ConcurrentMap<String, ConcurrentMap<Locale, AtomicReferenceArray<I18nCompiledBundle>>> compiled = compiledBundles;
+		AtomicReferenceArray<I18nCompiledBundle> bundles = compiled
+				.computeIfAbsent(bundleName, name -> new ConcurrentHashMap<>())
+				.computeIfAbsent(locale, loc -> new AtomicReferenceArray<>(4));
+		int index = (overlayEnabled ? 1 : 0) + (fallBackToDefaultLocale ? 2 : 0);
+		I18nCompiledBundle bundle = bundles.get(index);
+		if (bundle == null) {
+			bundle = compileBundle(bundleName, locale, overlayEnabled, fallBackToDefaultLocale);
+			bundles.set(index, bundle);
+		}
+		return bundle;
+	}
+	
+	private I18nCompiledBundle compileBundle(String bundleName, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale) {
+		// collect the keys of all the locales of the fallback chain
+		Set<Locale> chain = new LinkedHashSet<>();
+		collectFallbackChain(locale, overlayEnabled, chain);
+		if (fallBackToDefaultLocale) {
+			collectFallbackChain(i18nModule.getDefaultLocale(), overlayEnabled, chain);
+		}
+		collectFallbackChain(i18nModule.getFallbackLocale(), overlayEnabled, chain);
+		
+		Set<String> keys = new HashSet<>();
+		for (Locale chainLocale : chain) {
+			Properties properties = getProperties(chainLocale, bundleName, true, 0);
+			if (properties != null) {
+				keys.addAll(properties.stringPropertyNames());
+			}
+		}
+		
+		// the values are resolved by the standard lookup, without decoration
+		Map<String,String> values = new HashMap<>();
+		for (String key : keys) {
+			String value = getLocalizedString(bundleName, key, null, locale, overlayEnabled, fallBackToDefaultLocale, true, true, false, 0);
+			if (value != null) {
+				values.put(key, value);
+			}
+		}
+		return new I18nCompiledBundle(bundleName, locale, values);
+	}
+	
+	private void collectFallbackChain(Locale locale, boolean overlayEnabled, Set<Locale> chain) {
+		if (locale == null || !chain.add(locale)) return;
+		
+		if (overlayEnabled) {
+			Locale overlayLocale = i18nModule.getOverlayLocales().get(locale);
+			if (overlayLocale != null) {
+				chain.add(overlayLocale);
+			}
+		}
+		if (!locale.getVariant().equals("")) {
+			collectFallbackChain(i18nModule.getAllLocales().get(locale.getLanguage() + "_" + locale.getCountry()), overlayEnabled, chain);
+		}
+		if (!locale.getCountry().equals("")) {
+			collectFallbackChain(i18nModule.getAllLocales().get(locale.getLanguage()), overlayEnabled, chain);
+		}
+	}
+	
+	/**
+	 * Drop all the compiled bundles, they will be compiled on demand.
+	 */
+	private void clearCompiledBundles() {
+		compiledBundles = new ConcurrentHashMap<>();
+	}
 
 	public String getLocalizedString(String bundleName, String key, Object[] args, Locale locale, boolean overlayEnabled, boolean fallBackToDefaultLocale,
 			boolean fallBackToFallbackLocale, boolean resolveRecursively, int recursionLevel) {
@@ -259,7 +348,7 @@ public class I18nManager {
 			if (!variant.equals("")) {
 				Locale newLoc = i18nModule.getAllLocales().get(locale.getLanguage() + "_" + locale.getCountry());
 				if (newLoc != null) msg = getLocalizedString(bundleName, key, args, newLoc, overlayEnabled, false, fallBackToFallbackLocale, resolveRecursively,
-						recursionLevel);
+						allowDecoration, recursionLevel);
 			}
 			if (msg == null) {
 				// 2. Check on country
@@ -267,7 +356,7 @@ public class I18nManager {
 				if (!country.equals("")) {
 					Locale newLoc = i18nModule.getAllLocales().get(locale.getLanguage());
 					if (newLoc != null) msg = getLocalizedString(bundleName, key, args, newLoc, overlayEnabled, false, fallBackToFallbackLocale, resolveRecursively,
-							recursionLevel);
+							allowDecoration, recursionLevel);
 				}
 				// else we have an original locale with only a language given ->
 				// no language specific fallbacks anymore
@@ -281,7 +370,7 @@ public class I18nManager {
 			// use fallbacks
 			if (fallBackToDefaultLocale) {
 				return getLocalizedString(bundleName, key, args, i18nModule.getDefaultLocale(), overlayEnabled, false, fallBackToFallbackLocale,
-						resolveRecursively, recursionLevel);
+						resolveRecursively, allowDecoration, recursionLevel);
 			} else {
 				if (fallBackToFallbackLocale) {
 					// fallback to fallback locale
@@ -294,7 +383,7 @@ public class I18nManager {
 						}
 						return null;
 					} else {
-						return getLocalizedString(bundleName, key, args, fallbackLocale, overlayEnabled, false, false, resolveRecursively, recursionLevel);
+						return getLocalizedString(bundleName, key, args, fallbackLocale, overlayEnabled, false, false, resolveRecursively, allowDecoration, recursionLevel);
 					}
 				} else {
 					return null;
@@ -309,6 +398,10 @@ public class I18nManager {
 			msg = resolveValuesInternalKeys(locale, bundleName, key, properties, overlayEnabled, recursionLevel, msg);
 		}
 
+		return decorateAndFormat(bundleName, key, args, msg, allowDecoration);
+	}
+	
+	private String decorateAndFormat(String bundleName, String key, Object[] args, String msg, boolean allowDecoration) {
 		// Add markup code to identify translated strings
 		if (allowDecoration && isCurrentThreadMarkLocalizedStringsEnabled() 
 				&& !bundleName.startsWith(BUNDLE_INLINE_TRANSLATION_INTERCEPTOR)
@@ -709,11 +802,13 @@ public class I18nManager {
 			if (referencingBundles != null) {
 				// remove from index
 				referencingBundlesIndex.remove(identifyer);
-				// remove from bundles cache
+				// remove from bundles cache, the keys are bundle name + locale
 				for (String bundleName : referencingBundles) {
-					cachedBundles.remove(bundleName);
+					String bundlePrefix = bundleName + ":";
+					cachedBundles.keySet().removeIf(cacheKey -> cacheKey.startsWith(bundlePrefix));
 				}
 			}
+			clearCompiledBundles();
 		}
 
 	}
@@ -1030,6 +1125,8 @@ public class I18nManager {
 				getResolvedProperties(locale, bundleName);
 			}
 		}
+		// the compiled bundles are dropped after the properties are updated
+		clearCompiledBundles();
 	}
 
 	/**
@@ -1050,6 +1147,7 @@ public class I18nManager {
 				// initialization will happen lazy
 				if (cachedJSTranslatorData.containsKey(key)) cachedJSTranslatorData.remove(key);
 			}
+			clearCompiledBundles();
 		}
 		// 2) Remove from filesystem
 		File baseDir = i18nModule.getPropertyFilesBaseDir(locale, bundleName);
@@ -1632,6 +1730,7 @@ public class I18nManager {
 		cachedBundles.clear();
 		cachedJSTranslatorData.clear();
 		referencingBundlesIndex.clear();
+		clearCompiledBundles();
 	}
 
 	/**
@@ -1652,6 +1751,7 @@ public class I18nManager {
 			referencingBundlesIndex = new AlwaysEmptyMap<>();
 		}
 		cachingEnabled = useCache;
+		clearCompiledBundles();
 	}
 
 	/**
@@ -56,7 +56,6 @@ import javax.mail.MessagingException;
 import javax.mail.Multipart;
 import javax.mail.SendFailedException;
 import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeBodyPart;
@@ -149,6 +148,8 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 	private final MailModule mailModule;
 	@Autowired
 	private GUISettings guiSettings;
+	@Autowired
+	private MailTransportPool mailTransportPool;
 
 	private FileStorage attachmentStorage;
 	
@@ -1815,7 +1816,7 @@ public class MailManagerImpl implements MailManager, InitializingBean  {
 				if(Settings.isDebuging()) {
 					logMessage(msg);
 				}
-				Transport.send(msg);
+				mailTransportPool.send(msg);
 			} else if(Settings.isDebuging() && result.getReturnCode() == MailerResult.OK) {
 				logMessage(msg);
 			} else {
@@ -0,0 +1,427 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * A pool of connected SMTP transports. A connection sends several messages
+ * before it's closed, the number of connections is limited and the senders
+ * wait for a free connection (back-pressure). The number of messages sent
+ * per second and per connection can be limited too.<br>
+ * The connections are bound to the properties of the mail session, if the
+ * configuration changes, the old connections are closed. An idle connection
+ * is checked (NOOP) before it's reused.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class MailTransportPool implements InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(MailTransportPool.class);
+	
+	@Value("${smtp.pool.enabled:true}")
+	private boolean enabled;
+	@Value("${smtp.pool.size:4}")
+	private int poolSize;
+	@Value("${smtp.pool.max.messages.per.connection:100}")
+	private int maxMessagesPerConnection;
+	@Value("${smtp.pool.max.messages.per.second:0}")
+	private int maxMessagesPerSecond;
+	@Value("${smtp.pool.max.idle:30000}")
+	private long maxIdle;
+	@Value("${smtp.pool.wait.timeout:60000}")
+	private long waitTimeout;
+	
+	private Semaphore permits;
+	private final Deque<PooledTransport> idleTransports = new ConcurrentLinkedDeque<>();
+	
+	private final AtomicLong sentMessages = new AtomicLong();
+	private final AtomicLong failedMessages = new AtomicLong();
+	private final AtomicLong rejectedMessages = new AtomicLong();
+	private final AtomicLong openedConnections = new AtomicLong();
+	private final AtomicLong closedConnections = new AtomicLong();
+	private final AtomicLong sendTime = new AtomicLong();
+	private final AtomicLong waitTime = new AtomicLong();
+	private final AtomicInteger waitingSenders = new AtomicInteger();
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		permits = new Semaphore(Math.max(1, poolSize), true);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		for(PooledTransport transport=idleTransports.pollFirst(); transport != null; transport=idleTransports.pollFirst()) {
+			close(transport);
+		}
+	}
+	
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+		this.maxMessagesPerConnection = maxMessagesPerConnection;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setMaxMessagesPerSecond(int maxMessagesPerSecond) {
+		this.maxMessagesPerSecond = maxMessagesPerSecond;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setMaxIdle(long maxIdle) {
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 */
+	public void setWaitTimeout(long waitTimeout) {
+		this.waitTimeout = waitTimeout;
+	}
+	
+	public int getPoolSize() {
+		return poolSize;
+	}
+	
+	public long getSentMessages() {
+		return sentMessages.get();
+	}
+	
+	public long getFailedMessages() {
+		return failedMessages.get();
+	}
+	
+	public long getRejectedMessages() {
+		return rejectedMessages.get();
+	}
+	
+	public long getOpenedConnections() {
+		return openedConnections.get();
+	}
+	
+	public long getClosedConnections() {
+		return closedConnections.get();
+	}
+	
+	public int getIdleConnections() {
+		return idleTransports.size();
+	}
+	
+	public int getActiveConnections() {
+		return Math.max(1, poolSize) - permits.availablePermits();
+	}
+	
+	public int getWaitingSenders() {
+		return waitingSenders.get();
+	}
+	
+	/**
+	 * @return The cumulated time spent sending the messages in milliseconds
+	 */
+	public long getSendTime() {
+		return TimeUnit.NANOSECONDS.toMillis(sendTime.get());
+	}
+	
+	/**
+	 * @return The cumulated time spent waiting for a connection in milliseconds
+	 */
+	public long getWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(waitTime.get());
+	}
+	
+	/**
+	 * Send the message with a pooled connection, wait if all connections are
+	 * busy. The exceptions are the same as Transport.send().
+	 * 
+	 * @param msg The message to send
+	 * @throws MessagingException
+	 */
+	public void send(MimeMessage msg) throws MessagingException {
+		if(!enabled) {
+			Transport.send(msg);
+			sentMessages.incrementAndGet();
+			return;
+		}
+		
+		msg.saveChanges();
+		Address[] recipients = msg.getAllRecipients();
+		if(recipients == null || recipients.length == 0) {
+			throw new SendFailedException("No recipient addresses");
+		}
+		
+		long startWait = System.nanoTime();
+		boolean acquired;
+		waitingSenders.incrementAndGet();
+		try {
+			acquired = permits.tryAcquire(waitTimeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while waiting for a SMTP connection", e);
+		} finally {
+			waitingSenders.decrementAndGet();
+		}
+		if(!acquired) {
+			rejectedMessages.incrementAndGet();
+			throw new MessagingException("No SMTP connection available after " + waitTimeout + "ms");
+		}
+		
+		long startSend = System.nanoTime();
+		waitTime.addAndGet(startSend - startWait);
+		try {
+			send(msg, recipients);
+			sentMessages.incrementAndGet();
+		} catch(MessagingException e) {
+			failedMessages.incrementAndGet();
+			throw e;
+		} finally {
+			sendTime.addAndGet(System.nanoTime() - startSend);
+			permits.release();
+		}
+	}
+	
+	private void send(MimeMessage msg, Address[] recipients) throws MessagingException {
+		Session session = msg.getSession();
+		PooledTransport transport = borrow(session);
+		try {
+			transport.send(msg, recipients);
+			release(transport);
+		} catch(SendFailedException e) {
+			if(transport.getTransport().isConnected()) {
+				// invalid addresses, the connection is still usable
+				release(transport);
+				throw e;
+			}
+			retry(msg, recipients, transport, e);
+		} catch(MessagingException | IllegalStateException e) {
+			retry(msg, recipients, transport, e);
+		}
+	}
+	
+	/**
+	 * Close the failed connection and, if the connection of the pool was lost
+	 * before any recipient was accepted, send the message a second time with
+	 * a new one.
+	 */
+	private void retry(MimeMessage msg, Address[] recipients, PooledTransport transport, Exception e)
+	throws MessagingException {
+		close(transport);
+		if(!transport.isReused() || !isConnectionLost(e)) {
+			throw e instanceof MessagingException ? (MessagingException)e : new MessagingException(e.getMessage(), e);
+		}
+
+		log.debug("Retry to send mail with a new connection: {}", e.getMessage());
+		PooledTransport newTransport = open(msg.getSession(), recipients[0]);
+		try {
+			newTransport.send(msg, recipients);
+			release(newTransport);
+		} catch(SendFailedException e2) {
+			release(newTransport);
+			throw e2;
+		} catch(MessagingException e2) {
+			close(newTransport);
+			throw e2;
+		}
+	}
+	
+	private boolean isConnectionLost(Exception e) {
+		if(e instanceof IllegalStateException) {
+			return true;// not connected, nothing was sent
+		}
+		if(e instanceof SendFailedException) {
+			Address[] validSent = ((SendFailedException)e).getValidSentAddresses();
+			return (validSent == null || validSent.length == 0) && isIOException(e);
+		}
+		return false;
+	}
+	
+	private boolean isIOException(Exception e) {
+		for(Throwable cause=e; cause != null; ) {
+			if(cause instanceof IOException) {
+				return true;
+			}
+			Throwable next = cause instanceof MessagingException
+					? ((MessagingException)cause).getNextException() : cause.getCause();
+			cause = next == cause ? null : next;
+		}
+		return false;
+	}
+	
+	private PooledTransport borrow(Session session) throws MessagingException {
+		Properties properties = session.getProperties();
+		long now = System.currentTimeMillis();
+		for(PooledTransport transport=idleTransports.pollFirst(); transport != null; transport=idleTransports.pollFirst()) {
+			if(transport.getSession() == session || transport.getProperties().equals(properties)) {
+				if(now - transport.getLastUsed() <= maxIdle && transport.getTransport().isConnected()) {
+					transport.setReused();
+					return transport;
+				}
+			}
+			close(transport);
+		}
+		return open(session, null);
+	}
+	
+	private PooledTransport open(Session session, Address address) throws MessagingException {
+		Transport transport = address == null ? session.getTransport("smtp") : session.getTransport(address);
+		transport.connect();
+		openedConnections.incrementAndGet();
+		long minInterval = maxMessagesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / maxMessagesPerSecond : 0l;
+		return new PooledTransport(session, transport, minInterval);
+	}
+	
+	private void release(PooledTransport transport) {
+		if(maxMessagesPerConnection > 0 && transport.getNumOfMessages() >= maxMessagesPerConnection) {
+			close(transport);
+		} else {
+			transport.setLastUsed(System.currentTimeMillis());
+			idleTransports.offerFirst(transport);
+			
+			// close the connections which are not used anymore
+			PooledTransport eldest = idleTransports.peekLast();
+			if(eldest != null && eldest != transport
+					&& System.currentTimeMillis() - eldest.getLastUsed() > maxIdle
+					&& idleTransports.removeLastOccurrence(eldest)) {
+				close(eldest);
+			}
+		}
+	}
+	
+	private void close(PooledTransport transport) {
+		try {
+			transport.getTransport().close();
+		} catch (MessagingException | IllegalStateException e) {
+			log.debug("Cannot close SMTP connection: {}", e.getMessage());
+		}
+		closedConnections.incrementAndGet();
+	}
+	
+	private static class PooledTransport {
+		
+		private final Session session;
+		private final Properties properties;
+		private final Transport transport;
+		private final long minInterval;
+		
+		private int numOfMessages = 0;
+		private boolean reused = false;
+		private long nextSend = 0l;
+		private volatile long lastUsed;
+		
+		public PooledTransport(Session session, Transport transport, long minInterval) {
+			this.session = session;
+			this.properties = (Properties)session.getProperties().clone();
+			this.transport = transport;
+			this.minInterval = minInterval;
+			lastUsed = System.currentTimeMillis();
+		}
+		
+		public Session getSession() {
+			return session;
+		}
+		
+		public Properties getProperties() {
+			return properties;
+		}
+		
+		public Transport getTransport() {
+			return transport;
+		}
+		
+		public int getNumOfMessages() {
+			return numOfMessages;
+		}
+		
+		public boolean isReused() {
+			return reused;
+		}
+		
+		public void setReused() {
+			reused = true;
+		}
+		
+		public long getLastUsed() {
+			return lastUsed;
+		}
+		
+		public void setLastUsed(long lastUsed) {
+			this.lastUsed = lastUsed;
+		}
+		
+		public void send(MimeMessage msg, Address[] recipients) throws MessagingException {
+			if(minInterval > 0) {
+				long wait = nextSend - System.nanoTime();
+				if(wait > 0) {
+					try {
+						TimeUnit.NANOSECONDS.sleep(wait);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new MessagingException("Interrupted while waiting to send", e);
+					}
+				}
+				nextSend = System.nanoTime() + minInterval;
+			}
+			numOfMessages++;
+			transport.sendMessage(msg, recipients);
+		}
+	}
+}
@@ -19,44 +19,194 @@
  */
 package org.olat.core.util.openxml;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
 
 /**
+ * The shared strings are indexed with a hash map. If the strings use
+ * more memory than the threshold, the new strings are appended to
+ * a temporary file and only the most recently used of them are
+ * indexed. The strings already in memory are still shared.
  * 
  * Initial date: 25.04.2016<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public class OpenXMLWorkbookSharedStrings implements Iterable<String> {
+public class OpenXMLWorkbookSharedStrings implements Iterable<String>, Closeable {
+	
+	private static final Logger log = Tracing.createLoggerFor(OpenXMLWorkbookSharedStrings.class);
+	
+	public static final long DEFAULT_MAX_CHARS_IN_MEMORY = 8l * 1024l * 1024l;
+	private static final int MAX_SPILLED_INDEXED = 16384;
 
 	private final List<String> sharedStrings = new ArrayList<>();
+	private final Map<String,Integer> indexes = new HashMap<>();
+	
+	private final long maxCharsInMemory;
+	private long charsInMemory = 0l;
+	
+	private int size = 0;
+	private File spillFile;
+	private DataOutputStream spillOut;
+	private Map<String,Integer> spilledIndexes;
 	
 	public OpenXMLWorkbookSharedStrings() {
-		sharedStrings.add("OpenOLAT");//prevent empty list
+		this(DEFAULT_MAX_CHARS_IN_MEMORY);
+	}
+	
+	/**
+	 * @param maxCharsInMemory The number of characters held in memory before
+	 * 		the strings are written in a temporary file
+	 */
+	public OpenXMLWorkbookSharedStrings(long maxCharsInMemory) {
+		this.maxCharsInMemory = maxCharsInMemory;
+		add("OpenOLAT");//prevent empty list
 	}
 	
 	/**
 	 * Add a shared string and return the index.
 	 * @param string
 	 * @return
+	 * @throws UncheckedIOException If the string cannot be written in the temporary file
 	 */
 	public int add(String string) {
-		int index = sharedStrings.indexOf(string);
-		if(index < 0) {
+		Integer index = indexes.get(string);
+		if(index != null) {
+			return index.intValue();
+		}
+		
+		if(spillOut == null && charsInMemory + string.length() <= maxCharsInMemory) {
+			index = Integer.valueOf(size++);
 			sharedStrings.add(string);
-			index = sharedStrings.size() - 1;
+			indexes.put(string, index);
+			charsInMemory += string.length();
+			return index.intValue();
+		}
+		return spill(string);
+	}
+	
+	private int spill(String string) {
+		Integer index = spilledIndexes == null ? null : spilledIndexes.get(string);
+		if(index != null) {
+			return index.intValue();
+		}
+		
+		try {
+			if(spillOut == null) {
+				spillFile = File.createTempFile("sharedstrings", ".bin");
+				spillOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile), 65536));
+				spilledIndexes = new LinkedHashMap<>(MAX_SPILLED_INDEXED, 0.75f, true) {
+					private static final long serialVersionUID = -4009385327165066924L;
+
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String,Integer> eldest) {
+						return size() > MAX_SPILLED_INDEXED;
+					}
+				};
+			}
+			
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			spillOut.writeInt(bytes.length);
+			spillOut.write(bytes);
+			index = Integer.valueOf(size++);
+			spilledIndexes.put(string, index);
+			return index.intValue();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot write shared strings in: " + spillFile, e);
 		}
-		return index;
 	}
 
 	@Override
 	public Iterator<String> iterator() {
-		return sharedStrings.iterator();
+		if(spillFile == null) {
+			return sharedStrings.iterator();
+		}
+		return new SpilledIterator();
 	}
 	
 	public int size() {
-		return sharedStrings.size();
+		return size;
+	}
+	
+	public boolean isSpilled() {
+		return spillFile != null;
+	}
+
+	@Override
+	public void close() {
+		try {
+			if(spillOut != null) {
+				spillOut.close();
+				spillOut = null;
+			}
+			if(spillFile != null) {
+				Files.deleteIfExists(spillFile.toPath());
+				spillFile = null;
+			}
+		} catch (IOException e) {
+			log.error("Cannot delete shared strings: {}", spillFile, e);
+		}
+	}
+	
+	/**
+	 * Iterate the strings in memory, then the strings in the temporary file.
+	 */
+	private class SpilledIterator implements Iterator<String> {
+		
+		private final Iterator<String> memoryIterator = sharedStrings.iterator();
+		private DataInputStream spillIn;
+		private int remaining = size - sharedStrings.size();
+		
+		@Override
+		public boolean hasNext() {
+			return memoryIterator.hasNext() || remaining > 0;
+		}
+
+		@Override
+		public String next() {
+			if(memoryIterator.hasNext()) {
+				return memoryIterator.next();
+			}
+			if(remaining <= 0) {
+				throw new NoSuchElementException();
+			}
+			
+			try {
+				if(spillIn == null) {
+					spillOut.flush();
+					spillIn = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile), 65536));
+				}
+				int length = spillIn.readInt();
+				byte[] bytes = new byte[length];
+				spillIn.readFully(bytes);
+				if(--remaining == 0) {
+					spillIn.close();
+				}
+				return new String(bytes, StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				remaining = 0;
+				throw new UncheckedIOException("Cannot read shared strings: " + spillFile, e);
+			}
+		}
 	}
 }
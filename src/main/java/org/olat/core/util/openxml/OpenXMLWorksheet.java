@@ -19,11 +19,10 @@
  */
 package org.olat.core.util.openxml;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipOutputStream;
 
@@ -87,6 +86,12 @@ public class OpenXMLWorksheet {
 		columnsWidth.put(pos, width);
 	}
 	
+	/**
+	 * The previous row is written and its object reused. A row
+	 * is only valid until the next call of this method.
+	 * 
+	 * @return The next row
+	 */
 	public Row newRow() {
 		if(!opened) {
 			appendProlog();
@@ -94,9 +99,10 @@ public class OpenXMLWorksheet {
 		}
 		if(row != null) {
 			appendRow();
-			row = null;
+			row.clear();
+		} else {
+			row = new Row();
 		}
-		row = new Row();
 		rowPosition++;
 		return row;
 	}
@@ -349,23 +355,36 @@ public class OpenXMLWorksheet {
     
 	public class Row {
 		
-		private List<Cell> cells = new ArrayList<>(255);
+		private int size = 0;
+		private Cell[] cells = new Cell[16];
 		
 		public boolean isEmpty() {
-			return cells == null || cells.isEmpty();
+			return size == 0;
 		}
 
 		public int size() {
-			return cells.size();
+			return size;
 		}
 		
 		public Cell getCell(int column) {
-			if(cells.size() > column) {
-				return cells.get(column);
+			if(size > column) {
+				return cells[column];
 			}
 			return null;
 		}
 		
+		/**
+		 * Reset the cells but keep the objects for the next row.
+		 */
+		protected void clear() {
+			for(int i=0; i<size; i++) {
+				if(cells[i] != null) {
+					cells[i].reset();
+				}
+			}
+			size = 0;
+		}
+		
 		public Cell addCell(int column, String value) {
 			return addCell(column, value, null);
 		}
@@ -422,21 +441,17 @@ public class OpenXMLWorksheet {
 		}
 		
 		private Cell getOrCreateCell(int column) {
-			Cell c;
-			if(cells.size() < column) {
-				for(int i=cells.size(); i<column; i++) {
-					cells.add(null);
-				}
-				c = new Cell();
-				cells.add(c);
-			} else if(cells.size() == column) {
-				c = new Cell();
-				cells.add(c);
-			} else if(cells.get(column) == null) {
+			if(column >= cells.length) {
+				cells = Arrays.copyOf(cells, Math.max(column + 1, cells.length * 2));
+			}
+			if(column >= size) {
+				size = column + 1;
+			}
+			
+			Cell c = cells[column];
+			if(c == null) {
 				c = new Cell();
-				cells.set(column, c);
-			} else {
-				c = cells.get(column);
+				cells[column] = c;
 			}
 			return c;
 		}
@@ -481,5 +496,11 @@ public class OpenXMLWorksheet {
 		public void setStyle(CellStyle style) {
 			this.style = style;
 		}
+		
+		protected void reset() {
+			value = null;
+			type = null;
+			style = null;
+		}
 	}
 }
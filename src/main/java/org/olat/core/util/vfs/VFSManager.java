@@ -39,6 +39,7 @@ import java.util.List;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.modules.bc.FolderConfig;
+import org.olat.core.commons.services.vfs.VFSMetadata;
 import org.olat.core.commons.services.vfs.VFSRepositoryService;
 import org.olat.core.id.Identity;
 import org.olat.core.logging.Tracing;
@@ -410,10 +411,22 @@ public class VFSManager {
 		VFSContainer inheritingItem = findInheritingSecurityCallbackContainer(container);
 		if (inheritingItem == null || inheritingItem.getLocalSecurityCallback().getQuota() == null)
 			return Quota.UNLIMITED;
-		long usageKB = getUsageKB(inheritingItem);
+		long usageKB = getQuotaUsageKB(inheritingItem);
 		return inheritingItem.getLocalSecurityCallback().getQuota().getQuotaKB().longValue() - usageKB;
 	}
 	
+	/**
+	 * Return the usage of a container with a quota. The usage of local folders
+	 * is maintained by the VFS repository service and not calculated by every
+	 * call.
+	 * 
+	 * @param container The container with the quota
+	 * @return The usage in KB
+	 */
+	public static long getQuotaUsageKB(VFSContainer container) {
+		return CoreSpringFactory.getImpl(VFSRepositoryService.class).getQuotaUsageKB(container);
+	}
+	
 	/**
 	 * Recursively traverse the container and sum up all leafs' sizes.
 	 * 
@@ -793,6 +806,42 @@ public class VFSManager {
 			return false;
 		}
 	}
+	
+	/**
+	 * An entity tag for the content of the leaf, built from its size and its
+	 * last modification date. The metadata are not loaded.
+	 * 
+	 * @param leaf The leaf
+	 * @return The entity tag or null if the size or the date are undefined
+	 */
+	public static String getETag(VFSLeaf leaf) {
+		if(leaf == null) {
+			return null;
+		}
+		long size = leaf.getSize();
+		long lastModified = leaf.getLastModified();
+		if(size == VFSConstants.UNDEFINED || lastModified == VFSConstants.UNDEFINED) {
+			return null;
+		}
+		return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+	}
+	
+	/**
+	 * A strong entity tag built from the UUID of the metadata already loaded,
+	 * the size and the last modification date of the leaf.
+	 * 
+	 * @param metadata The metadata of the leaf
+	 * @param leaf The leaf
+	 * @return The entity tag or null if the metadata doesn't have an UUID
+	 */
+	public static String getETag(VFSMetadata metadata, VFSLeaf leaf) {
+		if(metadata == null || metadata.getUuid() == null) {
+			return null;
+		}
+		return "\"" + metadata.getUuid()
+			+ "-" + Long.toHexString(leaf.getSize())
+			+ "-" + Long.toHexString(leaf.getLastModified()) + "\"";
+	}
 
 	/**
 	 * Copies the stream to the target leaf.
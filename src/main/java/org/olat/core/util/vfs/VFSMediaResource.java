@@ -26,6 +26,7 @@
 
 package org.olat.core.util.vfs;
 
+import java.io.File;
 import java.io.InputStream;
 
 import javax.servlet.http.HttpServletResponse;
@@ -115,6 +116,20 @@ public class VFSMediaResource implements MediaResource {
 		return (lastModified == VFSConstants.UNDEFINED) ? null : Long.valueOf(lastModified);
 	}
 
+	@Override
+	public String getETag() {
+		return VFSManager.getETag(getLeaf());
+	}
+
+	@Override
+	public File getLocalFile() {
+		VFSLeaf leaf = getLeaf();
+		if(leaf instanceof LocalFileImpl) {
+			return ((LocalFileImpl)leaf).getBasefile();
+		}
+		return null;
+	}
+
 	@Override
 	public void prepare(HttpServletResponse hres) {
 		String filename = StringHelper.urlEncodeUTF8(getLeaf().getName());
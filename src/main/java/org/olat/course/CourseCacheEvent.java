@@ -0,0 +1,62 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import org.olat.core.util.event.MultiUserEvent;
+
+/**
+ * Sent to the other cluster nodes when a course is updated or removed from
+ * the cache. The version is a counter of the course, incremented at every
+ * update of the cache and persisted with the course. The nodes drop their
+ * copy of the course if its version is older than the version of the event,
+ * and load it again from the binary snapshot written by the node which sent
+ * the event. Events which arrive late are ignored.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CourseCacheEvent extends MultiUserEvent {
+
+	private static final long serialVersionUID = 5823036521963840173L;
+	
+	public static final long REMOVED = Long.MAX_VALUE;
+	
+	private final Long resourceableId;
+	private final long version;
+	
+	public CourseCacheEvent(Long resourceableId, long version) {
+		super("course-cache-update");
+		this.resourceableId = resourceableId;
+		this.version = version;
+	}
+
+	public Long getResourceableId() {
+		return resourceableId;
+	}
+
+	/**
+	 * @return The version of the course or REMOVED if the course is removed
+	 * 		from the cache
+	 */
+	public long getVersion() {
+		return version;
+	}
+}
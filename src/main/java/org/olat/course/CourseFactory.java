@@ -31,7 +31,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -62,6 +61,7 @@ import org.olat.core.gui.components.htmlheader.jscss.CustomCSS;
 import org.olat.core.gui.components.stack.TooledStackedPanel;
 import org.olat.core.gui.components.tree.TreeNode;
 import org.olat.core.gui.control.Controller;
+import org.olat.core.gui.control.Event;
 import org.olat.core.gui.control.WindowControl;
 import org.olat.core.gui.translator.Translator;
 import org.olat.core.id.Identity;
@@ -78,11 +78,13 @@ import org.olat.core.util.Formatter;
 import org.olat.core.util.ObjectCloner;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.UserSession;
+import org.olat.core.util.async.ProgressDelegate;
 import org.olat.core.util.Util;
 import org.olat.core.util.ZipUtil;
 import org.olat.core.util.cache.CacheWrapper;
 import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.core.util.coordinate.SyncerExecutor;
+import org.olat.core.util.event.GenericEventListener;
 import org.olat.core.util.event.MultiUserEvent;
 import org.olat.core.util.nodes.INode;
 import org.olat.core.util.resource.OresHelper;
@@ -96,6 +98,8 @@ import org.olat.core.util.vfs.VFSContainer;
 import org.olat.core.util.vfs.VFSManager;
 import org.olat.core.util.vfs.VFSStatus;
 import org.olat.core.util.xml.XStreamHelper;
+import org.olat.course.archiver.CourseArchiveTask;
+import org.olat.course.archiver.CourseNodesArchiver;
 import org.olat.course.archiver.ScoreAccountingHelper;
 import org.olat.course.config.CourseConfig;
 import org.olat.course.config.CourseConfigManager;
@@ -151,6 +155,12 @@ import org.olat.util.logging.activity.LoggingResourceable;
 public class CourseFactory {
 
 	private static CacheWrapper<Long,PersistingCourseImpl> loadedCourses;
+	/**
+	 * Cluster channel to invalidate the courses cached on the other nodes. The
+	 * listener is static because the event bus only holds weak references.
+	 */
+	private static final OLATResourceable COURSE_CACHE_CHANNEL = OresHelper.createOLATResourceableType("CourseFactory@courses");
+	private static final GenericEventListener courseCacheListener = CourseFactory::processCourseCacheEvent;
 	private static ConcurrentMap<Long, ModifyCourseEvent> modifyCourseEvents = new ConcurrentHashMap<>();
 
 	public static final String COURSE_EDITOR_LOCK = "courseEditLock";
@@ -168,6 +178,7 @@ public class CourseFactory {
 	 */
 	private CourseFactory(CoordinatorManager coordinatorManager, ReferenceManager referenceManager) {
 		loadedCourses = coordinatorManager.getCoordinator().getCacher().getCache(CourseFactory.class.getSimpleName(), "courses");
+		coordinatorManager.getCoordinator().getEventBus().registerFor(courseCacheListener, null, COURSE_CACHE_CHANNEL);
 		CourseFactory.referenceManager = referenceManager;
 	}
 
@@ -360,18 +371,50 @@ public class CourseFactory {
 	 */
 	private static void removeFromCache(Long resourceableId) { //o_clusterOK by: ld
 		loadedCourses.remove(resourceableId);
+		fireCourseCacheEvent(resourceableId, CourseCacheEvent.REMOVED);
 		log.debug("removeFromCache");
 	}
 
 	/**
 	 * Puts the current course in the local cache and removes it from other caches (other cluster nodes).
+	 * The other nodes load the course from the binary snapshot of its structure, which is
+	 * already written when this method is called. The version of the course is
+	 * incremented, the method is always called within the lock of the course.
+	 * 
 	 * @param resourceableId
 	 * @param course
 	 */
 	private static void updateCourseInCache(Long resourceableId, PersistingCourseImpl course) { //o_clusterOK by:ld
+		long version = course.incrementCacheVersion();
 		loadedCourses.update(resourceableId, course);
+		fireCourseCacheEvent(resourceableId, version);
 		log.debug("updateCourseInCache");
 	}
+	
+	private static void fireCourseCacheEvent(Long resourceableId, long version) {
+		CourseCacheEvent event = new CourseCacheEvent(resourceableId, version);
+		CoordinatorManager.getInstance().getCoordinator().getEventBus().fireEventToListenersOf(event, COURSE_CACHE_CHANNEL);
+	}
+	
+	/**
+	 * Drop the course sent by an other cluster node if the local copy is older
+	 * than the version of the event. A copy loaded after the update has already
+	 * the version of the event and stays in the cache, an event which arrives
+	 * after a newer one is ignored.
+	 * 
+	 * @param event The event
+	 */
+	private static void processCourseCacheEvent(Event event) {
+		if(event instanceof CourseCacheEvent && !((CourseCacheEvent)event).isEventOnThisNode()) {
+			CourseCacheEvent cacheEvent = (CourseCacheEvent)event;
+			Long resourceableId = cacheEvent.getResourceableId();
+			PersistingCourseImpl course = loadedCourses.get(resourceableId);
+			if(course != null && course.getCacheVersion() < cacheEvent.getVersion()) {
+				loadedCourses.remove(resourceableId);
+				log.debug("Course {} invalidated by an other node", resourceableId);
+			}
+		}
+	}
 
 	/**
 	 * Delete a course including its course folder and all references to resources
@@ -700,7 +743,9 @@ public class CourseFactory {
 
 	/**
 	 * visit all nodes in the specified course and make them archiving any data
-	 * into the identity's export directory.
+	 * into the identity's export directory. The method returns when the archive
+	 * is written, it's needed before the course is deleted. Use
+	 * archiveCourseInBackground in all other cases.
 	 *
 	 * @param res
 	 * @param charset
@@ -712,13 +757,42 @@ public class CourseFactory {
 		PersistingCourseImpl course = (PersistingCourseImpl) loadCourse(res);
 		File exportDirectory = CourseFactory.getOrCreateDataExportDirectory(identity, course.getCourseTitle());
 		
+		boolean[] rights = getArchiveRights(courseRe, identity, roles);
+		archiveCourse(identity, course, charset, locale, exportDirectory, null, rights[0], rights[1], rights[2]);
+	}
+	
+	/**
+	 * Queue a persistent task which archives the course in the background. The
+	 * task saves its progress and the archive is written in the export directory
+	 * of the specified identity, like the synchronous archive.
+	 * 
+	 * @param res The course resource
+	 * @param charset The charset
+	 * @param locale The locale
+	 * @param identity The identity which want the archive
+	 * @param roles The roles of the identity
+	 */
+	public static void archiveCourseInBackground(OLATResourceable res, String charset, Locale locale, Identity identity, Roles roles) {
+		RepositoryEntry courseRe = RepositoryManager.getInstance().lookupRepositoryEntry(res, false);
+		boolean[] rights = getArchiveRights(courseRe, identity, roles);
+		CourseArchiveTask task = new CourseArchiveTask(res, charset, locale, identity, rights[0], rights[1], rights[2]);
+		
+		TaskExecutorManager taskExecutorManager = CoreSpringFactory.getImpl(TaskExecutorManager.class);
+		taskExecutorManager.execute(task, identity, courseRe.getOlatResource(), CourseArchiveTask.RES_SUB_PATH, null);
+		taskExecutorManager.executeTaskToDo();
+	}
+	
+	/**
+	 * @return An array with administrator, owner and learn resource manager
+	 */
+	private static boolean[] getArchiveRights(RepositoryEntry courseRe, Identity identity, Roles roles) {
 		RepositoryService repositoryService = CoreSpringFactory.getImpl(RepositoryService.class);
 		boolean isAdministrator = roles.isAdministrator()
 				&& repositoryService.hasRoleExpanded(identity, courseRe, OrganisationRoles.administrator.name());
 		boolean isOresOwner = repositoryService.hasRole(identity, courseRe, GroupRoles.owner.name());
 		boolean isOresInstitutionalManager = roles.isLearnResourceManager()
 				&& repositoryService.hasRoleExpanded(identity, courseRe, OrganisationRoles.learnresourcemanager.name());
-		archiveCourse(identity, course, charset, locale, exportDirectory, isAdministrator, isOresOwner, isOresInstitutionalManager);
+		return new boolean[] { isAdministrator, isOresOwner, isOresInstitutionalManager };
 	}
 
 	/**
@@ -729,24 +803,25 @@ public class CourseFactory {
 	 * @param charset
 	 * @param locale
 	 * @param identity
+	 * @param progress Receives the progress of the archive of the course elements (optional)
 	 */
-	public static void archiveCourse(Identity archiveOnBehalfOf, ICourse course, String charset, Locale locale, File exportDirectory, boolean isAdministrator, boolean... oresRights) {
+	public static void archiveCourse(Identity archiveOnBehalfOf, ICourse course, String charset, Locale locale, File exportDirectory,
+			ProgressDelegate progress, boolean isAdministrator, boolean... oresRights) {
 		// archive course results overview
-		List<Identity> users = ScoreAccountingHelper.loadUsers(course.getCourseEnvironment());
+		List<Long> identityKeys = ScoreAccountingHelper.loadUserKeys(course.getCourseEnvironment());
 		List<CourseNode> nodes = ScoreAccountingHelper.loadAssessableNodes(course.getCourseEnvironment());
 		
 		String fileName = ExportUtil.createFileNameWithTimeStamp(course.getCourseTitle(), "zip");
 		try(OutputStream out = new FileOutputStream(new File(exportDirectory, fileName));
 				ZipOutputStream zout = new ZipOutputStream(out)) {
-			ScoreAccountingHelper.createCourseResultsOverview(users, nodes, course, locale, zout);
+			ScoreAccountingHelper.createCourseResultsOverview(identityKeys, nodes, course, locale, zout);
 		} catch(IOException e) {
 			log.error("", e);
 		}
 
 		// archive all nodes content
-		Visitor archiveV = new NodeArchiveVisitor(locale, course, exportDirectory, charset);
-		TreeVisitor tv = new TreeVisitor(archiveV, course.getRunStructure().getRootNode(), true);
-		tv.visitAll();
+		int parallelism = CoreSpringFactory.getImpl(CourseModule.class).getArchiveParallelism();
+		new CourseNodesArchiver(course, locale, charset, exportDirectory, parallelism).archive(progress);
 		// archive all course log files
 		//OLATadmin gets all logfiles independent of the visibility configuration
 		boolean isOresOwner = (oresRights.length > 0)?oresRights[0]:false;
@@ -767,6 +842,9 @@ public class CourseFactory {
 
 		CoreSpringFactory.getImpl(ChatLogHelper.class).archive(course, exportDirectory);
 		DBFactory.getInstance().commitAndCloseSession();
+		if(progress != null) {
+			progress.finished();
+		}
 
 	}
 
@@ -1047,44 +1125,6 @@ public class CourseFactory {
 		}
 	}
 
-	private static class NodeArchiveVisitor implements Visitor {
-		private File exportPath;
-		private Locale locale;
-		private ICourse course;
-		private String charset;
-
-		/**
-		 * @param locale
-		 * @param course
-		 * @param exportPath
-		 * @param charset
-		 */
-		public NodeArchiveVisitor(Locale locale, ICourse course, File exportPath, String charset) {
-			this.locale = locale;
-			this.exportPath = exportPath;
-			//o_clusterOk by guido: save to hold reference to course inside editor
-			this.course = course;
-			this.charset = charset;
-		}
-
-		@Override
-		public void visit(INode node) {
-			CourseNode cn = (CourseNode) node;
-
-			String archiveName = cn.getType() + "_"
-					+ StringHelper.transformDisplayNameToFileSystemName(cn.getShortName())
-					+ "_" + Formatter.formatDatetimeFilesystemSave(new Date(System.currentTimeMillis())) + ".zip";
-
-			File exportFile = new File(exportPath, archiveName);
-			try(FileOutputStream fileStream = new FileOutputStream(exportFile);
-					ZipOutputStream exportStream = new ZipOutputStream(fileStream);) {
-				cn.archiveNodeData(locale, course, null, exportStream, "", charset);
-			} catch (IOException e) {
-				log.error("", e);
-			}
-		}
-	}
-
 	private static class NodeDeletionVisitor implements Visitor {
 
 		private ICourse course;
@@ -70,6 +70,10 @@ public class CourseModule extends AbstractSpringModule {
 	private boolean displayChangeLog;
 	@Value("${course.disclaimer.enabled:true}")
 	private boolean disclaimerEnabled;
+	@Value("${course.structure.snapshot:true}")
+	private boolean structureSnapshotEnabled;
+	@Value("${course.archive.parallelism:4}")
+	private int archiveParallelism;
 	
 	// Repository types
 	public static final String ORES_TYPE_COURSE = OresHelper.calculateTypeName(CourseModule.class);
@@ -129,6 +133,13 @@ public class CourseModule extends AbstractSpringModule {
 	}
 
 
+	/**
+	 * @return The number of course elements archived in parallel
+	 */
+	public int getArchiveParallelism() {
+		return archiveParallelism;
+	}
+
 	/**
 	 * 
 	 * @return The filename of the zipped help course
@@ -224,4 +235,12 @@ public class CourseModule extends AbstractSpringModule {
 		return disclaimerEnabled;
 	}
 	
+	/**
+	 * @return true if the run structure and the editor tree model are saved
+	 * 		as binary snapshot next to their XML files to load them faster.
+	 */
+	public boolean isStructureSnapshotEnabled() {
+		return structureSnapshotEnabled;
+	}
+	
 }
@@ -0,0 +1,161 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.helpers.Settings;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+
+/**
+ * Binary snapshot of a course structure saved next to its XML file. The XML
+ * file stays the reference, the snapshot is only a faster way to load it
+ * and is ignored if it's stale.<br>
+ * The format is a header with a magic number, the version of the format,
+ * the build identifier of OpenOLAT and the size, modification date and
+ * checksum of the XML file, followed by the deflated Java serialization of
+ * the structure.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class CourseStructureSnapshot {
+	
+	private static final Logger log = Tracing.createLoggerFor(CourseStructureSnapshot.class);
+	
+	private static final int MAGIC = 0x4F4F4353;// OOCS
+	private static final int FORMAT_VERSION = 1;
+	public static final String SNAPSHOT_SUFFIX = ".bin";
+	private static final ObjectInputFilter CLASSES_FILTER = ObjectInputFilter.Config.createFilter("java.**;org.olat.**;de.**;!*");
+	
+	private CourseStructureSnapshot() {
+		//
+	}
+	
+	public static File getSnapshotFile(File xmlFile) {
+		return new File(xmlFile.getParentFile(), xmlFile.getName() + SNAPSHOT_SUFFIX);
+	}
+	
+	/**
+	 * Read the snapshot of the specified XML file.
+	 * 
+	 * @param xmlFile The XML file
+	 * @return The structure or null if the snapshot doesn't exist, is stale or unreadable
+	 */
+	public static Object read(File xmlFile) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		if(!snapshotFile.exists() || !xmlFile.exists()) {
+			return null;
+		}
+		
+		try(InputStream in = new BufferedInputStream(Files.newInputStream(snapshotFile.toPath()));
+				DataInputStream din = new DataInputStream(in)) {
+			if(din.readInt() != MAGIC || din.readInt() != FORMAT_VERSION
+					|| !Settings.getBuildIdentifier().equals(din.readUTF())) {
+				return null;
+			}
+
+			long length = din.readLong();
+			long lastModified = din.readLong();
+			long checksum = din.readLong();
+			if(length != xmlFile.length() || lastModified != xmlFile.lastModified() || checksum != checksum(xmlFile)) {
+				log.debug("Stale course structure snapshot: {}", snapshotFile);
+				return null;
+			}
+			
+			try(ObjectInputStream oin = new ObjectInputStream(new InflaterInputStream(din))) {
+				oin.setObjectInputFilter(CLASSES_FILTER);
+				return oin.readObject();
+			}
+		} catch(Exception e) {
+			log.warn("Cannot read course structure snapshot: {}", snapshotFile, e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Write the snapshot of the object serialized in the XML file.
+	 * 
+	 * @param xmlFile The XML file which was just written
+	 * @param obj The structure
+	 */
+	public static void write(File xmlFile, Object obj) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		File tmpFile = null;
+		try {
+			// the same course can be loaded concurrently, every thread writes its own file
+			tmpFile = File.createTempFile(snapshotFile.getName(), ".tmp", snapshotFile.getParentFile());
+			try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()));
+					DataOutputStream dout = new DataOutputStream(out)) {
+				dout.writeInt(MAGIC);
+				dout.writeInt(FORMAT_VERSION);
+				dout.writeUTF(Settings.getBuildIdentifier());
+				dout.writeLong(xmlFile.length());
+				dout.writeLong(xmlFile.lastModified());
+				dout.writeLong(checksum(xmlFile));
+				
+				DeflaterOutputStream zout = new DeflaterOutputStream(dout, new Deflater(Deflater.BEST_SPEED));
+				ObjectOutputStream oout = new ObjectOutputStream(zout);
+				oout.writeObject(obj);
+				oout.flush();
+				zout.finish();
+			}
+			Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(Exception e) {
+			log.warn("Cannot write course structure snapshot: {}", snapshotFile, e);
+			if(tmpFile != null) {
+				FileUtils.deleteFile(tmpFile);
+			}
+			delete(xmlFile);
+		}
+	}
+	
+	public static void delete(File xmlFile) {
+		File snapshotFile = getSnapshotFile(xmlFile);
+		if(snapshotFile.exists()) {
+			FileUtils.deleteFile(snapshotFile);
+		}
+	}
+	
+	private static long checksum(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(Files.readAllBytes(file.toPath()));
+		return crc.getValue();
+	}
+}
@@ -38,6 +38,7 @@ import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.AssertException;
 import org.olat.core.logging.OLATRuntimeException;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
 import org.olat.core.util.nodes.INode;
 import org.olat.core.util.tree.Visitor;
 import org.olat.core.util.vfs.LocalFolderImpl;
@@ -86,11 +87,14 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 	public static final String RUNSTRUCTURE_XML = "runstructure.xml";
 	public static final String ORES_TYPE_NAME = CourseModule.getCourseTypeName();
 	public static final String COURSEFOLDER = "coursefolder";
+	public static final String CACHE_VERSION_FILE = "cacheversion.txt";
 
 	private Long resourceableId;
 	private Structure runStructure;
 	private boolean hasAssessableNodes = false;
-	private CourseEditorTreeModel editorTreeModel;
+	private volatile CourseEditorTreeModel editorTreeModel;
+	/** editorTreeModelSyncObj is only used to load the editor tree model on demand */
+	private final Object editorTreeModelSyncObj = new Object();
 	private CourseConfig courseConfig;
 	private final CourseEnvironmentImpl courseEnvironment;
 	private LocalFolderImpl courseRootContainer;
@@ -101,6 +105,8 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 	
 	//an PersistingCourseImpl instance could be readOnly if readAndWrite == false, or readAndWrite 
 	private boolean readAndWrite = false; //default readOnly
+	/** counter persisted with the course, read before the configuration and the structure */
+	private volatile long cacheVersion;
 	
 	public boolean isReadAndWrite() {
 		return readAndWrite;
@@ -109,6 +115,37 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 	public void setReadAndWrite(boolean readAndWrite) {
 		this.readAndWrite = readAndWrite;
 	}
+	
+	long getCacheVersion() {
+		return cacheVersion;
+	}
+	
+	/**
+	 * Increment the version of the course and persist it. The method
+	 * must be called within the cluster wide lock of the course and after
+	 * the structure and the configuration are saved.
+	 * 
+	 * @return The new version
+	 */
+	long incrementCacheVersion() {
+		long version = Math.max(loadCacheVersion(), cacheVersion) + 1;
+		File versionFile = new File(getCourseBaseContainer().getBasefile(), CACHE_VERSION_FILE);
+		FileUtils.save(versionFile, Long.toString(version), "UTF-8");
+		cacheVersion = version;
+		return version;
+	}
+	
+	private long loadCacheVersion() {
+		File versionFile = new File(getCourseBaseContainer().getBasefile(), CACHE_VERSION_FILE);
+		if(versionFile.exists()) {
+			try {
+				return Long.parseLong(FileUtils.load(versionFile, "UTF-8").trim());
+			} catch (Exception e) {
+				log.error("Cannot read the cache version of course: {}", resourceableId, e);
+			}
+		}
+		return 0l;
+	}
 
 	/**
 	 * Creates a new Course instance and creates the course filesystem if it does
@@ -121,6 +158,7 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		this.resourceableId = resource.getResourceableId();
 		// prepare filesystem and set course base path and course folder paths
 		prepareFilesystem();
+		cacheVersion = loadCacheVersion();
 		courseConfig = CoreSpringFactory.getImpl(CourseConfigManager.class).loadConfigFor(this); // load or init defaults
 		courseEnvironment = new CourseEnvironmentImpl(this, resource);
 	}
@@ -130,6 +168,7 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		resourceableId = courseEntry.getOlatResource().getResourceableId();
 		// prepare filesystem and set course base path and course folder paths
 		prepareFilesystem();
+		cacheVersion = loadCacheVersion();
 		courseConfig = CoreSpringFactory.getImpl(CourseConfigManager.class).loadConfigFor(this); // load or init defaults
 		courseEnvironment = new CourseEnvironmentImpl(this, courseEntry);
 	}
@@ -139,9 +178,23 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		return runStructure;
 	}
 
+	/**
+	 * The editor tree model is loaded on demand, it's only needed by the editor and
+	 * the publish process, not to run the course.
+	 */
 	@Override
 	public CourseEditorTreeModel getEditorTreeModel() {
-		return editorTreeModel;
+		CourseEditorTreeModel model = editorTreeModel;
+		if(model == null) {
+			synchronized(editorTreeModelSyncObj) {//o_clusterOK by:srosse, only load the model in this VM
+				model = editorTreeModel;
+				if(model == null) {
+					model = loadEditorTreeModel();
+					editorTreeModel = model;
+				}
+			}
+		}
+		return model;
 	}
 
 	@Override
@@ -313,6 +366,7 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 
 	/**
 	 * Load the course from disk/database, load the run structure from xml file etc.
+	 * The editor tree model is loaded on demand.
 	 */
 	void load() {
 		/*
@@ -324,10 +378,12 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		if (!(obj instanceof Structure)) throw new AssertException("Error reading course run structure.");
 		runStructure = (Structure) obj;
 		initHasAssessableNodes();
-		
-		obj = readObject(EDITORTREEMODEL_XML);
+	}
+	
+	private CourseEditorTreeModel loadEditorTreeModel() {
+		Object obj = readObject(EDITORTREEMODEL_XML);
 		if (!(obj instanceof CourseEditorTreeModel)) throw new AssertException("Error reading course editor tree model.");
-		editorTreeModel = (CourseEditorTreeModel) obj;	
+		return (CourseEditorTreeModel) obj;
 	}
 
 	/**
@@ -349,10 +405,19 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		}
 		XStream xstream = CourseXStreamAliases.getWriteCourseXStream();
 		XStreamHelper.writeObject(xstream, vfsItem, obj);
+		
+		File xmlFile = new File(getCourseBaseContainer().getBasefile(), fileName);
+		if(CoreSpringFactory.getImpl(CourseModule.class).isStructureSnapshotEnabled()) {
+			CourseStructureSnapshot.write(xmlFile, obj);
+		} else {
+			CourseStructureSnapshot.delete(xmlFile);
+		}
 	}
 
 	/**
-	 * Read a structure from XML file within the course base path folder.
+	 * Read a structure from the binary snapshot if it's up-to-date or from the
+	 * XML file within the course base path folder. In the second case, the
+	 * snapshot is written for the next time.
 	 * 
 	 * @param fileName
 	 * @return de-serialized object
@@ -363,9 +428,23 @@ public class PersistingCourseImpl implements ICourse, OLATResourceable, Serializ
 		if (!(vfsItem instanceof VFSLeaf)) {
 			throw new CorruptedCourseException("Cannot resolve file: " + fileName + " course=" + toString());
 		}
+		
+		boolean snapshotEnabled = CoreSpringFactory.getImpl(CourseModule.class).isStructureSnapshotEnabled();
+		File xmlFile = new File(getCourseBaseContainer().getBasefile(), fileName);
+		if(snapshotEnabled) {
+			Object obj = CourseStructureSnapshot.read(xmlFile);
+			if(obj != null) {
+				return obj;
+			}
+		}
+		
 		try {
 			XStream xstream = CourseXStreamAliases.getReadCourseXStream();
-			return XStreamHelper.readObject(xstream, (VFSLeaf)vfsItem);
+			Object obj = XStreamHelper.readObject(xstream, (VFSLeaf)vfsItem);
+			if(snapshotEnabled) {
+				CourseStructureSnapshot.write(xmlFile, obj);
+			}
+			return obj;
 		} catch (Exception e) {
 			log.error("Cannot read course tree file: " + fileName, e);
 			throw new CorruptedCourseException("Cannot resolve file: " + fileName + " course=" + toString(), e);
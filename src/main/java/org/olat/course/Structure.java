@@ -27,6 +27,8 @@ package org.olat.course;
 
 import java.io.Serializable;
 
+import org.olat.course.condition.interpreter.ConditionExpressions;
+import org.olat.course.condition.interpreter.ConditionInterpreter;
 import org.olat.course.nodes.CourseNode;
 
 /**
@@ -41,6 +43,7 @@ public class Structure implements Serializable {
 	private CourseNode rootNode = null;
 	transient private final static int CURRENTVERSION = 3;
 	private int version;
+	private transient ConditionExpressions conditionExpressions;
 	
 
 	/**
@@ -110,6 +113,19 @@ public class Structure implements Serializable {
 		this.version = version;
 	}
 	
+	/**
+	 * The parsed condition expressions are shared by all the users
+	 * of the course and live as long as the run structure.
+	 * 
+	 * @return The parsed condition expressions of the course
+	 */
+	public synchronized ConditionExpressions getConditionExpressions() {
+		if(conditionExpressions == null) {
+			conditionExpressions = ConditionInterpreter.createSharedExpressions();
+		}
+		return conditionExpressions;
+	}
+	
 	public boolean isVersionUpToDate(){
 		if (Integer.valueOf(version) == null || version < CURRENTVERSION) return false;
 		return true;
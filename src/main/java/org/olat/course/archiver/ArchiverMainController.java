@@ -34,6 +34,8 @@ import org.olat.core.extensions.Extension;
 import org.olat.core.extensions.action.ActionExtension;
 import org.olat.core.gui.UserRequest;
 import org.olat.core.gui.components.Component;
+import org.olat.core.gui.components.link.Link;
+import org.olat.core.gui.components.link.LinkFactory;
 import org.olat.core.gui.components.panel.Panel;
 import org.olat.core.gui.components.tree.GenericTreeModel;
 import org.olat.core.gui.components.tree.GenericTreeNode;
@@ -50,6 +52,7 @@ import org.olat.core.id.OLATResourceable;
 import org.olat.core.id.context.ContextEntry;
 import org.olat.core.id.context.StateEntry;
 import org.olat.core.logging.activity.ActionType;
+import org.olat.core.util.StringHelper;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
 import org.olat.course.nodes.CheckListCourseNode;
@@ -65,6 +68,7 @@ import org.olat.course.nodes.ScormCourseNode;
 import org.olat.course.nodes.SurveyCourseNode;
 import org.olat.course.nodes.TACourseNode;
 import org.olat.course.nodes.WikiCourseNode;
+import org.olat.user.UserManager;
 
 /**
  * Initial Date:  May 26, 2004
@@ -93,6 +97,7 @@ public class ArchiverMainController extends MainLayoutBasicController implements
 	private IArchiverCallback archiverCallback;
 	private MenuTree menuTree;
 	private VelocityContainer intro;
+	private Link archiveCompleteLink;
 	private Panel main;
 	private Controller resC;
 	private Controller contentCtr;
@@ -122,6 +127,9 @@ public class ArchiverMainController extends MainLayoutBasicController implements
 		
 		// Intro page, static
 		intro = createVelocityContainer("archiver_index");
+		if(archiverCallback instanceof FullAccessArchiverCallback) {
+			archiveCompleteLink = LinkFactory.createButton("archive.complete", intro, this);
+		}
 		main.setContent(intro);
 
 		// Navigation menu
@@ -143,7 +151,9 @@ public class ArchiverMainController extends MainLayoutBasicController implements
 
 	@Override
 	public void event(UserRequest ureq, Component source, Event event) {
-		if (source == menuTree) {
+		if(source == archiveCompleteLink) {
+			doArchiveComplete(ureq);
+		} else if (source == menuTree) {
 			if (event.getCommand().equals(MenuTree.COMMAND_TREENODE_CLICKED)) { // goto node in edit mode
 				TreeNode selTreeNode = menuTree.getSelectedNode();
 				Object cmd = selTreeNode.getUserObject();
@@ -156,6 +166,14 @@ public class ArchiverMainController extends MainLayoutBasicController implements
 		}
 	}
 
+	private void doArchiveComplete(UserRequest ureq) {
+		String charset = UserManager.getInstance().getUserCharset(getIdentity());
+		CourseFactory.archiveCourseInBackground(ores, charset, getLocale(), getIdentity(), ureq.getUserSession().getRoles());
+		ICourse course = CourseFactory.loadCourse(ores);
+		String folder = StringHelper.transformDisplayNameToFileSystemName(course.getCourseTitle());
+		showInfo("archive.complete.started", folder);
+	}
+
 	/**
 	 * 
 	 * @param ureq
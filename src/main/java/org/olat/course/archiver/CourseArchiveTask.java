@@ -0,0 +1,141 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.archiver;
+
+import java.io.File;
+import java.util.Locale;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.basesecurity.BaseSecurity;
+import org.olat.core.CoreSpringFactory;
+import org.olat.core.commons.services.taskexecutor.LongRunnable;
+import org.olat.core.commons.services.taskexecutor.Sequential;
+import org.olat.core.commons.services.taskexecutor.Task;
+import org.olat.core.commons.services.taskexecutor.TaskAwareRunnable;
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
+import org.olat.core.id.Identity;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.async.ProgressDelegate;
+import org.olat.core.util.resource.OresHelper;
+import org.olat.course.CourseFactory;
+import org.olat.course.ICourse;
+
+/**
+ * The task which archives a complete course in the background. It runs in
+ * the sequential queue of the task executor, the course elements are archived
+ * by the tasks of the standard queue and the task waits for them.
+ * The progress is saved with the task.
+ *
+ * Initial date: 19 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CourseArchiveTask implements LongRunnable, TaskAwareRunnable, Sequential {
+
+	private static final long serialVersionUID = -2315064876521786712L;
+	private static final Logger log = Tracing.createLoggerFor(CourseArchiveTask.class);
+
+	public static final String RES_SUB_PATH = "archive";
+
+	private final OLATResourceable courseRes;
+	private final String charset;
+	private final Locale locale;
+	private final Long identityKey;
+	private final boolean administrator;
+	private final boolean owner;
+	private final boolean learnResourceManager;
+
+	private transient Task task;
+
+	public CourseArchiveTask(OLATResourceable courseRes, String charset, Locale locale, Identity identity,
+			boolean administrator, boolean owner, boolean learnResourceManager) {
+		this.courseRes = OresHelper.clone(courseRes);
+		this.charset = charset;
+		this.locale = locale;
+		this.identityKey = identity.getKey();
+		this.administrator = administrator;
+		this.owner = owner;
+		this.learnResourceManager = learnResourceManager;
+	}
+
+	@Override
+	public void setTask(Task task) {
+		this.task = task;
+	}
+
+	@Override
+	public void run() {
+		Identity identity = CoreSpringFactory.getImpl(BaseSecurity.class).loadIdentityByKey(identityKey);
+		ICourse course = CourseFactory.loadCourse(courseRes);
+		if(identity == null || course == null) {
+			log.warn("Cannot archive course: {} for identity: {}", courseRes.getResourceableId(), identityKey);
+			return;
+		}
+
+		log.info("Start archive of course: {}", courseRes.getResourceableId());
+		File exportDirectory = CourseFactory.getOrCreateDataExportDirectory(identity, course.getCourseTitle());
+		CourseFactory.archiveCourse(identity, course, charset, locale, exportDirectory, new TaskProgress(),
+				administrator, owner, learnResourceManager);
+		log.info("End archive of course: {}", courseRes.getResourceableId());
+	}
+
+	/**
+	 * Save the progress with the task, only if it changed of at least
+	 * one percent.
+	 */
+	private class TaskProgress implements ProgressDelegate {
+
+		private float max;
+		private double savedProgress = 0.0d;
+
+		@Override
+		public void setMax(float max) {
+			this.max = max;
+		}
+
+		@Override
+		public void setActual(float value) {
+			if(max > 0.0f) {
+				double progress = Math.min(1.0d, value / max);
+				if(progress - savedProgress >= 0.01d || progress >= 1.0d) {
+					saveProgress(progress);
+				}
+			}
+		}
+
+		@Override
+		public void setInfo(String message) {
+			//
+		}
+
+		@Override
+		public void finished() {
+			saveProgress(1.0d);
+		}
+
+		private void saveProgress(double progress) {
+			if(task != null && progress > savedProgress) {
+				savedProgress = progress;
+				CoreSpringFactory.getImpl(TaskExecutorManager.class).updateProgress(task, Double.valueOf(progress));
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.archiver;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.CoreSpringFactory;
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.Formatter;
+import org.olat.core.util.StringHelper;
+import org.olat.core.util.async.ProgressDelegate;
+import org.olat.core.util.tree.TreeVisitor;
+import org.olat.course.ICourse;
+import org.olat.course.nodes.CourseNode;
+
+/**
+ * Archive the data of all the course elements of a course, every course
+ * element in its own zip file in the export directory. The course elements
+ * are independent of each other and are archived in parallel by up to
+ * parallelism tasks of the task executor, every task with its own database
+ * session. With a parallelism of 1, the course elements are archived one
+ * after the other in the calling thread.<br>
+ * The calling thread is the CourseArchiveTask of the sequential queue or,
+ * before the deletion of a course, the thread which deletes it.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CourseNodesArchiver {
+	
+	private static final Logger log = Tracing.createLoggerFor(CourseNodesArchiver.class);
+	
+	private final ICourse course;
+	private final Locale locale;
+	private final String charset;
+	private final File exportDirectory;
+	private final int parallelism;
+	
+	public CourseNodesArchiver(ICourse course, Locale locale, String charset, File exportDirectory, int parallelism) {
+		this.course = course;
+		this.locale = locale;
+		this.charset = charset;
+		this.exportDirectory = exportDirectory;
+		this.parallelism = Math.max(1, parallelism);
+	}
+	
+	/**
+	 * Archive all the course elements of the run structure in the export
+	 * directory and wait until all are done.
+	 * 
+	 * @param progress Receives the number of archived course elements (optional)
+	 */
+	public void archive(ProgressDelegate progress) {
+		List<CourseNode> nodes = new ArrayList<>();
+		new TreeVisitor(node -> nodes.add((CourseNode)node), course.getRunStructure().getRootNode(), true)
+			.visitAll();
+		if(progress != null) {
+			progress.setMax(nodes.size());
+		}
+		
+		AtomicInteger numOfArchivedNodes = new AtomicInteger();
+		List<Runnable> tasks = new ArrayList<>(nodes.size());
+		for(CourseNode node:nodes) {
+			tasks.add(() -> {
+				archiveNode(node);
+				int archived = numOfArchivedNodes.incrementAndGet();
+				if(progress != null) {
+					progress.setActual(archived);
+				}
+			});
+		}
+		CoreSpringFactory.getImpl(TaskExecutorManager.class).executeInParallel(tasks, parallelism);
+	}
+	
+	private void archiveNode(CourseNode cn) {
+		String archiveName = cn.getType() + "_"
+				+ StringHelper.transformDisplayNameToFileSystemName(cn.getShortName())
+				+ "_" + Formatter.formatDatetimeFilesystemSave(new Date(System.currentTimeMillis())) + ".zip";
+
+		File exportFile = new File(exportDirectory, archiveName);
+		try(FileOutputStream fileStream = new FileOutputStream(exportFile);
+				ZipOutputStream exportStream = new ZipOutputStream(fileStream);) {
+			cn.archiveNodeData(locale, course, null, exportStream, "", charset);
+		} catch (IOException e) {
+			log.error("Cannot archive course element: {} of course: {}", cn.getIdent(), course.getResourceableId(), e);
+		}
+	}
+}
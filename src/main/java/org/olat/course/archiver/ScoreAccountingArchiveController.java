@@ -43,7 +43,6 @@ import org.olat.core.gui.control.WindowControl;
 import org.olat.core.gui.control.controller.BasicController;
 import org.olat.core.gui.media.FileMediaResource;
 import org.olat.core.gui.media.MediaResource;
-import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.util.ExportUtil;
 import org.olat.course.CourseFactory;
@@ -96,7 +95,7 @@ public class ScoreAccountingArchiveController extends BasicController {
 	
 	private void doStartExport() {
 		ICourse course = CourseFactory.loadCourse(ores);
-		List<Identity> users = ScoreAccountingHelper.loadUsers(course.getCourseEnvironment());
+		List<Long> identityKeys = ScoreAccountingHelper.loadUserKeys(course.getCourseEnvironment());
 		List<CourseNode> nodes = ScoreAccountingHelper.loadAssessableNodes(course.getCourseEnvironment());
 		
 		String courseTitle = course.getCourseTitle();
@@ -106,7 +105,7 @@ public class ScoreAccountingArchiveController extends BasicController {
 		File downloadFile = new File(exportDirectory, fileName);
 		try(OutputStream fOut = new FileOutputStream(downloadFile);
 				ZipOutputStream zout = new ZipOutputStream(fOut)) {
-			ScoreAccountingHelper.createCourseResultsOverview(users, nodes, course, getLocale(), zout);
+			ScoreAccountingHelper.createCourseResultsOverview(identityKeys, nodes, course, getLocale(), zout);
 		} catch(IOException e) {
 			logError("", e);
 		}
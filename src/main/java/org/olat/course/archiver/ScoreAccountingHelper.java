@@ -32,16 +32,21 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import org.apache.logging.log4j.Logger;
+import org.olat.basesecurity.BaseSecurity;
 import org.olat.basesecurity.GroupRoles;
 import org.olat.core.CoreSpringFactory;
 import org.olat.core.commons.persistence.DBFactory;
@@ -76,9 +81,11 @@ import org.olat.course.run.scoring.ScoreEvaluation;
 import org.olat.course.run.userview.UserCourseEnvironment;
 import org.olat.course.run.userview.UserCourseEnvironmentImpl;
 import org.olat.group.BusinessGroupService;
+import org.olat.modules.assessment.manager.AssessmentEntryDAO;
 import org.olat.repository.RepositoryEntry;
 import org.olat.repository.RepositoryEntryRelationType;
 import org.olat.repository.RepositoryService;
+import org.olat.repository.manager.RepositoryEntryRelationDAO;
 import org.olat.resource.OLATResource;
 import org.olat.user.UserManager;
 import org.olat.user.propertyhandlers.UserPropertyHandler;
@@ -91,19 +98,48 @@ public class ScoreAccountingHelper {
 	
 	private static final Logger log = Tracing.createLoggerFor(ScoreAccountingHelper.class);
 	
-	public static void createCourseResultsOverview(List<Identity> identities, List<CourseNode> nodes, ICourse course, Locale locale, ZipOutputStream zout) {
+	/**
+	 * The participants are processed in pages of this size, small enough to
+	 * use the identity keys in the queries.
+	 */
+	private static final int PAGE_SIZE = 50;
+	
+	/**
+	 * Write the results overview and the assessment documents of the specified
+	 * users. The users are loaded by pages of keys and the database session is
+	 * committed and closed after every page.
+	 * 
+	 * @param identityKeys The keys of the users, ordered
+	 * @param nodes The assessable course nodes
+	 * @param course The course
+	 * @param locale The locale
+	 * @param zout The zip stream
+	 */
+	public static void createCourseResultsOverview(List<Long> identityKeys, List<CourseNode> nodes, ICourse course, Locale locale, ZipOutputStream zout) {
 		try(OutputStream out = new ShieldOutputStream(zout)) {
 			zout.putNextEntry(new ZipEntry("Course_results.xlsx"));
-			createCourseResultsOverviewXMLTable(identities, nodes, course, locale, out);
+			try(OpenXMLWorkbook workbook = new OpenXMLWorkbook(out, 1)) {
+				createCourseResultsOverviewPages(new IdentityPages(identityKeys), nodes, course, locale, workbook);
+			} catch(Exception e) {
+				log.error("", e);
+			}
 			zout.closeEntry();
 		} catch(IOException e) {
 			log.error("", e);
 		}
 
+		List<CourseNode> nodesWithDocuments = new ArrayList<>(nodes.size());
 		for(CourseNode node:nodes) {
-			String dir = "Assessment_documents/" + StringHelper.transformDisplayNameToFileSystemName(node.getShortName());
 			if(node instanceof IQTESTCourseNode
 					|| node.getModuleConfiguration().getBooleanSafe(MSCourseNode.CONFIG_KEY_HAS_INDIVIDUAL_ASSESSMENT_DOCS, false)) {
+				nodesWithDocuments.add(node);
+			}
+		}
+		if(nodesWithDocuments.isEmpty()) return;
+		
+		for(List<Identity> identities:new IdentityPages(identityKeys)) {
+			for(CourseNode node:nodesWithDocuments) {
+				String dir = "Assessment_documents/" + StringHelper.transformDisplayNameToFileSystemName(node.getShortName());
 				for(Identity assessedIdentity:identities) {
 					List<File> assessmentDocuments = course.getCourseEnvironment()
 							.getAssessmentManager().getIndividualAssessmentDocuments(node, assessedIdentity);
@@ -118,8 +154,8 @@ public class ScoreAccountingHelper {
 						}
 					}
 				}
-				DBFactory.getInstance().commitAndCloseSession();
 			}
+			DBFactory.getInstance().commitAndCloseSession();
 		}
 	}
 	
@@ -136,13 +172,17 @@ public class ScoreAccountingHelper {
 	 */
 	public static void createCourseResultsOverviewXMLTable(List<Identity> identities, List<CourseNode> myNodes, ICourse course, Locale locale, OutputStream bos) {
 		try(OpenXMLWorkbook workbook = new OpenXMLWorkbook(bos, 1)) {
-			createCourseResultsOverviewXMLTable(identities, myNodes, course, locale, workbook);
+			createCourseResultsOverviewPages(Collections.singletonList(identities), myNodes, course, locale, workbook);
 		} catch(Exception e) {
 			log.error("", e);
 		}
 	}
 	
-	private static void createCourseResultsOverviewXMLTable(List<Identity> identities, List<CourseNode> myNodes, ICourse course, Locale locale, OpenXMLWorkbook workbook) {
+	/**
+	 * @param pages The users, page by page. The initial launch dates are loaded
+	 * 		for every page.
+	 */
+	private static void createCourseResultsOverviewPages(Iterable<List<Identity>> pages, List<CourseNode> myNodes, ICourse course, Locale locale, OpenXMLWorkbook workbook) {
 		CourseAssessmentService courseAssessmentService = CoreSpringFactory.getImpl(CourseAssessmentService.class);
 		OpenXMLWorksheet sheet = workbook.nextWorksheet();
 		sheet.setHeaderRows(2);
@@ -239,124 +279,127 @@ public class ScoreAccountingHelper {
 		DateFormat df = new SimpleDateFormat("yyyy-MM-dd hh:mm");
 		UserCourseInformationsManager mgr = CoreSpringFactory.getImpl(UserCourseInformationsManager.class);
 		OLATResource courseResource = courseEnvironment.getCourseGroupManager().getCourseResource();
-		Map<Long,Date> firstTimes = mgr.getInitialLaunchDates(courseResource, identities);
 
-		for (Identity identity:identities) {
-			Row dataRow = sheet.newRow();
-			int dataColCnt = 0;
-			ContextEntry ce = BusinessControlFactory.getInstance().createContextEntry(identity);
-			String uname = BusinessControlFactory.getInstance().getAsURIString(Collections.singletonList(ce), false);
+		for(List<Identity> identities:pages) {
+			Map<Long,Date> firstTimes = mgr.getInitialLaunchDates(courseResource, identities);
 
-			dataRow.addCell(dataColCnt++, ++rowNumber, null);
-			dataRow.addCell(dataColCnt++, uname, null);
+			for (Identity identity:identities) {
+				Row dataRow = sheet.newRow();
+				int dataColCnt = 0;
+				ContextEntry ce = BusinessControlFactory.getInstance().createContextEntry(identity);
+				String uname = BusinessControlFactory.getInstance().getAsURIString(Collections.singletonList(ce), false);
 
-			if(firstTimes.containsKey(identity.getKey())) {
-				dataRow.addCell(dataColCnt++, firstTimes.get(identity.getKey()), workbook.getStyles().getDateStyle());
-			} else {
-				dataRow.addCell(dataColCnt++, mi);
-			}
+				dataRow.addCell(dataColCnt++, ++rowNumber, null);
+				dataRow.addCell(dataColCnt++, uname, null);
 
-			// add dynamic user properties
-			for (UserPropertyHandler propertyHandler : userPropertyHandlers) {
-				String value = propertyHandler.getUserProperty(identity.getUser(), t.getLocale());
-				dataRow.addCell(dataColCnt++, (StringHelper.containsNonWhitespace(value) ? value : na));
-			}
+				if(firstTimes.containsKey(identity.getKey())) {
+					dataRow.addCell(dataColCnt++, firstTimes.get(identity.getKey()), workbook.getStyles().getDateStyle());
+				} else {
+					dataRow.addCell(dataColCnt++, mi);
+				}
 
-			// create a identenv with no roles, no attributes, no locale
-			IdentityEnvironment ienv = new IdentityEnvironment();
-			ienv.setIdentity(identity);
-			UserCourseEnvironment uce = new UserCourseEnvironmentImpl(ienv, course.getCourseEnvironment());
-			ScoreAccounting scoreAccount = uce.getScoreAccounting();
-			scoreAccount.evaluateAll();
-			AssessmentManager am = course.getCourseEnvironment().getAssessmentManager();
-
-			for (CourseNode acnode:myNodes) {
-				AssessmentConfig assessmentConfig = courseAssessmentService.getAssessmentConfig(acnode);
-				boolean scoreOk = Mode.none != assessmentConfig.getScoreMode();
-				boolean passedOk = Mode.none != assessmentConfig.getPassedMode();
-				boolean attemptsOk = assessmentConfig.hasAttempts();
-				boolean commentOk = assessmentConfig.hasComment();
-
-				if (acnode.getType().equals("ita")) {
-					String log = courseAssessmentService.getAuditLog(acnode, uce);
-					String date = null;
-					Date lastUploaded = null;
-					try {
-						log = log.toLowerCase();
-						log = log.substring(0, log.lastIndexOf("submit"));
-						log = log.substring(log.lastIndexOf("date:"));
-						date = log.split("\n")[0].substring(6);
-						lastUploaded = df.parse(date);
-					} catch (Exception e) {
-						//
-					}
-					if (lastUploaded != null) {
-						dataRow.addCell(dataColCnt++, lastUploaded, workbook.getStyles().getDateStyle());
-					} else { // date == null
-						dataRow.addCell(dataColCnt++, mi);
-					}
+				// add dynamic user properties
+				for (UserPropertyHandler propertyHandler : userPropertyHandlers) {
+					String value = propertyHandler.getUserProperty(identity.getUser(), t.getLocale());
+					dataRow.addCell(dataColCnt++, (StringHelper.containsNonWhitespace(value) ? value : na));
 				}
 
-				if (scoreOk || passedOk || commentOk || attemptsOk) {
-					ScoreEvaluation se = scoreAccount.evalCourseNode(acnode);
+				// create a identenv with no roles, no attributes, no locale
+				IdentityEnvironment ienv = new IdentityEnvironment();
+				ienv.setIdentity(identity);
+				UserCourseEnvironment uce = new UserCourseEnvironmentImpl(ienv, course.getCourseEnvironment());
+				ScoreAccounting scoreAccount = uce.getScoreAccounting();
+				scoreAccount.evaluateAll();
+				AssessmentManager am = course.getCourseEnvironment().getAssessmentManager();
+
+				for (CourseNode acnode:myNodes) {
+					AssessmentConfig assessmentConfig = courseAssessmentService.getAssessmentConfig(acnode);
+					boolean scoreOk = Mode.none != assessmentConfig.getScoreMode();
+					boolean passedOk = Mode.none != assessmentConfig.getPassedMode();
+					boolean attemptsOk = assessmentConfig.hasAttempts();
+					boolean commentOk = assessmentConfig.hasComment();
 
-					if (scoreOk) {
-						Float score = se.getScore();
-						if (score != null) {
-							dataRow.addCell(dataColCnt++, AssessmentHelper.getRoundedScore(score), null);
-						} else { // score == null
+					if (acnode.getType().equals("ita")) {
+						String log = courseAssessmentService.getAuditLog(acnode, uce);
+						String date = null;
+						Date lastUploaded = null;
+						try {
+							log = log.toLowerCase();
+							log = log.substring(0, log.lastIndexOf("submit"));
+							log = log.substring(log.lastIndexOf("date:"));
+							date = log.split("\n")[0].substring(6);
+							lastUploaded = df.parse(date);
+						} catch (Exception e) {
+							//
+						}
+						if (lastUploaded != null) {
+							dataRow.addCell(dataColCnt++, lastUploaded, workbook.getStyles().getDateStyle());
+						} else { // date == null
 							dataRow.addCell(dataColCnt++, mi);
 						}
 					}
 
-					if (passedOk) {
-						Boolean passed = se.getPassed();
-						if (passed != null) {
-							String yesno;
-							if (passed.booleanValue()) {
-								yesno = yes;
-							} else {
-								yesno = no;
+					if (scoreOk || passedOk || commentOk || attemptsOk) {
+						ScoreEvaluation se = scoreAccount.evalCourseNode(acnode);
+
+						if (scoreOk) {
+							Float score = se.getScore();
+							if (score != null) {
+								dataRow.addCell(dataColCnt++, AssessmentHelper.getRoundedScore(score), null);
+							} else { // score == null
+								dataRow.addCell(dataColCnt++, mi);
 							}
-							dataRow.addCell(dataColCnt++, yesno);
-						} else { // passed == null
-							dataRow.addCell(dataColCnt++, mi);
 						}
-					}
 
-					if (attemptsOk) {
-						Integer attempts = am.getNodeAttempts(acnode, identity);
-						int a = attempts == null ? 0 : attempts.intValue();
-						dataRow.addCell(dataColCnt++, a, null);
-					}
+						if (passedOk) {
+							Boolean passed = se.getPassed();
+							if (passed != null) {
+								String yesno;
+								if (passed.booleanValue()) {
+									yesno = yes;
+								} else {
+									yesno = no;
+								}
+								dataRow.addCell(dataColCnt++, yesno);
+							} else { // passed == null
+								dataRow.addCell(dataColCnt++, mi);
+							}
+						}
 
-					Date lastModified = am.getScoreLastModifiedDate(acnode, identity);
-					if(lastModified != null) {
-						dataRow.addCell(dataColCnt++, lastModified, workbook.getStyles().getDateStyle());
-					} else {
-						dataRow.addCell(dataColCnt++, mi);
-					}
+						if (attemptsOk) {
+							Integer attempts = am.getNodeAttempts(acnode, identity);
+							int a = attempts == null ? 0 : attempts.intValue();
+							dataRow.addCell(dataColCnt++, a, null);
+						}
 
-					if (commentOk) {
-						// Comments for user
-						String comment = am.getNodeComment(acnode, identity);
-						if (comment != null) {
-							dataRow.addCell(dataColCnt++, comment);
+						Date lastModified = am.getScoreLastModifiedDate(acnode, identity);
+						if(lastModified != null) {
+							dataRow.addCell(dataColCnt++, lastModified, workbook.getStyles().getDateStyle());
 						} else {
 							dataRow.addCell(dataColCnt++, mi);
 						}
-					}
 
-					// Always export comments for tutors
-					String coachComment = am.getNodeCoachComment(acnode, identity);
-					if (coachComment != null) {
-						dataRow.addCell(dataColCnt++, coachComment);
-					} else {
-						dataRow.addCell(dataColCnt++, mi);
+						if (commentOk) {
+							// Comments for user
+							String comment = am.getNodeComment(acnode, identity);
+							if (comment != null) {
+								dataRow.addCell(dataColCnt++, comment);
+							} else {
+								dataRow.addCell(dataColCnt++, mi);
+							}
+						}
+
+						// Always export comments for tutors
+						String coachComment = am.getNodeCoachComment(acnode, identity);
+						if (coachComment != null) {
+							dataRow.addCell(dataColCnt++, coachComment);
+						} else {
+							dataRow.addCell(dataColCnt++, mi);
+						}
 					}
 				}
+				DBFactory.getInstance().commitAndCloseSession();
 			}
-			DBFactory.getInstance().commitAndCloseSession();
 		}
 
 		//min. max. informations
@@ -434,13 +477,30 @@ public class ScoreAccountingHelper {
 	 * @return The list of identities from this course
 	 */
 	public static List<Identity> loadUsers(CourseEnvironment courseEnv) {
-		List<Identity> participants = loadParticipants(courseEnv);
-		Set<Identity> userSet = new HashSet<>(participants);
-		List<Identity> assessedList = courseEnv.getCoursePropertyManager().getAllIdentitiesWithCourseAssessmentData(userSet);
-		if(!assessedList.isEmpty()) {
-			userSet.addAll(assessedList);
+		List<Long> identityKeys = loadUserKeys(courseEnv);
+		List<Identity> users = new ArrayList<>(identityKeys.size());
+		for(List<Identity> page:new IdentityPages(identityKeys)) {
+			users.addAll(page);
 		}
-		return new ArrayList<>(userSet);
+		return users;
+	}
+	
+	/**
+	 * Load the keys of the participants and of the users with assessment
+	 * data, without loading the identities.
+	 * 
+	 * @param courseEnv The course environment
+	 * @return The ordered list of identity keys
+	 */
+	public static List<Long> loadUserKeys(CourseEnvironment courseEnv) {
+		RepositoryEntry re = courseEnv.getCourseGroupManager().getCourseEntry();
+		if(re == null) {
+			return new ArrayList<>();
+		}
+		Set<Long> keys = new TreeSet<>(CoreSpringFactory.getImpl(RepositoryEntryRelationDAO.class)
+				.getMemberKeys(re, RepositoryEntryRelationType.all, GroupRoles.participant.name()));
+		keys.addAll(CoreSpringFactory.getImpl(AssessmentEntryDAO.class).getAllIdentityKeysWithAssessmentData(re));
+		return new ArrayList<>(keys);
 	}
 	
 	public static List<Identity> loadUsers(CourseEnvironment courseEnv, ArchiveOptions options) {
@@ -490,4 +550,42 @@ public class ScoreAccountingHelper {
 	}
 	
 
+	
+	/**
+	 * Load the identities page by page, by their keys.
+	 */
+	private static class IdentityPages implements Iterable<List<Identity>> {
+		
+		private final List<Long> identityKeys;
+		
+		public IdentityPages(List<Long> identityKeys) {
+			this.identityKeys = identityKeys;
+		}
+
+		@Override
+		public Iterator<List<Identity>> iterator() {
+			return new Iterator<List<Identity>>() {
+				
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < identityKeys.size();
+				}
+
+				@Override
+				public List<Identity> next() {
+					if(!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int toIndex = Math.min(index + PAGE_SIZE, identityKeys.size());
+					List<Long> pageKeys = identityKeys.subList(index, toIndex);
+					index = toIndex;
+					List<Identity> page = new ArrayList<>(CoreSpringFactory.getImpl(BaseSecurity.class).loadIdentityByKeys(pageKeys));
+					page.sort(Comparator.comparing(Identity::getKey));
+					return page;
+				}
+			};
+		}
+	}
 }
@@ -29,6 +29,7 @@ import org.olat.core.gui.components.stack.TooledStackedPanel;
 import org.olat.core.gui.control.Controller;
 import org.olat.core.gui.control.WindowControl;
 import org.olat.core.id.Identity;
+import org.olat.core.util.async.ProgressDelegate;
 import org.olat.course.ICourse;
 import org.olat.course.assessment.handler.AssessmentConfig;
 import org.olat.course.assessment.ui.tool.AssessmentCourseNodeController;
@@ -314,6 +315,17 @@ public interface CourseAssessmentService {
 	 */
 	public void evaluateAll(ICourse course);
 	
+	/**
+	 * Recalculates all AssessmentEvaluation of all users in the course. The
+	 * assessment entries are loaded for slices of users at once and the
+	 * slices are evaluated in parallel.
+	 *
+	 * @param course The course
+	 * @param progress A delegate to report the progress (optional)
+	 * @return The users which could not be evaluated
+	 */
+	public List<Identity> evaluateAll(ICourse course, ProgressDelegate progress);
+	
 	/**
 	 * Evaluates the all assessment entries of a repository entry / user when the
 	 * start date of a sub assessment entry is after the start.
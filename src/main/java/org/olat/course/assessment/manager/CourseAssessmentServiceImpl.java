@@ -20,6 +20,8 @@
 package org.olat.course.assessment.manager;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,12 +29,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.basesecurity.GroupRoles;
 import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
 import org.olat.core.gui.UserRequest;
 import org.olat.core.gui.components.stack.BreadcrumbPanel;
 import org.olat.core.gui.components.stack.TooledStackedPanel;
@@ -41,6 +46,7 @@ import org.olat.core.gui.control.WindowControl;
 import org.olat.core.id.Identity;
 import org.olat.core.id.IdentityEnvironment;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.async.ProgressDelegate;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
 import org.olat.course.assessment.AssessmentManager;
@@ -56,6 +62,7 @@ import org.olat.course.properties.CoursePropertyManager;
 import org.olat.course.run.environment.CourseEnvironment;
 import org.olat.course.run.navigation.NodeVisitedListener;
 import org.olat.course.run.scoring.AccountingEvaluators;
+import org.olat.course.run.scoring.AssessmentAccounting;
 import org.olat.course.run.scoring.AssessmentEvaluation;
 import org.olat.course.run.scoring.ScoreAccounting;
 import org.olat.course.run.scoring.ScoreEvaluation;
@@ -74,6 +81,7 @@ import org.olat.repository.RepositoryEntry;
 import org.olat.repository.RepositoryEntryRelationType;
 import org.olat.repository.RepositoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -88,6 +96,11 @@ public class CourseAssessmentServiceImpl implements CourseAssessmentService, Nod
 	private static final Logger log = Tracing.createLoggerFor(CourseAssessmentServiceImpl.class);
 	
 	private static final String NON_ASSESSMENT_TYPE = NonAssessmentHandler.NODE_TYPE;
+	private static final int EVALUATION_BATCH_SIZE = 50;
+	private static final int EVALUATION_COMMIT_SIZE = 10;
+	
+	@Value("${assessment.evaluation.parallelism:2}")
+	private int evaluationParallelism;
 	
 	@Autowired
 	private DB dbInstance;
@@ -95,6 +108,8 @@ public class CourseAssessmentServiceImpl implements CourseAssessmentService, Nod
 	private AssessmentService assessmentService;
 	@Autowired
 	private RepositoryService repositoryService;
+	@Autowired
+	private TaskExecutorManager taskExecutorManager;
 	
 	@Autowired
 	private List<AssessmentHandler> loadedAssessmentHandlers;
@@ -387,22 +402,145 @@ public class CourseAssessmentServiceImpl implements CourseAssessmentService, Nod
 
 	@Override
 	public void evaluateAll(ICourse course) {
+		evaluateAll(course, null);
+	}
+
+	@Override
+	public List<Identity> evaluateAll(ICourse course, ProgressDelegate progress) {
 		log.debug("Evaluate all score accountings for course {}", course);
+		long start = System.currentTimeMillis();
 		CourseEnvironment courseEnv = course.getCourseEnvironment();
 		RepositoryEntry courseEntry = courseEnv.getCourseGroupManager().getCourseEntry();
 		CoursePropertyManager pm = courseEnv.getCoursePropertyManager();
 		
-		Set<Identity> identities = new HashSet<>();
+		Map<Long,Identity> identities = new HashMap<>();
 		List<Identity> assessedIdentities = pm.getAllIdentitiesWithCourseAssessmentData(null);
-		identities.addAll(assessedIdentities);
+		for(Identity assessedIdentity:assessedIdentities) {
+			identities.put(assessedIdentity.getKey(), assessedIdentity);
+		}
+		Set<Long> participantKeys = new HashSet<>();
 		List<Identity> members = repositoryService.getMembers(courseEntry, RepositoryEntryRelationType.all, GroupRoles.participant.name());
-		identities.addAll(members);
+		for(Identity member:members) {
+			identities.put(member.getKey(), member);
+			participantKeys.add(member.getKey());
+		}
+		dbInstance.commitAndCloseSession();
 		
-		for(Identity identity: identities) {
-			evaluateAll(courseEnv, identity);
-			log.debug("Evaluated score accounting in course {} for {}", course, identity);
+		List<Identity> identityList = new ArrayList<>(identities.values());
+		List<List<Identity>> partitions = new ArrayList<>();
+		for(int i=0; i<identityList.size(); i += EVALUATION_BATCH_SIZE) {
+			partitions.add(identityList.subList(i, Math.min(identityList.size(), i + EVALUATION_BATCH_SIZE)));
+		}
+		Boolean courseReadOnly = courseEntry.getEntryStatus() == null ? null : Boolean.valueOf(courseEntry.getEntryStatus().decommissioned());
+		CourseEvaluation evaluation = new CourseEvaluation(courseEnv, participantKeys, courseReadOnly, identityList.size(), progress);
+		
+		List<Runnable> tasks = partitions.stream()
+				.map(partition -> (Runnable)() -> evaluatePartition(partition, evaluation))
+				.collect(Collectors.toList());
+		taskExecutorManager.executeInParallel(tasks, evaluationParallelism);
+		
+		List<Identity> failedIdentities = evaluation.getFailedIdentities();
+		if(progress != null) {
+			progress.finished();
+		}
+		log.info(Tracing.M_AUDIT, "Evaluated all score accountings of course {}: {} identities in {} ms, {} failed",
+				courseEntry.getKey(), evaluation.getNumOfEvaluated(), (System.currentTimeMillis() - start), failedIdentities.size());
+		return failedIdentities;
+	}
+	
+	/**
+	 * Evaluate a slice of users. The assessment entries of all the users are
+	 * loaded at once and the updated entries are committed every few users.
+	 * If the evaluation of a user fails, the transaction is rolled back, the
+	 * user is reported as failed and the users rolled back with it are
+	 * evaluated again with the rest of the slice.
+	 * 
+	 * @param identities The users to evaluate
+	 * @param evaluation The state of the evaluation
+	 */
+	private void evaluatePartition(List<Identity> identities, CourseEvaluation evaluation) {
+		List<Identity> toEvaluate = identities;
+		while(!toEvaluate.isEmpty()) {
+			toEvaluate = evaluateIdentities(toEvaluate, evaluation);
+		}
+	}
+	
+	/**
+	 * @return The users which need to be evaluated again after a rollback
+	 */
+	private List<Identity> evaluateIdentities(List<Identity> identities, CourseEvaluation evaluation) {
+		CourseEnvironment courseEnv = evaluation.getCourseEnvironment();
+		RepositoryEntry courseEntry = courseEnv.getCourseGroupManager().getCourseEntry();
+		
+		int committed = 0;
+		int current = 0;
+		try {
+			List<Long> identityKeys = identities.stream()
+					.map(Identity::getKey)
+					.collect(Collectors.toList());
+			Map<Long,List<AssessmentEntry>> identityKeyToEntries = assessmentService
+					.loadAssessmentEntriesByAssessedIdentities(courseEntry, identityKeys).stream()
+					.collect(Collectors.groupingBy(entry -> entry.getIdentity().getKey()));
+			
+			for(current=0; current<identities.size(); current++) {
+				Identity identity = identities.get(current);
+				List<AssessmentEntry> assessmentEntries = identityKeyToEntries.computeIfAbsent(identity.getKey(), key -> new ArrayList<>());
+				Boolean participant = evaluation.isParticipant(identity) ? Boolean.TRUE : null;
+				try {
+					evaluateAll(courseEnv, identity, participant, evaluation.getCourseReadOnly(), assessmentEntries);
+					log.debug("Evaluated score accounting in course {} for {}", courseEntry, identity);
+				} catch (Exception e) {
+					log.error("Error while evaluating the course {} for {}", courseEntry.getKey(), identity.getKey(), e);
+					dbInstance.rollbackAndCloseSession();
+					evaluation.failed(identity);
+					
+					List<Identity> rolledBackAndRemaining = new ArrayList<>(identities.subList(committed, current));
+					rolledBackAndRemaining.addAll(identities.subList(current + 1, identities.size()));
+					return rolledBackAndRemaining;
+				}
+				
+				if(current + 1 - committed >= EVALUATION_COMMIT_SIZE) {
+					dbInstance.commit();
+					evaluation.evaluated(current + 1 - committed);
+					committed = current + 1;
+				}
+			}
 			dbInstance.commitAndCloseSession();
+			evaluation.evaluated(identities.size() - committed);
+			return List.of();
+		} catch (Exception e) {
+			log.error("Error while evaluating the course {}", courseEntry.getKey(), e);
+			dbInstance.rollbackAndCloseSession();
+			int last = Math.min(current + 1, identities.size());
+			for(Identity identity:identities.subList(committed, last)) {
+				evaluation.failed(identity);
+			}
+			return new ArrayList<>(identities.subList(last, identities.size()));
+		}
+	}
+	
+	private void evaluateAll(CourseEnvironment courseEnv, Identity assessedIdentity, Boolean participant, Boolean courseReadOnly,
+			List<AssessmentEntry> assessmentEntries) {
+		IdentityEnvironment identityEnv = new IdentityEnvironment();
+		identityEnv.setIdentity(assessedIdentity);
+		UserCourseEnvironment userCourseEnv = new UserCourseEnvironmentImpl(identityEnv, courseEnv, null,
+				null, null, null, null, null, participant, courseReadOnly);
+		
+		CourseNode rootNode = courseEnv.getRunStructure().getRootNode();
+		Boolean previousPassed = null;
+		for(AssessmentEntry assessmentEntry:assessmentEntries) {
+			if(rootNode.getIdent().equals(assessmentEntry.getSubIdent())) {
+				previousPassed = assessmentEntry.getPassedOverridable().getCurrent();
+			}
 		}
+		
+		ScoreAccounting scoreAccounting = userCourseEnv.getScoreAccounting();
+		if(scoreAccounting instanceof AssessmentAccounting) {
+			((AssessmentAccounting)scoreAccounting).evaluateAllPreloaded(assessmentEntries);
+		} else {
+			scoreAccounting.evaluateAll(true);
+		}
+		saveRootPassedIfChanged(rootNode, previousPassed, userCourseEnv);
 	}
 
 	private void evaluateAll(CourseEnvironment courseEnv, Identity assessedIdentity) {
@@ -419,8 +557,11 @@ public class CourseAssessmentServiceImpl implements CourseAssessmentService, Nod
 		
 		ScoreAccounting scoreAccounting = userCourseEnv.getScoreAccounting();
 		scoreAccounting.evaluateAll(true);
-		
-		AssessmentEvaluation rootAssessmentEvaluation = scoreAccounting.evalCourseNode(rootNode);
+		saveRootPassedIfChanged(rootNode, previousPassed, userCourseEnv);
+	}
+	
+	private void saveRootPassedIfChanged(CourseNode rootNode, Boolean previousPassed, UserCourseEnvironment userCourseEnv) {
+		AssessmentEvaluation rootAssessmentEvaluation = userCourseEnv.getScoreAccounting().evalCourseNode(rootNode);
 		Boolean currentPassed = rootAssessmentEvaluation.getPassed();
 		
 		// Save root score evaluation to propagate to efficiency statement
@@ -449,4 +590,64 @@ public class CourseAssessmentServiceImpl implements CourseAssessmentService, Nod
 		log.debug("Evaluated score accounting after start over in course {} for {}", course, assessedIdentity);
 		dbInstance.commitAndCloseSession();
 	}
+	
+	private static class CourseEvaluation {
+		
+		private final CourseEnvironment courseEnv;
+		private final Set<Long> participantKeys;
+		private final Boolean courseReadOnly;
+		private final ProgressDelegate progress;
+		private final AtomicInteger evaluated = new AtomicInteger(0);
+		private final AtomicInteger done = new AtomicInteger(0);
+		private final List<Identity> failedIdentities = Collections.synchronizedList(new ArrayList<>());
+		
+		public CourseEvaluation(CourseEnvironment courseEnv, Set<Long> participantKeys, Boolean courseReadOnly,
+				int numOfIdentities, ProgressDelegate progress) {
+			this.courseEnv = courseEnv;
+			this.participantKeys = participantKeys;
+			this.courseReadOnly = courseReadOnly;
+			this.progress = progress;
+			if(progress != null) {
+				progress.setMax(numOfIdentities);
+				progress.setActual(0.0f);
+			}
+		}
+		
+		public CourseEnvironment getCourseEnvironment() {
+			return courseEnv;
+		}
+		
+		public Boolean getCourseReadOnly() {
+			return courseReadOnly;
+		}
+		
+		public boolean isParticipant(Identity identity) {
+			return participantKeys.contains(identity.getKey());
+		}
+		
+		public int getNumOfEvaluated() {
+			return evaluated.get();
+		}
+		
+		public List<Identity> getFailedIdentities() {
+			return new ArrayList<>(failedIdentities);
+		}
+		
+		public void evaluated(int numOfIdentities) {
+			evaluated.addAndGet(numOfIdentities);
+			updateProgress(numOfIdentities);
+		}
+		
+		public void failed(Identity identity) {
+			failedIdentities.add(identity);
+			updateProgress(1);
+		}
+		
+		private void updateProgress(int numOfIdentities) {
+			int count = done.addAndGet(numOfIdentities);
+			if(progress != null) {
+				progress.setActual(count);
+			}
+		}
+	}
 }
@@ -46,6 +46,7 @@ import org.olat.course.assessment.model.UserCourseInfosImpl;
 import org.olat.group.BusinessGroupRef;
 import org.olat.repository.RepositoryEntry;
 import org.olat.repository.RepositoryEntryRef;
+import org.olat.repository.manager.RepositoryEntryMyCourseMembershipManager;
 import org.olat.resource.OLATResource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -63,6 +64,8 @@ public class UserCourseInformationsManagerImpl implements UserCourseInformations
 
 	@Autowired
 	private DB dbInstance;
+	@Autowired
+	private RepositoryEntryMyCourseMembershipManager myCourseMembershipManager;
 
 	@Override
 	public UserCourseInfosImpl getUserCourseInformations(OLATResource resource, IdentityRef identity) {
@@ -160,6 +163,7 @@ public class UserCourseInformationsManagerImpl implements UserCourseInformations
 	@Override
 	public void updateUserCourseInformations(final OLATResource courseResource, final Identity identity) {
 		int updatedRows = lowLevelUpdate(courseResource, identity);
+		myCourseMembershipManager.updateLastVisit(identity, courseResource, new Date());
 		dbInstance.commit();//to make it quick
 		if(updatedRows == 0) {
 			OLATResourceable lockRes = OresHelper.createOLATResourceableInstance("CourseLaunchDate::Identity", identity.getKey());
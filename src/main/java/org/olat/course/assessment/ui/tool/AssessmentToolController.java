@@ -22,10 +22,12 @@ package org.olat.course.assessment.ui.tool;
 import java.util.Date;
 import java.util.List;
 
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
 import org.olat.core.gui.UserRequest;
 import org.olat.core.gui.components.Component;
 import org.olat.core.gui.components.link.Link;
 import org.olat.core.gui.components.link.LinkFactory;
+import org.olat.core.gui.components.progressbar.ProgressController;
 import org.olat.core.gui.components.stack.ButtonGroupComponent;
 import org.olat.core.gui.components.stack.PopEvent;
 import org.olat.core.gui.components.stack.TooledStackedPanel;
@@ -37,11 +39,13 @@ import org.olat.core.gui.control.WindowControl;
 import org.olat.core.gui.control.controller.MainLayoutBasicController;
 import org.olat.core.gui.control.generic.closablewrapper.CloseableModalController;
 import org.olat.core.gui.control.generic.dtabs.Activateable2;
+import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.id.context.BusinessControlFactory;
 import org.olat.core.id.context.ContextEntry;
 import org.olat.core.id.context.StateEntry;
 import org.olat.core.util.Util;
+import org.olat.core.util.async.ProgressDelegate;
 import org.olat.core.util.resource.OresHelper;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
@@ -71,7 +75,7 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public class AssessmentToolController extends MainLayoutBasicController implements Activateable2 {
+public class AssessmentToolController extends MainLayoutBasicController implements Activateable2, ProgressDelegate {
 
 	private final RepositoryEntry courseEntry;
 	private final UserCourseEnvironment coachUserEnv;
@@ -87,6 +91,7 @@ public class AssessmentToolController extends MainLayoutBasicController implemen
 	private final ButtonGroupComponent segmentButtonsCmp;
 
 	private CloseableModalController cmc;
+	private ProgressController progressCtrl;
 	private AssessmentCourseTreeController courseTreeCtrl;
 	private AssessmentCourseOverviewController overviewCtrl;
 	private BulkAssessmentOverviewController bulkAssessmentOverviewCtrl;
@@ -101,6 +106,8 @@ public class AssessmentToolController extends MainLayoutBasicController implemen
 	private AssessmentService assessmentService;
 	@Autowired
 	private AssessmentModeManager assessmentModeManager;
+	@Autowired
+	private TaskExecutorManager taskExecutorManager;
 	
 	public AssessmentToolController(UserRequest ureq, WindowControl wControl, TooledStackedPanel stackPanel,
 			RepositoryEntry courseEntry, UserCourseEnvironment coachUserEnv, AssessmentToolSecurityCallback assessmentCallback) {
@@ -252,12 +259,12 @@ public class AssessmentToolController extends MainLayoutBasicController implemen
 				assessmentModeMessage(ureq);
 			}
 		} else if(source == assessmentResetCtrl) {
+			cmc.deactivate();
+			cleanUp();
 			if (event instanceof AssessmentResetEvent) {
 				AssessmentResetEvent are = (AssessmentResetEvent)event;
-				doRecalculate(are);
+				doRecalculate(ureq, are);
 			}
-			cmc.deactivate();
-			cleanUp();
 		} else if(stopAssessmentCtrl == source) {
 			if(event instanceof StopAssessmentEvent) {
 				overviewCtrl.reloadAssessmentModes();
@@ -272,11 +279,42 @@ public class AssessmentToolController extends MainLayoutBasicController implemen
 	private void cleanUp() {
 		removeAsListenerAndDispose(bulkAssessmentOverviewCtrl);
 		removeAsListenerAndDispose(assessmentResetCtrl);
+		removeAsListenerAndDispose(progressCtrl);
 		removeAsListenerAndDispose(cmc);
 		bulkAssessmentOverviewCtrl = null;
 		assessmentResetCtrl = null;
+		progressCtrl = null;
 		cmc = null;
 	}
+
+	@Override
+	public void setMax(float max) {
+		if(progressCtrl != null && !progressCtrl.isDisposed()) {
+			progressCtrl.setMax(max);
+		}
+	}
+
+	@Override
+	public void setActual(float value) {
+		if(progressCtrl != null && !progressCtrl.isDisposed()) {
+			progressCtrl.setActual(value);
+		}
+	}
+
+	@Override
+	public void setInfo(String message) {
+		if(progressCtrl != null && !progressCtrl.isDisposed()) {
+			progressCtrl.setInfo(message);
+		}
+	}
+
+	@Override
+	public synchronized void finished() {
+		if(cmc != null && !cmc.isDisposed()) {
+			cmc.deactivate();
+		}
+		cleanUp();
+	}
 	
 	private void doBulkAssessmentView(UserRequest ureq) {
 		bulkAssessmentOverviewCtrl = new BulkAssessmentOverviewController(ureq, getWindowControl(), courseEntry);
@@ -295,7 +333,7 @@ public class AssessmentToolController extends MainLayoutBasicController implemen
 		cmc.activate();
 	}
 	
-	private void doRecalculate(AssessmentResetEvent are) {
+	private void doRecalculate(UserRequest ureq, AssessmentResetEvent are) {
 		if (are.isResetOverriden()) {
 			assessmentService.resetAllOverridenRootPassed(courseEntry);
 		}
@@ -303,8 +341,31 @@ public class AssessmentToolController extends MainLayoutBasicController implemen
 			assessmentService.resetAllRootPassed(courseEntry);
 		}
 		if (are.isRecalculateAll()) {
-			ICourse course = CourseFactory.loadCourse(courseEntry);
-			courseAssessmentService.evaluateAll(course);
+			doRecalculateAll(ureq);
+		}
+	}
+	
+	private void doRecalculateAll(UserRequest ureq) {
+		final ICourse course = CourseFactory.loadCourse(courseEntry);
+		
+		progressCtrl = new ProgressController(ureq, getWindowControl());
+		progressCtrl.setMessage(translate("recalculate.running"));
+		listenTo(progressCtrl);
+		
+		taskExecutorManager.execute(() -> {
+			List<Identity> failedIdentities = courseAssessmentService.evaluateAll(course, this);
+			if(!failedIdentities.isEmpty()) {
+				showWarning("recalculate.failed", Integer.toString(failedIdentities.size()));
+			}
+		});
+		
+		synchronized(this) {
+			if(progressCtrl != null) {
+				cmc = new CloseableModalController(getWindowControl(), translate("close"), progressCtrl.getInitialComponent(),
+						true, translate("menu.recalculate"), false);
+				cmc.activate();
+				listenTo(cmc);
+			}
 		}
 	}
 	
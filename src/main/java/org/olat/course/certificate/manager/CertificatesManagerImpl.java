@@ -65,6 +65,7 @@ import org.olat.basesecurity.RelationRight;
 import org.olat.basesecurity.RelationSearchParams;
 import org.olat.basesecurity.SearchIdentityParams;
 import org.olat.core.commons.modules.bc.FolderModule;
+import org.olat.core.commons.persistence.BulkSession;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.services.notifications.NotificationsManager;
 import org.olat.core.commons.services.notifications.PublisherData;
@@ -148,6 +149,7 @@ public class CertificatesManagerImpl implements CertificatesManager, MessageList
 		InitializingBean, DisposableBean, UserDataExportable {
 	
 	private static final Logger log = Tracing.createLoggerFor(CertificatesManagerImpl.class);
+	private static final int BATCH_SIZE = 50;
 
 	private VelocityEngine velocityEngine;
 	
@@ -722,12 +724,28 @@ public class CertificatesManagerImpl implements CertificatesManager, MessageList
 	@Override
 	public void generateCertificates(List<CertificateInfos> certificateInfos, RepositoryEntry entry,
 			CertificateTemplate template, CertificateConfig config) {
-		int count = 0;
-		for(CertificateInfos certificateInfo:certificateInfos) {
-			generateCertificate(certificateInfo, entry, template, config);
-			if(++count % 10 == 0) {
-				dbInstance.commitAndCloseSession();
+		ICourse course = CourseFactory.loadCourse(entry);
+		CourseConfig courseConfig = course.getCourseEnvironment().getCourseConfig();
+		
+		for(int start=0; start<certificateInfos.size(); start += BATCH_SIZE) {
+			List<CertificateInfos> chunk = certificateInfos.subList(start, Math.min(start + BATCH_SIZE, certificateInfos.size()));
+			List<Certificate> certificates = new ArrayList<>(chunk.size());
+			try(BulkSession bulkSession = dbInstance.openBulkSession(BATCH_SIZE)) {
+				for(CertificateInfos certificateInfo:chunk) {
+					CertificateImpl certificate = createCertificate(certificateInfo, entry, courseConfig);
+					bulkSession.persist(certificate);
+					certificates.add(certificate);
+				}
 			}
+			// the workers need the committed certificates
+			dbInstance.commit();
+			
+			for(int i=0; i<chunk.size(); i++) {
+				CertificateInfos certificateInfo = chunk.get(i);
+				sendJmsCertificateFile(certificates.get(i), template, certificateInfo.getScore(), certificateInfo.getMaxScore(),
+						certificateInfo.getPassed(), certificateInfo.getProgress(), config);
+			}
+			dbInstance.commitAndCloseSession();
 		}
 		markPublisherNews(null, entry.getOlatResource());
 	}
@@ -791,6 +809,19 @@ public class CertificatesManagerImpl implements CertificatesManager, MessageList
 
 	private Certificate persistCertificate(CertificateInfos certificateInfos, RepositoryEntry entry,
 			CertificateTemplate template, CertificateConfig config) {
+		ICourse course = CourseFactory.loadCourse(entry);
+		CertificateImpl certificate = createCertificate(certificateInfos, entry, course.getCourseEnvironment().getCourseConfig());
+		dbInstance.getCurrentEntityManager().persist(certificate);
+		dbInstance.commit();
+		
+		//send message
+		sendJmsCertificateFile(certificate, template, certificateInfos.getScore(), certificateInfos.getMaxScore(),
+				certificateInfos.getPassed(), certificateInfos.getProgress(), config);
+
+		return certificate;
+	}
+	
+	private CertificateImpl createCertificate(CertificateInfos certificateInfos, RepositoryEntry entry, CourseConfig courseConfig) {
 		OLATResource resource = entry.getOlatResource();
 		Identity identity = certificateInfos.getAssessedIdentity();
 		
@@ -809,16 +840,8 @@ public class CertificatesManagerImpl implements CertificatesManager, MessageList
 		certificate.setCourseTitle(entry.getDisplayname());
 		certificate.setStatus(CertificateStatus.pending);
 		
-		Date nextCertification = getDateNextRecertification(certificate, entry);
+		Date nextCertification = getDateNextRecertification(certificate, courseConfig);
 		certificate.setNextRecertificationDate(nextCertification);
-		
-		dbInstance.getCurrentEntityManager().persist(certificate);
-		dbInstance.commit();
-		
-		//send message
-		sendJmsCertificateFile(certificate, template, certificateInfos.getScore(), certificateInfos.getMaxScore(),
-				certificateInfos.getPassed(), certificateInfos.getProgress(), config);
-
 		return certificate;
 	}
 	
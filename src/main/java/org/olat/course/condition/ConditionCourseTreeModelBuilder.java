@@ -19,6 +19,8 @@
  */
 package org.olat.course.condition;
 
+import org.olat.core.gui.components.tree.GenericTreeModel;
+import org.olat.course.condition.interpreter.ConditionInterpreter.EvaluationPass;
 import org.olat.course.nodes.CourseNode;
 import org.olat.course.run.userview.CourseTreeModelBuilder;
 import org.olat.course.run.userview.CourseTreeNode;
@@ -37,6 +39,13 @@ public class ConditionCourseTreeModelBuilder extends CourseTreeModelBuilder {
 		super(userCourseEnv);
 	}
 
+	@Override
+	public GenericTreeModel build() {
+		try(EvaluationPass pass = userCourseEnv.getConditionInterpreter().openEvaluationPass()) {
+			return super.build();
+		}
+	}
+
 	@Override
 	protected CourseTreeNode createCourseTreeNode(CourseNode courseNode, CourseTreeNode parent, int treeLevel) {
 		NodeEvaluation nodeEval = new NodeEvaluation();
@@ -54,10 +54,11 @@ public abstract class AbstractFunction extends FunctionCB{
 	public abstract Object call(Object[] inStack);
 
 	/**
-	 * @return user course environment
+	 * @return user course environment, the one of the interpreter which
+	 * 		evaluates the expression if the function is shared by the users
 	 */
 	public UserCourseEnvironment getUserCourseEnv() {
-		return userCourseEnv;
+		return userCourseEnv == null ? ConditionInterpreter.getBoundUserCourseEnvironment() : userCourseEnv;
 	}
 
 	/**
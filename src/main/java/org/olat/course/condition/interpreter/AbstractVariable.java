@@ -50,9 +50,10 @@ public abstract class AbstractVariable extends VariableCB {
 	public abstract Object getValue();
 	
 	/**
-	 * @return user course environment
+	 * @return user course environment, the one of the interpreter which
+	 * 		evaluates the expression if the variable is shared by the users
 	 */
 	public UserCourseEnvironment getUserCourseEnv() {
-		return userCourseEnv;
+		return userCourseEnv == null ? ConditionInterpreter.getBoundUserCourseEnvironment() : userCourseEnv;
 	}
 }
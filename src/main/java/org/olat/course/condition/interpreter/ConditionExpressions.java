@@ -0,0 +1,91 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.condition.interpreter;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.neemsoft.jmep.Environment;
+import com.neemsoft.jmep.Expression;
+import com.neemsoft.jmep.XExpression;
+
+/**
+ * The parsed expressions of an environment. A parsed expression is
+ * used by one evaluation at a time, it is borrowed and given back after
+ * the evaluation. Several parsed instances of the same expression are
+ * kept for the concurrent evaluations.<br>
+ * The expressions of the run structure of a course are shared by all
+ * the users of the course, its environment resolves the user with the
+ * interpreter which evaluates the expression.
+ *
+ * Initial date: 19 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ConditionExpressions {
+
+	private static final int MAX_CACHED_EXPRESSIONS = 1024;
+	private static final int MAX_PARSED_PER_EXPRESSION = 8;
+
+	private final Environment environment;
+	private final Map<String,BlockingQueue<Expression>> expressions = new ConcurrentHashMap<>();
+
+	public ConditionExpressions(Environment environment) {
+		this.environment = environment;
+	}
+
+	public Environment getEnvironment() {
+		return environment;
+	}
+
+	/**
+	 * @param expression The expression
+	 * @return A parsed expression which is not used by an other evaluation
+	 * @throws XExpression If the expression cannot be parsed
+	 */
+	public Expression borrow(String expression) throws XExpression {
+		BlockingQueue<Expression> parsed = expressions.get(expression);
+		Expression exp = parsed == null ? null : parsed.poll();
+		if(exp == null) {
+			exp = new Expression(expression, environment);
+		}
+		return exp;
+	}
+
+	/**
+	 * Give back a parsed expression after its evaluation. It's dropped if
+	 * enough instances of the expression are already waiting.
+	 *
+	 * @param expression The expression
+	 * @param exp The parsed expression
+	 */
+	public void giveBack(String expression, Expression exp) {
+		BlockingQueue<Expression> parsed = expressions.get(expression);
+		if(parsed == null) {
+			if(expressions.size() >= MAX_CACHED_EXPRESSIONS) {
+				expressions.clear();
+			}
+			parsed = expressions.computeIfAbsent(expression, e -> new ArrayBlockingQueue<>(MAX_PARSED_PER_EXPRESSION));
+		}
+		parsed.offer(exp);
+	}
+}
@@ -26,6 +26,11 @@
 package org.olat.course.condition.interpreter;
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.gui.translator.Translator;
@@ -33,6 +38,7 @@ import org.olat.core.logging.AssertException;
 import org.olat.core.logging.OLATRuntimeException;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.Util;
+import org.olat.course.Structure;
 import org.olat.course.condition.Condition;
 import org.olat.course.condition.interpreter.score.GetAverageScoreFunction;
 import org.olat.course.condition.interpreter.score.GetPassedFunction;
@@ -41,10 +47,12 @@ import org.olat.course.condition.interpreter.score.GetScoreFunction;
 import org.olat.course.condition.interpreter.score.GetScoreWithCourseIdFunction;
 import org.olat.course.db.interpreter.GetUserCourseDBFunction;
 import org.olat.course.editor.CourseEditorEnv;
+import org.olat.course.run.environment.CourseEnvironment;
 import org.olat.course.run.userview.UserCourseEnvironment;
 
 import com.neemsoft.jmep.Environment;
 import com.neemsoft.jmep.Expression;
+import com.neemsoft.jmep.FunctionCB;
 import com.neemsoft.jmep.XExpression;
 import com.neemsoft.jmep.XIllegalOperation;
 import com.neemsoft.jmep.XIllegalStatus;
@@ -58,7 +66,13 @@ import de.bps.course.condition.interpreter.score.GetOnyxTestOutcomeNumFunction;
 /**
  * Initial Date:  Jan 27, 2004
  * @author gnaegi
- * Comment:
+ * Comment: The environment with the functions and the parsed expressions
+ * are shared by all the users of a course and cached with its run structure.
+ * The functions of this environment resolve the user with the interpreter
+ * which evaluates the expression on the current thread. The editor and the
+ * interpreters with their own environment parse and cache the expressions
+ * for themselves. The results of the functions which need the database are
+ * memoized within an evaluation pass.
  */
 public class ConditionInterpreter {
 	private static final Logger log = Tracing.createLoggerFor(ConditionInterpreter.class);
@@ -67,9 +81,15 @@ public class ConditionInterpreter {
 	public static final Integer INT_TRUE = Integer.valueOf(1);
 	/** static Integer(0) object */
 	public static final Integer INT_FALSE = Integer.valueOf(0);
+	
+	private static final ThreadLocal<ConditionInterpreter> boundInterpreter = new ThreadLocal<>();
+	
 	protected Environment env;
 	protected Translator translator;
 	protected UserCourseEnvironment uce;
+	
+	private ConditionExpressions expressions;
+	private volatile Map<List<Object>,Object> passResults;
 
 	/**
 	 * ConditionInterpreter interpretes course conditions.
@@ -83,8 +103,67 @@ public class ConditionInterpreter {
 		if (cev != null) {
 			translator = Util.createPackageTranslator(ConditionInterpreter.class, cev.getEditorEnvLocale());
 		}
-
-		env = new Environment();
+	}
+	
+	/**
+	 * @return The user course environment of the interpreter which evaluates
+	 * 		an expression on the current thread
+	 */
+	static UserCourseEnvironment getBoundUserCourseEnvironment() {
+		ConditionInterpreter interpreter = boundInterpreter.get();
+		return interpreter == null ? null : interpreter.uce;
+	}
+	
+	/**
+	 * @return The environment of the interpreter, build it if needed
+	 */
+	protected synchronized Environment getEnvironment() {
+		if(env == null) {
+			env = createEnvironment(uce);
+		}
+		return env;
+	}
+	
+	/**
+	 * The parsed expressions of the run structure are shared by all the
+	 * users of the course, but not with the editor and the interpreters
+	 * which have their own environment.
+	 * 
+	 * @return The parsed expressions
+	 */
+	private synchronized ConditionExpressions getExpressions() {
+		if(expressions == null) {
+			Structure runStructure = null;
+			if(env == null && uce.getCourseEditorEnv() == null) {
+				CourseEnvironment courseEnv = uce.getCourseEnvironment();
+				runStructure = courseEnv == null ? null : courseEnv.getRunStructure();
+			}
+			if(runStructure == null) {
+				expressions = new ConditionExpressions(getEnvironment());
+			} else {
+				expressions = runStructure.getConditionExpressions();
+			}
+		}
+		return expressions;
+	}
+	
+	/**
+	 * Create the environment shared by the users of a course. Its functions
+	 * resolve the user with the interpreter which evaluates the expression.
+	 * 
+	 * @return The expressions of the environment
+	 */
+	public static ConditionExpressions createSharedExpressions() {
+		return new ConditionExpressions(createEnvironment(null));
+	}
+	
+	/**
+	 * @param userCourseEnv The user course environment or null to resolve it
+	 * 		with the interpreter which evaluates the expression
+	 * @return The environment
+	 */
+	private static Environment createEnvironment(UserCourseEnvironment userCourseEnv) {
+		Environment env = new Environment();
 
 		// constants: add for user convenience
 		env.addConstant("true", 1);
@@ -98,11 +177,11 @@ public class ConditionInterpreter {
 
 		// functions
 		env.addFunction(DateFunction.name, new DateFunction(userCourseEnv));
-		env.addFunction("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup")); // legacy
-		env.addFunction("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup"));
+		env.addFunction("inGroup", memoized("inGroup", new InLearningGroupFunction(userCourseEnv, "inGroup"))); // legacy
+		env.addFunction("inLearningGroup", memoized("inLearningGroup", new InLearningGroupFunction(userCourseEnv, "inLearningGroup")));
 		env.addFunction("isLearningGroupFull", new IsLearningGroupFullFunction(userCourseEnv));
-		env.addFunction(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv));
-		env.addFunction(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv));
+		env.addFunction(InRightGroupFunction.name, memoized(InRightGroupFunction.name, new InRightGroupFunction(userCourseEnv)));
+		env.addFunction(InLearningAreaFunction.name, memoized(InLearningAreaFunction.name, new InLearningAreaFunction(userCourseEnv)));
 		env.addFunction(IsUserFunction.name, new IsUserFunction(userCourseEnv));
 		env.addFunction(IsGuestFunction.name, new IsGuestFunction(userCourseEnv));
 		env.addFunction(IsGlobalAuthorFunction.name, new IsGlobalAuthorFunction(userCourseEnv));
@@ -134,7 +213,7 @@ public class ConditionInterpreter {
 		eupf = new EvalUserPropertyFunction(userCourseEnv, EvalUserPropertyFunction.FUNCTION_TYPE_PROPERTY_STARTS_WITH);
 		env.addFunction(EvalUserPropertyFunction.FUNCTION_NAME_PROPERTY_STARTS_WITH, eupf);
 		env.addFunction(GetUserPropertyFunction.name, new GetUserPropertyFunction(userCourseEnv));
-		env.addFunction(GetUserCourseDBFunction.name, new GetUserCourseDBFunction(userCourseEnv));
+		env.addFunction(GetUserCourseDBFunction.name, memoized(GetUserCourseDBFunction.name, new GetUserCourseDBFunction(userCourseEnv)));
 		env.addFunction(HasLanguageFunction.name, new HasLanguageFunction(userCourseEnv));
 		env.addFunction(InInstitutionFunction.name, new InInstitutionFunction(userCourseEnv));
 		env.addFunction(IsCourseCoachFunction.name, new IsCourseCoachFunction(userCourseEnv));
@@ -148,8 +227,8 @@ public class ConditionInterpreter {
 		env.addFunction(GetInitialCourseLaunchDateFunction.name, new GetInitialCourseLaunchDateFunction(userCourseEnv));
 		env.addFunction(GetRecentCourseLaunchDateFunction.name, new GetRecentCourseLaunchDateFunction(userCourseEnv));
 
-		env.addFunction(GetAttemptsFunction.name, new GetAttemptsFunction(userCourseEnv));
-		env.addFunction(GetLastAttemptDateFunction.name, new GetLastAttemptDateFunction(userCourseEnv));
+		env.addFunction(GetAttemptsFunction.name, memoized(GetAttemptsFunction.name, new GetAttemptsFunction(userCourseEnv)));
+		env.addFunction(GetLastAttemptDateFunction.name, memoized(GetLastAttemptDateFunction.name, new GetLastAttemptDateFunction(userCourseEnv)));
 
 		// enrollment building block specific functions
 		env.addFunction(GetInitialEnrollmentDateFunction.name, new GetInitialEnrollmentDateFunction(userCourseEnv));
@@ -173,6 +252,31 @@ public class ConditionInterpreter {
 		env.addUnit("d", new DayUnit());
 		env.addUnit("w", new WeekUnit());
 		env.addUnit("m", new MonthUnit());
+		return env;
+	}
+	
+	/**
+	 * @param name The name of the function
+	 * @param function The function
+	 * @return The function which memoizes its results within an evaluation pass
+	 */
+	protected static FunctionCB memoized(String name, FunctionCB function) {
+		return new MemoizedFunction(name, function);
+	}
+	
+	/**
+	 * Open an evaluation pass, e.g. to evaluate the conditions of all
+	 * the nodes of the course tree. The functions which need the database
+	 * are only called once per arguments until the pass is closed.
+	 * 
+	 * @return The pass to close
+	 */
+	public EvaluationPass openEvaluationPass() {
+		if(passResults != null) {
+			return new EvaluationPass(false);
+		}
+		passResults = new ConcurrentHashMap<>();
+		return new EvaluationPass(true);
 	}
 	
 
@@ -196,7 +300,7 @@ public class ConditionInterpreter {
 			 * environment.
 			 */
 			String conditionString = condExpr.getExptressionString();
-			Expression exp = new Expression(conditionString, env);
+			Expression exp = new Expression(conditionString, getEnvironment());
 			exp.evaluate();
 			Exception[] condExceptions = condExpr.getExceptions();
 			ConditionErrorMessage[] cems = null;
@@ -323,8 +427,7 @@ public class ConditionInterpreter {
 
 	private float doEvaluateCalculation(String calculation) throws ParseException {
 		try {
-			Expression exp = new Expression(calculation, env);
-			Object result = exp.evaluate();
+			Object result = evaluate(calculation);
 			if (result instanceof Double) {
 				return ((Double) result).floatValue();
 			} else if (result instanceof Integer) {
@@ -344,8 +447,7 @@ public class ConditionInterpreter {
 	 */
 	private boolean doEvaluateCondition(String condition) throws ParseException {
 		try {
-			Expression exp = new Expression(condition, env);
-			Object result = exp.evaluate();
+			Object result = evaluate(condition);
 			if (result instanceof Double) {
 				return (((Double) result).doubleValue() == 1.0);
 			} else if (result instanceof Integer) {
@@ -355,4 +457,83 @@ public class ConditionInterpreter {
 			throw new ParseException("Parse exception for condition: " + condition + ". " + xe.getMessage(), xe.getPosition());
 		}
 	}
+	
+	/**
+	 * Evaluate the expression with a cached parsed expression. The interpreter
+	 * is bound to the current thread during the evaluation, the functions of
+	 * the shared environment resolve the user with it.
+	 * 
+	 * @param expression The expression
+	 * @return The result of the evaluation
+	 * @throws XExpression If the expression cannot be parsed
+	 */
+	private Object evaluate(String expression) throws XExpression {
+		ConditionExpressions cachedExpressions = getExpressions();
+		ConditionInterpreter previousInterpreter = boundInterpreter.get();
+		boundInterpreter.set(this);
+		try {
+			Expression exp = cachedExpressions.borrow(expression);
+			Object result = exp.evaluate();
+			cachedExpressions.giveBack(expression, exp);
+			return result;
+		} finally {
+			if(previousInterpreter == null) {
+				boundInterpreter.remove();
+			} else {
+				boundInterpreter.set(previousInterpreter);
+			}
+		}
+	}
+	
+	public class EvaluationPass implements AutoCloseable {
+		
+		private final boolean owner;
+		
+		private EvaluationPass(boolean owner) {
+			this.owner = owner;
+		}
+
+		@Override
+		public void close() {
+			if(owner) {
+				passResults = null;
+			}
+		}
+	}
+	
+	/**
+	 * Memoize the results of a function within the evaluation pass of
+	 * the interpreter which evaluates the expression.
+	 */
+	private static class MemoizedFunction extends FunctionCB {
+		
+		private final String name;
+		private final FunctionCB function;
+		
+		public MemoizedFunction(String name, FunctionCB function) {
+			this.name = name;
+			this.function = function;
+		}
+
+		@Override
+		public Object call(Object[] inStack) {
+			ConditionInterpreter interpreter = boundInterpreter.get();
+			Map<List<Object>,Object> results = interpreter == null ? null : interpreter.passResults;
+			if(results == null) {
+				return function.call(inStack);
+			}
+			
+			List<Object> key = new ArrayList<>(inStack.length + 1);
+			key.add(name);
+			Collections.addAll(key, inStack);
+			Object result = results.get(key);
+			if(result == null) {
+				result = function.call(inStack);
+				if(result != null) {
+					results.put(key, result);
+				}
+			}
+			return result;
+		}
+	}
 }
\ No newline at end of file
@@ -19,6 +19,9 @@
  */
 package org.olat.course.config.ui;
 
+import java.util.List;
+
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
 import org.olat.core.gui.UserRequest;
 import org.olat.core.gui.components.form.flexible.FormItem;
 import org.olat.core.gui.components.form.flexible.FormItemContainer;
@@ -29,14 +32,17 @@ import org.olat.core.gui.components.form.flexible.elements.TextElement;
 import org.olat.core.gui.components.form.flexible.impl.FormBasicController;
 import org.olat.core.gui.components.form.flexible.impl.FormEvent;
 import org.olat.core.gui.components.form.flexible.impl.FormLayoutContainer;
+import org.olat.core.gui.components.progressbar.ProgressController;
 import org.olat.core.gui.components.util.KeyValues;
 import org.olat.core.gui.control.Controller;
 import org.olat.core.gui.control.Event;
 import org.olat.core.gui.control.WindowControl;
 import org.olat.core.gui.control.generic.closablewrapper.CloseableModalController;
+import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.Util;
+import org.olat.core.util.async.ProgressDelegate;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
 import org.olat.course.assessment.CourseAssessmentService;
@@ -55,7 +61,7 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author uhensler, urs.hensler@frentix.com, http://www.frentix.com
  *
  */
-public class CourseScoreController extends FormBasicController {
+public class CourseScoreController extends FormBasicController implements ProgressDelegate {
 	
 	private static final String SCORE_VALUE_NONE = "options.score.points.none";
 	private static final String[] ONE_OPTION = { "xx" };
@@ -71,6 +77,7 @@ public class CourseScoreController extends FormBasicController {
 	private TextElement passedPointsCutEl;
 	
 	private CloseableModalController cmc;
+	private ProgressController progressCtrl;
 	private AssessmentResetController assessmentResetCtrl;
 	
 	private final RepositoryEntry courseEntry;
@@ -80,6 +87,8 @@ public class CourseScoreController extends FormBasicController {
 	private CourseAssessmentService courseAssessmentService;
 	@Autowired
 	private AssessmentService assessmentService;
+	@Autowired
+	private TaskExecutorManager taskExecutorManager;
 
 	public CourseScoreController(UserRequest ureq, WindowControl wControl, RepositoryEntry entry, boolean editable) {
 		super(ureq, wControl);
@@ -224,14 +233,14 @@ public class CourseScoreController extends FormBasicController {
 	@Override
 	protected void event(UserRequest ureq, Controller source, Event event) {
 		if(source == assessmentResetCtrl) {
+			cmc.deactivate();
+			cleanUp();
 			if (event instanceof AssessmentResetEvent) {
 				AssessmentResetEvent are = (AssessmentResetEvent)event;
 				doSettingsConfirmed(ureq, are);
 			} else if (event == AssessmentResetController.RESET_SETTING_EVENT) {
 				initForm(ureq);
 			}
-			cmc.deactivate();
-			cleanUp();
 		} else if(source == cmc) {
 			cleanUp();
 		}
@@ -240,11 +249,42 @@ public class CourseScoreController extends FormBasicController {
 
 	private void cleanUp() {
 		removeAsListenerAndDispose(assessmentResetCtrl);
+		removeAsListenerAndDispose(progressCtrl);
 		removeAsListenerAndDispose(cmc);
 		assessmentResetCtrl = null;
+		progressCtrl = null;
 		cmc = null;
 	}
 
+	@Override
+	public void setMax(float max) {
+		if(progressCtrl != null && !progressCtrl.isDisposed()) {
+			progressCtrl.setMax(max);
+		}
+	}
+
+	@Override
+	public void setActual(float value) {
+		if(progressCtrl != null && !progressCtrl.isDisposed()) {
+			progressCtrl.setActual(value);
+		}
+	}
+
+	@Override
+	public void setInfo(String message) {
+		if(progressCtrl != null && !progressCtrl.isDisposed()) {
+			progressCtrl.setInfo(message);
+		}
+	}
+
+	@Override
+	public synchronized void finished() {
+		if(cmc != null && !cmc.isDisposed()) {
+			cmc.deactivate();
+		}
+		cleanUp();
+	}
+
 	@Override
 	protected boolean validateFormLogic(UserRequest ureq) {
 		boolean allOk = super.validateFormLogic(ureq);
@@ -306,13 +346,37 @@ public class CourseScoreController extends FormBasicController {
 				assessmentService.resetAllRootPassed(courseEntry);
 			}
 			if (are.isRecalculateAll()) {
-				ICourse course = CourseFactory.loadCourse(courseEntry);
-				courseAssessmentService.evaluateAll(course);
+				doRecalculateAll(ureq);
 			}
 			
 			fireEvent(ureq, Event.CHANGED_EVENT);
 		}
 	}
+	
+	private void doRecalculateAll(UserRequest ureq) {
+		final ICourse course = CourseFactory.loadCourse(courseEntry);
+		
+		progressCtrl = new ProgressController(ureq, getWindowControl());
+		progressCtrl.setMessage(translate("assessment.recalculate.running"));
+		listenTo(progressCtrl);
+		
+		taskExecutorManager.execute(() -> {
+			List<Identity> failedIdentities = courseAssessmentService.evaluateAll(course, this);
+			if(!failedIdentities.isEmpty()) {
+				showWarning("assessment.recalculate.failed", Integer.toString(failedIdentities.size()));
+			}
+		});
+		
+		synchronized(this) {
+			if(progressCtrl != null) {
+				String title = translate("assessment.recalculate.title");
+				cmc = new CloseableModalController(getWindowControl(), translate("close"), progressCtrl.getInitialComponent(),
+						true, title, false);
+				cmc.activate();
+				listenTo(cmc);
+			}
+		}
+	}
 
 	private boolean doSave() {
 		OLATResourceable courseOres = courseEntry.getOlatResource();
@@ -161,6 +161,11 @@ public class FileUploadNotificationHandler implements NotificationsHandler {
 		return true;
 	}
 
+	@Override
+	public boolean isSubscriptionInfoShareable() {
+		return true;
+	}
+
 	@Override
 	public String getType() {
 		return "DialogElement";
@@ -32,6 +32,7 @@ import org.olat.course.reminder.manager.ReminderRuleDAO;
 import org.olat.course.reminder.ui.InitialAttemptsRuleEditor;
 import org.olat.modules.reminder.ReminderRule;
 import org.olat.modules.reminder.RuleEditorFragment;
+import org.olat.modules.reminder.model.ReminderRecipientsQuery;
 import org.olat.modules.reminder.model.ReminderRuleImpl;
 import org.olat.modules.reminder.rule.AbstractLaunchDateRuleSPI;
 import org.olat.repository.RepositoryEntry;
@@ -79,4 +80,21 @@ public class InitialAttemptsRuleSPI extends AbstractLaunchDateRuleSPI {
 			return null;
 		}
 	}
+	
+	@Override
+	protected boolean appendLaunchDatePredicate(ReminderRecipientsQuery query, RepositoryEntry entry, ReminderRule rule, String limitParameter) {
+		if(rule instanceof ReminderRuleImpl) {
+			String nodeIdent = ((ReminderRuleImpl)rule).getLeftOperand();
+			String entryParameter = query.addParameter(entry.getKey());
+			String subIdentParameter = query.addParameter(nodeIdent);
+			query.and()
+			     .append("exists (select data.key from assessmententry data")
+			     .append(" where data.identity.key=ident.key and data.repositoryEntry.key=:").append(entryParameter)
+			     .append(" and data.subIdent=:").append(subIdentParameter)
+			     .append(" and data.creationDate<:").append(limitParameter)
+			     .append(")");
+			return true;
+		}
+		return false;
+	}
 }
@@ -40,6 +40,7 @@ import org.olat.course.nodes.CourseNode;
 import org.olat.course.run.scoring.LastModificationsEvaluator.LastModifications;
 import org.olat.course.run.userview.UserCourseEnvironment;
 import org.olat.modules.assessment.AssessmentEntry;
+import org.olat.modules.assessment.AssessmentService;
 import org.olat.modules.assessment.Overridable;
 import org.olat.modules.assessment.model.AssessmentEntryStatus;
 import org.olat.modules.assessment.model.AssessmentObligation;
@@ -59,7 +60,10 @@ public class AssessmentAccounting implements ScoreAccounting {
 	private final CourseConfig courseConfig;
 	private Map<String, AssessmentEntry> identToEntry = new HashMap<>();
 	private final Map<CourseNode, AssessmentEvaluation> courseNodeToEval = new HashMap<>();
+	private boolean commitUpdates = true;
 	
+	@Autowired
+	private AssessmentService assessmentService;
 	@Autowired
 	private CourseAssessmentService courseAssessmentService;
 
@@ -91,9 +95,33 @@ public class AssessmentAccounting implements ScoreAccounting {
 	
 	@Override
 	public boolean evaluateAll(boolean update) {
+		List<AssessmentEntry> assessmentEntries = getAssessmentManager().getAssessmentEntries(getIdentity());
+		evaluateAll(assessmentEntries, update);
+		return false;
+	}
+	
+	/**
+	 * Evaluate and update all the course nodes with the assessment entries
+	 * of the user already loaded. The changed entries are merged but not
+	 * committed, the caller needs to commit the transaction, typically after
+	 * several users to batch the updates.
+	 * 
+	 * @param assessmentEntries All the assessment entries of the user in the course
+	 */
+	public void evaluateAllPreloaded(List<AssessmentEntry> assessmentEntries) {
+		commitUpdates = false;
+		try {
+			evaluateAll(assessmentEntries, true);
+		} finally {
+			commitUpdates = true;
+		}
+	}
+	
+	private void evaluateAll(List<AssessmentEntry> assessmentEntries, boolean update) {
 		courseNodeToEval.clear();
 		
-		identToEntry = loadAssessmentEntries(getIdentity());
+		identToEntry = assessmentEntries.stream()
+				.collect(Collectors.toMap(AssessmentEntry::getSubIdent, Function.identity()));
 		
 		CourseNode root = userCourseEnvironment.getCourseEnvironment().getRunStructure().getRootNode();
 		fillCacheRecursiv(root);
@@ -103,15 +131,6 @@ public class AssessmentAccounting implements ScoreAccounting {
 					.getChildrenBlocker(null);
 			updateEntryRecursiv(root, blocker);
 		}
-		
-		return false;
-	}
-
-	private Map<String, AssessmentEntry> loadAssessmentEntries(Identity identity) {
-		return getAssessmentManager()
-				.getAssessmentEntries(identity)
-				.stream()
-				.collect(Collectors.toMap(AssessmentEntry::getSubIdent, Function.identity()));
 	}
 
 	private void fillCacheRecursiv(CourseNode courseNode) {
@@ -258,7 +277,11 @@ public class AssessmentAccounting implements ScoreAccounting {
 		entry.setAssessmentStatus(result.getAssessmentStatus());
 		entry.setFullyAssessed(result.getFullyAssessed());
 		
-		entry = getAssessmentManager().updateAssessmentEntry(entry);
+		if (commitUpdates) {
+			entry = getAssessmentManager().updateAssessmentEntry(entry);
+		} else {
+			entry = assessmentService.updateAssessmentEntry(entry);
+		}
 		
 		identToEntry.put(courseNode.getIdent(), entry);
 		courseNodeToEval.put(courseNode, result);
@@ -27,6 +27,7 @@ package org.olat.group;
 
 import java.util.Date;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -40,6 +41,8 @@ import javax.persistence.TemporalType;
 import javax.persistence.Version;
 
 import org.apache.logging.log4j.Logger;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Parameter;
 import org.olat.basesecurity.Group;
@@ -60,6 +63,8 @@ import org.olat.resource.OLATResourceImpl;
  * 
  * @author patrick
  */
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="businessgroup")
 @Entity(name="businessgroup")
 @Table(name="o_gp_business")
 public class BusinessGroupImpl implements Persistable, ModifiedInfo, BusinessGroup {
@@ -26,6 +26,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -34,12 +35,15 @@ import org.olat.basesecurity.BaseSecurityModule;
 import org.olat.basesecurity.GroupRoles;
 import org.olat.basesecurity.OrganisationRoles;
 import org.olat.core.commons.persistence.DBFactory;
+import org.olat.core.commons.persistence.DefaultResultInfos;
+import org.olat.core.commons.persistence.ResultInfos;
 import org.olat.core.commons.persistence.SortKey;
 import org.olat.core.gui.UserRequest;
 import org.olat.core.gui.components.Component;
 import org.olat.core.gui.components.form.flexible.FormItem;
 import org.olat.core.gui.components.form.flexible.FormItemContainer;
 import org.olat.core.gui.components.form.flexible.elements.FlexiTableElement;
+import org.olat.core.gui.components.form.flexible.elements.FlexiTableFilter;
 import org.olat.core.gui.components.form.flexible.elements.FlexiTableSortOptions;
 import org.olat.core.gui.components.form.flexible.elements.FormLink;
 import org.olat.core.gui.components.form.flexible.impl.FormBasicController;
@@ -48,8 +52,7 @@ import org.olat.core.gui.components.form.flexible.impl.elements.table.DefaultFle
 import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiColumnModel;
 import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableColumnModel;
 import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableDataModelFactory;
-import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableReduceEvent;
-import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableSearchEvent;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableDataSourceDelegate;
 import org.olat.core.gui.components.form.flexible.impl.elements.table.SelectionEvent;
 import org.olat.core.gui.components.form.flexible.impl.elements.table.StaticFlexiCellRenderer;
 import org.olat.core.gui.components.form.flexible.impl.elements.table.TextFlexiCellRenderer;
@@ -77,6 +80,7 @@ import org.olat.core.id.Roles;
 import org.olat.core.id.UserConstants;
 import org.olat.core.id.context.ContextEntry;
 import org.olat.core.id.context.StateEntry;
+import org.olat.core.util.StringHelper;
 import org.olat.core.util.Util;
 import org.olat.core.util.mail.ContactList;
 import org.olat.core.util.mail.ContactMessage;
@@ -136,7 +140,8 @@ public abstract class AbstractMemberListController extends FormBasicController i
 	public static final String TABLE_ACTION_ASSESSMENT = "tbl_assessment";
 
 	protected FlexiTableElement membersTable;
-	protected MemberListTableModel memberListModel;
+	protected MemberListDataSourceModel memberListModel;
+	private MemberListDataSource memberListSource;
 	protected final TooledStackedPanel toolbarPanel;
 	private FormLink editButton;
 	private FormLink mailButton;
@@ -245,7 +250,10 @@ public abstract class AbstractMemberListController extends FormBasicController i
 		FlexiTableColumnModel columnsModel = FlexiTableDataModelFactory.createFlexiTableColumnModel();
 		SortKey defaultSortKey = initColumns(columnsModel);
 		
-		memberListModel = new MemberListTableModel(columnsModel, imModule.isOnlineStatusEnabled());
+		memberListSource = new MemberListDataSource();
+		memberListModel = new MemberListDataSourceModel(memberListSource, columnsModel, imModule.isOnlineStatusEnabled());
+		memberListModel.setRowBudget(MemberListDataSourceModel.DEFAULT_ROW_BUDGET);
+		memberListModel.setPrefetchSize(20);
 		membersTable = uifactory.addTableElement(getWindowControl(), "memberList", memberListModel, 20, false, getTranslator(), formLayout);
 		membersTable.setMultiSelect(true);
 		membersTable.setEmtpyTableMessageKey("nomembers");
@@ -372,15 +380,6 @@ public abstract class AbstractMemberListController extends FormBasicController i
 				} else if(TABLE_ACTION_EDIT.equals(cmd)) {
 					openEdit(ureq, row);
 				}
-			} else if(event instanceof FlexiTableSearchEvent) {
-				String cmd = event.getCommand();
-				if(FlexiTableReduceEvent.SEARCH.equals(event.getCommand()) || FlexiTableReduceEvent.QUICK_SEARCH.equals(event.getCommand())) {
-					FlexiTableSearchEvent se = (FlexiTableSearchEvent)event;
-					String search = se.getSearch();
-					doSearch(search);
-				} else if(FormEvent.RESET.getCommand().equals(cmd)) {
-					doResetSearch();
-				}
 			}
 		} else if(editButton == source) {
 			List<MemberRow> selectedItems = getMultiSelectedRows();
@@ -407,21 +406,7 @@ public abstract class AbstractMemberListController extends FormBasicController i
 	
 	private List<MemberRow> getMultiSelectedRows() {
 		Set<Integer> selections = membersTable.getMultiSelectedIndex();
-		List<MemberRow> rows = new ArrayList<>(selections.size());
-		if(selections.isEmpty()) {
-			//do nothing
-		} else {
-			for(Integer i:selections) {
-				int index = i.intValue();
-				if(index >= 0 && index < memberListModel.getRowCount()) {
-					MemberRow row = memberListModel.getObject(index);
-					if(row != null) {
-						rows.add(row);
-					}
-				}
-			}
-		}
-		return rows;
+		return memberListModel.getObjects(selections, membersTable);
 	}
 
 	@Override
@@ -596,20 +581,23 @@ public abstract class AbstractMemberListController extends FormBasicController i
 		}
 	}
 	
-	protected void doSearch(String search) {
-		Map<String,String> propertiesSearch = new HashMap<>();
-		for(UserPropertyHandler handler:userPropertyHandlers) {
-			propertiesSearch.put(handler.getName(), search);
+	/**
+	 * The search is applied by the data source of the table.
+	 * 
+	 * @param search The search string or null to reset the search
+	 */
+	private void applySearch(String search) {
+		if(StringHelper.containsNonWhitespace(search)) {
+			Map<String,String> propertiesSearch = new HashMap<>();
+			for(UserPropertyHandler handler:userPropertyHandlers) {
+				propertiesSearch.put(handler.getName(), search);
+			}
+			getSearchParams().setUserPropertiesSearch(propertiesSearch);
+			getSearchParams().setLogin(search);
+		} else {
+			getSearchParams().setLogin(null);
+			getSearchParams().setUserPropertiesSearch(null);
 		}
-		getSearchParams().setUserPropertiesSearch(propertiesSearch);
-		getSearchParams().setLogin(search);
-		reloadModel();
-	}
-	
-	protected void doResetSearch() {
-		getSearchParams().setLogin(null);
-		getSearchParams().setUserPropertiesSearch(null);
-		reloadModel();
 	}
 	
 	private void doOpenTools(UserRequest ureq, MemberRow row, FormLink link) {
@@ -835,6 +823,13 @@ public abstract class AbstractMemberListController extends FormBasicController i
 	}
 
 	protected List<MemberRow> updateTableModel(SearchMembersParams params) {
+		List<MemberRow> memberList = loadMembers(params);
+		memberListSource.setRows(memberList);
+		membersTable.reset(true, true, true);
+		return memberList;
+	}
+	
+	private List<MemberRow> loadMembers(SearchMembersParams params) {
 		List<MemberView> memberViews;
 		if(repoEntry != null) {
 			memberViews = memberQueries.getRepositoryEntryMembers(repoEntry, params, userPropertyHandlers, getLocale());
@@ -862,7 +857,6 @@ public abstract class AbstractMemberListController extends FormBasicController i
 				}
 			}
 			memberList.add(member);
-			forgeLinks(member);
 			keyToMemberMap.put(identityKey, member);
 		}
 		
@@ -889,8 +883,6 @@ public abstract class AbstractMemberListController extends FormBasicController i
 			}
 		}
 
-		memberListModel.setObjects(memberList);
-		membersTable.reset(true, true, true);
 		return memberList;
 	}
 	
@@ -906,6 +898,67 @@ public abstract class AbstractMemberListController extends FormBasicController i
 		row.setChatLink(chatLink);
 	}
 	
+	/**
+	 * Hold the sorted list of the members without their links. The rows of
+	 * the table and their links are only created for the loaded pages.
+	 */
+	private class MemberListDataSource implements FlexiTableDataSourceDelegate<MemberRow> {
+		
+		private SortKey sortedBy;
+		private String searchString;
+		private List<MemberRow> members = new ArrayList<>();
+		
+		public void setRows(List<MemberRow> rows) {
+			members = rows;
+			sortedBy = null;
+		}
+
+		@Override
+		public int getRowCount() {
+			return members.size();
+		}
+
+		@Override
+		public List<MemberRow> reload(List<MemberRow> rows) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public ResultInfos<MemberRow> getRows(String query, List<FlexiTableFilter> filters,
+				List<String> condQueries, int firstResult, int maxResults, SortKey... orderBy) {
+			String search = StringHelper.containsNonWhitespace(query) ? query : null;
+			if(!Objects.equals(search, searchString)) {
+				searchString = search;
+				applySearch(search);
+				members = loadMembers(getSearchParams());
+				sortedBy = null;
+			}
+			sort(orderBy);
+			
+			int lastResult = maxResults <= 0 ? members.size() : Math.min(members.size(), firstResult + maxResults);
+			List<MemberRow> rows = new ArrayList<>(Math.max(0, lastResult - firstResult));
+			for(int i=firstResult; i<lastResult; i++) {
+				MemberRow member = members.get(i);
+				MemberRow row = new MemberRow(member.getView());
+				row.setLastTime(member.getLastTime());
+				row.setOnlineStatus(member.getOnlineStatus());
+				forgeLinks(row);
+				rows.add(row);
+			}
+			return new DefaultResultInfos<>(lastResult, members.size(), rows);
+		}
+		
+		private void sort(SortKey... orderBy) {
+			SortKey sortKey = orderBy != null && orderBy.length > 0 ? orderBy[0] : null;
+			if(sortKey == null || sortKey.equals(sortedBy)) return;
+			
+			MemberListTableModel sortModel = new MemberListTableModel(memberListModel.getTableColumnModel(), imModule.isOnlineStatusEnabled());
+			sortModel.setObjects(members);
+			members = new MemberListTableSort(sortKey, sortModel, getLocale()).sort();
+			sortedBy = sortKey;
+		}
+	}
+	
 	private class FinishedCallback implements StepRunnerCallback {
         @Override
         public Step execute(UserRequest ureq, WindowControl wControl, StepsRunContext runContext) {
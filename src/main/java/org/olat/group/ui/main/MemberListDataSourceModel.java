@@ -0,0 +1,57 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.group.ui.main;
+
+import org.olat.core.gui.components.form.flexible.impl.elements.table.DefaultFlexiTableDataSourceModel;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableColumnModel;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableDataSourceDelegate;
+
+/**
+ * The paged variant of the member list model used by the members management.
+ * Only the rows of the loaded pages are materialized with their links, the
+ * cell values are the same as the MemberListTableModel.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class MemberListDataSourceModel extends DefaultFlexiTableDataSourceModel<MemberRow> {
+	
+	private final boolean onlineStatusEnabled;
+	private final MemberListTableModel cellValues;
+	
+	public MemberListDataSourceModel(FlexiTableDataSourceDelegate<MemberRow> source, FlexiTableColumnModel columnModel,
+			boolean onlineStatusEnabled) {
+		super(source, columnModel);
+		this.onlineStatusEnabled = onlineStatusEnabled;
+		cellValues = new MemberListTableModel(columnModel, onlineStatusEnabled);
+	}
+
+	@Override
+	public Object getValueAt(int row, int col) {
+		MemberRow member = getObject(row);
+		return member == null ? null : cellValues.getValueAt(member, col);
+	}
+
+	@Override
+	public MemberListDataSourceModel createCopyWithEmptyList() {
+		return new MemberListDataSourceModel(getSourceDelegate(), getTableColumnModel(), onlineStatusEnabled);
+	}
+}
@@ -93,6 +93,7 @@ import org.olat.ims.qti21.QTI21DeliveryOptions;
 import org.olat.ims.qti21.QTI21Module;
 import org.olat.ims.qti21.QTI21Service;
 import org.olat.ims.qti21.manager.audit.AssessmentSessionAuditFileLog;
+import org.olat.ims.qti21.manager.audit.AssessmentSessionAuditLogWriter;
 import org.olat.ims.qti21.manager.audit.AssessmentSessionAuditOLog;
 import org.olat.ims.qti21.model.DigitalSignatureOptions;
 import org.olat.ims.qti21.model.DigitalSignatureValidation;
@@ -217,6 +218,10 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	@Autowired
 	private AssessmentTestMarksDAO testMarksDao;
 	@Autowired
+	private TestSessionStateJournal testSessionStateJournal;
+	@Autowired
+	private AssessmentSessionAuditLogWriter auditLogWriter;
+	@Autowired
 	private AssessmentEntryDAO assessmentEntryDao;
 	@Autowired
 	private QTI21Module qtiModule;
@@ -550,14 +555,8 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		if(session.getIdentity() == null && StringHelper.containsNonWhitespace(session.getAnonymousIdentifier())) {
 			return new AssessmentSessionAuditOLog();
 		}
-		try {
-			File auditLog = getAssessmentSessionAuditLogFile(session);
-			FileOutputStream outputStream = new FileOutputStream(auditLog, true);
-			return new AssessmentSessionAuditFileLog(outputStream);
-		} catch (IOException e) {
-			log.error("Cannot open the user specific log audit, fall back to OLog", e);
-			return new AssessmentSessionAuditOLog();
-		}
+		File auditLog = getAssessmentSessionAuditLogFile(session);
+		return new AssessmentSessionAuditFileLog(auditLog, auditLogWriter);
 	}
 
 	@Override
@@ -686,7 +685,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	
     private Document loadStateDocument(AssessmentTestSession candidateSession) {
         File sessionFile = getTestSessionStateFile(candidateSession);
-        return loadStateDocument(sessionFile);
+        return testSessionStateJournal.replay(loadStateDocument(sessionFile), sessionFile);
     }
     
     @Override
@@ -1152,6 +1151,8 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		if(qtiModule.isDigitalSignatureEnabled() && digitalSignature.isDigitalSignature()) {
     		signAssessmentResult(candidateSession, digitalSignature, assessedIdentity);
     	}
+		// the audit log of a finished session is on the disk
+		auditLogWriter.flush(getAssessmentSessionAuditLogFile(candidateSession));
 
         /* Finally schedule LTI result return (if appropriate and sane) */
         //maybeScheduleLtiOutcomes(candidateSession, assessmentResult);
@@ -1170,6 +1171,7 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
         final File resultFile = getAssessmentResultFile(candidateSession);
 
 		testSessionDao.deleteTestSession(candidateSession);
+		testSessionStateJournal.delete(sessionState);
 		FileUtils.deleteFile(sessionState);
 		if(resultFile != null) {
 			FileUtils.deleteFile(resultFile);
@@ -1222,8 +1224,13 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 		session = updateAssessmentTestSession(session);
 		dbInstance.commit();//make sure that the changes committed before sending the event
 		
-		AssessmentSessionAuditLogger candidateAuditLogger = getAssessmentSessionAuditLogger(session, false);
-		candidateAuditLogger.logTestRetrieved(session, actor);
+		try(AssessmentSessionAuditLogger candidateAuditLogger = getAssessmentSessionAuditLogger(session, false)) {
+			candidateAuditLogger.logTestRetrieved(session, actor);
+		} catch(IOException e) {
+			log.error("", e);
+		}
+		// the candidate wrote its audit log on an other node perhaps
+		auditLogWriter.flushOnAllNodes(getAssessmentSessionAuditLogFile(session));
 		
 		OLATResourceable sessionOres = OresHelper.createOLATResourceableInstance(AssessmentTestSession.class, session.getKey());
 		coordinatorManager.getCoordinator().getEventBus()
@@ -1334,13 +1341,13 @@ public class QTI21ServiceImpl implements QTI21Service, UserDataDeletable, Initia
 	private void storeTestSessionState(CandidateEvent candidateEvent, TestSessionState testSessionState) {
 		Document stateDocument = TestSessionStateXmlMarshaller.marshal(testSessionState);
 		File sessionFile = getTestSessionStateFile(candidateEvent);
-		storeStateDocument(stateDocument, sessionFile);
+		testSessionStateJournal.store(stateDocument, sessionFile);
 	}
 	
 	private void storeTestSessionState(AssessmentTestSession candidateSession, TestSessionState testSessionState) {
 		Document stateDocument = TestSessionStateXmlMarshaller.marshal(testSessionState);
 		File sessionFile = getTestSessionStateFile(candidateSession);
-		storeStateDocument(stateDocument, sessionFile);
+		testSessionStateJournal.store(stateDocument, sessionFile);
 	}
 
 	private File getTestSessionStateFile(CandidateEvent candidateEvent) {
@@ -0,0 +1,606 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import uk.ac.ed.ph.jqtiplus.xmlutils.XmlFactories;
+import uk.ac.ed.ph.jqtiplus.xmlutils.xslt.XsltSerializationOptions;
+import uk.ac.ed.ph.jqtiplus.xmlutils.xslt.XsltStylesheetManager;
+
+/**
+ * The state of a test session is saved as a snapshot (testSessionState.xml)
+ * and a journal of deltas (testSessionState.journal). A delta contains only
+ * the children of the state which changed since the last save, mostly the
+ * state of an item. The journal is compacted in a new snapshot after a
+ * maximum number of records.<br>
+ * The snapshot is written in a temporary file and renamed. The journal
+ * starts with the generation of the snapshot it applies to, the checksum
+ * of the snapshot file. A journal of an other generation, left by an
+ * interrupted compaction, is ignored.<br>
+ * The digests of the last saved state are hold in memory. Without them,
+ * after a restart or if an other node has written the journal, a snapshot
+ * is written.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class TestSessionStateJournal {
+	
+	private static final Logger log = Tracing.createLoggerFor(TestSessionStateJournal.class);
+	
+	public static final String JOURNAL_FILENAME = "testSessionState.journal";
+	private static final String ROOT_ID = "";
+	private static final int MAX_JOURNALS_IN_MEMORY = 5000;
+	
+	private static final byte OP_ROOT = 'A';
+	private static final byte OP_PUT = 'P';
+	private static final byte OP_REMOVE = 'R';
+	private static final int JOURNAL_MAGIC = 0x514a4e31;// QJN1
+	
+	@Value("${qti21.session.journal.enabled:true}")
+	private boolean enabled;
+	@Value("${qti21.session.journal.max.records:200}")
+	private int maxRecords;
+	
+	private static final ThreadLocal<Transformer> deltaSerializer = ThreadLocal.withInitial(() -> createSerializer(false));
+	
+	private final AtomicLong numOfSnapshots = new AtomicLong();
+	private final AtomicLong numOfRecords = new AtomicLong();
+	private final AtomicLong bytesWritten = new AtomicLong();
+	
+	private final Map<String,JournalState> journals = new LinkedHashMap<>(256, 0.75f, true) {
+		private static final long serialVersionUID = -1840585233590575469L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, JournalState> eldest) {
+			return size() > MAX_JOURNALS_IN_MEMORY;
+		}
+	};
+	
+	/**
+	 * [used by Spring and for the unit tests]
+	 * 
+	 * @param enabled false to save the complete state every time
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 * 
+	 * @param maxRecords The max. number of records before the journal is compacted
+	 */
+	public void setMaxRecords(int maxRecords) {
+		this.maxRecords = maxRecords;
+	}
+
+	public long getNumOfSnapshots() {
+		return numOfSnapshots.get();
+	}
+
+	public long getNumOfRecords() {
+		return numOfRecords.get();
+	}
+
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+	
+	public static File getJournalFile(File sessionFile) {
+		return new File(sessionFile.getParentFile(), JOURNAL_FILENAME);
+	}
+
+	/**
+	 * Save the state, as delta in the journal if possible, as a new
+	 * snapshot if not.
+	 * 
+	 * @param stateDocument The marshalled state of the test session
+	 * @param sessionFile The snapshot file
+	 */
+	public void store(Document stateDocument, File sessionFile) {
+		if(!enabled) {
+			writeSnapshot(stateDocument, sessionFile);
+			FileUtils.deleteFile(getJournalFile(sessionFile));
+			return;
+		}
+		
+		String key = sessionFile.getAbsolutePath();
+		JournalState journal;
+		synchronized(journals) {
+			journal = journals.computeIfAbsent(key, k -> new JournalState());
+		}
+		synchronized(journal) {
+			List<Child> children = getChildren(stateDocument.getDocumentElement());
+			File journalFile = getJournalFile(sessionFile);
+			if(!sessionFile.exists() || !journal.isValid(journalFile) || journal.getNumOfRecords() >= maxRecords
+					|| !journal.isSameOrder(children)) {
+				long generation = writeSnapshot(stateDocument, sessionFile);
+				FileUtils.deleteFile(journalFile);
+				journal.reset(children, generation);
+			} else {
+				appendDeltas(children, journal, journalFile);
+			}
+		}
+	}
+	
+	private void appendDeltas(List<Child> children, JournalState journal, File journalFile) {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+			DataOutputStream out = new DataOutputStream(buffer);
+			Transformer serializer = deltaSerializer.get();
+			
+			if(journal.getJournalLength() == 0l) {
+				out.writeInt(JOURNAL_MAGIC);
+				out.writeLong(journal.getGeneration());
+			}
+			
+			int records = 0;
+			Set<String> currentIds = new HashSet<>();
+			for(Child child:children) {
+				currentIds.add(child.getId());
+				if(!Arrays.equals(child.getDigest(), journal.getDigest(child.getId()))) {
+					boolean rootElement = ROOT_ID.equals(child.getId());
+					Node node = rootElement ? child.getElement().cloneNode(false) : child.getElement();
+					byte op = rootElement ? OP_ROOT : OP_PUT;
+					writeRecord(op, child.getId(), serialize(node, serializer), out);
+					records++;
+				}
+			}
+			for(String id:journal.getIds()) {
+				if(!currentIds.contains(id)) {
+					writeRecord(OP_REMOVE, id, new byte[0], out);
+					records++;
+				}
+			}
+			
+			if(records > 0) {
+				out.flush();
+				try(OutputStream journalOut = new FileOutputStream(journalFile, true)) {
+					buffer.writeTo(journalOut);
+				}
+				bytesWritten.addAndGet(buffer.size());
+				numOfRecords.addAndGet(records);
+				journal.update(children, records, journalFile);
+			}
+		} catch (IOException | TransformerException e) {
+			throw new OLATRuntimeException("Unexpected Exception writing state journal", e);
+		}
+	}
+	
+	private void writeRecord(byte op, String id, byte[] xml, DataOutputStream out) throws IOException {
+		out.writeByte(op);
+		out.writeUTF(id);
+		out.writeInt(xml.length);
+		out.write(xml);
+	}
+	
+	/**
+	 * Write the snapshot in a temporary file and rename it.
+	 * 
+	 * @return The generation of the snapshot
+	 */
+	private long writeSnapshot(Document stateDocument, File sessionFile) {
+		Transformer serializer = createSerializer(true);
+		File tmpFile = new File(sessionFile.getParentFile(), sessionFile.getName() + ".tmp");
+		CRC32 checksum = new CRC32();
+		try(OutputStream resultStream = new CheckedOutputStream(new FileOutputStream(tmpFile), checksum)) {
+			serializer.transform(new DOMSource(stateDocument), new StreamResult(resultStream));
+		} catch (TransformerException | IOException e) {
+			FileUtils.deleteFile(tmpFile);
+			throw new OLATRuntimeException("Unexpected Exception serializing state DOM", e);
+		}
+		
+		try {
+			Files.move(tmpFile.toPath(), sessionFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			FileUtils.deleteFile(tmpFile);
+			throw new OLATRuntimeException("Cannot replace the state: " + sessionFile, e);
+		}
+		numOfSnapshots.incrementAndGet();
+		bytesWritten.addAndGet(sessionFile.length());
+		return checksum.getValue();
+	}
+	
+	private static long getGeneration(File sessionFile) throws IOException {
+		CRC32 checksum = new CRC32();
+		try(InputStream in = new CheckedInputStream(new FileInputStream(sessionFile), checksum)) {
+			byte[] buffer = new byte[65536];
+			while(in.read(buffer) >= 0) {
+				// compute the checksum
+			}
+		}
+		return checksum.getValue();
+	}
+	
+	/**
+	 * Apply the deltas of the journal to the snapshot. A truncated record
+	 * at the end of the journal is ignored, as a journal of an other
+	 * generation than the snapshot.
+	 * 
+	 * @param snapshot The document loaded from the snapshot file
+	 * @param sessionFile The snapshot file
+	 * @return The document with the deltas applied
+	 */
+	public Document replay(Document snapshot, File sessionFile) {
+		File journalFile = getJournalFile(sessionFile);
+		if(snapshot == null || !journalFile.exists()) {
+			return snapshot;
+		}
+		
+		Element root = snapshot.getDocumentElement();
+		Map<String,Element> elements = new HashMap<>();
+		for(Child child:getChildren(root)) {
+			elements.put(child.getId(), child.getElement());
+		}
+		
+		try(InputStream fileIn = new FileInputStream(journalFile);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn, 65536))) {
+			if(in.readInt() != JOURNAL_MAGIC || in.readLong() != getGeneration(sessionFile)) {
+				log.warn("Ignore stale journal of test session: {}", journalFile);
+				return snapshot;
+			}
+			while(true) {
+				byte op;
+				try {
+					op = in.readByte();
+				} catch (EOFException e) {
+					break;// end of the journal
+				}
+				String id = in.readUTF();
+				byte[] xml = new byte[in.readInt()];
+				in.readFully(xml);
+				applyRecord(op, id, xml, root, elements);
+			}
+		} catch (EOFException e) {
+			log.warn("Truncated journal of test session: {}", journalFile);
+		} catch (Exception e) {
+			throw new OLATRuntimeException("Could not replay the journal of the test session: " + journalFile, e);
+		}
+		return snapshot;
+	}
+	
+	private void applyRecord(byte op, String id, byte[] xml, Element root, Map<String,Element> elements)
+	throws Exception {
+		if(op == OP_REMOVE) {
+			Element element = elements.remove(id);
+			if(element != null) {
+				root.removeChild(element);
+			}
+			return;
+		}
+		
+		Document fragment = XmlFactories.newDocumentBuilder()
+				.parse(new InputSource(new StringReader(new String(xml, StandardCharsets.UTF_8))));
+		Element fragmentRoot = fragment.getDocumentElement();
+		if(op == OP_ROOT) {
+			NamedNodeMap attributes = root.getAttributes();
+			for(int i=attributes.getLength(); i-->0; ) {
+				Attr attribute = (Attr)attributes.item(i);
+				if(!isNamespaceDeclaration(attribute)) {
+					root.removeAttributeNode(attribute);
+				}
+			}
+			NamedNodeMap newAttributes = fragmentRoot.getAttributes();
+			for(int i=0; i<newAttributes.getLength(); i++) {
+				Attr attribute = (Attr)newAttributes.item(i);
+				if(!isNamespaceDeclaration(attribute)) {
+					root.setAttributeNodeNS((Attr)root.getOwnerDocument().importNode(attribute, true));
+				}
+			}
+		} else if(op == OP_PUT) {
+			Element element = (Element)root.getOwnerDocument().importNode(fragmentRoot, true);
+			Element current = elements.put(id, element);
+			if(current == null) {
+				root.appendChild(element);
+			} else {
+				root.replaceChild(element, current);
+			}
+		}
+	}
+	
+	/**
+	 * Remove the journal and its state in memory.
+	 * 
+	 * @param sessionFile The snapshot file
+	 */
+	public void delete(File sessionFile) {
+		synchronized(journals) {
+			journals.remove(sessionFile.getAbsolutePath());
+		}
+		FileUtils.deleteFile(getJournalFile(sessionFile));
+	}
+	
+	private static boolean isNamespaceDeclaration(Attr attribute) {
+		String name = attribute.getName();
+		return "xmlns".equals(name) || name.startsWith("xmlns:");
+	}
+	
+	private static Transformer createSerializer(boolean indenting) {
+		XsltSerializationOptions xsltSerializationOptions = new XsltSerializationOptions();
+		xsltSerializationOptions.setIndenting(indenting);
+		xsltSerializationOptions.setIncludingXMLDeclaration(false);
+		return XsltStylesheetManager.createSerializer(xsltSerializationOptions);
+	}
+	
+	private static byte[] serialize(Node node, Transformer serializer) throws TransformerException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+		serializer.transform(new DOMSource(node), new StreamResult(out));
+		return out.toByteArray();
+	}
+	
+	/**
+	 * The root (only its attributes) is the first child, followed by the
+	 * elements under the root. The identifier of an element is made of its
+	 * name, its key attribute and its position between the elements with
+	 * the same name and key.
+	 */
+	private static List<Child> getChildren(Element root) {
+		List<Child> children = new ArrayList<>();
+		NodeHash rootHash = new NodeHash();
+		rootHash.attributes(root);
+		children.add(new Child(ROOT_ID, root, rootHash.value()));
+		
+		Map<String,Integer> ordinals = new HashMap<>();
+		for(Node node=root.getFirstChild(); node != null; node=node.getNextSibling()) {
+			if(node.getNodeType() == Node.ELEMENT_NODE) {
+				Element element = (Element)node;
+				String baseId = element.getNodeName() + "|" + element.getAttribute("key");
+				int ordinal = ordinals.merge(baseId, Integer.valueOf(1), Integer::sum).intValue();
+				NodeHash hash = new NodeHash();
+				hash.node(element);
+				children.add(new Child(baseId + "|" + ordinal, element, hash.value()));
+			}
+		}
+		return children;
+	}
+	
+	/**
+	 * A 128 bits hash of the elements, attributes and texts of a node. It's
+	 * made of a 64 bits FNV-1a and a 64 bits polynomial hash.
+	 */
+	private static class NodeHash {
+		
+		private long fnv = 0xcbf29ce484222325l;
+		private long poly = 17l;
+		
+		public void node(Node node) {
+			switch(node.getNodeType()) {
+				case Node.ELEMENT_NODE:
+					update('<');
+					update(node.getNodeName());
+					attributes((Element)node);
+					for(Node child=node.getFirstChild(); child != null; child=child.getNextSibling()) {
+						node(child);
+					}
+					update('>');
+					break;
+				case Node.TEXT_NODE:
+				case Node.CDATA_SECTION_NODE:
+					update('#');
+					update(node.getNodeValue());
+					break;
+				default:
+					break;
+			}
+		}
+		
+		public void attributes(Element element) {
+			NamedNodeMap attributes = element.getAttributes();
+			for(int i=0; i<attributes.getLength(); i++) {
+				Node attribute = attributes.item(i);
+				update('@');
+				update(attribute.getNodeName());
+				update('=');
+				update(attribute.getNodeValue());
+			}
+		}
+		
+		private void update(String value) {
+			if(value != null) {
+				for(int i=0; i<value.length(); i++) {
+					update(value.charAt(i));
+				}
+			}
+			update('\u0000');
+		}
+		
+		private void update(char c) {
+			fnv = (fnv ^ c) * 0x100000001b3l;
+			poly = poly * 1000003l + c;
+		}
+		
+		public long[] value() {
+			return new long[] { fnv, poly };
+		}
+	}
+	
+	private static class Child {
+		
+		private final String id;
+		private final Element element;
+		private final long[] digest;
+		
+		public Child(String id, Element element, long[] digest) {
+			this.id = id;
+			this.element = element;
+			this.digest = digest;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public Element getElement() {
+			return element;
+		}
+
+		public long[] getDigest() {
+			return digest;
+		}
+	}
+	
+	/**
+	 * The digests of the children saved in the snapshot and the journal.
+	 */
+	private static class JournalState {
+		
+		private List<String> ids = new ArrayList<>();
+		private Map<String,long[]> digests = new HashMap<>();
+		private int records;
+		private long generation;
+		private long journalLength = -1l;
+		private long journalLastModified;
+		
+		public List<String> getIds() {
+			return ids;
+		}
+		
+		public long[] getDigest(String id) {
+			return digests.get(id);
+		}
+
+		public int getNumOfRecords() {
+			return records;
+		}
+		
+		public long getGeneration() {
+			return generation;
+		}
+		
+		public long getJournalLength() {
+			return journalLength;
+		}
+		
+		/**
+		 * @param journalFile The journal file
+		 * @return true if the journal was written by this state
+		 */
+		public boolean isValid(File journalFile) {
+			if(journalLength < 0l) {
+				return false;
+			}
+			long length = journalFile.exists() ? journalFile.length() : 0l;
+			long lastModified = journalFile.exists() ? journalFile.lastModified() : 0l;
+			return length == journalLength && lastModified == journalLastModified;
+		}
+		
+		/**
+		 * The new children can only be appended at the end and the
+		 * removed ones are not counted.
+		 */
+		public boolean isSameOrder(List<Child> children) {
+			Set<String> currentIds = new HashSet<>();
+			List<String> keptIds = new ArrayList<>(children.size());
+			boolean appended = false;
+			for(Child child:children) {
+				String id = child.getId();
+				currentIds.add(id);
+				if(digests.containsKey(id)) {
+					if(appended) {
+						return false;
+					}
+					keptIds.add(id);
+				} else {
+					appended = true;
+				}
+			}
+			
+			int pos = 0;
+			for(String id:ids) {
+				if(currentIds.contains(id) && !id.equals(keptIds.get(pos++))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		public void reset(List<Child> children, long snapshotGeneration) {
+			records = 0;
+			generation = snapshotGeneration;
+			journalLength = 0l;
+			journalLastModified = 0l;
+			setChildren(children);
+		}
+		
+		public void update(List<Child> children, int newRecords, File journalFile) {
+			records += newRecords;
+			journalLength = journalFile.length();
+			journalLastModified = journalFile.lastModified();
+			setChildren(children);
+		}
+		
+		private void setChildren(List<Child> children) {
+			ids = new ArrayList<>(children.size());
+			digests = new HashMap<>();
+			for(Child child:children) {
+				ids.add(child.getId());
+				digests.put(child.getId(), child.getDigest());
+			}
+		}
+	}
+}
@@ -19,18 +19,15 @@
  */
 package org.olat.ims.qti21.manager.audit;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.io.StringWriter;
 import java.util.Map;
 
 import org.apache.logging.log4j.Logger;
 import org.olat.core.helpers.Settings;
 import org.olat.core.id.Identity;
 import org.olat.core.logging.Tracing;
-import org.olat.core.util.FileUtils;
 import org.olat.ims.qti21.AssessmentItemSession;
 import org.olat.ims.qti21.AssessmentResponse;
 import org.olat.ims.qti21.AssessmentSessionAuditLogger;
@@ -42,7 +39,9 @@ import uk.ac.ed.ph.jqtiplus.types.Identifier;
 
 /**
  * 
- * Write the logs in a file in the user storage for this assessment test
+ * Write the logs in a file in the user storage for this assessment test. The
+ * records are written by the audit log writer, closing the logger synchronizes
+ * them to the disk.
  * 
  * Initial date: 12.05.2016<br>
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
@@ -52,23 +51,24 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 
 	private static final Logger log = Tracing.createLoggerFor(AssessmentSessionAuditFileLog.class);
 	
-	private Writer writer;
-	private final OutputStream outputStream;
+	private final File auditLogFile;
+	private final AssessmentSessionAuditLogWriter logWriter;
 	private final AssessmentSessionAuditLogger debugLog;
 
-	public AssessmentSessionAuditFileLog(OutputStream outputStream) throws IOException {
-		this.outputStream = outputStream;
+	public AssessmentSessionAuditFileLog(File auditLogFile, AssessmentSessionAuditLogWriter logWriter) {
+		this.auditLogFile = auditLogFile;
+		this.logWriter = logWriter;
 		debugLog = Settings.isDebuging() ? new AssessmentSessionAuditOLog() : new DefaultAssessmentSessionAuditLogger();
-		writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
 	}
 	
 	@Override
 	public void logCandidateEvent(CandidateEvent candidateEvent) {
 		try {
+			StringWriter writer = new StringWriter();
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.log(candidateEvent, null, writer);
 			writer.write("\n");
-			writer.flush();
+			logWriter.append(auditLogFile, writer.toString());
 			debugLog.logCandidateEvent(candidateEvent);
 		} catch (IOException e) {
 			log.error("", e);
@@ -78,10 +78,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	@Override
 	public void logCandidateEvent(CandidateEvent candidateEvent, Map<Identifier, AssessmentResponse> candidateResponseMap) {
 		try {
+			StringWriter writer = new StringWriter();
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.log(candidateEvent, candidateResponseMap, writer);
 			writer.write("\n");
-			writer.flush();
+			logWriter.append(auditLogFile, writer.toString());
 			debugLog.logCandidateEvent(candidateEvent, candidateResponseMap);
 		} catch (IOException e) {
 			log.error("", e);
@@ -91,10 +92,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	@Override
 	public void logCandidateOutcomes(AssessmentTestSession candidateSession, Map<Identifier, String> outcomes) {
 		try {
+			StringWriter writer = new StringWriter();
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.logOutcomes(outcomes, writer);
 			writer.write("\n");
-			writer.flush();
+			logWriter.append(auditLogFile, writer.toString());
 			debugLog.logCandidateOutcomes(candidateSession, outcomes);
 		} catch (IOException e) {
 			log.error("", e);
@@ -104,10 +106,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	@Override
 	public void logCorrection(AssessmentTestSession candidateSession, AssessmentItemSession itemSession, Identity coach) {
 		try {
+			StringWriter writer = new StringWriter();
 			AuditLogFormatter.logDate(writer);
 			AuditLogFormatter.logCorrection(itemSession, coach, writer);
 			writer.write("\n");
-			writer.flush();
+			logWriter.append(auditLogFile, writer.toString());
 			debugLog.logCorrection(candidateSession, itemSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
@@ -117,10 +120,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	@Override
 	public void logTestRetrieved(AssessmentTestSession candidateSession, Identity coach) {
 		try {
+			StringWriter writer = new StringWriter();
 			AuditLogFormatter.logDate(writer);
 			writer.write("Test session retrieved by " + coach.getKey());
 			writer.write("\n");
-			writer.flush();
+			logWriter.append(auditLogFile, writer.toString());
 			debugLog.logTestRetrieved(candidateSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
@@ -132,10 +136,11 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	@Override
 	public void logTestReopen(AssessmentTestSession candidateSession, Identity coach) {
 		try {
+			StringWriter writer = new StringWriter();
 			AuditLogFormatter.logDate(writer);
 			writer.write("Test session reopened by " + coach.getKey());
 			writer.write("\n");
-			writer.flush();
+			logWriter.append(auditLogFile, writer.toString());
 			debugLog.logTestRetrieved(candidateSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
@@ -145,13 +150,14 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 	@Override
 	public void logTestExtend(AssessmentTestSession candidateSession, int extraTime, boolean compensation, Identity coach) {
 		try {
+			StringWriter writer = new StringWriter();
 			AuditLogFormatter.logDate(writer);
 			writer.write("Test session extened " + extraTime + " by " + coach.getKey());
 			if(compensation) {
 				writer.write(" (compensation for disadvantages)");
 			}
 			writer.write("\n");
-			writer.flush();
+			logWriter.append(auditLogFile, writer.toString());
 			debugLog.logTestRetrieved(candidateSession, coach);
 		} catch (IOException e) {
 			log.error("", e);
@@ -165,6 +171,6 @@ public class AssessmentSessionAuditFileLog implements AssessmentSessionAuditLogg
 
 	@Override
 	public void close() {
-		FileUtils.closeSafely(outputStream);
+		logWriter.flush(auditLogFile);
 	}
 }
@@ -0,0 +1,420 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.coordinate.CoordinatorManager;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.resource.OresHelper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The audit logs of the test sessions are written immediately in their file
+ * through a channel which stays open while the session is active. The
+ * synchronizations to the disk are grouped: a single thread forces every file
+ * with new records once per interval or as soon as enough bytes are waiting.
+ * The log of a session is synchronized on demand, when the session is finished
+ * or pulled and when the logger is closed. A pull on an other node of the
+ * cluster synchronizes the file on every node.<br>
+ * The first time a file is opened, its end is checked. A record which
+ * was cut by a crash is terminated and a line reports the recovery.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class AssessmentSessionAuditLogWriter implements GenericEventListener, InitializingBean, DisposableBean {
+	
+	private static final Logger log = Tracing.createLoggerFor(AssessmentSessionAuditLogWriter.class);
+	private static final OLATResourceable auditLogChannel = OresHelper.createOLATResourceableType("AssessmentSessionAuditLogWriter");
+	
+	private static final long IDLE_CHANNEL_TIME = 5 * 60 * 1000l;
+	
+	@Value("${qti21.audit.log.flush.interval:10000}")
+	private long flushInterval;
+	@Value("${qti21.audit.log.flush.bytes:262144}")
+	private long flushBytes;
+	
+	@Autowired(required=false)
+	private CoordinatorManager coordinatorManager;
+	
+	private final Object signal = new Object();
+	private final AtomicLong unsyncedBytes = new AtomicLong();
+	private final AtomicLong numOfRecords = new AtomicLong();
+	private final AtomicLong numOfOpens = new AtomicLong();
+	private final AtomicLong numOfSyncs = new AtomicLong();
+	private final AtomicLong numOfRecoveries = new AtomicLong();
+	private final ConcurrentMap<String,LogChannel> channels = new ConcurrentHashMap<>();
+	
+	private volatile boolean running;
+	private Thread syncThread;
+	
+	/**
+	 * [used by Spring and for the unit tests]
+	 * 
+	 * @param flushInterval The max. time in milliseconds between the write of a record
+	 * 		and the synchronization of its file to the disk
+	 */
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * [used by Spring and for the unit tests]
+	 * 
+	 * @param flushBytes The number of bytes not synchronized to the disk which
+	 * 		triggers the synchronization
+	 */
+	public void setFlushBytes(long flushBytes) {
+		this.flushBytes = flushBytes;
+	}
+
+	public long getNumOfRecords() {
+		return numOfRecords.get();
+	}
+
+	/**
+	 * @return The number of times a file was opened
+	 */
+	public long getNumOfOpens() {
+		return numOfOpens.get();
+	}
+
+	/**
+	 * @return The number of synchronizations to the disk
+	 */
+	public long getNumOfSyncs() {
+		return numOfSyncs.get();
+	}
+
+	public long getNumOfRecoveries() {
+		return numOfRecoveries.get();
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if(coordinatorManager != null) {
+			coordinatorManager.getCoordinator().getEventBus().registerFor(this, null, auditLogChannel);
+		}
+		running = true;
+		syncThread = new Thread(this::syncLoop, "qti-audit-log-sync");
+		syncThread.setDaemon(true);
+		syncThread.start();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		running = false;
+		if(syncThread != null) {
+			synchronized(signal) {
+				signal.notifyAll();
+			}
+			syncThread.join(flushInterval + 5000l);
+			syncThread = null;
+		}
+		for(LogChannel logChannel:channels.values()) {
+			synchronized(logChannel) {
+				sync(logChannel);
+				close(logChannel);
+				channels.remove(logChannel.getKey(), logChannel);
+			}
+		}
+	}
+
+	@Override
+	public void event(Event event) {
+		if(event instanceof AuditLogSyncEvent) {
+			AuditLogSyncEvent e = (AuditLogSyncEvent)event;
+			if(!e.isEventOnThisNode()) {
+				flush(new File(e.getPath()));
+			}
+		}
+	}
+	
+	/**
+	 * Write a record in the file. It's synchronized to the disk by the
+	 * next group, without the sync. thread, immediately.
+	 * 
+	 * @param file The audit log file
+	 * @param record The record with its line ending
+	 */
+	public void append(File file, String record) {
+		byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+		String key = file.getAbsolutePath();
+		for(;;) {
+			LogChannel logChannel = channels.computeIfAbsent(key, k -> new LogChannel(file));
+			synchronized(logChannel) {
+				if(!logChannel.isClosed()) {
+					write(logChannel, bytes);
+					if(!running) {
+						sync(logChannel);
+					}
+					break;
+				}
+			}
+		}
+		numOfRecords.incrementAndGet();
+		
+		if(running && unsyncedBytes.get() >= flushBytes) {
+			synchronized(signal) {
+				signal.notifyAll();
+			}
+		}
+	}
+	
+	/**
+	 * Synchronize the file to the disk before returning.
+	 * 
+	 * @param file The audit log file
+	 */
+	public void flush(File file) {
+		LogChannel logChannel = channels.get(file.getAbsolutePath());
+		if(logChannel != null) {
+			synchronized(logChannel) {
+				sync(logChannel);
+			}
+		}
+	}
+	
+	/**
+	 * Synchronize the file to the disk on this node and on all the other
+	 * nodes of the cluster which wrote in it.
+	 * 
+	 * @param file The audit log file
+	 */
+	public void flushOnAllNodes(File file) {
+		flush(file);
+		if(coordinatorManager != null) {
+			coordinatorManager.getCoordinator().getEventBus()
+				.fireEventToListenersOf(new AuditLogSyncEvent(file.getAbsolutePath()), auditLogChannel);
+		}
+	}
+	
+	private void syncLoop() {
+		while(running) {
+			try {
+				synchronized(signal) {
+					if(running && unsyncedBytes.get() < flushBytes) {
+						signal.wait(flushInterval);
+					}
+				}
+				syncAll();
+			} catch (InterruptedException e) {
+				log.warn("Audit log sync. interrupted");
+				Thread.currentThread().interrupt();
+				running = false;
+			} catch (Exception e) {
+				log.error("", e);
+			}
+		}
+	}
+	
+	/**
+	 * One synchronization per file with new records, close the channels
+	 * of the sessions which are idle.
+	 */
+	private void syncAll() {
+		long now = System.currentTimeMillis();
+		for(LogChannel logChannel:channels.values()) {
+			synchronized(logChannel) {
+				sync(logChannel);
+				if(now - logChannel.getLastWrite() > IDLE_CHANNEL_TIME) {
+					close(logChannel);
+					channels.remove(logChannel.getKey(), logChannel);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The caller must hold the lock of the channel.
+	 */
+	private void write(LogChannel logChannel, byte[] bytes) {
+		File file = logChannel.getFile();
+		try {
+			FileChannel channel = logChannel.getChannel();
+			if(channel == null) {
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+				numOfOpens.incrementAndGet();
+				recover(file, channel);
+				logChannel.setChannel(channel);
+			}
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			logChannel.written(bytes.length);
+			unsyncedBytes.addAndGet(bytes.length);
+		} catch (IOException e) {
+			log.error("Cannot write the audit log: {}", file, e);
+			// open the file again by the next record
+			closeChannel(logChannel);
+		}
+	}
+	
+	/**
+	 * The caller must hold the lock of the channel.
+	 */
+	private void sync(LogChannel logChannel) {
+		long bytes = logChannel.getUnsyncedBytes();
+		FileChannel channel = logChannel.getChannel();
+		if(bytes == 0 || channel == null) return;
+		
+		try {
+			channel.force(false);
+			numOfSyncs.incrementAndGet();
+		} catch (IOException e) {
+			log.error("Cannot sync the audit log: {}", logChannel.getFile(), e);
+		}
+		logChannel.synced();
+		unsyncedBytes.addAndGet(-bytes);
+	}
+	
+	/**
+	 * The caller must hold the lock of the channel.
+	 */
+	private void close(LogChannel logChannel) {
+		closeChannel(logChannel);
+		logChannel.setClosed(true);
+	}
+	
+	private void closeChannel(LogChannel logChannel) {
+		FileChannel channel = logChannel.getChannel();
+		if(channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				log.error("Cannot close the audit log: {}", logChannel.getFile(), e);
+			}
+			logChannel.setChannel(null);
+		}
+		unsyncedBytes.addAndGet(-logChannel.getUnsyncedBytes());
+		logChannel.synced();
+	}
+	
+	/**
+	 * A file which doesn't end with a line break was interrupted while writing
+	 * a record. The record is terminated and the recovery is logged.
+	 */
+	private void recover(File file, FileChannel channel) throws IOException {
+		long length = file.length();
+		if(length == 0) return;
+		
+		int lastByte;
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			raf.seek(length - 1);
+			lastByte = raf.read();
+		}
+		if(lastByte != '\n') {
+			StringWriter writer = new StringWriter();
+			writer.write("\n");
+			AuditLogFormatter.logDate(writer);
+			writer.write("Audit log recovered, the previous record is incomplete\n");
+			ByteBuffer buffer = ByteBuffer.wrap(writer.toString().getBytes(StandardCharsets.UTF_8));
+			while(buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			numOfRecoveries.incrementAndGet();
+			log.warn("Audit log recovered after an incomplete write: {}", file);
+		}
+	}
+	
+	/**
+	 * The open channel of an audit log and the number of bytes
+	 * written since the last synchronization.
+	 */
+	private static class LogChannel {
+		
+		private final File file;
+		private final String key;
+		
+		private FileChannel channel;
+		private boolean closed;
+		private long unsyncedBytes;
+		private long lastWrite;
+		
+		public LogChannel(File file) {
+			this.file = file;
+			key = file.getAbsolutePath();
+			lastWrite = System.currentTimeMillis();
+		}
+		
+		public File getFile() {
+			return file;
+		}
+		
+		public String getKey() {
+			return key;
+		}
+		
+		public FileChannel getChannel() {
+			return channel;
+		}
+		
+		public void setChannel(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		public boolean isClosed() {
+			return closed;
+		}
+
+		public void setClosed(boolean closed) {
+			this.closed = closed;
+		}
+
+		public long getLastWrite() {
+			return lastWrite;
+		}
+		
+		public long getUnsyncedBytes() {
+			return unsyncedBytes;
+		}
+		
+		public void written(long bytes) {
+			unsyncedBytes += bytes;
+			lastWrite = System.currentTimeMillis();
+		}
+		
+		public void synced() {
+			unsyncedBytes = 0l;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager.audit;
+
+import org.olat.core.util.event.MultiUserEvent;
+
+/**
+ * Ask the other nodes of the cluster to synchronize an audit
+ * log to the disk.
+ * 
+ * Initial date: 19 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class AuditLogSyncEvent extends MultiUserEvent {
+
+	private static final long serialVersionUID = 3164893530196517253L;
+	public static final String AUDIT_LOG_SYNC = "audit-log-sync";
+	
+	private final String path;
+	
+	public AuditLogSyncEvent(String path) {
+		super(AUDIT_LOG_SYNC);
+		this.path = path;
+	}
+
+	/**
+	 * @return The absolute path of the audit log
+	 */
+	public String getPath() {
+		return path;
+	}
+}
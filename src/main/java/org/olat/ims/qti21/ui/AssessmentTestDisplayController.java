@@ -62,6 +62,7 @@ import org.olat.core.id.Persistable;
 import org.olat.core.id.context.BusinessControlFactory;
 import org.olat.core.id.context.ContextEntry;
 import org.olat.core.logging.OLATRuntimeException;
+import org.olat.core.util.FileUtils;
 import org.olat.core.util.Formatter;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.UserSession;
@@ -441,6 +442,8 @@ public class AssessmentTestDisplayController extends BasicController implements
 		} catch (Exception e) {
 			logError("", e);
 		}
+		// write the buffered audit log
+		FileUtils.closeSafely(candidateAuditLogger);
 	}
 	
 	/**
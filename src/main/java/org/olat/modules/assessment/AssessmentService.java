@@ -82,6 +82,15 @@ public interface AssessmentService {
 	
 	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, RepositoryEntry entry);
 	
+	/**
+	 * Load the assessment entries of several users in one query.
+	 * 
+	 * @param entry The course / repository entry
+	 * @param identityKeys The primary keys of the assessed users
+	 * @return A list of assessment entries
+	 */
+	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentities(RepositoryEntry entry, Collection<Long> identityKeys);
+	
 	public List<AssessmentEntryScoring> loadRootAssessmentEntriesByAssessedIdentity(Identity assessedIdentity, Collection<Long> entryKeys);
 	
 	public List<AssessmentEntry> loadAssessmentEntries(BusinessGroup assessedGroup, RepositoryEntry entry, String subIdent);
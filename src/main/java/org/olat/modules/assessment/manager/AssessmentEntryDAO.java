@@ -368,6 +368,15 @@ public class AssessmentEntryDAO {
 				.setParameter("repositoryEntryKey", entry.getKey())
 				.getResultList();
 	}
+	
+	public List<Long> getAllIdentityKeysWithAssessmentData(RepositoryEntryRef entry) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("select distinct data.identity.key from assessmententry data where data.repositoryEntry.key=:repositoryEntryKey");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Long.class)
+				.setParameter("repositoryEntryKey", entry.getKey())
+				.getResultList();
+	}
 
 	/**
 	 * Load all the assessment entries for a specific user and a specific assessed repository entry
@@ -387,6 +396,26 @@ public class AssessmentEntryDAO {
 				.getResultList();
 	}
 
+	/**
+	 * Load all the assessment entries of a list of users in a specific assessed
+	 * repository entry (typically a course).
+	 * 
+	 * @param entry The assessed course / repository entry
+	 * @param identityKeys The primary keys of the assessed users
+	 * @return A list of assessment entries
+	 */
+	public List<AssessmentEntry> loadAssessmentEntriesByAssessedIdentities(RepositoryEntryRef entry, Collection<Long> identityKeys) {
+		if (entry == null || identityKeys == null || identityKeys.isEmpty()) return Collections.emptyList();
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append("select data from assessmententry data where data.repositoryEntry.key=:repositoryEntryKey and data.identity.key in (:identityKeys)");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), AssessmentEntry.class)
+				.setParameter("repositoryEntryKey", entry.getKey())
+				.setParameter("identityKeys", identityKeys)
+				.getResultList();
+	}
+
 	/**
 	 * Load all the assessment entry of the specific group. But aware that the query exclude the default group
 	 * of the repository entry! The query doesn't check the member ship but only the relation to the course.
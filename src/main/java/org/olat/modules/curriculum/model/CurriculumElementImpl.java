@@ -26,6 +26,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -41,6 +42,8 @@ import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.persistence.Transient;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.olat.basesecurity.Group;
 import org.olat.basesecurity.model.GroupImpl;
 import org.olat.core.id.Persistable;
@@ -61,6 +64,8 @@ import org.olat.modules.curriculum.CurriculumLectures;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="curriculumelement")
 @Entity(name="curriculumelement")
 @Table(name="o_cur_curriculum_element")
 public class CurriculumElementImpl implements CurriculumElement, Persistable {
@@ -44,6 +44,11 @@ public interface LibraryManager {
 	
 	public VFSContainer getSharedFolder();
 	
+	/**
+	 * @return The last modification of the metadata of the shared folder or null
+	 */
+	public Date getSharedFolderMetadataLastModified();
+	
 	public void removeExistingLockFile();
 	
 	public void lockFolderAndPreventDoubleIndexing();
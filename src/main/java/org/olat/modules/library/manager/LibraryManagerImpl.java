@@ -219,6 +219,12 @@ public class LibraryManagerImpl implements LibraryManager, InitializingBean, Gen
 		return null;
 	}
 
+	@Override
+	public Date getSharedFolderMetadataLastModified() {
+		VFSContainer container = getSharedFolder();
+		return container == null ? null : metadataDao.getLastModified(toMetadataRelativePath(container));
+	}
+
 	/**
 	 * @return The newest catalog items
 	 */
@@ -121,6 +121,11 @@ public class LibraryNotificationHandler implements NotificationsHandler {
 		return title.getInfoContent("text/plain");
 	}
 
+	@Override
+	public boolean isSubscriptionInfoShareable() {
+		return true;
+	}
+
 	@Override
 	public String getType() {
 		return "LibrarySite";
@@ -20,6 +20,7 @@
 package org.olat.modules.library.search;
 
 import java.io.IOException;
+import java.util.Date;
 
 import org.olat.basesecurity.GroupRoles;
 import org.olat.core.CoreSpringFactory;
@@ -43,6 +44,7 @@ import org.olat.repository.RepositoryService;
 import org.olat.search.service.SearchResourceContext;
 import org.olat.search.service.indexer.FolderIndexer;
 import org.olat.search.service.indexer.FolderIndexerAccess;
+import org.olat.search.service.indexer.IncrementalIndexer;
 import org.olat.search.service.indexer.OlatFullIndexer;
 
 /**
@@ -55,7 +57,7 @@ import org.olat.search.service.indexer.OlatFullIndexer;
  * @author gnaegi, gnaegi@frentix.com, www.frentix.com
  */
 
-public class LibraryIndexer extends FolderIndexer {
+public class LibraryIndexer extends FolderIndexer implements IncrementalIndexer {
 
 	private static final Logger log = Tracing.createLoggerFor(LibraryIndexer.class);
 	private static final OLATResourceable TYPE = OresHelper.createOLATResourceableTypeWithoutCheck(LibrarySite.class.getSimpleName());
@@ -67,6 +69,22 @@ public class LibraryIndexer extends FolderIndexer {
 		return TYPE.getResourceableTypeName();
 	}
 
+	@Override
+	public long getLastModified() {
+		LibraryManager libraryManager = CoreSpringFactory.getImpl(LibraryManager.class);
+		VFSContainer container = libraryManager.getSharedFolder();
+		if(container == null) {
+			return -1l;
+		}
+		// title, description... of the documents are indexed too
+		long lastModified = getLastModified(container);
+		Date metadataLastModified = libraryManager.getSharedFolderMetadataLastModified();
+		if(metadataLastModified != null && metadataLastModified.getTime() > lastModified) {
+			lastModified = metadataLastModified.getTime();
+		}
+		return lastModified;
+	}
+
 	@Override
 	public void doIndex(SearchResourceContext parentResourceContext, Object parentObject, OlatFullIndexer indexWriter) throws IOException,
 			InterruptedException {
@@ -0,0 +1,46 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.reminder;
+
+import org.olat.modules.reminder.model.ReminderRecipientsQuery;
+import org.olat.repository.RepositoryEntry;
+
+/**
+ * A filter rule which can be translated to a predicate of the query
+ * selecting the recipients of a reminder. The rule engine falls back
+ * to the filter method if the rule cannot append its predicate.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface QueryFilterRuleSPI extends FilterRuleSPI {
+	
+	/**
+	 * 
+	 * @param query The query selecting the recipients
+	 * @param entry The repository entry of the reminder
+	 * @param rule The rule
+	 * @return true if the predicate was appended to the query, false if the
+	 * 		rule must be evaluated with the filter method
+	 */
+	public boolean appendPredicate(ReminderRecipientsQuery query, RepositoryEntry entry, ReminderRule rule);
+
+}
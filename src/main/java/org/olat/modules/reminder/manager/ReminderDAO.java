@@ -29,6 +29,8 @@ import java.util.Set;
 
 import javax.persistence.TypedQuery;
 
+import org.olat.basesecurity.GroupRoles;
+import org.olat.basesecurity.IdentityImpl;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.persistence.PersistenceHelper;
 import org.olat.core.commons.persistence.QueryBuilder;
@@ -37,6 +39,7 @@ import org.olat.modules.reminder.Reminder;
 import org.olat.modules.reminder.SentReminder;
 import org.olat.modules.reminder.model.ReminderImpl;
 import org.olat.modules.reminder.model.ReminderInfos;
+import org.olat.modules.reminder.model.ReminderRecipientsQuery;
 import org.olat.modules.reminder.model.SentReminderImpl;
 import org.olat.repository.RepositoryEntry;
 import org.olat.repository.RepositoryEntryRef;
@@ -231,7 +234,53 @@ public class ReminderDAO {
 				.setParameter("reminderKey", reminder.getKey())
 				.getResultList();
 	}
-	
+
+	/**
+	 * Select the owners, coaches and participants of the repository entry
+	 * (in the default group and the business groups) which are active and
+	 * match the predicates of the rules.
+	 *
+	 * @param entry The repository entry
+	 * @param reminder The reminder (mandatory if resend is false)
+	 * @param resend If false, the identities which already received the reminder are excluded
+	 * @param rulesQuery The predicates of the rules (optional)
+	 * @return A list of distinct identities
+	 */
+	public List<Identity> getRecipients(RepositoryEntryRef entry, Reminder reminder, boolean resend, ReminderRecipientsQuery rulesQuery) {
+		QueryBuilder sb = new QueryBuilder(1024);
+		sb.append("select ident from ").append(IdentityImpl.class.getName()).append(" as ident")
+		  .append(" inner join fetch ident.user as identUser")
+		  .append(" where ident.status<=:statusVisibleLimit")
+		  .append(" and exists (select membership.key from repoentrytogroup as rel")
+		  .append("  inner join rel.group as baseGroup")
+		  .append("  inner join baseGroup.members as membership")
+		  .append("  where rel.entry.key=:entryKey and membership.identity.key=ident.key and membership.role in (:roles)")
+		  .append(" )");
+		if(!resend) {
+			sb.append(" and not exists (select sent.key from sentreminder sent")
+			  .append("  where sent.reminder.key=:reminderKey and sent.identity.key=ident.key")
+			  .append(" )");
+		}
+		if(rulesQuery != null) {
+			sb.append(rulesQuery.getPredicates());
+		}
+
+		TypedQuery<Identity> query = dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString(), Identity.class)
+				.setParameter("statusVisibleLimit", Identity.STATUS_VISIBLE_LIMIT)
+				.setParameter("entryKey", entry.getKey())
+				.setParameter("roles", List.of(GroupRoles.owner.name(), GroupRoles.coach.name(), GroupRoles.participant.name()));
+		if(!resend) {
+			query.setParameter("reminderKey", reminder.getKey());
+		}
+		if(rulesQuery != null) {
+			for(Map.Entry<String,Object> parameter:rulesQuery.getParameters().entrySet()) {
+				query.setParameter(parameter.getKey(), parameter.getValue());
+			}
+		}
+		return query.getResultList();
+	}
+
 	/**
 	 * The query is limited to the default group of the repository entry
 	 * and the business groups 
@@ -26,18 +26,19 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
-import org.olat.basesecurity.GroupRoles;
 import org.olat.core.id.Identity;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.olat.modules.reminder.FilterRuleSPI;
 import org.olat.modules.reminder.IdentitiesProviderRuleSPI;
+import org.olat.modules.reminder.QueryFilterRuleSPI;
 import org.olat.modules.reminder.Reminder;
 import org.olat.modules.reminder.ReminderModule;
 import org.olat.modules.reminder.ReminderRule;
 import org.olat.modules.reminder.ReminderService;
 import org.olat.modules.reminder.RepositoryEntryRuleSPI;
 import org.olat.modules.reminder.RuleSPI;
+import org.olat.modules.reminder.model.ReminderRecipientsQuery;
 import org.olat.modules.reminder.model.ReminderRules;
 import org.olat.modules.reminder.rule.BusinessGroupRoleRuleSPI;
 import org.olat.modules.reminder.rule.DateRuleSPI;
@@ -45,8 +46,6 @@ import org.olat.modules.reminder.rule.BeforeDateRuleSPI;
 import org.olat.modules.reminder.rule.RepositoryEntryRoleRuleSPI;
 import org.olat.modules.reminder.rule.UserPropertyRuleSPI;
 import org.olat.repository.RepositoryEntry;
-import org.olat.repository.RepositoryEntryRelationType;
-import org.olat.repository.manager.RepositoryEntryRelationDAO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -80,8 +79,6 @@ public class ReminderRuleEngine {
 	private ReminderModule reminderModule;
 	@Autowired
 	private ReminderService reminderManager;
-	@Autowired
-	private RepositoryEntryRelationDAO repositoryEntryRelationDao;
 	
 	
 	public List<Identity> evaluate(Reminder reminder, boolean resend) {
@@ -176,22 +173,22 @@ public class ReminderRuleEngine {
 			}
 		}
 		
-		List<Identity> identities;
 		if(identitiesProviderRules.isEmpty()) {
-			//all members of repository entry
-			List<Identity> duplicatedIdentities = repositoryEntryRelationDao.getMembers(entry, RepositoryEntryRelationType.all,
-					GroupRoles.owner.name(), GroupRoles.coach.name(), GroupRoles.participant.name());
-			identities = new ArrayList<>(new HashSet<>(duplicatedIdentities));
-		} else {
-			identities = null;
-			
-			for(ReminderRule rule:identitiesProviderRules) {
-				List<Identity> members = getMembers(entry, rule);
-				if(identities == null) {
-					identities = members;
-				} else {
-					identities.retainAll(members);
-				}
+			//all active members of repository entry, the status, the already sent reminders
+			//and the rules which can be expressed as predicates are evaluated by the database
+			ReminderRecipientsQuery rulesQuery = compileRules(entry, ruleList);
+			List<Identity> identities = new ArrayList<>(reminderDao.getRecipients(entry, reminder, resend, rulesQuery));
+			filterIdentitiesByProperty(identities, ruleList);
+			return identities;
+		}
+		
+		List<Identity> identities = null;
+		for(ReminderRule rule:identitiesProviderRules) {
+			List<Identity> members = getMembers(entry, rule);
+			if(identities == null) {
+				identities = members;
+			} else {
+				identities.retainAll(members);
 			}
 		}
 		
@@ -213,6 +210,32 @@ public class ReminderRuleEngine {
 		return identities;
 	}
 
+	/**
+	 * Append the predicates of the rules which can be evaluated in the query
+	 * and remove them from the list.
+	 * 
+	 * @param entry The repository entry
+	 * @param ruleList The list of rules
+	 * @return The predicates
+	 */
+	protected ReminderRecipientsQuery compileRules(RepositoryEntry entry, List<ReminderRule> ruleList) {
+		ReminderRecipientsQuery rulesQuery = new ReminderRecipientsQuery();
+		for(Iterator<ReminderRule> ruleIt=ruleList.iterator(); ruleIt.hasNext(); ) {
+			ReminderRule rule = ruleIt.next();
+			RuleSPI ruleSpi = reminderModule.getRuleSPIByType(rule.getType());
+			if(ruleSpi instanceof QueryFilterRuleSPI) {
+				try {
+					if(((QueryFilterRuleSPI)ruleSpi).appendPredicate(rulesQuery, entry, rule)) {
+						ruleIt.remove();
+					}
+				} catch (Exception e) {
+					log.error("", e);
+				}
+			}
+		}
+		return rulesQuery;
+	}
+
 	public List<Identity> getMembers(RepositoryEntry entry, ReminderRule rule) {
 		List<Identity> members = new ArrayList<>();
 		try {
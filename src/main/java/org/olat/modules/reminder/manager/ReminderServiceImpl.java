@@ -29,8 +29,11 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
 import org.olat.core.gui.translator.Translator;
 import org.olat.core.helpers.Settings;
 import org.olat.core.id.Identity;
@@ -60,6 +63,7 @@ import org.olat.modules.reminder.ui.ReminderAdminController;
 import org.olat.repository.RepositoryEntry;
 import org.olat.repository.RepositoryEntryRef;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
@@ -73,6 +77,13 @@ public class ReminderServiceImpl implements ReminderService {
 	
 	private static final Logger log = Tracing.createLoggerFor(ReminderServiceImpl.class);
 	
+	@Value("${reminders.parallelism:2}")
+	private int remindersParallelism;
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private TaskExecutorManager taskExecutorManager;
 	@Autowired
 	private ReminderDAO reminderDao;
 	@Autowired
@@ -203,10 +214,45 @@ public class ReminderServiceImpl implements ReminderService {
 
 	@Override
 	public void remindAll() {
+		long start = System.currentTimeMillis();
 		Date now = new Date();
-		List<Reminder> reminders = reminderDao.getReminders(now);
-		for(Reminder reminder:reminders) {
-			sendReminder(reminder);
+		List<Long> reminderKeys = reminderDao.getReminders(now).stream()
+				.map(Reminder::getKey)
+				.collect(Collectors.toList());
+		dbInstance.commitAndCloseSession();
+		
+		List<Runnable> tasks = reminderKeys.stream()
+				.map(reminderKey -> (Runnable)() -> remind(reminderKey))
+				.collect(Collectors.toList());
+		taskExecutorManager.executeInParallel(tasks, remindersParallelism);
+		log.info(Tracing.M_AUDIT, "Evaluated {} reminders in {} ms", reminderKeys.size(), (System.currentTimeMillis() - start));
+	}
+	
+	/**
+	 * Evaluate the rules and send the reminder in its own transaction.
+	 * 
+	 * @param reminderKey The primary key of the reminder
+	 */
+	private void remind(Long reminderKey) {
+		try {
+			Reminder reminder = reminderDao.loadByKey(reminderKey);
+			if(reminder == null) {
+				return;
+			}
+			
+			long start = System.currentTimeMillis();
+			List<Identity> identitiesToRemind = ruleEngine.evaluate(reminder, false);
+			long evaluationTime = System.currentTimeMillis() - start;
+			if(!identitiesToRemind.isEmpty()) {
+				sendReminder(reminder, identitiesToRemind);
+			}
+			dbInstance.commitAndCloseSession();
+			log.info("Reminder {} of course {}: {} recipients, evaluated in {} ms, sent in {} ms",
+					reminder.getKey(), reminder.getEntry().getKey(), identitiesToRemind.size(),
+					evaluationTime, (System.currentTimeMillis() - start - evaluationTime));
+		} catch (Exception e) {
+			log.error("Cannot send reminder: {}", reminderKey, e);
+			dbInstance.rollbackAndCloseSession();
 		}
 	}
 
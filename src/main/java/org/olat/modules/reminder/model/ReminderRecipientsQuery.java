@@ -0,0 +1,80 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.modules.reminder.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.olat.core.commons.persistence.QueryBuilder;
+
+/**
+ * Collect the predicates of the rules which can be evaluated directly
+ * in the query selecting the recipients of a reminder. The identity is
+ * available under the alias "ident".
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ReminderRecipientsQuery {
+	
+	private int numOfParameters = 0;
+	private int numOfPredicates = 0;
+	private final QueryBuilder sb = new QueryBuilder(256);
+	private final Map<String,Object> parameters = new HashMap<>();
+	
+	/**
+	 * Start a new predicate.
+	 * 
+	 * @return The query builder
+	 */
+	public QueryBuilder and() {
+		numOfPredicates++;
+		return sb.append(" and ");
+	}
+	
+	public int getNumOfPredicates() {
+		return numOfPredicates;
+	}
+	
+	/**
+	 * @return The predicates, each one starting with "and"
+	 */
+	public String getPredicates() {
+		return sb.toString();
+	}
+	
+	/**
+	 * Register a value and return the unique name of the parameter
+	 * to use in the predicate.
+	 * 
+	 * @param value The value of the parameter
+	 * @return The name of the parameter (without colon)
+	 */
+	public String addParameter(Object value) {
+		String name = "ruleParam" + (numOfParameters++);
+		parameters.put(name, value);
+		return name;
+	}
+	
+	public Map<String,Object> getParameters() {
+		return parameters;
+	}
+}
@@ -25,9 +25,10 @@ import java.util.List;
 import java.util.Map;
 
 import org.olat.core.id.Identity;
-import org.olat.modules.reminder.FilterRuleSPI;
+import org.olat.modules.reminder.QueryFilterRuleSPI;
 import org.olat.modules.reminder.ReminderRule;
 import org.olat.modules.reminder.RuleEditorFragment;
+import org.olat.modules.reminder.model.ReminderRecipientsQuery;
 import org.olat.modules.reminder.model.ReminderRuleImpl;
 import org.olat.modules.reminder.ui.CourseLaunchRuleEditor;
 import org.olat.repository.RepositoryEntry;
@@ -38,7 +39,7 @@ import org.olat.repository.RepositoryEntry;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public abstract class AbstractLaunchDateRuleSPI  implements FilterRuleSPI {
+public abstract class AbstractLaunchDateRuleSPI  implements QueryFilterRuleSPI {
 
 	@Override
 	public RuleEditorFragment getEditorFragment(ReminderRule rule, RepositoryEntry entry) {
@@ -46,6 +47,34 @@ public abstract class AbstractLaunchDateRuleSPI  implements FilterRuleSPI {
 	}
 	
 	protected abstract Map<Long,Date> getLaunchDates(ReminderRule rule, RepositoryEntry entry, List<Identity> identities);
+	
+	/**
+	 * Append a predicate which accepts the identities with a date
+	 * before the specified limit.
+	 * 
+	 * @param query The query selecting the recipients
+	 * @param entry The repository entry
+	 * @param rule The rule
+	 * @param limitParameter The name of the parameter with the limit date
+	 * @return true if the predicate was appended
+	 */
+	protected boolean appendLaunchDatePredicate(ReminderRecipientsQuery query, RepositoryEntry entry, ReminderRule rule, String limitParameter) {
+		return false;
+	}
+	
+	@Override
+	public boolean appendPredicate(ReminderRecipientsQuery query, RepositoryEntry entry, ReminderRule rule) {
+		if(rule instanceof ReminderRuleImpl) {
+			ReminderRuleImpl r = (ReminderRuleImpl)rule;
+			int distance = Integer.parseInt(r.getRightOperand());
+			LaunchUnit unit = LaunchUnit.valueOf(r.getRightUnit());
+			// same as after(): the date is more than distance units in the past
+			long limit = System.currentTimeMillis() - Math.round(distance * getUnitInMillis(unit));
+			String limitParameter = query.addParameter(new Date(limit));
+			return appendLaunchDatePredicate(query, entry, rule, limitParameter);
+		}
+		return false;
+	}
 
 	@Override
 	public void filter(RepositoryEntry entry, List<Identity> identities, ReminderRule rule) {
@@ -89,6 +118,16 @@ public abstract class AbstractLaunchDateRuleSPI  implements FilterRuleSPI {
 		return between > distance;
 	}
 	
+	private double getUnitInMillis(LaunchUnit unit) {
+		switch(unit) {
+			case day: return 1000d * 60d * 60d * 24d;
+			case week: return 1000d * 60d * 60d * 24d * 7d;
+			case month: return 1000d * 60d * 60d * 24d * 30d;
+			case year: return 1000d * 60d * 60d * 24d * 365d;
+			default: return 0d;
+		}
+	}
+	
 	public double daysBetween(Date d1, Date d2) {
         return ((d2.getTime() - d1.getTime()) / (1000d * 60d * 60d * 24d));
 	}
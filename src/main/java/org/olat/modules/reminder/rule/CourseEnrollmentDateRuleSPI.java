@@ -26,6 +26,7 @@ import java.util.Map;
 import org.olat.core.id.Identity;
 import org.olat.course.export.CourseEnvironmentMapper;
 import org.olat.modules.reminder.ReminderRule;
+import org.olat.modules.reminder.model.ReminderRecipientsQuery;
 import org.olat.modules.reminder.manager.ReminderDAO;
 import org.olat.repository.RepositoryEntry;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -57,4 +58,20 @@ public class CourseEnrollmentDateRuleSPI extends AbstractLaunchDateRuleSPI {
 	protected Map<Long, Date> getLaunchDates(ReminderRule rule, RepositoryEntry entry, List<Identity> identities) {
 		return reminderDao.getCourseEnrollmentDates(entry, identities);
 	}
+	
+	@Override
+	protected boolean appendLaunchDatePredicate(ReminderRecipientsQuery query, RepositoryEntry entry, ReminderRule rule, String limitParameter) {
+		String entryParameter = query.addParameter(entry.getKey());
+		query.and()
+		     .append("exists (select enrollment.key from repoentrytogroup as enrollmentRel")
+		     .append(" inner join enrollmentRel.group as enrollmentGroup")
+		     .append(" inner join enrollmentGroup.members as enrollment")
+		     .append(" left join businessgroup as enrollmentBGroup on (enrollmentBGroup.baseGroup.key=enrollmentGroup.key)")
+		     .append(" where enrollmentRel.entry.key=:").append(entryParameter)
+		     .append(" and enrollment.identity.key=ident.key")
+		     .append(" and (enrollmentRel.defaultGroup=true or enrollmentBGroup.key is not null)")
+		     .append(" and enrollment.creationDate<:").append(limitParameter)
+		     .append(")");
+		return true;
+	}
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import org.olat.core.id.Identity;
 import org.olat.course.assessment.manager.UserCourseInformationsManager;
 import org.olat.course.export.CourseEnvironmentMapper;
 import org.olat.modules.reminder.ReminderRule;
+import org.olat.modules.reminder.model.ReminderRecipientsQuery;
 import org.olat.repository.RepositoryEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -57,4 +58,15 @@ public class InitialCourseLaunchRuleSPI extends AbstractLaunchDateRuleSPI {
 	protected Map<Long, Date> getLaunchDates(ReminderRule rule, RepositoryEntry entry, List<Identity> identities) {
 		return userCourseInformationsManager.getInitialLaunchDates(entry.getOlatResource(), identities);
 	}
+	
+	@Override
+	protected boolean appendLaunchDatePredicate(ReminderRecipientsQuery query, RepositoryEntry entry, ReminderRule rule, String limitParameter) {
+		String resourceParameter = query.addParameter(entry.getOlatResource().getKey());
+		query.and()
+		     .append("exists (select infos.key from usercourseinfos as infos")
+		     .append(" where infos.identity.key=ident.key and infos.resource.key=:").append(resourceParameter)
+		     .append(" and infos.initialLaunch<:").append(limitParameter)
+		     .append(")");
+		return true;
+	}
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ package org.olat.modules.taxonomy.model;
 
 import java.util.Date;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -34,6 +35,8 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.olat.core.id.ModifiedInfo;
 import org.olat.core.id.Persistable;
 import org.olat.modules.taxonomy.Taxonomy;
@@ -47,6 +50,8 @@ import org.olat.modules.taxonomy.TaxonomyLevelType;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
+@Cacheable
+@Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="taxonomylevel")
 @Entity(name="ctaxonomylevel")
 @Table(name="o_tax_taxonomy_level")
 @NamedQueries({
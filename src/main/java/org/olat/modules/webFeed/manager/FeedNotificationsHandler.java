@@ -183,6 +183,11 @@ public abstract class FeedNotificationsHandler implements NotificationsHandler {
 		}
 	}
 
+	@Override
+	public boolean isSubscriptionInfoShareable() {
+		return true;
+	}
+
 	protected abstract String getCssClassIcon();
 
 	protected abstract String getHeader(Translator translator, String title);
@@ -276,6 +276,11 @@ public class WikiPageChangeOrCreateNotificationHandler implements NotificationsH
 		}
 	}
 
+	@Override
+	public boolean isSubscriptionInfoShareable() {
+		return true;
+	}
+
 	@Override
 	public String getType() {
 		return "WikiPage";
@@ -310,6 +310,7 @@ public class RepositoryManager {
 				.createQuery(query.toString(), OLATResource.class)
 				.setParameter("repoKey", key)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 		if(entries.isEmpty()) {
 			return null;
@@ -392,6 +393,7 @@ public class RepositoryManager {
 				.createQuery(sb.toString(), Long.class)
 				.setParameter("oreskey", ores.getKey())
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 		int size = result.size();
 		if (strict) {
@@ -457,6 +459,7 @@ public class RepositoryManager {
 				.createNamedQuery("getDisplayNameByOlatResourceRedId", String.class)
 				.setParameter("resid", resId)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 
 		if (displaynames.size() > 1) throw new AssertException("Repository lookup returned zero or more than one result: " + displaynames.size());
@@ -469,6 +472,7 @@ public class RepositoryManager {
 				.createNamedQuery("getDisplayNameByResourceKey", String.class)
 				.setParameter("resKey", resourceKey)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 
 		if (displaynames.size() > 1) throw new AssertException("Repository lookup returned zero or more than one result: " + displaynames.size());
@@ -487,6 +491,7 @@ public class RepositoryManager {
 				.createNamedQuery("getDisplayNameByRepositoryEntryKey", String.class)
 				.setParameter("reKey", reId)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 
 		if (displaynames.size() > 1) throw new AssertException("Repository lookup returned zero or more than one result: " + displaynames.size());
@@ -312,6 +312,7 @@ public class RepositoryEntryAuthorQueries {
 			sb.append(")");	
 		}
 
+		boolean after = !count && appendAfterKey(params, sb);
 		if(!count) {
 			appendAuthorViewOrderBy(params, sb);
 		}
@@ -340,6 +341,9 @@ public class RepositoryEntryAuthorQueries {
 		if(quickText != null) {
 			dbQuery.setParameter("quickText", quickText);
 		}
+		if(after) {
+			dbQuery.setParameter("afterKey", params.getAfterKey());
+		}
 		
 		if (params.isTechnicalTypeDefined()) {
 			dbQuery.setParameter("technicalTypes", params.getTechncialTypes());
@@ -468,6 +472,30 @@ public class RepositoryEntryAuthorQueries {
 		return true;
 	}
 	
+	/**
+	 * The keyset condition for the orders by key and by displayname. The display
+	 * name of the previous entry is selected by the database to compare with
+	 * the same lower function as the order by.
+	 * 
+	 * @return true if the condition was appended
+	 */
+	private boolean appendAfterKey(SearchAuthorRepositoryEntryViewParams params, QueryBuilder sb) {
+		if(params.getAfterKey() == null) return false;
+		
+		String op = params.isOrderByAsc() ? ">" : "<";
+		if(params.getOrderBy() == OrderBy.key) {
+			sb.append(" and v.key ").append(op).append(" :afterKey");
+			return true;
+		}
+		if(params.getOrderBy() == OrderBy.displayname) {
+			String afterName = "(select lower(afterV.displayname) from repositoryentry as afterV where afterV.key=:afterKey)";
+			sb.append(" and (lower(v.displayname) ").append(op).append(" ").append(afterName)
+			  .append(" or (lower(v.displayname) = ").append(afterName).append(" and v.key ").append(op).append(" :afterKey))");
+			return true;
+		}
+		return false;
+	}
+	
 	private void appendAuthorViewOrderBy(SearchAuthorRepositoryEntryViewParams params, QueryBuilder sb) {
 		OrderBy orderBy = params.getOrderBy();
 		boolean asc = params.isOrderByAsc();
@@ -495,7 +523,8 @@ public class RepositoryEntryAuthorQueries {
 					break;
 				case displayname:
 					sb.append(" order by lower(v.displayname)");
-					appendAsc(sb, asc);	
+					appendAsc(sb, asc).append(", v.key");
+					appendAsc(sb, asc);
 					break;
 				case authors:
 					sb.append(" order by lower(v.authors)");
@@ -139,6 +139,7 @@ public class RepositoryEntryDAO {
 				.createQuery(query, RepositoryEntry.class)
 				.setParameter("externalId", externalId)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 	}
 
@@ -150,6 +151,7 @@ public class RepositoryEntryDAO {
 				.createQuery(query, RepositoryEntry.class)
 				.setParameter("externalRef", externalRef)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 	}
 	
@@ -244,6 +246,7 @@ public class RepositoryEntryDAO {
 				.createQuery(query, OLATResource.class)
 				.setParameter("repoKey", key)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 		if(entries.isEmpty()) {
 			return null;
@@ -260,6 +263,7 @@ public class RepositoryEntryDAO {
 				.createQuery(query, OLATResource.class)
 				.setParameter("softkey", softkey)
 				.setHint("org.hibernate.cacheable", Boolean.TRUE)
+				.setHint("org.hibernate.cacheRegion", "repositoryentry-query")
 				.getResultList();
 		if(entries.isEmpty()) {
 			return null;
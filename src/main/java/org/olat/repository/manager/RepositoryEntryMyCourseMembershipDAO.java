@@ -0,0 +1,378 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.repository.manager;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TemporalType;
+
+import org.hibernate.jpa.TypedParameterValue;
+import org.hibernate.type.StandardBasicTypes;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.basesecurity.IdentityImpl;
+import org.olat.basesecurity.IdentityRef;
+import org.olat.basesecurity.OrganisationRoles;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.mark.impl.MarkImpl;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryEntryRef;
+import org.olat.repository.model.RepositoryEntryMyCourseMembership;
+import org.olat.resource.OLATResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the denormalized table used by "My courses". The rows of a user
+ * are always recalculated as a whole from the memberships, the marks, the
+ * ratings and the course launches of the user, a set of users at once.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class RepositoryEntryMyCourseMembershipDAO {
+	
+	private static final String REPOSITORY_ENTRY_RES_NAME = "RepositoryEntry";
+	
+	@Autowired
+	private DB dbInstance;
+	
+	/**
+	 * Recalculate the rows of the specified identities: missing rows are created,
+	 * changed rows are updated and rows without membership are deleted. The
+	 * refresh of the same identity can run concurrently on several nodes, the
+	 * rows are inserted, updated and deleted with statements which don't fail if
+	 * an other transaction was quicker.
+	 * 
+	 * @param identityKeys A list of identities, the caller is responsible to keep the list small
+	 * @return The number of created, updated and deleted rows
+	 */
+	public int refresh(Collection<Long> identityKeys) {
+		if(identityKeys == null || identityKeys.isEmpty()) return 0;
+		
+		Map<MembershipKey,RepositoryEntryMyCourseMembership> calculated = calculateMemberships(identityKeys);
+		List<RepositoryEntryMyCourseMembership> existingMemberships = loadMemberships(identityKeys);
+		
+		int changes = 0;
+		EntityManager em = dbInstance.getCurrentEntityManager();
+		for(RepositoryEntryMyCourseMembership existing:existingMemberships) {
+			em.detach(existing);
+			MembershipKey key = new MembershipKey(existing.getIdentity().getKey(), existing.getEntry().getKey());
+			RepositoryEntryMyCourseMembership membership = calculated.remove(key);
+			if(membership == null) {
+				// no membership anymore or duplicate
+				changes += deleteMembership(existing.getKey());
+			} else if(isChanged(membership, existing)) {
+				changes += updateMembership(existing.getKey(), membership);
+			}
+		}
+		
+		for(RepositoryEntryMyCourseMembership membership:calculated.values()) {
+			changes += insertMembership(membership);
+		}
+		return changes;
+	}
+	
+	private int deleteMembership(Long key) {
+		String query = "delete from remycoursemembership as mym where mym.key=:key";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("key", key)
+				.executeUpdate();
+	}
+	
+	private int updateMembership(Long key, RepositoryEntryMyCourseMembership membership) {
+		StringBuilder sb = new StringBuilder(256);
+		sb.append("update remycoursemembership as mym set mym.owner=:owner, mym.coach=:coach, mym.participant=:participant,")
+		  .append(" mym.member=:member, mym.marked=:marked, mym.rating=:rating, mym.lastVisit=:lastVisit, mym.lastModified=:now")
+		  .append(" where mym.key=:key");
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(sb.toString())
+				.setParameter("owner", Boolean.valueOf(membership.isOwner()))
+				.setParameter("coach", Boolean.valueOf(membership.isCoach()))
+				.setParameter("participant", Boolean.valueOf(membership.isParticipant()))
+				.setParameter("member", Boolean.valueOf(membership.isMember()))
+				.setParameter("marked", Boolean.valueOf(membership.isMarked()))
+				.setParameter("rating", membership.getRating())
+				.setParameter("lastVisit", membership.getLastVisit())
+				.setParameter("now", new Date())
+				.setParameter("key", key)
+				.executeUpdate();
+	}
+	
+	/**
+	 * Insert the row if it doesn't exist. The unique index on the identity and the
+	 * entry prevents the duplicates, the statement ignores the row if an other
+	 * transaction already inserted it.
+	 * 
+	 * @param membership The calculated membership
+	 * @return 1 if the row was inserted, 0 if it already exists
+	 */
+	private int insertMembership(RepositoryEntryMyCourseMembership membership) {
+		StringBuilder sb = new StringBuilder(512);
+		if(dbInstance.isOracle()) {
+			sb.append("insert /*+ ignore_row_on_dupkey_index(o_re_my_course_membership, idx_re_my_course_ident_re_idx) */");
+		} else {
+			sb.append("insert");
+		}
+		sb.append(" into o_re_my_course_membership (creationdate, lastmodified, r_owner, r_coach, r_participant, r_member,")
+		  .append(" r_marked, r_rating, r_last_visit, fk_identity, fk_entry)")
+		  .append(" values (:now, :now, :owner, :coach, :participant, :member, :marked, :rating, :lastVisit, :identityKey, :entryKey)");
+		if(dbInstance.isMySQL()) {
+			sb.append(" on duplicate key update id=id");
+		} else if(dbInstance.isPostgreSQL()) {
+			sb.append(" on conflict (fk_identity, fk_entry) do nothing");
+		}
+		
+		return dbInstance.getCurrentEntityManager()
+				.createNativeQuery(sb.toString())
+				.setParameter("now", new Date(), TemporalType.TIMESTAMP)
+				.setParameter("owner", Boolean.valueOf(membership.isOwner()))
+				.setParameter("coach", Boolean.valueOf(membership.isCoach()))
+				.setParameter("participant", Boolean.valueOf(membership.isParticipant()))
+				.setParameter("member", Boolean.valueOf(membership.isMember()))
+				.setParameter("marked", Boolean.valueOf(membership.isMarked()))
+				.setParameter("rating", new TypedParameterValue(StandardBasicTypes.INTEGER, membership.getRating()))
+				.setParameter("lastVisit", membership.getLastVisit(), TemporalType.TIMESTAMP)
+				.setParameter("identityKey", membership.getIdentity().getKey())
+				.setParameter("entryKey", membership.getEntry().getKey())
+				.executeUpdate();
+	}
+	
+	private boolean isChanged(RepositoryEntryMyCourseMembership source, RepositoryEntryMyCourseMembership target) {
+		return source.isOwner() != target.isOwner()
+				|| source.isCoach() != target.isCoach()
+				|| source.isParticipant() != target.isParticipant()
+				|| source.isMember() != target.isMember()
+				|| source.isMarked() != target.isMarked()
+				|| !Objects.equals(source.getRating(), target.getRating())
+				|| !sameDate(source.getLastVisit(), target.getLastVisit());
+	}
+	
+	private boolean sameDate(Date d1, Date d2) {
+		if(d1 == null || d2 == null) {
+			return d1 == null && d2 == null;
+		}
+		return d1.getTime() == d2.getTime();
+	}
+	
+	private Map<MembershipKey,RepositoryEntryMyCourseMembership> calculateMemberships(Collection<Long> identityKeys) {
+		EntityManager em = dbInstance.getCurrentEntityManager();
+		
+		String membershipQuery = "select distinct membership.identity.key, rel.entry.key, membership.role from repoentrytogroup as rel, bgroupmember as membership where rel.group.key=membership.group.key and membership.identity.key in (:identityKeys)";
+		List<Object[]> rawMemberships = em.createQuery(membershipQuery, Object[].class)
+				.setParameter("identityKeys", identityKeys)
+				.getResultList();
+		
+		Map<MembershipKey,RepositoryEntryMyCourseMembership> memberships = new HashMap<>();
+		for(Object[] rawMembership:rawMemberships) {
+			MembershipKey key = new MembershipKey((Long)rawMembership[0], (Long)rawMembership[1]);
+			String role = (String)rawMembership[2];
+			boolean owner = GroupRoles.owner.name().equals(role);
+			boolean coach = GroupRoles.coach.name().equals(role);
+			boolean participant = GroupRoles.participant.name().equals(role);
+			boolean member = !OrganisationRoles.guest.name().equals(role)
+					&& !GroupRoles.invitee.name().equals(role) && !GroupRoles.waiting.name().equals(role);
+			if(!owner && !coach && !participant && !member) {
+				continue;
+			}
+			
+			RepositoryEntryMyCourseMembership membership = memberships.computeIfAbsent(key, k -> {
+				RepositoryEntryMyCourseMembership m = new RepositoryEntryMyCourseMembership();
+				m.setIdentity(em.getReference(IdentityImpl.class, k.getIdentityKey()));
+				m.setEntry(em.getReference(RepositoryEntry.class, k.getEntryKey()));
+				return m;
+			});
+			membership.setOwner(membership.isOwner() || owner);
+			membership.setCoach(membership.isCoach() || coach);
+			membership.setParticipant(membership.isParticipant() || participant);
+			membership.setMember(membership.isMember() || member);
+		}
+		
+		if(memberships.isEmpty()) {
+			return memberships;
+		}
+		
+		String markQuery = "select mark.creator.key, mark.resId from " + MarkImpl.class.getName() + " as mark where mark.creator.key in (:identityKeys) and mark.resName=:resName";
+		List<Object[]> rawMarks = em.createQuery(markQuery, Object[].class)
+				.setParameter("identityKeys", identityKeys)
+				.setParameter("resName", REPOSITORY_ENTRY_RES_NAME)
+				.getResultList();
+		for(Object[] rawMark:rawMarks) {
+			RepositoryEntryMyCourseMembership membership = memberships.get(new MembershipKey((Long)rawMark[0], (Long)rawMark[1]));
+			if(membership != null) {
+				membership.setMarked(true);
+			}
+		}
+		
+		String ratingQuery = "select rating.creator.key, rating.resId, rating.rating from userrating as rating where rating.creator.key in (:identityKeys) and rating.resName=:resName";
+		List<Object[]> rawRatings = em.createQuery(ratingQuery, Object[].class)
+				.setParameter("identityKeys", identityKeys)
+				.setParameter("resName", REPOSITORY_ENTRY_RES_NAME)
+				.getResultList();
+		for(Object[] rawRating:rawRatings) {
+			RepositoryEntryMyCourseMembership membership = memberships.get(new MembershipKey((Long)rawRating[0], (Long)rawRating[1]));
+			if(membership != null) {
+				membership.setRating((Integer)rawRating[2]);
+			}
+		}
+		
+		String visitQuery = "select infos.identity.key, v.key, infos.recentLaunch from usercourseinfos as infos, repositoryentry as v where v.olatResource.key=infos.resource.key and infos.identity.key in (:identityKeys)";
+		List<Object[]> rawVisits = em.createQuery(visitQuery, Object[].class)
+				.setParameter("identityKeys", identityKeys)
+				.getResultList();
+		for(Object[] rawVisit:rawVisits) {
+			RepositoryEntryMyCourseMembership membership = memberships.get(new MembershipKey((Long)rawVisit[0], (Long)rawVisit[1]));
+			if(membership != null) {
+				membership.setLastVisit((Date)rawVisit[2]);
+			}
+		}
+		return memberships;
+	}
+	
+	public List<RepositoryEntryMyCourseMembership> loadMemberships(Collection<Long> identityKeys) {
+		String query = "select mym from remycoursemembership as mym where mym.identity.key in (:identityKeys)";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, RepositoryEntryMyCourseMembership.class)
+				.setParameter("identityKeys", identityKeys)
+				.getResultList();
+	}
+	
+	public RepositoryEntryMyCourseMembership loadMembership(IdentityRef identity, RepositoryEntryRef entry) {
+		String query = "select mym from remycoursemembership as mym where mym.identity.key=:identityKey and mym.entry.key=:entryKey";
+		List<RepositoryEntryMyCourseMembership> memberships = dbInstance.getCurrentEntityManager()
+				.createQuery(query, RepositoryEntryMyCourseMembership.class)
+				.setParameter("identityKey", identity.getKey())
+				.setParameter("entryKey", entry.getKey())
+				.getResultList();
+		return memberships.isEmpty() ? null : memberships.get(0);
+	}
+	
+	/**
+	 * Page through the identities which have a membership in a repository entry.
+	 * 
+	 * @param lastIdentityKey The last key of the previous page (exclusive)
+	 * @param maxResults The size of the page
+	 * @return A list of primary keys of identities in ascending order
+	 */
+	public List<Long> getMemberIdentityKeys(Long lastIdentityKey, int maxResults) {
+		String query = "select distinct membership.identity.key from repoentrytogroup as rel, bgroupmember as membership where rel.group.key=membership.group.key and membership.identity.key>:lastIdentityKey order by membership.identity.key asc";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query, Long.class)
+				.setParameter("lastIdentityKey", lastIdentityKey)
+				.setFirstResult(0)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+	
+	/**
+	 * @return The number of rows deleted because the membership doesn't exist anymore
+	 */
+	public int deleteOrphans() {
+		String query = "delete from remycoursemembership as mym where not exists (select rel.key from repoentrytogroup as rel, bgroupmember as membership where rel.entry.key=mym.entry.key and rel.group.key=membership.group.key and membership.identity.key=mym.identity.key)";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.executeUpdate();
+	}
+	
+	public int updateMarked(IdentityRef identity, Long entryKey, boolean marked) {
+		String query = "update remycoursemembership as mym set mym.marked=:marked, mym.lastModified=:now where mym.identity.key=:identityKey and mym.entry.key=:entryKey";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("marked", Boolean.valueOf(marked))
+				.setParameter("now", new Date())
+				.setParameter("identityKey", identity.getKey())
+				.setParameter("entryKey", entryKey)
+				.executeUpdate();
+	}
+	
+	public int updateRating(IdentityRef identity, Long entryKey, Integer rating) {
+		String query = "update remycoursemembership as mym set mym.rating=:rating, mym.lastModified=:now where mym.identity.key=:identityKey and mym.entry.key=:entryKey";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("rating", rating)
+				.setParameter("now", new Date())
+				.setParameter("identityKey", identity.getKey())
+				.setParameter("entryKey", entryKey)
+				.executeUpdate();
+	}
+	
+	public int updateLastVisit(IdentityRef identity, OLATResource resource, Date lastVisit) {
+		String query = "update remycoursemembership as mym set mym.lastVisit=:lastVisit, mym.lastModified=:now where mym.identity.key=:identityKey and mym.entry.key in (select v.key from repositoryentry as v where v.olatResource.key=:resourceKey)";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("lastVisit", lastVisit)
+				.setParameter("now", new Date())
+				.setParameter("identityKey", identity.getKey())
+				.setParameter("resourceKey", resource.getKey())
+				.executeUpdate();
+	}
+	
+	public int deleteMemberships(RepositoryEntryRef entry) {
+		String query = "delete from remycoursemembership as mym where mym.entry.key=:entryKey";
+		return dbInstance.getCurrentEntityManager()
+				.createQuery(query)
+				.setParameter("entryKey", entry.getKey())
+				.executeUpdate();
+	}
+	
+	private static final class MembershipKey {
+		
+		private final Long identityKey;
+		private final Long entryKey;
+		
+		public MembershipKey(Long identityKey, Long entryKey) {
+			this.identityKey = identityKey;
+			this.entryKey = entryKey;
+		}
+
+		public Long getIdentityKey() {
+			return identityKey;
+		}
+
+		public Long getEntryKey() {
+			return entryKey;
+		}
+
+		@Override
+		public int hashCode() {
+			return identityKey.hashCode() + (31 * entryKey.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(obj instanceof MembershipKey) {
+				MembershipKey key = (MembershipKey)obj;
+				return identityKey.equals(key.identityKey) && entryKey.equals(key.entryKey);
+			}
+			return false;
+		}
+	}
+}
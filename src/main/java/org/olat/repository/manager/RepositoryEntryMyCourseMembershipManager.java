@@ -0,0 +1,255 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.repository.manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.basesecurity.Group;
+import org.olat.basesecurity.GroupMembershipDelegate;
+import org.olat.basesecurity.IdentityRef;
+import org.olat.basesecurity.manager.GroupDAO;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.commentAndRating.UserRatingsDelegate;
+import org.olat.core.commons.services.commentAndRating.manager.UserRatingsDAO;
+import org.olat.core.commons.services.mark.MarkDelegate;
+import org.olat.core.commons.services.mark.MarkManager;
+import org.olat.core.commons.services.taskexecutor.TaskExecutorManager;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.Identity;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.event.FrameworkStartedEvent;
+import org.olat.core.util.event.FrameworkStartupEventChannel;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.repository.RepositoryEntryRef;
+import org.olat.resource.OLATResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keep the materialized "My courses" memberships up to date. Marks, ratings
+ * and course launches are written through, the changes of memberships mark
+ * the identities as pending. The pending identities are refreshed before
+ * they search their courses or by a job. The nightly reconciliation repairs
+ * the drift, for example the changes done on an other node of the cluster
+ * or by a transaction which was rolled back. The pending identities are
+ * only held in memory, the memberships are reconciled at startup to catch up
+ * the changes lost by a crash of the node.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Service
+public class RepositoryEntryMyCourseMembershipManager implements GroupMembershipDelegate, MarkDelegate, UserRatingsDelegate, GenericEventListener {
+	
+	private static final Logger log = Tracing.createLoggerFor(RepositoryEntryMyCourseMembershipManager.class);
+	
+	private static final String REPOSITORY_ENTRY_RES_NAME = "RepositoryEntry";
+	private static final int BATCH_SIZE = 100;
+	/**
+	 * Let the transaction which changed the memberships commit before the job
+	 * refreshes the identity.
+	 */
+	private static final long SETTLE_TIME = 10000l;
+	
+	@Value("${repository.mycourses.membership.view:true}")
+	private boolean enabled;
+	
+	private final Map<Long,Long> pendingIdentityKeys = new ConcurrentHashMap<>();
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private GroupDAO groupDao;
+	@Autowired
+	private MarkManager markManager;
+	@Autowired
+	private UserRatingsDAO userRatingsDao;
+	@Autowired
+	private TaskExecutorManager taskExecutorManager;
+	@Autowired
+	private RepositoryEntryMyCourseMembershipDAO myCourseMembershipDao;
+	
+	@PostConstruct
+	public void init() {
+		groupDao.addDelegate(this);
+		markManager.addDelegate(this);
+		userRatingsDao.addDegelate(this);
+		FrameworkStartupEventChannel.registerForStartupEvent(this);
+	}
+	
+	@Override
+	public void event(Event event) {
+		if(event instanceof FrameworkStartedEvent && enabled) {
+			taskExecutorManager.execute(() -> {
+				try {
+					reconcile();
+				} catch (Exception e) {
+					dbInstance.rollbackAndCloseSession();
+					log.error("Cannot reconcile my courses memberships at startup", e);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * @return true if "My courses" reads the materialized memberships
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+	
+	@Override
+	public void membershipChanged(Group group, Collection<Long> identityKeys) {
+		Long now = Long.valueOf(System.currentTimeMillis());
+		for(Long identityKey:identityKeys) {
+			pendingIdentityKeys.put(identityKey, now);
+		}
+	}
+	
+	/**
+	 * The group was linked to or unlinked from a repository entry, all
+	 * its members need to be refreshed.
+	 * 
+	 * @param group The group
+	 */
+	public void groupRelationChanged(Group group) {
+		List<Long> identityKeys = dbInstance.getCurrentEntityManager()
+				.createQuery("select membership.identity.key from bgroupmember as membership where membership.group.key=:groupKey", Long.class)
+				.setParameter("groupKey", group.getKey())
+				.getResultList();
+		membershipChanged(group, identityKeys);
+	}
+
+	@Override
+	public boolean accept(OLATResourceable ores, String resSubPath) {
+		return REPOSITORY_ENTRY_RES_NAME.equals(ores.getResourceableTypeName());
+	}
+
+	@Override
+	public void markChanged(OLATResourceable ores, String resSubPath, Identity identity, boolean marked) {
+		// the entry stays marked as long as a mark exists
+		boolean stillMarked = marked || markManager.isMarked(ores, identity, null);
+		myCourseMembershipDao.updateMarked(identity, ores.getResourceableId(), stillMarked);
+	}
+
+	@Override
+	public boolean update(OLATResourceable ores, String resSubPath, double newAverageRating, long numOfRatings) {
+		return false;
+	}
+
+	@Override
+	public void updateUserRating(OLATResourceable ores, String resSubPath, IdentityRef identity, Integer rating) {
+		myCourseMembershipDao.updateRating(identity, ores.getResourceableId(), rating);
+	}
+	
+	public void updateLastVisit(IdentityRef identity, OLATResource resource, Date lastVisit) {
+		myCourseMembershipDao.updateLastVisit(identity, resource, lastVisit);
+	}
+	
+	public void deleteMemberships(RepositoryEntryRef entry) {
+		myCourseMembershipDao.deleteMemberships(entry);
+	}
+	
+	/**
+	 * Refresh the memberships of the identity if some changes are pending. The
+	 * refresh is done within the transaction of the caller which is not committed.
+	 * The changes younger than the settle time stay pending, the transaction
+	 * which changed the memberships may not be committed yet and the job
+	 * refreshes the identity again.
+	 * 
+	 * @param identity The identity
+	 */
+	public void refreshPending(IdentityRef identity) {
+		Long changed = pendingIdentityKeys.get(identity.getKey());
+		if(changed != null) {
+			if(changed.longValue() <= System.currentTimeMillis() - SETTLE_TIME) {
+				pendingIdentityKeys.remove(identity.getKey(), changed);
+			}
+			myCourseMembershipDao.refresh(Collections.singletonList(identity.getKey()));
+		}
+	}
+	
+	/**
+	 * Refresh the identities which are pending since at least a few seconds.
+	 */
+	public void flushPending() {
+		long limit = System.currentTimeMillis() - SETTLE_TIME;
+		List<Long> batch = new ArrayList<>(BATCH_SIZE);
+		for(Map.Entry<Long,Long> pending:pendingIdentityKeys.entrySet()) {
+			if(pending.getValue().longValue() <= limit && pendingIdentityKeys.remove(pending.getKey(), pending.getValue())) {
+				batch.add(pending.getKey());
+				if(batch.size() >= BATCH_SIZE) {
+					refresh(batch);
+					batch.clear();
+				}
+			}
+		}
+		refresh(batch);
+	}
+	
+	/**
+	 * Recalculate the memberships of all the identities and remove the rows
+	 * without membership.
+	 */
+	public void reconcile() {
+		long start = System.currentTimeMillis();
+		
+		int changes = 0;
+		Long lastIdentityKey = Long.valueOf(-1l);
+		List<Long> identityKeys;
+		do {
+			identityKeys = myCourseMembershipDao.getMemberIdentityKeys(lastIdentityKey, BATCH_SIZE);
+			if(!identityKeys.isEmpty()) {
+				changes += refresh(identityKeys);
+				lastIdentityKey = identityKeys.get(identityKeys.size() - 1);
+			}
+		} while(identityKeys.size() == BATCH_SIZE);
+		
+		changes += myCourseMembershipDao.deleteOrphans();
+		dbInstance.commitAndCloseSession();
+		log.info("My courses memberships reconciled with {} changes in (ms): {}", changes, (System.currentTimeMillis() - start));
+	}
+	
+	private int refresh(List<Long> identityKeys) {
+		if(identityKeys.isEmpty()) return 0;
+		
+		int changes = 0;
+		try {
+			changes = myCourseMembershipDao.refresh(identityKeys);
+			dbInstance.commitAndCloseSession();
+		} catch (Exception e) {
+			dbInstance.rollbackAndCloseSession();
+			log.error("Cannot refresh my courses memberships of: {}", identityKeys, e);
+		}
+		return changes;
+	}
+}
@@ -83,6 +83,8 @@ public class RepositoryEntryMyCourseQueries {
 	private RepositoryModule repositoryModule;
 	@Autowired
 	private AssessmentService assessmentService;
+	@Autowired
+	private RepositoryEntryMyCourseMembershipManager myCourseMembershipManager;
 	
 	public int countViews(SearchMyRepositoryEntryViewParams params) {
 		if(params.getIdentity() == null) {
@@ -90,6 +92,7 @@ public class RepositoryEntryMyCourseQueries {
 			return 0;
 		}
 		
+		refreshPendingMemberships(params);
 		TypedQuery<Number> query = createMyViewQuery(params, Number.class);
 		Number count = query
 				.setFlushMode(FlushModeType.COMMIT)
@@ -103,6 +106,7 @@ public class RepositoryEntryMyCourseQueries {
 			return Collections.emptyList();
 		}
 
+		refreshPendingMemberships(params);
 		TypedQuery<Object[]> query = createMyViewQuery(params, Object[].class);
 		query.setFlushMode(FlushModeType.COMMIT)
 		     .setFirstResult(firstResult);
@@ -156,6 +160,22 @@ public class RepositoryEntryMyCourseQueries {
 		return views;
 	}
 
+	private boolean isMembershipView(Roles roles) {
+		return !roles.isGuestOnly() && myCourseMembershipManager.isEnabled();
+	}
+	
+	/**
+	 * The pending changes of the memberships are written within the
+	 * transaction of the search, before the query is created.
+	 * 
+	 * @param params The search parameters
+	 */
+	private void refreshPendingMemberships(SearchMyRepositoryEntryViewParams params) {
+		if(isMembershipView(params.getRoles())) {
+			myCourseMembershipManager.refreshPending(params.getIdentity());
+		}
+	}
+
 	protected <T> TypedQuery<T> createMyViewQuery(SearchMyRepositoryEntryViewParams params,
 			Class<T> type) {
 
@@ -166,6 +186,8 @@ public class RepositoryEntryMyCourseQueries {
 		boolean needIdentityKey = false;
 		boolean count = Number.class.equals(type);
 		boolean oracle = "oracle".equals(dbInstance.getDbVendor());
+		// the materialized memberships replace the sub-queries for memberships, marks, ratings and launches
+		boolean membershipView = isMembershipView(roles);
 		QueryBuilder sb = new QueryBuilder(2048);
 		
 		if(count) {
@@ -177,6 +199,8 @@ public class RepositoryEntryMyCourseQueries {
 			sb.append("select v, ");
 			if(params.getMarked() != null && params.getMarked().booleanValue()) {
 				sb.append(" 1 as marks,");
+			} else if(membershipView) {
+				sb.append(" (case when mym.marked=true then 1 else 0 end) as marks,");
 			} else {
 				needIdentityKey = true;
 				sb.append(" (select count(mark.key) from ").append(MarkImpl.class.getName()).append(" as mark ")
@@ -187,7 +211,9 @@ public class RepositoryEntryMyCourseQueries {
 			  .append("   where offer.resource=res and offer.valid=true")
 			  //TODO validity
 			  .append(" ) as offers, ");
-			if(repositoryModule.isRatingEnabled()) {
+			if(repositoryModule.isRatingEnabled() && membershipView) {
+				sb.append(" mym.rating as myrating");
+			} else if(repositoryModule.isRatingEnabled()) {
 				needIdentityKey = true;
 				sb.append(" (select rating.rating from userrating as rating")
 				  .append("   where rating.resId=v.key and rating.creator.key=:identityKey and rating.resName='RepositoryEntry'")
@@ -197,7 +223,7 @@ public class RepositoryEntryMyCourseQueries {
 			}
 			needIdentityKey = true;
 			
-			needIdentityKey |= appendOrderByInSelect(params, sb);
+			needIdentityKey |= appendOrderByInSelect(params, membershipView, sb);
 			sb.append(" from repositoryentry as v")
 			  .append(" inner join ").append(oracle ? "" : "fetch").append(" v.olatResource as res");
 			if(repositoryModule.isRatingEnabled() || repositoryModule.isCommentEnabled()) {
@@ -211,14 +237,24 @@ public class RepositoryEntryMyCourseQueries {
 			sb.append(" inner join catalogentry as cei on (v.key = cei.repositoryEntry.key)");
 		}
 		
-		// join seems to be quicker
-		if(params.getMarked() != null && params.getMarked().booleanValue()) {
-			sb.append(" inner join ").append(MarkImpl.class.getName()).append(" as mark2 on (mark2.creator.key=:identityKey and mark2.resId=v.key and mark2.resName='RepositoryEntry')");
+		if(membershipView) {
+			needIdentityKey = true;
+			sb.append(" inner join remycoursemembership as mym on (mym.entry.key=v.key and mym.identity.key=:identityKey)");
+			sb.append(" where ");
+			appendMyViewMembership(sb, params.getFilters(), params.isMembershipMandatory());
+			if(params.getMarked() != null && params.getMarked().booleanValue()) {
+				sb.append(" and mym.marked=true");
+			}
+		} else {
+			// join seems to be quicker
+			if(params.getMarked() != null && params.getMarked().booleanValue()) {
+				sb.append(" inner join ").append(MarkImpl.class.getName()).append(" as mark2 on (mark2.creator.key=:identityKey and mark2.resId=v.key and mark2.resName='RepositoryEntry')");
+			}
+	
+			sb.append(" where ");
+			needIdentityKey |= appendMyViewAccessSubSelect(sb, roles, params.getFilters(), params.isMembershipMandatory());
 		}
 
-		sb.append(" where ");
-		needIdentityKey |= appendMyViewAccessSubSelect(sb, roles, params.getFilters(), params.isMembershipMandatory());
-
 		if(params.getEntryStatus() != null) {
 			sb.append(" and v.status ").in(params.getEntryStatus());
 		}
@@ -369,12 +405,44 @@ public class RepositoryEntryMyCourseQueries {
 		return dbQuery;
 	}
 	
-	private boolean appendMyViewAccessSubSelect(QueryBuilder sb, Roles roles, List<Filter> filters, boolean membershipMandatory) {
-		if(roles.isGuestOnly()) {
-			sb.append(" v.guests=true and v.status ").in(RepositoryEntryStatusEnum.publishedAndClosed());
-			return false;
+	/**
+	 * The same conditions as {@link #appendMyViewAccessSubSelect} but on the
+	 * materialized memberships.
+	 */
+	private void appendMyViewMembership(QueryBuilder sb, List<Filter> filters, boolean membershipMandatory) {
+		List<GroupRoles> inRoles = getFilterRoles(filters);
+		boolean emptyRoles = inRoles.isEmpty();
+		if(emptyRoles) {
+			inRoles.add(GroupRoles.owner);
+			inRoles.add(GroupRoles.coach);
+			inRoles.add(GroupRoles.participant);
 		}
-
+		
+		sb.append(" (");
+		boolean or = false;
+		if(inRoles.contains(GroupRoles.owner)) {
+			sb.append(" (mym.owner=true and v.status ").in(RepositoryEntryStatusEnum.preparationToClosed()).append(")");
+			or = true;
+		}
+		if(inRoles.contains(GroupRoles.coach)) {
+			if(or) sb.append(" or ");
+			sb.append(" (mym.coach=true and v.status ").in(RepositoryEntryStatusEnum.coachPublishedToClosed()).append(")");
+			or = true;
+		}
+		if(inRoles.contains(GroupRoles.participant)) {
+			if(or) sb.append(" or ");
+			sb.append(" (mym.participant=true and v.status ").in(RepositoryEntryStatusEnum.publishedAndClosed()).append(")");
+			or = true;
+		}
+		if(emptyRoles && !membershipMandatory) {
+			if(or) sb.append(" or ");
+			sb.append(" ((v.allUsers=true or v.bookable=true) and mym.member=true")
+			  .append(" and v.status ").in(RepositoryEntryStatusEnum.publishedAndClosed()).append(")");
+		}
+		sb.append(")");
+	}
+	
+	private List<GroupRoles> getFilterRoles(List<Filter> filters) {
 		List<GroupRoles> inRoles = new ArrayList<>();
 		if(filters != null && !filters.isEmpty()) {
 			for(Filter filter: filters) {
@@ -387,6 +455,16 @@ public class RepositoryEntryMyCourseQueries {
 				}
 			}
 		}
+		return inRoles;
+	}
+	
+	private boolean appendMyViewAccessSubSelect(QueryBuilder sb, Roles roles, List<Filter> filters, boolean membershipMandatory) {
+		if(roles.isGuestOnly()) {
+			sb.append(" v.guests=true and v.status ").in(RepositoryEntryStatusEnum.publishedAndClosed());
+			return false;
+		}
+
+		List<GroupRoles> inRoles = getFilterRoles(filters);
 		//+ membership
 		boolean emptyRoles = inRoles.isEmpty();
 		if(emptyRoles) {
@@ -479,16 +557,21 @@ public class RepositoryEntryMyCourseQueries {
 	 * needed by the order by.
 	 * 
 	 * @param params
+	 * @param membershipView true if the materialized memberships are joined
 	 * @param sb
 	 * @return
 	 */
-	private boolean appendOrderByInSelect(SearchMyRepositoryEntryViewParams params, QueryBuilder sb) {
+	private boolean appendOrderByInSelect(SearchMyRepositoryEntryViewParams params, boolean membershipView, QueryBuilder sb) {
 		boolean needIdentityKey = false;
 		OrderBy orderBy = params.getOrderBy();
 		if(orderBy != null) {
 			switch(orderBy) {
 				case automatic://need lastVisited
 				case lastVisited:
+					if(membershipView) {
+						sb.append(" ,mym.lastVisit as recentLaunch");
+						break;
+					}
 					needIdentityKey = true;
 					sb.append(" ,(select infos2.recentLaunch from usercourseinfos as infos2")
 					  .append("    where infos2.resource=res and infos2.identity.key=:identityKey")
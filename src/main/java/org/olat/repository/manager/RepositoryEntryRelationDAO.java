@@ -66,6 +66,8 @@ public class RepositoryEntryRelationDAO {
 	private DB dbInstance;
 	@Autowired
 	private GroupDAO groupDao;
+	@Autowired
+	private RepositoryEntryMyCourseMembershipManager myCourseMembershipManager;
 	
 	/**
 	 * Get roles in the repository entry, with business groups and curriculums
@@ -557,6 +559,7 @@ public class RepositoryEntryRelationDAO {
 		rel.setGroup(group);
 		rel.setEntry(re);
 		dbInstance.getCurrentEntityManager().persist(rel);
+		myCourseMembershipManager.groupRelationChanged(group);
 		return rel;
 	}
 	
@@ -570,6 +573,9 @@ public class RepositoryEntryRelationDAO {
 		for(RepositoryEntryToGroupRelation rel:rels) {
 			em.remove(rel);
 		}
+		if(!rels.isEmpty()) {
+			myCourseMembershipManager.groupRelationChanged(group);
+		}
 		return rels.size();
 	}
 	
@@ -588,6 +594,7 @@ public class RepositoryEntryRelationDAO {
 		for(RepositoryEntryToGroupRelation rel:rels) {
 			em.remove(rel);
 		}
+		myCourseMembershipManager.deleteMemberships(re);
 		return rels.size();
 	}
 
@@ -604,11 +611,15 @@ public class RepositoryEntryRelationDAO {
 				count++;
 			}
 		}
+		if(count > 0) {
+			myCourseMembershipManager.groupRelationChanged(group);
+		}
 		return count;
 	}
 	
 	public void removeRelation(RepositoryEntryToGroupRelation rel) {
 		dbInstance.getCurrentEntityManager().remove(rel);
+		myCourseMembershipManager.groupRelationChanged(rel.getGroup());
 	}
 	
 	/**
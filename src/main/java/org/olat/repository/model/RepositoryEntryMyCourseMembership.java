@@ -0,0 +1,228 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.repository.model;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.olat.basesecurity.IdentityImpl;
+import org.olat.core.id.Identity;
+import org.olat.core.id.ModifiedInfo;
+import org.olat.core.id.Persistable;
+import org.olat.repository.RepositoryEntry;
+
+/**
+ * A denormalized row per user and repository entry where the user is member
+ * of. It holds the roles of the user, the mark, the rating and the date of
+ * the last visit, all the data "My courses" need to select and sort the
+ * entries without correlated sub-queries.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@Entity(name="remycoursemembership")
+@Table(name="o_re_my_course_membership")
+public class RepositoryEntryMyCourseMembership implements Persistable, ModifiedInfo {
+
+	private static final long serialVersionUID = -2936540361837046373L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name="id", nullable=false, unique=true, insertable=true, updatable=false)
+	private Long key;
+	
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="creationdate", nullable=false, insertable=true, updatable=false)
+	private Date creationDate;
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="lastmodified", nullable=false, insertable=true, updatable=true)
+	private Date lastModified;
+	
+	@Column(name="r_owner", nullable=false, insertable=true, updatable=true)
+	private boolean owner;
+	@Column(name="r_coach", nullable=false, insertable=true, updatable=true)
+	private boolean coach;
+	@Column(name="r_participant", nullable=false, insertable=true, updatable=true)
+	private boolean participant;
+	@Column(name="r_member", nullable=false, insertable=true, updatable=true)
+	private boolean member;
+	@Column(name="r_marked", nullable=false, insertable=true, updatable=true)
+	private boolean marked;
+	@Column(name="r_rating", nullable=true, insertable=true, updatable=true)
+	private Integer rating;
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name="r_last_visit", nullable=true, insertable=true, updatable=true)
+	private Date lastVisit;
+	
+	@ManyToOne(targetEntity=IdentityImpl.class,fetch=FetchType.LAZY,optional=false)
+	@JoinColumn(name="fk_identity", nullable=false, insertable=true, updatable=false)
+	private Identity identity;
+	@ManyToOne(targetEntity=RepositoryEntry.class,fetch=FetchType.LAZY,optional=false)
+	@JoinColumn(name="fk_entry", nullable=false, insertable=true, updatable=false)
+	private RepositoryEntry entry;
+	
+	@Override
+	public Long getKey() {
+		return key;
+	}
+
+	public void setKey(Long key) {
+		this.key = key;
+	}
+
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	@Override
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	@Override
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * @return true if the user is owner of the entry
+	 */
+	public boolean isOwner() {
+		return owner;
+	}
+
+	public void setOwner(boolean owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * @return true if the user is coach of the entry, directly or through
+	 * 		a business group or a curriculum element
+	 */
+	public boolean isCoach() {
+		return coach;
+	}
+
+	public void setCoach(boolean coach) {
+		this.coach = coach;
+	}
+
+	/**
+	 * @return true if the user is participant of the entry, directly or through
+	 * 		a business group or a curriculum element
+	 */
+	public boolean isParticipant() {
+		return participant;
+	}
+
+	public void setParticipant(boolean participant) {
+		this.participant = participant;
+	}
+
+	/**
+	 * @return true if the user has a membership with a role other than guest,
+	 * 		invitee or waiting
+	 */
+	public boolean isMember() {
+		return member;
+	}
+
+	public void setMember(boolean member) {
+		this.member = member;
+	}
+
+	public boolean isMarked() {
+		return marked;
+	}
+
+	public void setMarked(boolean marked) {
+		this.marked = marked;
+	}
+
+	public Integer getRating() {
+		return rating;
+	}
+
+	public void setRating(Integer rating) {
+		this.rating = rating;
+	}
+
+	public Date getLastVisit() {
+		return lastVisit;
+	}
+
+	public void setLastVisit(Date lastVisit) {
+		this.lastVisit = lastVisit;
+	}
+
+	public Identity getIdentity() {
+		return identity;
+	}
+
+	public void setIdentity(Identity identity) {
+		this.identity = identity;
+	}
+
+	public RepositoryEntry getEntry() {
+		return entry;
+	}
+
+	public void setEntry(RepositoryEntry entry) {
+		this.entry = entry;
+	}
+
+	@Override
+	public int hashCode() {
+		return getKey() == null ? 816352 : getKey().hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		}
+		if(obj instanceof RepositoryEntryMyCourseMembership) {
+			RepositoryEntryMyCourseMembership membership = (RepositoryEntryMyCourseMembership)obj;
+			return getKey() != null && getKey().equals(membership.getKey());
+		}
+		return false;
+	}
+
+	@Override
+	public boolean equalsByPersistableKey(Persistable persistable) {
+		return equals(persistable);
+	}
+}
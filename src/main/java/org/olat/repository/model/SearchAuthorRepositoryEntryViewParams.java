@@ -53,6 +53,7 @@ public class SearchAuthorRepositoryEntryViewParams {
 	
 	private OrderBy orderBy;
 	private boolean orderByAsc;
+	private Long afterKey;
 	private List<String> resourceTypes;
 	private Collection<String> techncialTypes;
 	private Collection<Long> educationalTypeKeys;
@@ -129,6 +130,20 @@ public class SearchAuthorRepositoryEntryViewParams {
 		this.orderByAsc = orderByAsc;
 	}
 
+	public Long getAfterKey() {
+		return afterKey;
+	}
+
+	/**
+	 * Search only the entries which follow the entry with the specified
+	 * key in the order key or displayname (keyset paging).
+	 * 
+	 * @param afterKey The primary key of the last loaded entry
+	 */
+	public void setAfterKey(Long afterKey) {
+		this.afterKey = afterKey;
+	}
+
 	public boolean isResourceTypesDefined() {
 		return resourceTypes != null && !resourceTypes.isEmpty();
 	}
@@ -429,6 +429,8 @@ public class AuthorListController extends FormBasicController implements Activat
 		initActionsColumns(columnsModel);
 		
 		model = new AuthoringEntryDataModel(dataSource, columnsModel, getIdentity(), ureq.getUserSession().getRoles());
+		model.setRowBudget(AuthoringEntryDataModel.DEFAULT_ROW_BUDGET);
+		model.setPrefetchSize(20);
 		tableEl = uifactory.addTableElement(getWindowControl(), "table", model, 20, false, getTranslator(), formLayout);
 		tableEl.setSearchEnabled(withSearch);
 		tableEl.setCssDelegate(this);
@@ -989,16 +991,7 @@ public class AuthorListController extends FormBasicController implements Activat
 	
 	protected List<AuthoringEntryRow> getMultiSelectedRows() {
 		Set<Integer> selections = tableEl.getMultiSelectedIndex();
-		List<AuthoringEntryRow> rows = new ArrayList<>(selections.size());
-		if(!selections.isEmpty()) {
-			for(Integer i:selections) {
-				AuthoringEntryRow row = model.getObject(i.intValue());
-				if(row != null) {
-					rows.add(row);
-				}
-			}
-		}
-		return rows;
+		return model.getObjects(selections, tableEl);
 	}
 	
 	private void doSetClosedFilter() {
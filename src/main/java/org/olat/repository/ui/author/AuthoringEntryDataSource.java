@@ -35,7 +35,7 @@ import org.olat.core.commons.persistence.SortKey;
 import org.olat.core.commons.services.license.LicenseService;
 import org.olat.core.commons.services.license.ResourceLicense;
 import org.olat.core.gui.components.form.flexible.elements.FlexiTableFilter;
-import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableDataSourceDelegate;
+import org.olat.core.gui.components.form.flexible.impl.elements.table.FlexiTableKeysetDataSourceDelegate;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.util.StringHelper;
 import org.olat.core.util.resource.Resourceable;
@@ -62,7 +62,7 @@ import org.olat.user.UserManager;
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
  *
  */
-public class AuthoringEntryDataSource implements FlexiTableDataSourceDelegate<AuthoringEntryRow> {
+public class AuthoringEntryDataSource implements FlexiTableKeysetDataSourceDelegate<AuthoringEntryRow> {
 
 	private final SearchAuthorRepositoryEntryViewParams searchParams;
 	
@@ -110,7 +110,43 @@ public class AuthoringEntryDataSource implements FlexiTableDataSourceDelegate<Au
 	@Override
 	public final ResultInfos<AuthoringEntryRow> getRows(String query, List<FlexiTableFilter> filters,
 			List<String> condQueries, int firstResult, int maxResults, SortKey... orderBy) {
+		applySearchParams(query, filters, orderBy);
+		
+		RepositoryEntryAuthorViewResults viewResults = repositoryService.searchAuthorView(searchParams, firstResult, maxResults);
+		List<RepositoryEntryAuthorView> views = viewResults.getViews();
+		List<AuthoringEntryRow> rows = processViewModel(views);
+		ResultInfos<AuthoringEntryRow> results = new DefaultResultInfos<>(firstResult + rows.size(), -1, rows);
+		if(viewResults.isComplete() || (firstResult == 0 && views.size() < maxResults)) {
+			count = Integer.valueOf(views.size() );
+		}
+		return results;
+	}
+
+	@Override
+	public boolean isKeysetPagingSupported(SortKey... orderBy) {
+		if(orderBy != null && orderBy.length > 0 && orderBy[0] != null) {
+			String key = orderBy[0].getKey();
+			return OrderBy.key.name().equals(key) || OrderBy.displayname.name().equals(key);
+		}
+		return false;
+	}
 
+	@Override
+	public ResultInfos<AuthoringEntryRow> getRowsAfter(AuthoringEntryRow previousRow, String query,
+			List<FlexiTableFilter> filters, List<String> condQueries, int maxResults, SortKey... orderBy) {
+		applySearchParams(query, filters, orderBy);
+		
+		try {
+			searchParams.setAfterKey(previousRow.getKey());
+			RepositoryEntryAuthorViewResults viewResults = repositoryService.searchAuthorView(searchParams, 0, maxResults);
+			List<AuthoringEntryRow> rows = processViewModel(viewResults.getViews());
+			return new DefaultResultInfos<>(-1, -1, rows);
+		} finally {
+			searchParams.setAfterKey(null);
+		}
+	}
+	
+	private void applySearchParams(String query, List<FlexiTableFilter> filters, SortKey... orderBy) {
 		if(filters != null && !filters.isEmpty()) {
 			String filter = filters.get(0).getFilter();
 			if(StringHelper.containsNonWhitespace(filter)) {
@@ -133,15 +169,6 @@ public class AuthoringEntryDataSource implements FlexiTableDataSourceDelegate<Au
 		} else {
 			searchParams.setIdRefsAndTitle(null);
 		}
-		
-		RepositoryEntryAuthorViewResults viewResults = repositoryService.searchAuthorView(searchParams, firstResult, maxResults);
-		List<RepositoryEntryAuthorView> views = viewResults.getViews();
-		List<AuthoringEntryRow> rows = processViewModel(views);
-		ResultInfos<AuthoringEntryRow> results = new DefaultResultInfos<>(firstResult + rows.size(), -1, rows);
-		if(viewResults.isComplete() || (firstResult == 0 && views.size() < maxResults)) {
-			count = Integer.valueOf(views.size() );
-		}
-		return results;
 	}
 
 	private List<AuthoringEntryRow> processViewModel(List<RepositoryEntryAuthorView> repoEntries) {
@@ -0,0 +1,72 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.restapi.system;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.olat.core.CoreSpringFactory;
+import org.olat.core.util.mail.manager.MailTransportPool;
+import org.olat.restapi.system.vo.MailStatisticsVO;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class MailStatsWebService {
+	
+	/**
+	 * Return the statistics about the delivery of the mails. The counters
+	 * are cumulated since the start of the server.
+	 * 
+	 * @return The statistics about the SMTP connections
+	 */
+	@GET
+	@Operation(summary = "Return the statistics about the delivery of the mails", description = "Return the statistics about the delivery of the mails, the counters are cumulated since the start of the server")
+	@ApiResponse(responseCode = "200", description = "Statistics about the SMTP connections", content = {
+			@Content(mediaType = "application/json", schema = @Schema(implementation = MailStatisticsVO.class)),
+			@Content(mediaType = "application/xml", schema = @Schema(implementation = MailStatisticsVO.class)) })
+	@ApiResponse(responseCode = "401", description = "The roles of the authenticated user are not sufficient")
+	@Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+	public Response getStatistics() {
+		MailTransportPool pool = CoreSpringFactory.getImpl(MailTransportPool.class);
+		MailStatisticsVO stats = new MailStatisticsVO();
+		stats.setSentMessages(pool.getSentMessages());
+		stats.setFailedMessages(pool.getFailedMessages());
+		stats.setRejectedMessages(pool.getRejectedMessages());
+		stats.setOpenedConnections(pool.getOpenedConnections());
+		stats.setClosedConnections(pool.getClosedConnections());
+		stats.setActiveConnections(pool.getActiveConnections());
+		stats.setIdleConnections(pool.getIdleConnections());
+		stats.setWaitingSenders(pool.getWaitingSenders());
+		stats.setSendTime(pool.getSendTime());
+		stats.setWaitTime(pool.getWaitTime());
+		return Response.ok(stats).build();
+	}
+}
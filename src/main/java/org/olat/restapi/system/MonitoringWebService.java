@@ -53,6 +53,7 @@ public class MonitoringWebService {
 	private static final VFSStatsWebService vfsStatsWebService = new VFSStatsWebService();
 	private static final BigBlueButtonStatsWebService bigBlueButtonStatsWebService = new BigBlueButtonStatsWebService();
 	private static final DocEditorWebService docEditorWebService = new DocEditorWebService();
+	private static final MailStatsWebService mailStatsWebService = new MailStatsWebService();
 	
 	public MonitoringWebService() {
 		//make Spring happy
@@ -103,6 +104,11 @@ public class MonitoringWebService {
 		return docEditorWebService;
 	}
 	
+	@Path("mail")
+	public MailStatsWebService getMailStatistics() {
+		return mailStatsWebService;
+	}
+	
 	
 	
 	/**
@@ -38,6 +38,7 @@ import org.olat.core.commons.persistence.DBFactory;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.Tracing;
+import org.olat.core.logging.activity.UserActivityLogWriter;
 import org.olat.core.util.CodeHelper;
 import org.olat.core.util.FileUtils;
 import org.olat.core.util.SessionInfo;
@@ -145,6 +146,12 @@ public class StatusWebservice {
 		//Concurrent dispatch threads
 		SessionStatsManager sessionStatsManager = CoreSpringFactory.getImpl(SessionStatsManager.class);
 		stats.setConcurrentDispatchThreads(sessionStatsManager.getConcurrentCounter());
+		
+		//Asynchronous user activity logging
+		UserActivityLogWriter activityLogWriter = CoreSpringFactory.getImpl(UserActivityLogWriter.class);
+		stats.setActivityLogQueueSize(activityLogWriter.getQueueSize());
+		stats.setActivityLogDropped(activityLogWriter.getDroppedCount());
+		stats.setActivityLogFlushInMilliseconds(activityLogWriter.getFlushAverageTime());
 
 		return Response.ok(stats).build();
 	}
@@ -0,0 +1,143 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.restapi.system.vo;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "mailStatisticsVO")
+public class MailStatisticsVO {
+	
+	@XmlAttribute(name="sentMessages", required=true)
+	private long sentMessages;
+	@XmlAttribute(name="failedMessages", required=true)
+	private long failedMessages;
+	@XmlAttribute(name="rejectedMessages", required=true)
+	private long rejectedMessages;
+	@XmlAttribute(name="openedConnections", required=true)
+	private long openedConnections;
+	@XmlAttribute(name="closedConnections", required=true)
+	private long closedConnections;
+	@XmlAttribute(name="activeConnections", required=true)
+	private int activeConnections;
+	@XmlAttribute(name="idleConnections", required=true)
+	private int idleConnections;
+	@XmlAttribute(name="waitingSenders", required=true)
+	private int waitingSenders;
+	@XmlAttribute(name="sendTime", required=true)
+	private long sendTime;
+	@XmlAttribute(name="waitTime", required=true)
+	private long waitTime;
+	
+	public long getSentMessages() {
+		return sentMessages;
+	}
+	
+	public void setSentMessages(long sentMessages) {
+		this.sentMessages = sentMessages;
+	}
+	
+	public long getFailedMessages() {
+		return failedMessages;
+	}
+	
+	public void setFailedMessages(long failedMessages) {
+		this.failedMessages = failedMessages;
+	}
+	
+	public long getRejectedMessages() {
+		return rejectedMessages;
+	}
+	
+	public void setRejectedMessages(long rejectedMessages) {
+		this.rejectedMessages = rejectedMessages;
+	}
+	
+	public long getOpenedConnections() {
+		return openedConnections;
+	}
+	
+	public void setOpenedConnections(long openedConnections) {
+		this.openedConnections = openedConnections;
+	}
+	
+	public long getClosedConnections() {
+		return closedConnections;
+	}
+	
+	public void setClosedConnections(long closedConnections) {
+		this.closedConnections = closedConnections;
+	}
+	
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+	
+	public void setActiveConnections(int activeConnections) {
+		this.activeConnections = activeConnections;
+	}
+	
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+	
+	public void setIdleConnections(int idleConnections) {
+		this.idleConnections = idleConnections;
+	}
+	
+	public int getWaitingSenders() {
+		return waitingSenders;
+	}
+	
+	public void setWaitingSenders(int waitingSenders) {
+		this.waitingSenders = waitingSenders;
+	}
+	
+	/**
+	 * @return The cumulated time spent sending the messages in milliseconds
+	 */
+	public long getSendTime() {
+		return sendTime;
+	}
+	
+	public void setSendTime(long sendTime) {
+		this.sendTime = sendTime;
+	}
+	
+	/**
+	 * @return The cumulated time spent waiting for a connection in milliseconds
+	 */
+	public long getWaitTime() {
+		return waitTime;
+	}
+	
+	public void setWaitTime(long waitTime) {
+		this.waitTime = waitTime;
+	}
+}
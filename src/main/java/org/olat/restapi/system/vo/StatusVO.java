@@ -46,6 +46,12 @@ public class StatusVO {
 	private int secureAuthenticatedCount;
 	@XmlAttribute(name="concurrentDispatchThreads", required=true)
 	private long concurrentDispatchThreads;
+	@XmlAttribute(name="activityLogQueueSize", required=false)
+	private int activityLogQueueSize;
+	@XmlAttribute(name="activityLogDropped", required=false)
+	private long activityLogDropped;
+	@XmlAttribute(name="activityLogFlushInMilliseconds", required=false)
+	private long activityLogFlushInMilliseconds;
 	
 	public boolean isWriteFile() {
 		return writeFile;
@@ -94,5 +100,28 @@ public class StatusVO {
 	public void setConcurrentDispatchThreads(long concurrentDispatchThreads) {
 		this.concurrentDispatchThreads = concurrentDispatchThreads;
 	}
-	
+
+	public int getActivityLogQueueSize() {
+		return activityLogQueueSize;
+	}
+
+	public void setActivityLogQueueSize(int activityLogQueueSize) {
+		this.activityLogQueueSize = activityLogQueueSize;
+	}
+
+	public long getActivityLogDropped() {
+		return activityLogDropped;
+	}
+
+	public void setActivityLogDropped(long activityLogDropped) {
+		this.activityLogDropped = activityLogDropped;
+	}
+
+	public long getActivityLogFlushInMilliseconds() {
+		return activityLogFlushInMilliseconds;
+	}
+
+	public void setActivityLogFlushInMilliseconds(long activityLogFlushInMilliseconds) {
+		this.activityLogFlushInMilliseconds = activityLogFlushInMilliseconds;
+	}
 }
@@ -101,6 +101,8 @@ public class SearchModule extends AbstractSpringModule {
 	private int searchTimeout;
 	@Value("${search.folder.pool.size:3}")
 	private int folderPoolSize;
+	@Value("${search.indexing.incremental:false}")
+	private boolean incrementalIndexing;
 	@Value("${restart.window.start}")
 	private int restartWindowStart;
 	@Value("${restart.window.end}")
@@ -313,6 +315,13 @@ public class SearchModule extends AbstractSpringModule {
 		return folderPoolSize;
 	}
 
+	/**
+	 * @return true if the full indexer reuses the segments of the sub-trees which didn't change
+	 */
+	public boolean isIncrementalIndexing() {
+		return incrementalIndexing;
+	}
+
 	/**
 	 * @return Start hour for restart-window.
 	 */
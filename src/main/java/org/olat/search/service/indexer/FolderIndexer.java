@@ -28,6 +28,8 @@ package org.olat.search.service.indexer;
 import java.io.IOException;
 
 import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSItem;
+import org.olat.core.util.vfs.filters.VFSSystemItemFilter;
 import org.olat.search.service.SearchResourceContext;
 
 /**
@@ -47,4 +49,26 @@ public abstract class FolderIndexer extends AbstractHierarchicalIndexer {
 		indexWriter.submit(runnableFolderIndexer);
 	}
 	
+	/**
+	 * Walk the container without reading the files to find the last modification
+	 * of the files and folders.
+	 * 
+	 * @param container The container
+	 * @return The last modification time in milliseconds or -1
+	 */
+	protected long getLastModified(VFSContainer container) {
+		long lastModified = container.getLastModified();
+		for (VFSItem item : container.getItems(new VFSSystemItemFilter())) {
+			long itemLastModified;
+			if (item instanceof VFSContainer) {
+				itemLastModified = getLastModified((VFSContainer)item);
+			} else {
+				itemLastModified = item.getLastModified();
+			}
+			if(itemLastModified > lastModified) {
+				lastModified = itemLastModified;
+			}
+		}
+		return lastModified;
+	}
 }
\ No newline at end of file
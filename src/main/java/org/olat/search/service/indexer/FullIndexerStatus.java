@@ -55,6 +55,8 @@ public class FullIndexerStatus {
 	private int documentQueueSize;
 	private int numberRunningFolderIndexer = 0;
 	private int numberAvailableFolderIndexer = 0;
+	private int reusedSegmentCount = 0;
+	private int reusedDocumentCount = 0;
 	
 	/** Hashtable with document-type-names as key and Integer-object as counters. */
 	private Map<String,Integer> documentCounters;
@@ -130,6 +132,8 @@ public class FullIndexerStatus {
 		fullIndexStartedAt = System.currentTimeMillis();
 		setStatus(STATUS_RUNNING);
 		setDocumentCount(0);//Reset FullIndex-DocumentCounter
+		reusedSegmentCount = 0;
+		reusedDocumentCount = 0;
 		resetAllDocumentCounters();
 	}
 
@@ -164,10 +168,29 @@ public class FullIndexerStatus {
 		this.documentCount = documentCount;
 	}
 	
-	public void incrementDocumentCount() {
+	public synchronized void incrementDocumentCount() {
 		documentCount++;
 	}
 
+	/**
+	 * @return The number of segments reused from the last incremental run
+	 */
+	public int getReusedSegmentCount() {
+		return reusedSegmentCount;
+	}
+
+	/**
+	 * @return The number of documents in the segments reused from the last incremental run
+	 */
+	public int getReusedDocumentCount() {
+		return reusedDocumentCount;
+	}
+	
+	public synchronized void addReusedSegment(int docCount) {
+		reusedSegmentCount++;
+		reusedDocumentCount += docCount;
+	}
+
 	public void setIndexSize(int indexSize) {
 		this.indexSize  = indexSize;
 	}
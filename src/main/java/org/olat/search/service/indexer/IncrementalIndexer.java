@@ -0,0 +1,47 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+/**
+ * Optional contract for the indexers directly below the {@link MainIndexer}.
+ * If the indexer can cheaply compute the last modification date of the data
+ * it walks, the full indexer can reuse the segment of the last run instead of
+ * walking the whole sub-tree again.<br>
+ * Only the library implements it. The segments of the groups, the repository
+ * (courses with their forums and folders, wikis, blogs...), the identities and
+ * the document pool are rebuilt at every run: their data are spread in the
+ * database and the file system and no single value changes with every document.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public interface IncrementalIndexer extends Indexer {
+	
+	/**
+	 * The value doesn't need to be a real date, but it must change every time
+	 * a document of the sub-tree is added, changed or deleted.
+	 * 
+	 * @return The last modification time in milliseconds of the data indexed by
+	 * 		this indexer or -1 if it cannot be determined
+	 */
+	public long getLastModified();
+
+}
@@ -0,0 +1,125 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.StringHelper;
+
+/**
+ * The fingerprint of a segment of the full index: the last modification
+ * of the data reported by the indexer and the number of documents the segment
+ * contains.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class IndexerFingerprint {
+	
+	private static final Logger log = Tracing.createLoggerFor(IndexerFingerprint.class);
+	
+	private final String typeName;
+	private final long lastModified;
+	private final int documentCount;
+	
+	public IndexerFingerprint(String typeName, long lastModified, int documentCount) {
+		this.typeName = typeName;
+		this.lastModified = lastModified;
+		this.documentCount = documentCount;
+	}
+
+	public String getTypeName() {
+		return typeName;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	public int getDocumentCount() {
+		return documentCount;
+	}
+	
+	/**
+	 * @param currentLastModified The last modification reported by the indexer
+	 * @return true if the data of the indexer didn't change since the segment was built
+	 */
+	public boolean matches(long currentLastModified) {
+		return lastModified > 0 && lastModified == currentLastModified;
+	}
+	
+	/**
+	 * Load the fingerprints saved by the last run of the full indexer.
+	 * 
+	 * @param file The file
+	 * @return A map type name to fingerprint, never null
+	 */
+	public static Map<String,IndexerFingerprint> load(File file) {
+		Map<String,IndexerFingerprint> fingerprints = new HashMap<>();
+		if(file.exists()) {
+			Properties props = new Properties();
+			try(InputStream in = Files.newInputStream(file.toPath())) {
+				props.load(in);
+			} catch(IOException e) {
+				log.error("Cannot read the fingerprints of the index segments: {}", file, e);
+				return fingerprints;
+			}
+			
+			for(String typeName:props.stringPropertyNames()) {
+				String[] values = props.getProperty(typeName).split("[:]");
+				if(values.length == 2 && StringHelper.isLong(values[0]) && StringHelper.isLong(values[1])) {
+					long lastModified = Long.parseLong(values[0]);
+					int documentCount = Integer.parseInt(values[1]);
+					fingerprints.put(typeName, new IndexerFingerprint(typeName, lastModified, documentCount));
+				}
+			}
+		}
+		return fingerprints;
+	}
+	
+	public static void save(File file, Map<String,IndexerFingerprint> fingerprints) {
+		Properties props = new Properties();
+		for(IndexerFingerprint fingerprint:fingerprints.values()) {
+			props.setProperty(fingerprint.getTypeName(), fingerprint.getLastModified() + ":" + fingerprint.getDocumentCount());
+		}
+		
+		file.getParentFile().mkdirs();
+		try(OutputStream out = Files.newOutputStream(file.toPath())) {
+			props.store(out, "Fingerprints of the full index segments");
+		} catch(IOException e) {
+			log.error("Cannot write the fingerprints of the index segments: {}", file, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "indexerFingerprint[type=" + typeName + ":lastModified=" + lastModified + ":documents=" + documentCount + "]";
+	}
+}
@@ -33,10 +33,13 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -50,16 +53,22 @@ import org.apache.lucene.LucenePackage;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexWriterConfig.OpenMode;
 import org.apache.lucene.index.LogDocMergePolicy;
 import org.apache.lucene.index.LogMergePolicy;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
 import org.olat.core.commons.persistence.DBFactory;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
 import org.olat.core.util.coordinate.CoordinatorManager;
 import org.olat.search.SearchModule;
 import org.olat.search.SearchService;
@@ -69,6 +78,12 @@ import org.olat.search.service.SearchResourceContext;
 /**
  * Controls the hole generation of a full-index. It run in its own thread the main index.
  * The sub-indexers can use a thread pool to parallelize the works.
+ * <p>
+ * In incremental mode, every indexer directly below the main indexer writes
+ * its own segment in parallel. The segments are kept between the runs with
+ * a fingerprint (last modification and number of documents) and the sub-tree
+ * is only walked again if the fingerprint changed. At the end, all the segments
+ * are merged in the new index.
  * 
  * @author Christian Guretzki
  */
@@ -79,6 +94,9 @@ public class OlatFullIndexer {
 	private static final int MAX_WAITING_COUNT = 600;// = 10Min
 	private static final IndexerThreadFactory indexWriterThreadFactory = new IndexerThreadFactory("writer");
 	private static final IndexerThreadFactory indexWorkersThreadFactory = new IndexerThreadFactory("worker");
+	private static final IndexerThreadFactory indexSegmentsThreadFactory = new IndexerThreadFactory("segment");
+	private static final String SEGMENTS_DIRECTORY = "segments";
+	private static final String FINGERPRINTS_FILENAME = "fingerprints.properties";
 
 	private String indexPath;
 	private String tempIndexPath;
@@ -97,6 +115,7 @@ public class OlatFullIndexer {
 	private double ramBufferSizeMB;
 	
 	private final int indexerPoolSize;
+	private final boolean incremental;
 	
 	/** Current status of full-indexer. */
 	private FullIndexerStatus fullIndexerStatus;
@@ -120,6 +139,8 @@ public class OlatFullIndexer {
 	private static final Object indexerWriterBlock = new Object();
 	private ThreadPoolExecutor indexerExecutor;
 	private ThreadPoolExecutor indexerWriterExecutor;
+	/** The segment of the sub-tree the current thread is indexing (only in incremental mode). */
+	private final ThreadLocal<IndexSegment> currentSegment = new ThreadLocal<>();
 
 	/**
 	 * 
@@ -146,6 +167,7 @@ public class OlatFullIndexer {
 		indexInterval = searchModule.getIndexInterval();
 		documentsPerInterval = searchModule.getDocumentsPerInterval();
 		ramBufferSizeMB = searchModule.getRAMBufferSizeMB();
+		incremental = searchModule.isIncrementalIndexing();
 		fullIndexerStatus = new FullIndexerStatus(1);
 		stopIndexing = true;
 		initStatus();
@@ -244,9 +266,13 @@ public class OlatFullIndexer {
 			indexWriter = new IndexWriter(tmpIndexPath, newIndexWriterConfig());// analyzer, true, IndexWriter.MAX_TERM_LENGTH.UNLIMITED);
 			indexWriter.deleteAll();
 			
-			SearchResourceContext searchResourceContext = new SearchResourceContext();
 			log.info("doIndex start. OlatFullIndexer with Debug output");
-			mainIndexer.doIndex(searchResourceContext, null /*no parent*/, this);
+			if(incremental) {
+				doIndexSegments(new File(tempIndexDir, SEGMENTS_DIRECTORY));
+			} else {
+				SearchResourceContext searchResourceContext = new SearchResourceContext();
+				mainIndexer.doIndex(searchResourceContext, null /*no parent*/, this);
+			}
 			DBFactory.getInstance().commitAndCloseSession();
 	
 			log.info("Wait until every folder indexer is finished");
@@ -284,8 +310,140 @@ public class OlatFullIndexer {
 		}
 	}
 	
+	/**
+	 * Index every sub-tree of the main indexer in its own segment, reuse
+	 * the segments of the last run if their fingerprint didn't change and
+	 * merge them in the new index.
+	 * 
+	 * @param segmentsDir The directory where the segments are kept between the runs
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private void doIndexSegments(File segmentsDir) throws IOException, InterruptedException {
+		File fingerprintsFile = new File(segmentsDir, FINGERPRINTS_FILENAME);
+		Map<String,IndexerFingerprint> previousFingerprints = IndexerFingerprint.load(fingerprintsFile);
+		Map<String,IndexerFingerprint> currentFingerprints = new ConcurrentHashMap<>();
+		// remove the fingerprints, if the process is stopped, the segments will be rebuilt
+		IndexerFingerprint.save(fingerprintsFile, currentFingerprints);
+
+		List<Indexer> indexers = mainIndexer.getChildIndexers();
+		int segmentPoolSize = Math.max(1, Math.min(indexers.size(), indexerPoolSize));
+		ThreadPoolExecutor segmentExecutor = new ThreadPoolExecutor(segmentPoolSize, segmentPoolSize, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), indexSegmentsThreadFactory);
+		
+		List<File> segmentDirs = new ArrayList<>(indexers.size());
+		try {
+			List<Future<Boolean>> segmentFutures = new ArrayList<>(indexers.size());
+			for(Indexer indexer:indexers) {
+				String typeName = indexer.getSupportedTypeName();
+				File segmentDir = new File(segmentsDir, FileUtils.normalizeFilename(typeName));
+				segmentDirs.add(segmentDir);
+				
+				long lastModified = -1l;
+				if(indexer instanceof IncrementalIndexer) {
+					lastModified = ((IncrementalIndexer)indexer).getLastModified();
+					DBFactory.getInstance().commitAndCloseSession();
+				}
+				
+				IndexerFingerprint previousFingerprint = previousFingerprints.get(typeName);
+				int segmentSize = getSegmentSize(segmentDir);
+				if(segmentSize >= 0 && previousFingerprint != null && previousFingerprint.matches(lastModified)) {
+					log.info("Reuse index segment of {} with {} documents", typeName, segmentSize);
+					currentFingerprints.put(typeName, previousFingerprint);
+					fullIndexerStatus.addReusedSegment(segmentSize);
+					incrementCounters(segmentDir);
+				} else {
+					if(!(indexer instanceof IncrementalIndexer)) {
+						log.info("Rebuild index segment of {}, the indexer is not incremental", typeName);
+					}
+					IndexSegment segment = new IndexSegment(typeName, segmentDir, lastModified);
+					segmentFutures.add(segmentExecutor.submit(new IndexSegmentCallable(indexer, segment, currentFingerprints)));
+				}
+			}
+
+			for(Future<Boolean> segmentFuture:segmentFutures) {
+				try {
+					segmentFuture.get();
+				} catch (ExecutionException e) {
+					log.error("", e);
+				}
+			}
+		} finally {
+			segmentExecutor.shutdownNow();
+		}
+		
+		if(stopIndexing) {
+			throw new InterruptedException("Do stop indexing before merging the segments");
+		}
+		
+		log.info("Merge {} index segments", segmentDirs.size());
+		Future<Boolean> merge = indexerWriterExecutor.submit(new MergeSegmentsCallable(segmentDirs));
+		try {
+			merge.get();
+		} catch (ExecutionException e) {
+			throw new IOException("Cannot merge the index segments", e);
+		}
+		IndexerFingerprint.save(fingerprintsFile, currentFingerprints);
+	}
+	
+	/**
+	 * @param segmentDir The directory of the segment
+	 * @return The number of documents in the segment or -1 if the segment doesn't exist
+	 */
+	private int getSegmentSize(File segmentDir) {
+		if(!segmentDir.exists()) {
+			return -1;
+		}
+		
+		try(Directory directory = FSDirectory.open(segmentDir.toPath())) {
+			if(DirectoryReader.indexExists(directory)) {
+				try(DirectoryReader reader = DirectoryReader.open(directory)) {
+					return reader.numDocs();
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Cannot read index segment: {}", segmentDir, e);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Add the documents of a reused segment to the document and file type
+	 * counters. The types are indexed as terms, their document frequencies
+	 * give the counts without loading the documents.
+	 * 
+	 * @param segmentDir The directory of the segment
+	 */
+	private void incrementCounters(File segmentDir) {
+		try(Directory directory = FSDirectory.open(segmentDir.toPath());
+				DirectoryReader reader = DirectoryReader.open(directory)) {
+			incrementCounters(reader, OlatDocument.DOCUMENTTYPE_FIELD_NAME, documentCounters);
+			incrementCounters(reader, OlatDocument.FILETYPE_FIELD_NAME, fileTypeCounters);
+		} catch (IOException e) {
+			log.warn("Cannot count the documents of index segment: {}", segmentDir, e);
+		}
+	}
+	
+	private void incrementCounters(DirectoryReader reader, String field, Map<String,Integer> counters)
+	throws IOException {
+		Terms terms = MultiFields.getTerms(reader, field);
+		if(terms == null) return;
+		
+		TermsEnum termsEnum = terms.iterator();
+		for(BytesRef term=termsEnum.next(); term != null; term=termsEnum.next()) {
+			String type = term.utf8ToString();
+			if(!type.equals("")) {
+				counters.merge(type, Integer.valueOf(termsEnum.docFreq()), Integer::sum);
+			}
+		}
+	}
+	
 	public Future<Boolean> submit(Callable<Boolean> task) {
 		if(indexerExecutor != null && !indexerExecutor.isShutdown()) {
+			IndexSegment segment = currentSegment.get();
+			if(segment != null) {
+				task = new SegmentTaskCallable(segment, task);
+			}
 			return indexerExecutor.submit(task);
 		} else {
 			log.error("Try to submit a task to index executor but it's closed.");
@@ -322,6 +480,10 @@ public class OlatFullIndexer {
 			log.info("full indexing summary: document counters: "+status.getDocumentCounters());
 			log.info("full indexing summary: file type counters:"+status.getFileTypeCounters());
 			log.info("full indexing summary: excluded counter:  "+status.getExcludedDocumentCount());
+			if(incremental) {
+				log.info("full indexing summary: reused segments:   "+status.getReusedSegmentCount());
+				log.info("full indexing summary: reused documents:  "+status.getReusedDocumentCount());
+			}
 
 		} catch(InterruptedException iex) {
 			log.info("FullIndexer was interrupted ;" + iex.getMessage());
@@ -355,7 +517,12 @@ public class OlatFullIndexer {
 	public void addDocument(Document document) throws InterruptedException {
 		DBFactory.getInstance().commitAndCloseSession();
 		
-		if (!stopIndexing && indexerWriterExecutor != null && !indexerWriterExecutor.isShutdown()) {
+		IndexSegment segment = currentSegment.get();
+		if(segment != null) {
+			if(!stopIndexing) {
+				segment.addDocument(document);
+			}
+		} else if (!stopIndexing && indexerWriterExecutor != null && !indexerWriterExecutor.isShutdown()) {
 			synchronized(indexerWriterBlock) {//once at a time please, wait, you have enough time
 				Future<Boolean> future = indexerWriterExecutor.submit(new AddDocumentCallable(document));
 				try {
@@ -375,28 +542,16 @@ public class OlatFullIndexer {
 	private void incrementFileTypeCounter(Document document) {
 		String fileType = document.get(OlatDocument.FILETYPE_FIELD_NAME);
 		if ( (fileType != null) && (!fileType.equals(""))) {
-			int intValue = 0;
-			if (fileTypeCounters.containsKey(fileType)) {
-			  Integer fileCounter = fileTypeCounters.get(fileType);
-			  intValue = fileCounter.intValue();
-			}
-			intValue++;
-			fileTypeCounters.put(fileType, Integer.valueOf(intValue));
+			fileTypeCounters.merge(fileType, Integer.valueOf(1), Integer::sum);
 		}
 	}
 
 	private void incrementDocumentTypeCounter(Document document) {
 		String documentType = document.get(OlatDocument.DOCUMENTTYPE_FIELD_NAME);
-		int intValue = 0;
-		if (documentCounters.containsKey(documentType)) {
-		  Integer docCounter = documentCounters.get(documentType);
-		  intValue = docCounter.intValue();
-		}
-		intValue++;
-		documentCounters.put(documentType, Integer.valueOf(intValue));
+		documentCounters.merge(documentType, Integer.valueOf(1), Integer::sum);
 	}
 
-	private void countIndexPerMinute() {
+	private synchronized void countIndexPerMinute() {
 		long currentTime = System.currentTimeMillis();
 		if (lastMinute+60000 > currentTime) {
 			// it is teh same minute
@@ -446,6 +601,187 @@ public class OlatFullIndexer {
 		fileTypeCounters = new Hashtable<>();		
 	}
 	
+	/**
+	 * The segment of the index written by an indexer directly below the
+	 * main indexer and all the folder workers it submitted.
+	 */
+	private class IndexSegment {
+		
+		private final String typeName;
+		private final File segmentDir;
+		private final long lastModified;
+		
+		private IndexWriter segmentWriter;
+		private int pendingTasks = 0;
+		private final AtomicInteger sleepCounter = new AtomicInteger(0);
+		
+		public IndexSegment(String typeName, File segmentDir, long lastModified) {
+			this.typeName = typeName;
+			this.segmentDir = segmentDir;
+			this.lastModified = lastModified;
+		}
+		
+		public void open() throws IOException {
+			segmentDir.mkdirs();
+			segmentWriter = new IndexWriter(FSDirectory.open(segmentDir.toPath()), newIndexWriterConfig());
+			segmentWriter.deleteAll();
+		}
+		
+		public void addDocument(Document document) throws InterruptedException {
+			try {
+				segmentWriter.addDocument(document);
+			} catch (IOException e) {
+				log.error("Cannot add document to segment: {}", typeName, e);
+				return;
+			}
+			
+			fullIndexerStatus.incrementDocumentCount();
+			if (indexInterval != 0 && sleepCounter.incrementAndGet() >= documentsPerInterval) {
+				sleepCounter.set(0);
+				Thread.sleep(indexInterval);
+			} else if (stopIndexing) {
+				throw new InterruptedException("Do stop indexing at segment=" + typeName);
+			}
+			countIndexPerMinute();
+		}
+		
+		public synchronized void taskSubmitted() {
+			pendingTasks++;
+		}
+		
+		public synchronized void taskDone() {
+			pendingTasks--;
+			notifyAll();
+		}
+		
+		/**
+		 * Wait until all folder workers of the sub-tree are done.
+		 */
+		public synchronized void awaitPendingTasks() throws InterruptedException {
+			long deadline = System.currentTimeMillis() + (MAX_WAITING_COUNT * 1000l);
+			long remaining = MAX_WAITING_COUNT * 1000l;
+			while(pendingTasks > 0 && remaining > 0) {
+				wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+			if(pendingTasks > 0) {
+				log.warn("{} folder indexer of segment {} still running", pendingTasks, typeName);
+			}
+		}
+		
+		/**
+		 * @return The number of documents in the segment
+		 */
+		public int close() throws IOException {
+			segmentWriter.commit();
+			int numOfDocs = segmentWriter.getDocStats().numDocs;
+			Directory directory = segmentWriter.getDirectory();
+			segmentWriter.close();
+			directory.close();
+			segmentWriter = null;
+			return numOfDocs;
+		}
+	}
+	
+	private class IndexSegmentCallable implements Callable<Boolean> {
+		
+		private final Indexer indexer;
+		private final IndexSegment segment;
+		private final Map<String,IndexerFingerprint> fingerprints;
+		
+		public IndexSegmentCallable(Indexer indexer, IndexSegment segment, Map<String,IndexerFingerprint> fingerprints) {
+			this.indexer = indexer;
+			this.segment = segment;
+			this.fingerprints = fingerprints;
+		}
+
+		@Override
+		public Boolean call() throws Exception {
+			boolean allOk = false;
+			log.info("Start index segment of {}", segment.typeName);
+			segment.open();
+			currentSegment.set(segment);
+			try {
+				indexer.doIndex(new SearchResourceContext(), null /*no parent*/, OlatFullIndexer.this);
+				allOk = true;
+			} catch(InterruptedException e) {
+				throw e;
+			} catch(Exception e) {
+				log.warn("Exception in doIndex indexer.typeName={}", segment.typeName, e);
+			} finally {
+				currentSegment.remove();
+				DBFactory.getInstance().commitAndCloseSession();
+			}
+			
+			segment.awaitPendingTasks();
+			int numOfDocs = segment.close();
+			if(allOk) {
+				fingerprints.put(segment.typeName, new IndexerFingerprint(segment.typeName, segment.lastModified, numOfDocs));
+			}
+			log.info("Index segment of {} done with {} documents", segment.typeName, numOfDocs);
+			return Boolean.valueOf(allOk);
+		}
+	}
+	
+	/**
+	 * Run a task submitted by a sub-indexer within the segment of the sub-tree.
+	 */
+	private class SegmentTaskCallable implements Callable<Boolean> {
+		
+		private final IndexSegment segment;
+		private final Callable<Boolean> task;
+		
+		public SegmentTaskCallable(IndexSegment segment, Callable<Boolean> task) {
+			this.segment = segment;
+			this.task = task;
+			segment.taskSubmitted();
+		}
+
+		@Override
+		public Boolean call() throws Exception {
+			// the task can be run by the thread of the segment itself (caller runs policy)
+			IndexSegment previousSegment = currentSegment.get();
+			currentSegment.set(segment);
+			try {
+				return task.call();
+			} finally {
+				if(previousSegment == null) {
+					currentSegment.remove();
+				} else {
+					currentSegment.set(previousSegment);
+				}
+				segment.taskDone();
+			}
+		}
+	}
+	
+	private class MergeSegmentsCallable implements Callable<Boolean> {
+		
+		private final List<File> segmentDirs;
+		
+		public MergeSegmentsCallable(List<File> segmentDirs) {
+			this.segmentDirs = segmentDirs;
+		}
+
+		@Override
+		public Boolean call() throws Exception {
+			List<Directory> directories = new ArrayList<>(segmentDirs.size());
+			try {
+				for(File segmentDir:segmentDirs) {
+					if(getSegmentSize(segmentDir) >= 0) {
+						directories.add(FSDirectory.open(segmentDir.toPath()));
+					}
+				}
+				indexWriter.addIndexes(directories.toArray(new Directory[directories.size()]));
+			} finally {
+				for(Directory directory:directories) {
+					directory.close();
+				}
+			}
+			return Boolean.TRUE;
+		}
+	}
+	
 	private class CloseIndexCallable implements Callable<Boolean> {
 
 		@Override
@@ -0,0 +1,95 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.upgrade;
+
+import org.apache.logging.log4j.Logger;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.logging.Tracing;
+import org.olat.repository.manager.RepositoryEntryMyCourseMembershipManager;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class OLATUpgrade_15_5_0 extends OLATUpgrade {
+
+	private static final Logger log = Tracing.createLoggerFor(OLATUpgrade_15_5_0.class);
+
+	private static final String VERSION = "OLAT_15.5.0";
+	private static final String INIT_MY_COURSE_MEMBERSHIPS = "INIT MY COURSE MEMBERSHIPS";
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private RepositoryEntryMyCourseMembershipManager myCourseMembershipManager;
+
+	public OLATUpgrade_15_5_0() {
+		super();
+	}
+	
+	@Override
+	public String getVersion() {
+		return VERSION;
+	}
+	
+	@Override
+	public boolean doPostSystemInitUpgrade(UpgradeManager upgradeManager) {
+		UpgradeHistoryData uhd = upgradeManager.getUpgradesHistory(VERSION);
+		if (uhd == null) {
+			// has never been called, initialize
+			uhd = new UpgradeHistoryData();
+		} else if (uhd.isInstallationComplete()) {
+			return false;
+		}
+		
+		boolean allOk = true;
+		allOk &= initMyCourseMemberships(upgradeManager, uhd);
+
+		uhd.setInstallationComplete(allOk);
+		upgradeManager.setUpgradesHistory(uhd, VERSION);
+		if(allOk) {
+			log.info(Tracing.M_AUDIT, "Finished OLATUpgrade_15_5_0 successfully!");
+		} else {
+			log.info(Tracing.M_AUDIT, "OLATUpgrade_15_5_0 not finished, try to restart OpenOlat!");
+		}
+		return allOk;
+	}
+	
+	private boolean initMyCourseMemberships(UpgradeManager upgradeManager, UpgradeHistoryData uhd) {
+		boolean allOk = true;
+		if (!uhd.getBooleanDataValue(INIT_MY_COURSE_MEMBERSHIPS)) {
+			try {
+				myCourseMembershipManager.reconcile();
+				log.info("My courses memberships initialized.");
+			} catch (Exception e) {
+				dbInstance.rollbackAndCloseSession();
+				log.error("", e);
+				allOk = false;
+			}
+			
+			uhd.setBooleanDataValue(INIT_MY_COURSE_MEMBERSHIPS, allOk);
+			upgradeManager.setUpgradesHistory(uhd, VERSION);
+		}
+		return allOk;
+	}
+}
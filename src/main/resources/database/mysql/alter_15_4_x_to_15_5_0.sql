@@ -146,3 +146,28 @@ alter table o_lti_key ENGINE = InnoDB;
 create index idx_lti_kid_idx on o_lti_key (l_key_id);
 
 
+-- My courses
+create table o_re_my_course_membership (
+  id bigint not null auto_increment,
+  creationdate datetime not null,
+  lastmodified datetime not null,
+  r_owner bit default 0 not null,
+  r_coach bit default 0 not null,
+  r_participant bit default 0 not null,
+  r_member bit default 0 not null,
+  r_marked bit default 0 not null,
+  r_rating int,
+  r_last_visit datetime,
+  fk_identity bigint not null,
+  fk_entry bigint not null,
+  primary key (id)
+);
+alter table o_re_my_course_membership ENGINE = InnoDB;
+
+alter table o_re_my_course_membership add constraint re_my_course_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+alter table o_re_my_course_membership add constraint re_my_course_to_re_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
+create unique index idx_re_my_course_ident_re_idx on o_re_my_course_membership (fk_identity, fk_entry);
+
+
+-- Task executor
+alter table o_ex_task add column e_progress float(65,30);
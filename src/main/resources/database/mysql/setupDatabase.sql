@@ -2659,6 +2659,7 @@ create table o_ex_task (
    e_executor_node varchar(16),
    e_executor_boot_id varchar(64),
    e_task mediumtext not null,
+   e_progress float(65,30),
    e_scheduled datetime,
    e_ressubpath varchar(2048),
    fk_resource_id bigint,
@@ -3106,6 +3107,22 @@ create table o_re_to_organisation (
   primary key (id)
 );
 
+create table o_re_my_course_membership (
+  id bigint not null auto_increment,
+  creationdate datetime not null,
+  lastmodified datetime not null,
+  r_owner bit default 0 not null,
+  r_coach bit default 0 not null,
+  r_participant bit default 0 not null,
+  r_member bit default 0 not null,
+  r_marked bit default 0 not null,
+  r_rating int,
+  r_last_visit datetime,
+  fk_identity bigint not null,
+  fk_entry bigint not null,
+  primary key (id)
+);
+
 -- curriculum
 create table o_cur_element_type (
   id bigint not null auto_increment,
@@ -3758,6 +3775,7 @@ alter table o_org_organisation ENGINE = InnoDB;
 alter table o_org_type_to_type ENGINE = InnoDB;
 alter table o_org_role_to_right ENGINE = InnoDB;
 alter table o_re_to_organisation ENGINE = InnoDB;
+alter table o_re_my_course_membership ENGINE = InnoDB;
 alter table o_cur_element_type ENGINE = InnoDB;
 alter table o_cur_curriculum ENGINE = InnoDB;
 alter table o_cur_curriculum_element ENGINE = InnoDB;
@@ -4483,6 +4501,10 @@ alter table o_org_type_to_type add constraint org_type_to_sub_type_idx foreign k
 alter table o_re_to_organisation add constraint rel_org_to_re_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
 alter table o_re_to_organisation add constraint rel_org_to_org_idx foreign key (fk_organisation) references o_org_organisation (id);
 
+alter table o_re_my_course_membership add constraint re_my_course_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+alter table o_re_my_course_membership add constraint re_my_course_to_re_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
+create unique index idx_re_my_course_ident_re_idx on o_re_my_course_membership (fk_identity, fk_entry);
+
 -- curriculum
 alter table o_cur_curriculum add constraint cur_to_group_idx foreign key (fk_group) references o_bs_group (id);
 alter table o_cur_curriculum add constraint cur_to_org_idx foreign key (fk_organisation) references o_org_organisation (id);
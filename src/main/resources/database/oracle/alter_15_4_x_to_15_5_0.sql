@@ -145,4 +145,28 @@ create table o_lti_key (
 create index idx_lti_kid_idx on o_lti_key (l_key_id);
 
 
+-- My courses
+create table o_re_my_course_membership (
+  id number(20) generated always as identity,
+  creationdate date not null,
+  lastmodified date not null,
+  r_owner number default 0 not null,
+  r_coach number default 0 not null,
+  r_participant number default 0 not null,
+  r_member number default 0 not null,
+  r_marked number default 0 not null,
+  r_rating number(20),
+  r_last_visit date,
+  fk_identity number(20) not null,
+  fk_entry number(20) not null,
+  primary key (id)
+);
+
+alter table o_re_my_course_membership add constraint re_my_course_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create unique index idx_re_my_course_ident_re_idx on o_re_my_course_membership (fk_identity, fk_entry);
+alter table o_re_my_course_membership add constraint re_my_course_to_re_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
+create index idx_re_my_course_to_re_idx on o_re_my_course_membership (fk_entry);
+
 
+-- Task executor
+alter table o_ex_task add e_progress float;
@@ -2721,6 +2721,7 @@ create table o_ex_task (
    e_executor_node varchar2(16 char),
    e_executor_boot_id varchar2(64 char),
    e_task clob not null,
+   e_progress float,
    e_scheduled date,
    e_ressubpath varchar2(2048 char),
    fk_resource_id number(20),
@@ -3188,6 +3189,22 @@ create table o_re_to_organisation (
   primary key (id)
 );
 
+create table o_re_my_course_membership (
+  id number(20) generated always as identity,
+  creationdate date not null,
+  lastmodified date not null,
+  r_owner number default 0 not null,
+  r_coach number default 0 not null,
+  r_participant number default 0 not null,
+  r_member number default 0 not null,
+  r_marked number default 0 not null,
+  r_rating number(20),
+  r_last_visit date,
+  fk_identity number(20) not null,
+  fk_entry number(20) not null,
+  primary key (id)
+);
+
 -- curriculum
 create table o_cur_element_type (
   id number(20) generated always as identity,
@@ -4660,6 +4677,11 @@ create index idx_rel_org_to_re_idx on o_re_to_organisation (fk_entry);
 alter table o_re_to_organisation add constraint rel_org_to_org_idx foreign key (fk_organisation) references o_org_organisation (id);
 create index idx_rel_org_to_org_idx on o_re_to_organisation (fk_organisation);
 
+alter table o_re_my_course_membership add constraint re_my_course_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create unique index idx_re_my_course_ident_re_idx on o_re_my_course_membership (fk_identity, fk_entry);
+alter table o_re_my_course_membership add constraint re_my_course_to_re_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
+create index idx_re_my_course_to_re_idx on o_re_my_course_membership (fk_entry);
+
 -- curriculum
 alter table o_cur_curriculum add constraint cur_to_group_idx foreign key (fk_group) references o_bs_group (id);
 create index idx_cur_to_group_idx on o_cur_curriculum (fk_group);
@@ -144,3 +144,29 @@ create table o_lti_key (
 
 create index idx_lti_kid_idx on o_lti_key (l_key_id);
 
+
+-- My courses
+create table o_re_my_course_membership (
+  id bigserial,
+  creationdate timestamp not null,
+  lastmodified timestamp not null,
+  r_owner bool default false not null,
+  r_coach bool default false not null,
+  r_participant bool default false not null,
+  r_member bool default false not null,
+  r_marked bool default false not null,
+  r_rating int4,
+  r_last_visit timestamp,
+  fk_identity int8 not null,
+  fk_entry int8 not null,
+  primary key (id)
+);
+
+alter table o_re_my_course_membership add constraint re_my_course_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create unique index idx_re_my_course_ident_re_idx on o_re_my_course_membership (fk_identity, fk_entry);
+alter table o_re_my_course_membership add constraint re_my_course_to_re_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
+create index idx_re_my_course_to_re_idx on o_re_my_course_membership (fk_entry);
+
+
+-- Task executor
+alter table o_ex_task add column e_progress float(24);
@@ -2682,6 +2682,7 @@ create table o_ex_task (
    e_executor_node varchar(16),
    e_executor_boot_id varchar(64),
    e_task text not null,
+   e_progress float(24),
    e_scheduled timestamp,
    e_status_before_edit varchar(16),
    fk_resource_id int8,
@@ -3129,6 +3130,22 @@ create table o_re_to_organisation (
   primary key (id)
 );
 
+create table o_re_my_course_membership (
+  id bigserial,
+  creationdate timestamp not null,
+  lastmodified timestamp not null,
+  r_owner bool default false not null,
+  r_coach bool default false not null,
+  r_participant bool default false not null,
+  r_member bool default false not null,
+  r_marked bool default false not null,
+  r_rating int4,
+  r_last_visit timestamp,
+  fk_identity int8 not null,
+  fk_entry int8 not null,
+  primary key (id)
+);
+
 -- curriculum
 create table o_cur_element_type (
   id bigserial,
@@ -4559,6 +4576,11 @@ create index idx_rel_org_to_re_idx on o_re_to_organisation (fk_entry);
 alter table o_re_to_organisation add constraint rel_org_to_org_idx foreign key (fk_organisation) references o_org_organisation (id);
 create index idx_rel_org_to_org_idx on o_re_to_organisation (fk_organisation);
 
+alter table o_re_my_course_membership add constraint re_my_course_to_ident_idx foreign key (fk_identity) references o_bs_identity (id);
+create unique index idx_re_my_course_ident_re_idx on o_re_my_course_membership (fk_identity, fk_entry);
+alter table o_re_my_course_membership add constraint re_my_course_to_re_idx foreign key (fk_entry) references o_repositoryentry (repositoryentry_id);
+create index idx_re_my_course_to_re_idx on o_re_my_course_membership (fk_entry);
+
 -- curriculum
 alter table o_cur_curriculum add constraint cur_to_group_idx foreign key (fk_group) references o_bs_group (id);
 create index idx_cur_to_group_idx on o_cur_curriculum (fk_group);
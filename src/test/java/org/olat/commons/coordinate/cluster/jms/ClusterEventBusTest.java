@@ -0,0 +1,187 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.cluster.jms;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Message;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQTopic;
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.cluster.ClusterConfig;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.resource.OresHelper;
+
+/**
+ * Test the batching of the cluster event bus with its own embedded broker.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class ClusterEventBusTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(ClusterEventBusTest.class);
+	
+	@Test
+	public void coalesce() {
+		ClusterEventBus bus = new ClusterEventBus();
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("coalesce", 1l);
+		OLATResourceable otherOres = OresHelper.createOLATResourceableInstance("coalesce", 2l);
+		
+		JMSWrapper first = new JMSWrapper(1, 1, ores, new MultiUserEvent("changed"));
+		JMSWrapper other = new JMSWrapper(1, 2, otherOres, new MultiUserEvent("changed"));
+		JMSWrapper second = new JMSWrapper(1, 3, ores, new MultiUserEvent("changed"));
+		JMSWrapper state1 = new JMSWrapper(1, 4, ores, new StateEvent(1));
+		JMSWrapper state2 = new JMSWrapper(1, 5, ores, new StateEvent(2));
+		
+		List<JMSWrapper> events = List.of(first, other, second, state1, state2);
+		List<JMSWrapper> uniqueEvents = bus.coalesce(events);
+		// the duplicate is kept at its last position, the events without equals are all kept
+		Assert.assertEquals(List.of(other, second, state1, state2), uniqueEvents);
+	}
+	
+	@Test
+	public void coalesceBurst() throws Exception {
+		ClusterEventBus bus = createEventBus(20);
+		try {
+			OLATResourceable ores = OresHelper.createOLATResourceableInstance("coalesce", 3l);
+			AtomicInteger received = new AtomicInteger();
+			CountDownLatch endLatch = new CountDownLatch(1);
+			// the bus holds only a weak reference to the listener
+			GenericEventListener listener = event -> {
+				if("end".equals(event.getCommand())) {
+					endLatch.countDown();
+				} else {
+					received.incrementAndGet();
+				}
+			};
+			bus.registerFor(listener, null, ores);
+			
+			for(int i=0; i<100; i++) {
+				bus.fireEventToListenersOf(new MultiUserEvent("changed"), ores);
+			}
+			bus.fireEventToListenersOf(new MultiUserEvent("end"), ores);
+
+			Assert.assertTrue(endLatch.await(10, TimeUnit.SECONDS));
+			bus.deregisterFor(listener, ores);
+			Assert.assertTrue(received.get() >= 1);
+			Assert.assertEquals(100 - received.get(), bus.getNumOfCoalescedEvents());
+		} finally {
+			bus.stop();
+		}
+	}
+	
+	/**
+	 * Send a burst of events with and without batching and log the number
+	 * of messages and the latency.
+	 */
+	@Test
+	public void burst() throws Exception {
+		int numOfEvents = 5000;
+		long unbatchedTime = burst(0, numOfEvents);
+		long batchedTime = burst(20, numOfEvents);
+		log.info("Burst of {} events without batching: {} ms, with batching: {} ms", numOfEvents, unbatchedTime, batchedTime);
+	}
+	
+	private long burst(long batchWindow, int numOfEvents) throws Exception {
+		ClusterEventBus bus = createEventBus(batchWindow);
+		try {
+			OLATResourceable ores = OresHelper.createOLATResourceableInstance("burst", 1l);
+			CountDownLatch latch = new CountDownLatch(numOfEvents);
+			// the bus holds only a weak reference to the listener
+			GenericEventListener listener = event -> latch.countDown();
+			bus.registerFor(listener, null, ores);
+			
+			long start = System.nanoTime();
+			for(int i=0; i<numOfEvents; i++) {
+				bus.fireEventToListenersOf(new MultiUserEvent("burst-" + i), ores);
+			}
+			Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+			long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			bus.deregisterFor(listener, ores);
+			
+			Assert.assertEquals(numOfEvents, bus.getNumOfSentEvents());
+			if(batchWindow > 0) {
+				Assert.assertTrue(bus.getNumOfSentMessages() < numOfEvents);
+			}
+			
+			SimpleProbe latency = bus.getMrtgProbeJMSSendLatency();
+			SimpleProbe delivery = bus.getMrtgProbeJMSDeliveryTime();
+			log.info("Batch window {} ms: {} events in {} messages, {} ms, {} events/s, send latency avg {} ms max {} ms, delivery avg {} ms max {} ms",
+					batchWindow, numOfEvents, bus.getNumOfSentMessages(), duration, (numOfEvents * 1000l) / Math.max(1l, duration),
+					latency.getAvg(), latency.getMax(), delivery.getAvg(), delivery.getMax());
+			return duration;
+		} finally {
+			bus.stop();
+		}
+	}
+	
+	private ClusterEventBus createEventBus(long batchWindow) throws Exception {
+		ClusterConfig config = new ClusterConfig();
+		config.setNodeId(1);
+		
+		ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory("vm://clusterbustest?broker.persistent=false&broker.useJmx=false");
+		connectionFactory.setTrustAllPackages(true);
+		
+		// no database in this test, serve the messages without closing the session
+		ClusterEventBus bus = new ClusterEventBus() {
+			@Override
+			public void onMessage(Message message) {
+				serveMessage(message, -1);
+			}
+		};
+		bus.setClusterConfig(config);
+		bus.setConnectionFactory(connectionFactory);
+		bus.setDestination(new ActiveMQTopic("olat/test/" + UUID.randomUUID()));
+		bus.setSendInterval(60000);
+		bus.setBatchWindow(batchWindow);
+		bus.setBatchSize(200);
+		bus.springInit();
+		return bus;
+	}
+	
+	private static class StateEvent extends MultiUserEvent {
+
+		private static final long serialVersionUID = -1683316049219393742L;
+		
+		private final int state;
+		
+		public StateEvent(int state) {
+			super("changed");
+			this.state = state;
+		}
+		
+		@SuppressWarnings("unused")
+		public int getState() {
+			return state;
+		}
+	}
+}
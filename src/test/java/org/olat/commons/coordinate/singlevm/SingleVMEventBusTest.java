@@ -0,0 +1,222 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.commons.coordinate.singlevm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.olat.core.gui.control.Event;
+import org.olat.core.id.OLATResourceable;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.event.GenericEventListener;
+import org.olat.core.util.event.MultiUserEvent;
+import org.olat.core.util.resource.OresHelper;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class SingleVMEventBusTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(SingleVMEventBusTest.class);
+	
+	@Test
+	public void registerFireDeregister() {
+		SingleVMEventBus eventBus = new SingleVMEventBus();
+		OLATResourceable ores = OresHelper.createOLATResourceableInstance("EventBusTest", 1l);
+		OLATResourceable type = OresHelper.createOLATResourceableType("EventBusTest");
+		
+		CountingListener listener = new CountingListener();
+		CountingListener typeListener = new CountingListener();
+		eventBus.registerFor(listener, null, ores);
+		eventBus.registerFor(listener, null, ores);// twice is once
+		eventBus.registerFor(typeListener, null, type);
+		Assert.assertEquals(1, eventBus.getListeningIdentityCntFor(ores));
+		Assert.assertEquals(1, eventBus.getListeningIdentityCntFor(type));
+		
+		eventBus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+		Assert.assertEquals(1, listener.getCount());
+		Assert.assertEquals(1, typeListener.getCount());
+		
+		eventBus.deregisterFor(listener, ores);
+		eventBus.deregisterFor(typeListener, type);
+		Assert.assertEquals(0, eventBus.getListeningIdentityCntFor(ores));
+		Assert.assertEquals(0, eventBus.getListeningIdentityCntFor(type));
+		
+		eventBus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+		Assert.assertEquals(1, listener.getCount());
+		Assert.assertEquals(1, typeListener.getCount());
+	}
+	
+	@Test
+	public void concurrentRegistry_1() throws InterruptedException {
+		concurrentRegistry(1);
+	}
+	
+	@Test
+	public void concurrentRegistry_8() throws InterruptedException {
+		concurrentRegistry(8);
+	}
+	
+	@Test
+	public void concurrentRegistry_64() throws InterruptedException {
+		concurrentRegistry(64);
+	}
+	
+	/**
+	 * Every thread registers a listener to a few shared resources, fires
+	 * some events and deregisters its listener. At the end, the listener
+	 * must have received the events of its own thread and the registry
+	 * must be empty.
+	 * 
+	 * @param numOfThreads The number of concurrent threads
+	 */
+	private void concurrentRegistry(int numOfThreads) throws InterruptedException {
+		final int numOfResources = 4;
+		final int numOfRounds = 500;
+		final SingleVMEventBus eventBus = new SingleVMEventBus();
+		final List<OLATResourceable> resources = new ArrayList<>(numOfResources);
+		for(int i=0; i<numOfResources; i++) {
+			resources.add(OresHelper.createOLATResourceableInstance("EventBusTest", Long.valueOf(i)));
+		}
+
+		final AtomicInteger errors = new AtomicInteger(0);
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch finish = new CountDownLatch(numOfThreads);
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		for(int i=0; i<numOfThreads; i++) {
+			final OLATResourceable ores = resources.get(i % numOfResources);
+			executor.execute(() -> {
+				try {
+					start.await();
+					for(int j=0; j<numOfRounds; j++) {
+						CountingListener listener = new CountingListener();
+						eventBus.registerFor(listener, null, ores);
+						eventBus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+						eventBus.deregisterFor(listener, ores);
+						if(listener.getCount() < 1) {
+							errors.incrementAndGet();
+						}
+					}
+				} catch(Exception e) {
+					log.error("", e);
+					errors.incrementAndGet();
+				} finally {
+					finish.countDown();
+				}
+			});
+		}
+		
+		start.countDown();
+		Assert.assertTrue(finish.await(60, TimeUnit.SECONDS));
+		executor.shutdownNow();
+		
+		Assert.assertEquals(0, errors.get());
+		for(OLATResourceable ores:resources) {
+			Assert.assertEquals(0, eventBus.getListeningIdentityCntFor(ores));
+		}
+	}
+	
+	/**
+	 * Benchmark, not part of the suite: compares the striped registry with
+	 * the registrations serialized by a global lock like the registry did
+	 * before. The events are dispatched outside of the lock in both variants,
+	 * as they were before. Run it manually, it only logs the durations.
+	 */
+	@Ignore
+	@Test
+	public void benchmarkRegistry() throws InterruptedException {
+		for(int numOfThreads:new int[] { 1, 8, 64 }) {
+			long globalLock = benchmark(numOfThreads, true);
+			long striped = benchmark(numOfThreads, false);
+			log.info("Event bus with {} threads, global lock: {} ms, striped: {} ms", numOfThreads,
+					TimeUnit.NANOSECONDS.toMillis(globalLock), TimeUnit.NANOSECONDS.toMillis(striped));
+		}
+	}
+	
+	private long benchmark(int numOfThreads, boolean globalLock) throws InterruptedException {
+		final int numOfRounds = 20000;
+		final Object lock = new Object();
+		final SingleVMEventBus eventBus = new SingleVMEventBus();
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch finish = new CountDownLatch(numOfThreads);
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		for(int i=0; i<numOfThreads; i++) {
+			final OLATResourceable ores = OresHelper.createOLATResourceableInstance("EventBusBenchmark", Long.valueOf(i % 16));
+			executor.execute(() -> {
+				try {
+					start.await();
+					for(int j=0; j<numOfRounds; j++) {
+						CountingListener listener = new CountingListener();
+						if(globalLock) {
+							synchronized(lock) {
+								eventBus.registerFor(listener, null, ores);
+							}
+							eventBus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+							synchronized(lock) {
+								eventBus.deregisterFor(listener, ores);
+							}
+						} else {
+							eventBus.registerFor(listener, null, ores);
+							eventBus.fireEventToListenersOf(new MultiUserEvent("test"), ores);
+							eventBus.deregisterFor(listener, ores);
+						}
+					}
+				} catch(Exception e) {
+					log.error("", e);
+				} finally {
+					finish.countDown();
+				}
+			});
+		}
+		
+		long startTime = System.nanoTime();
+		start.countDown();
+		Assert.assertTrue(finish.await(300, TimeUnit.SECONDS));
+		long duration = System.nanoTime() - startTime;
+		executor.shutdownNow();
+		return duration;
+	}
+	
+	private static class CountingListener implements GenericEventListener {
+		
+		private final AtomicInteger count = new AtomicInteger(0);
+		
+		public int getCount() {
+			return count.get();
+		}
+
+		@Override
+		public void event(Event event) {
+			count.incrementAndGet();
+		}
+	}
+}
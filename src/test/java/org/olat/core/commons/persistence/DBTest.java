@@ -27,24 +27,35 @@
 package org.olat.core.commons.persistence;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.olat.basesecurity.GroupRoles;
 import org.olat.basesecurity.model.GroupImpl;
+import org.olat.core.id.Identity;
 import org.olat.core.logging.DBRuntimeException;
 import org.olat.core.logging.Tracing;
+import org.olat.core.util.CodeHelper;
 import org.olat.properties.Property;
 import org.olat.properties.PropertyManager;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.manager.RepositoryEntryRelationDAO;
+import org.olat.test.JunitTestHelper;
 import org.olat.test.OlatTestCase;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -61,6 +72,8 @@ public class DBTest extends OlatTestCase {
 	
 	@Autowired
 	private DBImpl dbInstance;
+	@Autowired
+	private RepositoryEntryRelationDAO repositoryEntryRelationDao;
 		
 	/**
 	 * testCloseOfUninitializedSession
@@ -228,6 +241,88 @@ public class DBTest extends OlatTestCase {
 		}
 	}
 	
+	/**
+	 * Insert some entities with the bulk session. They are flushed
+	 * and detached by groups, the batch size of the session is restored
+	 * at the end.
+	 */
+	@Test
+	public void testBulkSession() {
+		int loops = 120;
+		String category = "bulk-" + UUID.randomUUID();
+		PropertyManager pm = PropertyManager.getInstance();
+		Session session = dbInstance.getCurrentEntityManager().unwrap(Session.class);
+		Integer batchSize = session.getJdbcBatchSize();
+		
+		Property first = null;
+		try(BulkSession bulkSession = dbInstance.openBulkSession(50)) {
+			assertEquals(Integer.valueOf(50), session.getJdbcBatchSize());
+			for (int loopCounter=0; loopCounter<loops; loopCounter++) {
+				Property p = pm.createPropertyInstance(null, null, null, category, "bulk-" + loopCounter, null, null, "value", null);
+				bulkSession.persist(p);
+				if(first == null) {
+					first = p;
+				}
+			}
+			assertEquals(loops, bulkSession.getCount());
+			// flushed and cleared with the first group
+			assertFalse(dbInstance.getCurrentEntityManager().contains(first));
+		}
+		assertEquals(batchSize, session.getJdbcBatchSize());
+		dbInstance.commitAndCloseSession();
+		
+		List<Property> properties = pm.findProperties(null, null, null, category, null);
+		assertEquals(loops, properties.size());
+		pm.deleteProperties(null, null, null, category, null);
+		dbInstance.commitAndCloseSession();
+	}
+	
+	/**
+	 * Enroll 10'000 users in a course without JDBC batches and with the
+	 * batches of the configuration, and log both timings.
+	 */
+	@Test @Ignore
+	public void testEnrollmentsPerf() {
+		int numOfUsers = 10000;
+		List<Identity> identities = new ArrayList<>(numOfUsers);
+		for(int i=0; i<numOfUsers; i++) {
+			identities.add(JunitTestHelper.createAndPersistIdentityAsRndUser("bulk-enroll-"));
+			if(i % 100 == 0) {
+				dbInstance.commitAndCloseSession();
+			}
+		}
+		RepositoryEntry courseWithoutBatch = JunitTestHelper.createAndPersistRepositoryEntry();
+		RepositoryEntry courseWithBatch = JunitTestHelper.createAndPersistRepositoryEntry();
+		dbInstance.commitAndCloseSession();
+		
+		long timeWithoutBatch = enroll(identities, courseWithoutBatch, Integer.valueOf(0));
+		log.info("testEnrollmentsPerf without JDBC batch takes: {}ms", timeWithoutBatch);
+		long timeWithBatch = enroll(identities, courseWithBatch, null);
+		log.info("testEnrollmentsPerf with JDBC batch takes: {}ms", timeWithBatch);
+		
+		assertEquals(numOfUsers, repositoryEntryRelationDao.countMembers(courseWithoutBatch, GroupRoles.participant.name()));
+		assertEquals(numOfUsers, repositoryEntryRelationDao.countMembers(courseWithBatch, GroupRoles.participant.name()));
+	}
+	
+	/**
+	 * @param batchSize The JDBC batch size of the sessions or null for the configured one
+	 * @return The time in milliseconds
+	 */
+	private long enroll(List<Identity> identities, RepositoryEntry entry, Integer batchSize) {
+		long startTime = System.nanoTime();
+		for(int i=0; i<identities.size(); i++) {
+			if(i % 50 == 0) {
+				dbInstance.getCurrentEntityManager().unwrap(Session.class).setJdbcBatchSize(batchSize);
+			}
+			repositoryEntryRelationDao.addRole(identities.get(i), entry, GroupRoles.participant.name());
+			if((i + 1) % 50 == 0) {
+				dbInstance.commitAndCloseSession();
+			}
+		}
+		dbInstance.commitAndCloseSession();
+		return CodeHelper.nanoToMilliTime(startTime);
+	}
+	
 	@Test
 	public void testDBUTF8capable() {
 		PropertyManager pm = PropertyManager.getInstance();
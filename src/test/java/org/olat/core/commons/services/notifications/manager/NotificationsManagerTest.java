@@ -34,6 +34,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
@@ -41,6 +42,9 @@ import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.olat.commons.info.InfoMessage;
+import org.olat.commons.info.InfoMessageFrontendManager;
+import org.olat.commons.info.InfoSubscriptionManager;
 import org.olat.core.commons.persistence.DB;
 import org.olat.core.commons.services.notifications.NotificationsManager;
 import org.olat.core.commons.services.notifications.Publisher;
@@ -48,17 +52,24 @@ import org.olat.core.commons.services.notifications.PublisherData;
 import org.olat.core.commons.services.notifications.Subscriber;
 import org.olat.core.commons.services.notifications.SubscriptionContext;
 import org.olat.core.commons.services.notifications.SubscriptionInfo;
+import org.olat.core.commons.services.notifications.model.SubscriptionListItem;
+import org.olat.core.commons.services.notifications.model.TitleItem;
 import org.olat.core.id.Identity;
 import org.olat.core.id.OLATResourceable;
 import org.olat.core.logging.DBRuntimeException;
 import org.apache.logging.log4j.Logger;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.CodeHelper;
+import org.olat.core.util.DateUtils;
 import org.olat.core.util.resource.OresHelper;
+import org.olat.group.BusinessGroup;
+import org.olat.group.BusinessGroupService;
 import org.olat.test.JunitTestHelper;
 import org.olat.test.OlatTestCase;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.dumbster.smtp.SmtpMessage;
+
 /**
  * Initial Date:  Dec 9, 2004
  *
@@ -72,6 +83,12 @@ public class NotificationsManagerTest extends OlatTestCase {
 	private DB dbInstance;
 	@Autowired
 	private NotificationsManager notificationManager;
+	@Autowired
+	private BusinessGroupService businessGroupService;
+	@Autowired
+	private InfoSubscriptionManager infoSubscriptionManager;
+	@Autowired
+	private InfoMessageFrontendManager infoMessageManager;
 
 	@Test
 	public void getUserIntervalOrDefault() {
@@ -416,6 +433,94 @@ public class NotificationsManagerTest extends OlatTestCase {
 		Assert.assertNotNull(infos);
 	}
 
+	@Test
+	public void filterSubscriptionInfo() {
+		Date now = new Date();
+		List<SubscriptionListItem> items = new ArrayList<>();
+		items.add(new SubscriptionListItem("Old news", null, null, DateUtils.addDays(now, -7), "o_icon"));
+		items.add(new SubscriptionListItem("Latest news", null, null, now, "o_icon"));
+		SubscriptionInfo info = new SubscriptionInfo(Long.valueOf(1), "Forum", new TitleItem("Forum", "o_icon"), items);
+		info.setCustomUrl("https://www.openolat.org");
+		
+		SubscriptionInfo filteredInfo = info.filter(Long.valueOf(2), DateUtils.addDays(now, -1));
+		Assert.assertEquals(Long.valueOf(2), filteredInfo.getKey());
+		Assert.assertEquals("Forum", filteredInfo.getType());
+		Assert.assertEquals("https://www.openolat.org", filteredInfo.getCustomUrl());
+		Assert.assertEquals(1, filteredInfo.countSubscriptionListItems());
+		Assert.assertEquals("Latest news", filteredInfo.getSubscriptionListItems().get(0).getDescription());
+		
+		SubscriptionInfo emptyInfo = info.filter(Long.valueOf(3), now);
+		Assert.assertFalse(emptyInfo.hasNews());
+		// the original is unchanged
+		Assert.assertEquals(2, info.countSubscriptionListItems());
+	}
+	
+	@Test
+	public void notifyAllSubscribersByEmail() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("digest-");
+		SubscriptionContext context = new SubscriptionContext("Course", Long.valueOf(789522), UUID.randomUUID().toString());
+		PublisherData publisherData = new PublisherData("Forum", "e.g. forumdata=keyofforum", null);
+		Publisher publisher = notificationManager.getOrCreatePublisher(context, publisherData);
+		notificationManager.subscribe(id, context, publisherData);
+		dbInstance.commitAndCloseSession();
+		
+		notificationManager.notifyAllSubscribersByEmail();
+		dbInstance.commitAndCloseSession();
+		
+		// the forum doesn't exist, there isn't any news to send
+		Subscriber subscriber = notificationManager.getSubscriber(id, publisher);
+		Assert.assertNotNull(subscriber);
+		Assert.assertNull(subscriber.getLatestEmailed());
+	}
+
+	/**
+	 * Send the news of a group to several subscribers with small partitions
+	 * processed in parallel. Every subscriber receives exactly one email,
+	 * a second run doesn't send anything.
+	 */
+	@Test
+	public void notifyAllSubscribersByEmailInParallel() {
+		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("digest-author-");
+		BusinessGroup group = businessGroupService.createBusinessGroup(author, "Digest", "Notifications", null, null, false, false, null);
+		String subPath = InfoMessageFrontendManager.businessGroupResSubPath;
+		String businessPath = "[BusinessGroup:" + group.getKey() + "]";
+		SubscriptionContext context = infoSubscriptionManager.getInfoSubscriptionContext(group, subPath);
+		PublisherData publisherData = infoSubscriptionManager.getInfoPublisherData(group, businessPath);
+		
+		List<Identity> subscribers = new ArrayList<>();
+		for(int i=0; i<10; i++) {
+			Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("digest-" + i + "-");
+			notificationManager.subscribe(id, context, publisherData);
+			subscribers.add(id);
+		}
+		InfoMessage message = infoMessageManager.createInfoMessage(group, subPath, businessPath, author);
+		message.setTitle("Digest news");
+		message.setMessage("News for all the subscribers");
+		infoMessageManager.saveInfoMessage(message);
+		dbInstance.commitAndCloseSession();
+		notificationManager.markPublisherNews(context, null, false);
+		dbInstance.commitAndCloseSession();
+		
+		NotificationsManagerImpl notificationManagerImpl = (NotificationsManagerImpl)notificationManager;
+		try {
+			notificationManagerImpl.setDigestParallelism(4);
+			notificationManagerImpl.setDigestPartitionSize(3);
+			notificationManager.notifyAllSubscribersByEmail();
+			notificationManager.notifyAllSubscribersByEmail();
+		} finally {
+			notificationManagerImpl.setDigestPartitionSize(500);
+		}
+		
+		List<SmtpMessage> messages = getSmtpServer().getReceivedEmails();
+		for(Identity subscriber:subscribers) {
+			String email = subscriber.getUser().getEmail();
+			long received = messages.stream()
+					.filter(m -> m.getHeaderValue("To") != null && m.getHeaderValue("To").contains(email))
+					.count();
+			Assert.assertEquals(email, 1l, received);
+		}
+	}
+
 	@Test
 	public void testSubscriptions() {
 		Identity id1 = JunitTestHelper.createAndPersistIdentityAsRndUser("fi1-");
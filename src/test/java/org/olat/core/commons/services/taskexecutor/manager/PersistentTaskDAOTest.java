@@ -91,6 +91,21 @@ public class PersistentTaskDAOTest extends OlatTestCase  {
 		Assert.assertEquals(creator, task.getCreator());
 	}
 	
+	@Test
+	public void updateProgress() {
+		PersistentTask task = persistentTaskDao.createTask("task-progress", new DummyTask());
+		dbInstance.commitAndCloseSession();
+		Assert.assertNull(task.getProgress());
+		
+		persistentTaskDao.updateProgress(task, Double.valueOf(0.5d));
+		dbInstance.commitAndCloseSession();
+		
+		PersistentTask reloadedTask = persistentTaskDao.loadTaskById(task.getKey());
+		Assert.assertEquals(0.5d, reloadedTask.getProgress().doubleValue(), 0.0001);
+		Assert.assertEquals(TaskStatus.newTask, reloadedTask.getStatus());
+		Assert.assertEquals(task.getTask(), reloadedTask.getTask());
+	}
+	
 	@Test
 	public void loadTask_byId() {
 		RepositoryEntry re = JunitTestHelper.createAndPersistRepositoryEntry();
@@ -0,0 +1,146 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.commons.services.vfs.manager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.vfs.VFSMetadata;
+import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.util.vfs.VFSContainer;
+import org.olat.core.util.vfs.VFSLeaf;
+import org.olat.core.util.vfs.VFSManager;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class VFSQuotaUsageLedgerTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private VFSQuotaUsageLedger quotaUsageLedger;
+	@Autowired
+	private VFSRepositoryService vfsRepositoryService;
+	
+	@Test
+	public void uploadFiles() throws IOException {
+		VFSContainer container = VFSManager.olatRootContainer("/quotaledger/" + UUID.randomUUID(), null);
+		Assert.assertEquals(0l, vfsRepositoryService.getQuotaUsageKB(container));
+		long calculations = quotaUsageLedger.getNumOfCalculations();
+		
+		VFSLeaf leaf = container.createChildLeaf("ledger.txt");
+		upload(leaf, 4096);
+		Assert.assertEquals(4l, vfsRepositoryService.getQuotaUsageKB(container));
+		
+		// overwrite with a larger file
+		upload(leaf, 8192);
+		Assert.assertEquals(8l, vfsRepositoryService.getQuotaUsageKB(container));
+		
+		VFSLeaf secondLeaf = container.createChildLeaf("ledger_2.txt");
+		upload(secondLeaf, 2048);
+		Assert.assertEquals(10l, vfsRepositoryService.getQuotaUsageKB(container));
+		// no calculation needed
+		Assert.assertEquals(calculations, quotaUsageLedger.getNumOfCalculations());
+		
+		// the calculation from the metadata finds the same usage
+		quotaUsageLedger.setMaxAge(0l);
+		quotaUsageLedger.reconcile();
+		quotaUsageLedger.setMaxAge(3600000l);
+		Assert.assertEquals(10l, vfsRepositoryService.getQuotaUsageKB(container));
+	}
+	
+	@Test
+	public void uploadFilesInSubContainer() throws IOException {
+		VFSContainer container = VFSManager.olatRootContainer("/quotaledger/" + UUID.randomUUID(), null);
+		Assert.assertEquals(0l, vfsRepositoryService.getQuotaUsageKB(container));
+		VFSContainer subContainer = container.createChildContainer("sub");
+		VFSLeaf leaf = subContainer.createChildLeaf("ledger.txt");
+		upload(leaf, 2048);
+		Assert.assertEquals(2l, vfsRepositoryService.getQuotaUsageKB(container));
+		
+		upload(leaf, 6144);
+		Assert.assertEquals(6l, vfsRepositoryService.getQuotaUsageKB(container));
+	}
+	
+	@Test
+	public void moveFile() throws IOException {
+		VFSContainer container = VFSManager.olatRootContainer("/quotaledger/" + UUID.randomUUID(), null);
+		VFSContainer sourceContainer = container.createChildContainer("source");
+		VFSContainer targetContainer = container.createChildContainer("target");
+		Assert.assertEquals(0l, vfsRepositoryService.getQuotaUsageKB(sourceContainer));
+		Assert.assertEquals(0l, vfsRepositoryService.getQuotaUsageKB(targetContainer));
+		
+		VFSLeaf leaf = sourceContainer.createChildLeaf("ledger.txt");
+		upload(leaf, 4096);
+		Assert.assertEquals(4l, vfsRepositoryService.getQuotaUsageKB(sourceContainer));
+		long calculations = quotaUsageLedger.getNumOfCalculations();
+		
+		VFSLeaf targetLeaf = targetContainer.createChildLeaf("ledger.txt");
+		vfsRepositoryService.move(leaf, targetLeaf, null);
+		Assert.assertEquals(0l, vfsRepositoryService.getQuotaUsageKB(sourceContainer));
+		Assert.assertEquals(4l, vfsRepositoryService.getQuotaUsageKB(targetContainer));
+		Assert.assertEquals(4l, vfsRepositoryService.getQuotaUsageKB(container));
+		Assert.assertEquals(calculations, quotaUsageLedger.getNumOfCalculations());
+	}
+	
+	@Test
+	public void deleteFile() throws IOException {
+		VFSContainer container = VFSManager.olatRootContainer("/quotaledger/" + UUID.randomUUID(), null);
+		VFSLeaf leaf = container.createChildLeaf("ledger.txt");
+		upload(leaf, 4096);
+		VFSLeaf trashedLeaf = container.createChildLeaf("ledger_trash.txt");
+		upload(trashedLeaf, 2048);
+		Assert.assertEquals(6l, vfsRepositoryService.getQuotaUsageKB(container));
+		long calculations = quotaUsageLedger.getNumOfCalculations();
+		
+		leaf.deleteSilently();
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(2l, vfsRepositoryService.getQuotaUsageKB(container));
+		
+		trashedLeaf.delete();
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(0l, vfsRepositoryService.getQuotaUsageKB(container));
+		Assert.assertEquals(calculations, quotaUsageLedger.getNumOfCalculations());
+	}
+	
+	/**
+	 * Same sequence as the upload controller: the metadata are loaded
+	 * (and created for a new file) before the item is saved.
+	 */
+	private void upload(VFSLeaf leaf, int size) throws IOException {
+		try(OutputStream out = leaf.getOutputStream(false)) {
+			out.write(new byte[size]);
+		}
+		VFSMetadata meta = leaf.getMetaInfo();
+		vfsRepositoryService.updateMetadata(meta);
+		vfsRepositoryService.itemSaved(leaf, null);
+		dbInstance.commitAndCloseSession();
+	}
+}
@@ -26,9 +26,14 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Logger;
@@ -43,6 +48,7 @@ import org.olat.core.commons.services.license.LicenseType;
 import org.olat.core.commons.services.license.manager.LicenseCleaner;
 import org.olat.core.commons.services.vfs.VFSMetadata;
 import org.olat.core.commons.services.vfs.VFSRepositoryService;
+import org.olat.core.commons.services.vfs.VFSThumbnailMetadata;
 import org.olat.core.id.Identity;
 import org.olat.core.logging.Tracing;
 import org.olat.core.util.FileUtils;
@@ -75,6 +81,8 @@ public class VFSRepositoryServiceTest extends OlatTestCase {
 	@Autowired
 	private LicenseCleaner licenseCleaner;
 	@Autowired
+	private VFSThumbnailDAO thumbnailDao;
+	@Autowired
 	private VFSRepositoryService vfsRepositoryService;
 	
 	@Before
@@ -132,6 +140,77 @@ public class VFSRepositoryServiceTest extends OlatTestCase {
 		dbInstance.commitAndCloseSession();
 	}
 	
+	@Test
+	public void getGeneratedThumbnail() throws Exception {
+		VFSLeaf leaf = createImage();
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(leaf);
+		dbInstance.commitAndCloseSession();
+		Assert.assertNotNull(metadata);
+		
+		// the first call queues the thumbnail
+		VFSLeaf thumbnail = vfsRepositoryService.getGeneratedThumbnail(leaf, 160, 160, false);
+		for(int i=0; i<100 && thumbnail == null; i++) {
+			if(!vfsRepositoryService.isThumbnailPending(leaf, 160, 160, false)) {
+				thumbnail = vfsRepositoryService.getGeneratedThumbnail(leaf, 160, 160, false);
+			} else {
+				Thread.sleep(100);
+			}
+		}
+		
+		Assert.assertNotNull(thumbnail);
+		Assert.assertTrue(thumbnail.getSize() > 32);
+		Assert.assertFalse(vfsRepositoryService.isThumbnailPending(leaf, 160, 160, false));
+	}
+	
+	@Test
+	public void getThumbnailConcurrently() throws Exception {
+		VFSLeaf leaf = createImage();
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(leaf);
+		dbInstance.commitAndCloseSession();
+		
+		int numOfThreads = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(numOfThreads);
+		List<Future<VFSLeaf>> futures = new ArrayList<>();
+		for(int i=0; i<numOfThreads; i++) {
+			futures.add(executor.submit(() -> {
+				try {
+					return vfsRepositoryService.getThumbnail(leaf, 140, 140, true);
+				} finally {
+					dbInstance.commitAndCloseSession();
+				}
+			}));
+		}
+		executor.shutdown();
+		
+		String thumbnailName = null;
+		for(Future<VFSLeaf> future:futures) {
+			VFSLeaf thumbnail = future.get(60, TimeUnit.SECONDS);
+			Assert.assertNotNull(thumbnail);
+			if(thumbnailName == null) {
+				thumbnailName = thumbnail.getName();
+			} else {
+				Assert.assertEquals(thumbnailName, thumbnail.getName());
+			}
+		}
+		
+		List<VFSThumbnailMetadata> thumbnails = thumbnailDao.findThumbnails(metadata.getRelativePath(), leaf.getName());
+		Assert.assertEquals(1, thumbnails.size());
+	}
+	
+	@Test
+	public void pregenerateThumbnails() throws Exception {
+		VFSLeaf leaf = createImage();
+		vfsRepositoryService.itemSaved(leaf, null);
+		
+		for(int i=0; i<100 && vfsRepositoryService.isThumbnailPending(leaf, 200, 200, false); i++) {
+			Thread.sleep(100);
+		}
+		
+		VFSMetadata metadata = vfsRepositoryService.getMetadataFor(leaf);
+		VFSThumbnailMetadata thumbnail = thumbnailDao.findThumbnail(metadata, false, 200, 200);
+		Assert.assertNotNull(thumbnail);
+	}
+	
 	@Test
 	public void deleteMetadataFolder() {
 		VFSContainer testContainer = VFSManager.olatRootContainer(VFS_TEST_DIR, null);
@@ -0,0 +1,238 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components.form.flexible.impl.elements.table;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DefaultResultInfos;
+import org.olat.core.commons.persistence.ResultInfos;
+import org.olat.core.commons.persistence.SortKey;
+import org.olat.core.gui.components.form.flexible.elements.FlexiTableElement;
+import org.olat.core.gui.components.form.flexible.elements.FlexiTableFilter;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class DefaultFlexiTableDataSourceModelTest {
+	
+	private static final int PAGE_SIZE = 20;
+	
+	@Test
+	public void loadPages() {
+		NumbersDataSource source = new NumbersDataSource(1000, false);
+		NumbersModel model = new NumbersModel(source);
+		
+		model.load(null, null, null, 0, PAGE_SIZE);
+		Assert.assertEquals(1000, model.getRowCount());
+		model.load(null, null, null, 60, PAGE_SIZE);
+		Assert.assertEquals(Integer.valueOf(60), model.getObject(60));
+		Assert.assertEquals(Integer.valueOf(79), model.getObject(79));
+		Assert.assertFalse(model.isRowLoaded(80));
+		Assert.assertEquals(2, source.getNumOfQueries());
+		
+		// already loaded
+		model.load(null, null, null, 60, PAGE_SIZE);
+		Assert.assertEquals(2, source.getNumOfQueries());
+	}
+	
+	@Test
+	public void rowBudget() {
+		NumbersDataSource source = new NumbersDataSource(1000, false);
+		NumbersModel model = new NumbersModel(source);
+		model.setRowBudget(100);
+		
+		for(int i=0; i<1000; i+=PAGE_SIZE) {
+			model.load(null, null, null, i, PAGE_SIZE);
+			Assert.assertTrue(model.getNumOfLoadedRows() <= 100);
+			for(int j=i; j<i+PAGE_SIZE; j++) {
+				Assert.assertEquals(Integer.valueOf(j), model.getObject(j));
+			}
+		}
+		Assert.assertFalse(model.isRowLoaded(0));
+		Assert.assertEquals(1000, model.getRowCount());
+		
+		// go back to the first page
+		model.load(null, null, null, 0, PAGE_SIZE);
+		Assert.assertEquals(Integer.valueOf(0), model.getObject(0));
+		Assert.assertTrue(model.getNumOfLoadedRows() <= 100);
+	}
+	
+	@Test
+	public void rowBudget_fullLoad() {
+		NumbersDataSource source = new NumbersDataSource(500, false);
+		NumbersModel model = new NumbersModel(source);
+		model.setRowBudget(100);
+		
+		model.load(null, null, null, 0, PAGE_SIZE);
+		model.load(null, null, null, 0, -1);
+		Assert.assertEquals(500, model.getNumOfLoadedRows());
+		
+		model.load(null, null, null, 200, PAGE_SIZE);
+		Assert.assertTrue(model.getNumOfLoadedRows() <= 100);
+	}
+	
+	@Test
+	public void prefetch() {
+		NumbersDataSource source = new NumbersDataSource(1000, false);
+		NumbersModel model = new NumbersModel(source);
+		model.setPrefetchSize(PAGE_SIZE);
+		
+		model.load(null, null, null, 0, PAGE_SIZE);
+		Assert.assertEquals(1, source.getNumOfQueries());
+		Assert.assertTrue(model.isRowLoaded(39));
+		
+		// the second page was prefetched
+		model.load(null, null, null, PAGE_SIZE, PAGE_SIZE);
+		Assert.assertEquals(1, source.getNumOfQueries());
+		
+		model.load(null, null, null, 2 * PAGE_SIZE, PAGE_SIZE);
+		Assert.assertEquals(2, source.getNumOfQueries());
+		Assert.assertTrue(model.isRowLoaded(79));
+	}
+	
+	@Test
+	public void keysetPaging() {
+		NumbersDataSource source = new NumbersDataSource(1000, true);
+		NumbersModel model = new NumbersModel(source);
+		model.setRowBudget(100);
+		model.setPrefetchSize(PAGE_SIZE);
+		
+		for(int i=0; i<1000; i+=PAGE_SIZE) {
+			model.load(null, null, null, i, PAGE_SIZE);
+			for(int j=i; j<i+PAGE_SIZE; j++) {
+				Assert.assertEquals(Integer.valueOf(j), model.getObject(j));
+			}
+		}
+		// only the first page needs an offset, the others follow the last loaded row
+		Assert.assertEquals(1, source.getNumOfQueries());
+		Assert.assertEquals(24, source.getNumOfKeysetQueries());
+		
+		// random access use the offset
+		model.load(null, null, null, 400, PAGE_SIZE);
+		Assert.assertEquals(2, source.getNumOfQueries());
+		Assert.assertEquals(Integer.valueOf(400), model.getObject(400));
+	}
+	
+	@Test
+	public void getObjects() {
+		NumbersDataSource source = new NumbersDataSource(1000, false);
+		NumbersModel model = new NumbersModel(source);
+		model.setRowBudget(60);
+		
+		FlexiTableElement tableEl = mock(FlexiTableElement.class);
+		doAnswer(invocation -> {
+			int index = invocation.getArgument(0);
+			model.load(null, null, null, (index / PAGE_SIZE) * PAGE_SIZE, PAGE_SIZE);
+			return null;
+		}).when(tableEl).preloadPageOfObjectIndex(anyInt());
+		
+		model.load(null, null, null, 0, PAGE_SIZE);
+		List<Integer> objects = model.getObjects(Arrays.asList(999, 3, 500, 501, 5000), tableEl);
+		Assert.assertEquals(Arrays.asList(3, 500, 501, 999), objects);
+		Assert.assertTrue(model.getNumOfLoadedRows() <= 60);
+	}
+	
+	private static class NumbersModel extends DefaultFlexiTableDataSourceModel<Integer> {
+		
+		public NumbersModel(FlexiTableDataSourceDelegate<Integer> source) {
+			super(source, null);
+		}
+
+		@Override
+		public Object getValueAt(int row, int col) {
+			return getObject(row);
+		}
+
+		@Override
+		public DefaultFlexiTableDataSourceModel<Integer> createCopyWithEmptyList() {
+			return new NumbersModel(getSourceDelegate());
+		}
+	}
+	
+	private static class NumbersDataSource implements FlexiTableKeysetDataSourceDelegate<Integer> {
+		
+		private final int size;
+		private final boolean keyset;
+		private int numOfQueries = 0;
+		private int numOfKeysetQueries = 0;
+		
+		public NumbersDataSource(int size, boolean keyset) {
+			this.size = size;
+			this.keyset = keyset;
+		}
+		
+		public int getNumOfQueries() {
+			return numOfQueries;
+		}
+		
+		public int getNumOfKeysetQueries() {
+			return numOfKeysetQueries;
+		}
+
+		@Override
+		public int getRowCount() {
+			return size;
+		}
+
+		@Override
+		public List<Integer> reload(List<Integer> rows) {
+			return rows;
+		}
+
+		@Override
+		public ResultInfos<Integer> getRows(String query, List<FlexiTableFilter> filters, List<String> condQueries,
+				int firstResult, int maxResults, SortKey... orderBy) {
+			numOfQueries++;
+			return numbers(firstResult, maxResults);
+		}
+
+		@Override
+		public boolean isKeysetPagingSupported(SortKey... orderBy) {
+			return keyset;
+		}
+
+		@Override
+		public ResultInfos<Integer> getRowsAfter(Integer previousRow, String query, List<FlexiTableFilter> filters,
+				List<String> condQueries, int maxResults, SortKey... orderBy) {
+			numOfKeysetQueries++;
+			return numbers(previousRow.intValue() + 1, maxResults);
+		}
+		
+		private ResultInfos<Integer> numbers(int firstResult, int maxResults) {
+			int lastResult = maxResults <= 0 ? size : Math.min(size, firstResult + maxResults);
+			List<Integer> rows = new ArrayList<>();
+			for(int i=firstResult; i<lastResult; i++) {
+				rows.add(Integer.valueOf(i));
+			}
+			return new DefaultResultInfos<>(lastResult, -1, rows);
+		}
+	}
+}
@@ -0,0 +1,325 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.components.form.flexible.impl.elements.table;
+
+import java.sql.Timestamp;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.olat.core.commons.persistence.SortKey;
+import org.olat.core.logging.Tracing;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class SortableFlexiTableModelDelegateTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(SortableFlexiTableModelDelegateTest.class);
+	
+	private static final String[] LAST_NAMES = { "Müller", "Muller", "Mueller", "Żak", "Zeller", "Äbi", "Abt",
+			"Ölz", "Oberli", "Černý", "Cerny", "de la Fontaine", "Delafontaine", "Ørsted", "Orsted", "van Gogh" };
+	
+	@Test
+	public void sortStrings() {
+		MemberModel model = createModel(2000, 42l);
+		List<Member> expectedRows = reference(model, "lastName", true);
+		List<Member> rows = sort(model, "lastName", true);
+		assertSameOrder(expectedRows, rows);
+		
+		// nulls first
+		Assert.assertNull(rows.get(0).getLastName());
+		Assert.assertNotNull(rows.get(rows.size() - 1).getLastName());
+	}
+	
+	@Test
+	public void sortStringsDescending() {
+		MemberModel model = createModel(2000, 43l);
+		List<Member> expectedRows = reference(model, "lastName", false);
+		List<Member> rows = sort(model, "lastName", false);
+		assertSameOrder(expectedRows, rows);
+		Assert.assertNull(rows.get(rows.size() - 1).getLastName());
+	}
+	
+	@Test
+	public void sortDatesAndTimestamps() {
+		MemberModel model = createModel(2000, 44l);
+		List<Member> rows = sort(model, "lastVisit", true);
+		for(int i=1; i<rows.size(); i++) {
+			Date previous = rows.get(i - 1).getLastVisit();
+			Date current = rows.get(i).getLastVisit();
+			Assert.assertTrue(previous == null || current.getTime() >= previous.getTime());
+		}
+	}
+	
+	@Test
+	public void sortLongs() {
+		MemberModel model = createModel(2000, 45l);
+		List<Member> expectedRows = reference(model, "visits", true);
+		List<Member> rows = sort(model, "visits", true);
+		assertSameOrder(expectedRows, rows);
+	}
+	
+	@Test
+	public void sortMixedClasses() {
+		MemberModel model = createModel(2000, 48l);
+		List<Member> rows = sort(model, "grade", true);
+		for(int i=1; i<rows.size(); i++) {
+			Grade previous = rows.get(i - 1).getGrade();
+			Grade current = rows.get(i).getGrade();
+			Assert.assertTrue(previous == null || current.compareTo(previous) >= 0);
+		}
+		
+		List<Member> expectedRows = reference(model, "grade", true);
+		assertSameOrder(expectedRows, rows);
+	}
+	
+	@Test
+	public void cacheCollationKeys() {
+		MemberModel model = createModel(2000, 46l);
+		List<Member> rows = model.getObjects();
+		new SortableFlexiTableModelDelegate<>(new SortKey("lastName", true), model, Locale.GERMAN).sort();
+		int cachedKeys = model.getSortKeyCache().size();
+		Assert.assertEquals(LAST_NAMES.length, cachedKeys);
+		
+		// the same strings, the cache doesn't grow
+		new SortableFlexiTableModelDelegate<>(new SortKey("lastName", false), model, Locale.GERMAN).sort();
+		Assert.assertEquals(cachedKeys, model.getSortKeyCache().size());
+		new SortableFlexiTableModelDelegate<>(new SortKey("email", true), model, Locale.GERMAN).sort();
+		Assert.assertEquals(cachedKeys + 2000, model.getSortKeyCache().size());
+		
+		// new rows, new cache
+		model.setObjects(rows);
+		Assert.assertEquals(0, model.getSortKeyCache().size());
+	}
+	
+	/**
+	 * Sort 50'000 rows (parallel sort) with the sort keys.
+	 */
+	@Test
+	public void sortLargeTable() {
+		MemberModel model = createModel(50000, 47l);
+		List<Member> sortedRows = sort(model, "email", true);
+		Assert.assertEquals(50000, sortedRows.size());
+		Collator collator = Collator.getInstance(Locale.GERMAN);
+		for(int i=1; i<sortedRows.size(); i++) {
+			String previous = sortedRows.get(i - 1).getEmail();
+			String current = sortedRows.get(i).getEmail();
+			Assert.assertTrue(collator.compare(previous, current) <= 0);
+		}
+		
+		List<Member> referenceRows = reference(model, "email", true);
+		assertSameOrder(referenceRows, sortedRows);
+	}
+	
+	/**
+	 * Compare the durations of the sort of 50'000 rows with the sort keys
+	 * and with the comparator.
+	 */
+	@Test @Ignore
+	public void sortLargeTableBenchmark() {
+		MemberModel model = createModel(50000, 47l);
+		List<Member> rows = model.getObjects();
+		
+		// warm up
+		for(int i=0; i<3; i++) {
+			sort(model, "email", true);
+			reference(model, "email", true);
+		}
+		
+		model.setObjects(rows);
+		long start = System.nanoTime();
+		List<Member> sortedRows = sort(model, "email", true);
+		long sortWithKeys = (System.nanoTime() - start) / 1000000;
+		
+		model.setObjects(rows);
+		start = System.nanoTime();
+		List<Member> referenceRows = reference(model, "email", true);
+		long sortWithComparator = (System.nanoTime() - start) / 1000000;
+		
+		assertSameOrder(referenceRows, sortedRows);
+		log.info("Sort 50'000 rows with sort keys: {} ms, with collator comparator: {} ms", sortWithKeys, sortWithComparator);
+	}
+	
+	private void assertSameOrder(List<Member> expected, List<Member> rows) {
+		Assert.assertEquals(expected.size(), rows.size());
+		for(int i=0; i<expected.size(); i++) {
+			Assert.assertSame(expected.get(i), rows.get(i));
+		}
+	}
+	
+	private List<Member> sort(MemberModel model, String sortKey, boolean asc) {
+		List<Member> rows = new SortableFlexiTableModelDelegate<>(new SortKey(sortKey, asc), model, Locale.GERMAN).sort();
+		model.setObjects(rows);
+		return rows;
+	}
+	
+	private List<Member> reference(MemberModel model, String sortKey, boolean asc) {
+		SortableFlexiTableModelDelegate<Member> delegate = new SortableFlexiTableModelDelegate<>(new SortKey(sortKey, asc), model, Locale.GERMAN);
+		List<Member> rows = model.getObjects();
+		Collections.sort(rows, delegate.new DefaultComparator());
+		if(!asc) {
+			Collections.reverse(rows);
+		}
+		return rows;
+	}
+	
+	private MemberModel createModel(int numOfRows, long seed) {
+		Random random = new Random(seed);
+		long now = System.currentTimeMillis();
+		List<Member> members = new ArrayList<>(numOfRows);
+		for(int i=0; i<numOfRows; i++) {
+			String lastName = i % 100 == 0 ? null : LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+			String email = "user." + random.nextInt(numOfRows * 10) + "." + i + "@openolat.org";
+			Date lastVisit = null;
+			if(i % 50 != 0) {
+				long time = now - random.nextInt(1000000000);
+				lastVisit = i % 2 == 0 ? new Timestamp(time) : new Date(time);
+			}
+			Long visits = i % 20 == 0 ? null : Long.valueOf(random.nextInt(500));
+			int points = random.nextInt(100);
+			Grade grade = i % 25 == 0 ? null : (points >= 50 ? new PassedGrade(points) : new FailedGrade(points));
+			members.add(new Member(lastName, email, lastVisit, visits, grade));
+		}
+		
+		FlexiTableColumnModel columnsModel = FlexiTableDataModelFactory.createFlexiTableColumnModel();
+		columnsModel.addFlexiColumnModel(new DefaultFlexiColumnModel("lastName", 0, true, "lastName"));
+		columnsModel.addFlexiColumnModel(new DefaultFlexiColumnModel("email", 1, true, "email"));
+		columnsModel.addFlexiColumnModel(new DefaultFlexiColumnModel("lastVisit", 2, true, "lastVisit"));
+		columnsModel.addFlexiColumnModel(new DefaultFlexiColumnModel("visits", 3, true, "visits"));
+		columnsModel.addFlexiColumnModel(new DefaultFlexiColumnModel("grade", 4, true, "grade"));
+		MemberModel model = new MemberModel(columnsModel);
+		model.setObjects(members);
+		return model;
+	}
+	
+	private static class MemberModel extends DefaultFlexiTableDataModel<Member> implements SortableFlexiTableDataModel<Member> {
+		
+		public MemberModel(FlexiTableColumnModel columnModel) {
+			super(columnModel);
+		}
+
+		@Override
+		public void sort(SortKey sortKey) {
+			//
+		}
+
+		@Override
+		public Object getValueAt(int row, int col) {
+			return getValueAt(getObject(row), col);
+		}
+
+		@Override
+		public Object getValueAt(Member row, int col) {
+			switch(col) {
+				case 0: return row.getLastName();
+				case 1: return row.getEmail();
+				case 2: return row.getLastVisit();
+				case 3: return row.getVisits();
+				case 4: return row.getGrade();
+				default: return null;
+			}
+		}
+
+		@Override
+		public DefaultFlexiTableDataModel<Member> createCopyWithEmptyList() {
+			return new MemberModel(getTableColumnModel());
+		}
+	}
+	
+	private static class Member {
+		
+		private final String lastName;
+		private final String email;
+		private final Date lastVisit;
+		private final Long visits;
+		private final Grade grade;
+		
+		public Member(String lastName, String email, Date lastVisit, Long visits, Grade grade) {
+			this.lastName = lastName;
+			this.email = email;
+			this.lastVisit = lastVisit;
+			this.visits = visits;
+			this.grade = grade;
+		}
+
+		public String getLastName() {
+			return lastName;
+		}
+
+		public String getEmail() {
+			return email;
+		}
+
+		public Date getLastVisit() {
+			return lastVisit;
+		}
+
+		public Long getVisits() {
+			return visits;
+		}
+
+		public Grade getGrade() {
+			return grade;
+		}
+	}
+	
+	/**
+	 * A comparable with subclasses, the sort keys of a column have different classes.
+	 */
+	private abstract static class Grade implements Comparable<Grade> {
+		
+		private final int points;
+		
+		public Grade(int points) {
+			this.points = points;
+		}
+
+		@Override
+		public int compareTo(Grade o) {
+			return Integer.compare(points, o.points);
+		}
+	}
+	
+	private static class PassedGrade extends Grade {
+		
+		public PassedGrade(int points) {
+			super(points);
+		}
+	}
+	
+	private static class FailedGrade extends Grade {
+		
+		public FailedGrade(int points) {
+			super(points);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.media;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class LocalFileDeliveryTest {
+	
+	private File file;
+	private byte[] content;
+	
+	@Before
+	public void createFile() throws Exception {
+		content = new byte[256 * 1024];
+		for(int i=0; i<content.length; i++) {
+			content[i] = (byte)(i % 251);
+		}
+		file = File.createTempFile("delivery", ".bin");
+		Files.write(file.toPath(), content);
+	}
+	
+	@After
+	public void deleteFile() throws Exception {
+		Files.deleteIfExists(file.toPath());
+	}
+	
+	@Test
+	public void transferFullFile() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long transferred = LocalFileDelivery.transfer(file, 0, content.length - 1, out);
+		Assert.assertEquals(content.length, transferred);
+		Assert.assertArrayEquals(content, out.toByteArray());
+	}
+	
+	@Test
+	public void transferRange() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long transferred = LocalFileDelivery.transfer(file, 100000, 199999, out);
+		Assert.assertEquals(100000, transferred);
+		Assert.assertArrayEquals(Arrays.copyOfRange(content, 100000, 200000), out.toByteArray());
+	}
+	
+	@Test
+	public void transferRangeAfterEndOfFile() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long transferred = LocalFileDelivery.transfer(file, content.length - 10, content.length + 1000, out);
+		Assert.assertEquals(10, transferred);
+		Assert.assertArrayEquals(Arrays.copyOfRange(content, content.length - 10, content.length), out.toByteArray());
+	}
+	
+	@Test
+	public void sendfile() {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getAttribute(LocalFileDelivery.SENDFILE_SUPPORT_ATTR)).thenReturn(Boolean.TRUE);
+		Assert.assertTrue(LocalFileDelivery.canSendfile(request, content.length));
+		Assert.assertFalse(LocalFileDelivery.canSendfile(request, 1024));
+		
+		LocalFileDelivery.sendfile(request, file, 1000, 1999);
+		verify(request).setAttribute(LocalFileDelivery.SENDFILE_FILENAME_ATTR, file.getAbsolutePath());
+		verify(request).setAttribute(LocalFileDelivery.SENDFILE_START_ATTR, Long.valueOf(1000));
+		verify(request).setAttribute(LocalFileDelivery.SENDFILE_END_ATTR, Long.valueOf(2000));
+	}
+	
+	@Test
+	public void sendfileNotSupported() {
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		Assert.assertFalse(LocalFileDelivery.canSendfile(request, content.length));
+	}
+	
+	@Test
+	public void matchETag() {
+		String eTag = "\"0a1b2c-3f-17a\"";
+		Assert.assertTrue(ServletUtil.matchETag(eTag, eTag));
+		Assert.assertTrue(ServletUtil.matchETag("*", eTag));
+		Assert.assertTrue(ServletUtil.matchETag("\"other\", W/\"0a1b2c-3f-17a\"", eTag));
+		Assert.assertFalse(ServletUtil.matchETag("\"0a1b2c-3f-17b\"", eTag));
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.render;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The previous implementation of the string output pool with its two
+ * synchronized pools, only used as baseline by the benchmark of
+ * StringOutputPoolTest.
+ *
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+class StringOutputPoolBaseline {
+
+	private static final int MAX_STR_BUILDER_POOL_SIZE = 50;
+
+	private static final List<Reference<StringOutput>> stringBuilders = new ArrayList<>(MAX_STR_BUILDER_POOL_SIZE + 1);
+	private static final StringOutput[] auxStringBuilders = new StringOutput[10];
+
+	private StringOutputPoolBaseline() {
+		//
+	}
+
+	public static StringOutput allocStringBuilder(final int size) {
+		if(size < 4096) {
+			synchronized(auxStringBuilders) {
+				for(int index=0; index < auxStringBuilders.length; index++) {
+					if(auxStringBuilders[index] != null && auxStringBuilders[index].capacity() >= size) {
+						StringOutput res = auxStringBuilders[index];
+						auxStringBuilders[index] = null;
+						return res;
+					}
+				}
+			}
+			return new StringOutput(size);
+		}
+
+		synchronized(stringBuilders) {
+			for(Iterator<Reference<StringOutput>> seq=stringBuilders.iterator(); seq.hasNext(); ) {
+				StringOutput res = seq.next().get();
+				if(res == null) {
+					seq.remove();
+				} else if(res.capacity() >= size) {
+					seq.remove();
+					return res;
+				}
+			}
+		}
+		return new StringOutput(size);
+	}
+
+	public static void free(final StringOutput obj) {
+		if(obj.capacity() < 4096) {
+			synchronized(auxStringBuilders) {
+				int minIndex = -1;
+				int minSize = Integer.MAX_VALUE;
+				for(int index=0; index < auxStringBuilders.length; index++) {
+					if(auxStringBuilders[index] == null) {
+						obj.setLength(0);
+						auxStringBuilders[index] = obj;
+						return;
+					}
+					int size = auxStringBuilders[index].capacity();
+					if(size < minSize) {
+						minIndex = index;
+						minSize = size;
+					}
+				}
+				if(minSize < obj.capacity()) {
+					obj.setLength(0);
+					auxStringBuilders[minIndex] = obj;
+				}
+			}
+		} else if(obj.capacity() < 250000) {
+			synchronized(stringBuilders) {
+				obj.setLength(0);
+				stringBuilders.add(0, new SoftReference<>(obj));
+				if(stringBuilders.size() > MAX_STR_BUILDER_POOL_SIZE) {
+					stringBuilders.remove(MAX_STR_BUILDER_POOL_SIZE);
+				}
+			}
+		}
+	}
+
+	public static String freePop(final StringOutput obj) {
+		String res = obj.toString();
+		free(obj);
+		return res;
+	}
+}
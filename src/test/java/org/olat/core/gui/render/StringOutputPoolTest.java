@@ -0,0 +1,187 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.gui.render;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.olat.core.logging.Tracing;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class StringOutputPoolTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(StringOutputPoolTest.class);
+	
+	@Test
+	public void sizeClass() {
+		Assert.assertEquals(-1, StringOutputPool.sizeClass(24));
+		Assert.assertEquals(0, StringOutputPool.sizeClass(256));
+		Assert.assertEquals(0, StringOutputPool.sizeClass(1023));
+		Assert.assertEquals(1, StringOutputPool.sizeClass(1024));
+		Assert.assertEquals(2, StringOutputPool.sizeClass(4096));
+		Assert.assertEquals(4, StringOutputPool.sizeClass(100000));
+		Assert.assertEquals(7, StringOutputPool.sizeClass(StringOutputPool.MAX_CAPACITY));
+	}
+	
+	@Test
+	public void allocAndFree() {
+		StringOutput sb = StringOutputPool.allocStringBuilder(2048);
+		sb.append("Hello");
+		String content = StringOutputPool.freePop(sb);
+		Assert.assertEquals("Hello", content);
+		
+		// same thread, same size, must reuse the buffer
+		StringOutput reused = StringOutputPool.allocStringBuilder(2048);
+		Assert.assertSame(sb, reused);
+		Assert.assertEquals(0, reused.length());
+		Assert.assertTrue(reused.capacity() >= 2048);
+		StringOutputPool.free(reused);
+	}
+	
+	@Test
+	public void allocRequestedCapacity() {
+		// a buffer of the 1K class but smaller than the next request
+		StringOutputPool.free(new StringOutput(1100));
+		StringOutput sb = StringOutputPool.allocStringBuilder(4000);
+		Assert.assertTrue(sb.capacity() >= 4000);
+		StringOutputPool.free(sb);
+	}
+	
+	@Test
+	public void freeTooBig() {
+		long retained = StringOutputPool.getRetainedBytes();
+		StringOutput sb = new StringOutput(StringOutputPool.MAX_CAPACITY + 1);
+		StringOutputPool.free(sb);
+		Assert.assertEquals(retained, StringOutputPool.getRetainedBytes());
+	}
+	
+	/**
+	 * Render concurrently like the dispatch threads do, the pooled
+	 * buffers must never be shared between two threads.
+	 */
+	@Test
+	public void concurrentRendering() throws Exception {
+		int errors = render(8, 2000, Allocation.pool);
+		Assert.assertEquals(0, errors);
+	}
+	
+	/**
+	 * Benchmark, not part of the suite: renders concurrently with plain
+	 * allocations, with the previous synchronized pool and with the pool.
+	 * Run it manually, it only logs the durations.
+	 */
+	@Ignore
+	@Test
+	public void benchmarkRendering() throws Exception {
+		int numOfThreads = 8;
+		int loops = 20000;
+		
+		for(Allocation allocation:Allocation.values()) {
+			long start = System.nanoTime();
+			int errors = render(numOfThreads, loops, allocation);
+			long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			Assert.assertEquals(0, errors);
+			log.info("Rendering with {}: {}ms", allocation, time);
+		}
+		log.info("Retained by the pool: {} bytes", StringOutputPool.getRetainedBytes());
+	}
+	
+	private int render(int numOfThreads, int loops, Allocation allocation) throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(numOfThreads);
+		AtomicInteger errors = new AtomicInteger();
+		for(int i=0; i<numOfThreads; i++) {
+			new Thread(() -> {
+				try {
+					for(int j=0; j<loops; j++) {
+						StringOutput page = allocation.alloc(100000);
+						for(int row=0; row<100; row++) {
+							StringOutput cell = allocation.alloc(250);
+							cell.append("<td>").append(row).append("</td>");
+							page.append(cell.toString());
+							allocation.free(cell);
+						}
+						String content = page.toString();
+						if(!content.startsWith("<td>0</td>") || !content.endsWith("<td>99</td>")) {
+							errors.incrementAndGet();
+						}
+						allocation.free(page);
+					}
+				} catch (Exception e) {
+					log.error("", e);
+					errors.incrementAndGet();
+				} finally {
+					latch.countDown();
+				}
+			}).start();
+		}
+		Assert.assertTrue(latch.await(600, TimeUnit.SECONDS));
+		return errors.get();
+	}
+	
+	private enum Allocation {
+		none {
+			@Override
+			StringOutput alloc(int size) {
+				return new StringOutput(size);
+			}
+
+			@Override
+			void free(StringOutput obj) {
+				//
+			}
+		},
+		baseline {
+			@Override
+			StringOutput alloc(int size) {
+				return StringOutputPoolBaseline.allocStringBuilder(size);
+			}
+
+			@Override
+			void free(StringOutput obj) {
+				StringOutputPoolBaseline.free(obj);
+			}
+		},
+		pool {
+			@Override
+			StringOutput alloc(int size) {
+				return StringOutputPool.allocStringBuilder(size);
+			}
+
+			@Override
+			void free(StringOutput obj) {
+				StringOutputPool.free(obj);
+			}
+		};
+		
+		abstract StringOutput alloc(int size);
+		
+		abstract void free(StringOutput obj);
+	}
+}
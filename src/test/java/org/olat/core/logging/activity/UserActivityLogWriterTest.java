@@ -0,0 +1,116 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.logging.activity;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.commons.persistence.DB;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class UserActivityLogWriterTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	
+	@Test
+	public void writeAsync() throws Exception {
+		UserActivityLogWriter writer = new UserActivityLogWriter();
+		writer.setDbInstance(dbInstance);
+		writer.setAsyncEnabled(true);
+		writer.setBatchSize(16);
+		writer.setFlushInterval(50l);
+		writer.afterPropertiesSet();
+		
+		String sessionId = "async-" + UUID.randomUUID();
+		for(int i=0; i<100; i++) {
+			writer.write(createLoggingObject(sessionId));
+		}
+		writer.destroy();
+		
+		Assert.assertEquals(0, writer.getQueueSize());
+		Assert.assertEquals(100l, writer.getWrittenCount());
+		Assert.assertEquals(0l, writer.getDroppedCount());
+		Assert.assertEquals(100, countLogs(sessionId));
+	}
+	
+	@Test
+	public void writeAsync_dropped() throws Exception {
+		UserActivityLogWriter writer = new UserActivityLogWriter();
+		writer.setDbInstance(dbInstance);
+		writer.setAsyncEnabled(true);
+		writer.setQueueSize(1);
+		writer.setBatchSize(1);
+		writer.setFlushInterval(10000l);
+		writer.afterPropertiesSet();
+		
+		String sessionId = "dropped-" + UUID.randomUUID();
+		for(int i=0; i<50; i++) {
+			writer.write(createLoggingObject(sessionId));
+		}
+		writer.destroy();
+		
+		Assert.assertEquals(50l, writer.getWrittenCount() + writer.getDroppedCount());
+		Assert.assertEquals(writer.getWrittenCount(), countLogs(sessionId));
+	}
+	
+	@Test
+	public void writeSync() throws Exception {
+		UserActivityLogWriter writer = new UserActivityLogWriter();
+		writer.setDbInstance(dbInstance);
+		writer.setAsyncEnabled(false);
+		writer.afterPropertiesSet();
+		
+		String sessionId = "sync-" + UUID.randomUUID();
+		writer.write(createLoggingObject(sessionId));
+		dbInstance.commitAndCloseSession();
+		writer.destroy();
+		
+		Assert.assertEquals(1, countLogs(sessionId));
+	}
+	
+	private LoggingObject createLoggingObject(String sessionId) {
+		LoggingObject logObj = new LoggingObject(sessionId, 123l, "u", "launch", "node");
+		logObj.setCreationDate(new Date());
+		logObj.setResourceAdminAction(Boolean.FALSE);
+		logObj.setSourceClass(UserActivityLogWriterTest.class.getCanonicalName());
+		return logObj;
+	}
+	
+	private long countLogs(String sessionId) {
+		String q = "select count(log.key) from " + LoggingObject.class.getName() + " log where log.sessionId=:sessionId";
+		List<Long> counts = dbInstance.getCurrentEntityManager()
+				.createQuery(q, Long.class)
+				.setParameter("sessionId", sessionId)
+				.getResultList();
+		dbInstance.commitAndCloseSession();
+		return counts.get(0).longValue();
+	}
+}
@@ -45,6 +45,7 @@ import org.apache.logging.log4j.Logger;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.olat.core.gui.render.StringOutput;
 import org.olat.core.gui.render.URLBuilder;
@@ -695,6 +696,120 @@ public class I18nTest extends OlatTestCase {
 	}
 
 	
+	/**
+	 * The compiled bundles must deliver the same strings as the standard lookup.
+	 */
+	@Test
+	public void compiledBundle() {
+		String bundleName = "org.olat.core";
+		for(Locale locale:new Locale[] { Locale.GERMAN, Locale.ENGLISH, new Locale("de", "CH"), Locale.FRENCH }) {
+			Properties properties = i18nMgr.getResolvedProperties(i18nModule.getFallbackLocale(), bundleName);
+			for(String key:properties.stringPropertyNames()) {
+				String expected = i18nMgr.getLocalizedString(bundleName, key, null, locale, false, true, true, true, 0);
+				Assert.assertEquals(expected, i18nMgr.getLocalizedString(bundleName, key, null, locale, false, true));
+			}
+		}
+		Assert.assertNull(i18nMgr.getLocalizedString(bundleName, "not.a.key.at.all", null, Locale.GERMAN, false, true));
+		Assert.assertEquals("Hello world, this is just a test", i18nMgr.getLocalizedString("org.olat.core.util.i18n.junittestdata.subtest",
+				"recursive.test", null, Locale.GERMAN, false, true));
+	}
+	
+	/**
+	 * The translation tool saves the changes, the compiled bundles must be recompiled.
+	 */
+	@Test
+	public void compiledBundleReload() {
+		String testNewBundle = "org.olat.core.util.i18n.junittestdata.new";
+		Locale testLocale = i18nMgr.getLocaleOrDefault("de");
+		I18nItem item = i18nMgr.getI18nItem(testNewBundle, "compiled.value", testLocale);
+		I18nItem refItem = i18nMgr.getI18nItem(testNewBundle, "compiled.reference", testLocale);
+		i18nMgr.saveOrUpdateI18nItem(item, "first");
+		i18nMgr.saveOrUpdateI18nItem(refItem, "reference to $:compiled.value");
+		Assert.assertEquals("first", i18nMgr.getLocalizedString(testNewBundle, "compiled.value", null, testLocale, false, true));
+		Assert.assertEquals("reference to first", i18nMgr.getLocalizedString(testNewBundle, "compiled.reference", null, testLocale, false, true));
+		
+		i18nMgr.saveOrUpdateI18nItem(item, "second {0}");
+		Assert.assertEquals("second 2", i18nMgr.getLocalizedString(testNewBundle, "compiled.value", new String[] { "2" }, testLocale, false, true));
+		Assert.assertEquals("reference to second {0}", i18nMgr.getLocalizedString(testNewBundle, "compiled.reference", null, testLocale, false, true));
+	}
+	
+	/**
+	 * The compiled bundles are shared, the markers of the inline translation
+	 * must not be compiled within, even if the strings come from a fallback locale.
+	 */
+	@Test
+	public void compiledBundleWithoutMarkers() {
+		String testNewBundle = "org.olat.core.util.i18n.junittestdata.new";
+		Locale testLocale = i18nMgr.getLocaleOrDefault("de");
+		I18nItem item = i18nMgr.getI18nItem(testNewBundle, "compiled.value", testLocale);
+		i18nMgr.saveOrUpdateI18nItem(item, "marker");// drop the compiled bundles
+		
+		String bundleName = "org.olat.core";
+		Locale locale = new Locale("de", "CH");
+		i18nMgr.setMarkLocalizedStringsEnabled(null, true);
+		try {
+			I18nCompiledBundle bundle = i18nMgr.getCompiledBundle(bundleName, locale, false, true);
+			Properties properties = i18nMgr.getResolvedProperties(i18nModule.getFallbackLocale(), bundleName);
+			for(String key:properties.stringPropertyNames()) {
+				String value = bundle.getValue(key);
+				Assert.assertTrue(value == null || !value.contains(I18nManager.IDENT_PREFIX));
+			}
+		} finally {
+			i18nMgr.setMarkLocalizedStringsEnabled(null, false);
+		}
+	}
+	
+	/**
+	 * The lookups of the benchmark below must find every key of the bundle
+	 * and deliver the same strings with the compiled bundle and with the
+	 * standard lookup.
+	 */
+	@Test
+	public void compiledBundleLookups() {
+		String bundleName = "org.olat.core";
+		Locale locale = i18nMgr.getLocaleOrDefault("de");
+		String[] keys = i18nMgr.getResolvedProperties(locale, bundleName).stringPropertyNames().toArray(new String[0]);
+		Assert.assertTrue(keys.length > 100);
+		
+		for(String key:keys) {
+			String standard = i18nMgr.getLocalizedString(bundleName, key, null, locale, false, true, true, true, 0);
+			Assert.assertNotNull(standard);
+			Assert.assertEquals(standard, i18nMgr.getLocalizedString(bundleName, key, null, locale, false, true));
+		}
+	}
+	
+	/**
+	 * Benchmark, not part of the suite: compares the number of lookups per
+	 * second with the compiled bundles and with the standard lookup. Run it
+	 * manually, it only logs the numbers.
+	 */
+	@Ignore
+	@Test
+	public void compiledBundleLookupsPerSecond() {
+		String bundleName = "org.olat.core";
+		Locale locale = i18nMgr.getLocaleOrDefault("de");
+		String[] keys = i18nMgr.getResolvedProperties(locale, bundleName).stringPropertyNames().toArray(new String[0]);
+		Assert.assertTrue(keys.length > 100);
+		
+		int numOfLookups = 500000;
+		long standardPerSecond = 0;
+		long compiledPerSecond = 0;
+		for(int run=0; run<3; run++) {
+			long start = System.nanoTime();
+			for(int i=0; i<numOfLookups; i++) {
+				i18nMgr.getLocalizedString(bundleName, keys[i % keys.length], null, locale, false, true, true, true, 0);
+			}
+			standardPerSecond = numOfLookups * 1000000000l / Math.max(1l, System.nanoTime() - start);
+			
+			start = System.nanoTime();
+			for(int i=0; i<numOfLookups; i++) {
+				i18nMgr.getLocalizedString(bundleName, keys[i % keys.length], null, locale, false, true);
+			}
+			compiledPerSecond = numOfLookups * 1000000000l / Math.max(1l, System.nanoTime() - start);
+		}
+		log.info("i18n lookups per second, standard: {}, compiled: {}", standardPerSecond, compiledPerSecond);
+	}
+	
 	/**
 	 * Description:<br>
 	 * Dummy URL builder
@@ -0,0 +1,298 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.core.util.mail.manager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.Message.RecipientType;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.olat.core.logging.Tracing;
+
+/**
+ * The test use its own minimal SMTP server which, unlike dumbster, accepts
+ * several connections at once and several mails per connection.
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class MailTransportPoolTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(MailTransportPoolTest.class);
+	
+	private SmtpServer smtpServer;
+	private MailTransportPool pool;
+	
+	@Before
+	public void startSmtpServer() throws Exception {
+		smtpServer = new SmtpServer();
+		pool = new MailTransportPool();
+		pool.setEnabled(true);
+		pool.setPoolSize(2);
+		pool.setMaxMessagesPerConnection(100);
+		pool.setMaxMessagesPerSecond(0);
+		pool.setMaxIdle(30000);
+		pool.setWaitTimeout(60000);
+		pool.afterPropertiesSet();
+	}
+	
+	@After
+	public void stopSmtpServer() throws Exception {
+		pool.destroy();
+		smtpServer.stop();
+	}
+	
+	@Test
+	public void sendSequentially() throws Exception {
+		Session session = createSession();
+		for(int i=0; i<10; i++) {
+			pool.send(createMessage(session, i));
+		}
+		
+		Assert.assertEquals(10, smtpServer.getReceivedMails());
+		Assert.assertEquals(10l, pool.getSentMessages());
+		Assert.assertEquals(1l, pool.getOpenedConnections());
+		Assert.assertEquals(1, smtpServer.getConnections());
+		Assert.assertEquals(1, pool.getIdleConnections());
+	}
+	
+	@Test
+	public void sendConcurrently() throws Exception {
+		Session session = createSession();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		
+		long start = System.nanoTime();
+		List<Future<Boolean>> results = new ArrayList<>();
+		for(int i=0; i<200; i++) {
+			final int pos = i;
+			results.add(executor.submit(() -> {
+				pool.send(createMessage(session, pos));
+				return Boolean.TRUE;
+			}));
+		}
+		for(Future<Boolean> result:results) {
+			Assert.assertTrue(result.get());
+		}
+		executor.shutdown();
+		long duration = (System.nanoTime() - start) / 1000000l;
+		log.info("200 mails sent in {} ms with {} connections", duration, pool.getOpenedConnections());
+		
+		Assert.assertEquals(200, smtpServer.getReceivedMails());
+		Assert.assertEquals(200l, pool.getSentMessages());
+		Assert.assertEquals(0l, pool.getFailedMessages());
+		Assert.assertTrue(pool.getOpenedConnections() <= 4);
+		Assert.assertEquals(0, pool.getActiveConnections());
+	}
+	
+	@Test
+	public void maxMessagesPerConnection() throws Exception {
+		pool.setMaxMessagesPerConnection(5);
+		
+		Session session = createSession();
+		for(int i=0; i<12; i++) {
+			pool.send(createMessage(session, i));
+		}
+		Assert.assertEquals(12, smtpServer.getReceivedMails());
+		Assert.assertEquals(3l, pool.getOpenedConnections());
+		Assert.assertEquals(2l, pool.getClosedConnections());
+	}
+	
+	@Test
+	public void maxMessagesPerSecond() throws Exception {
+		pool.setMaxMessagesPerSecond(10);
+		
+		Session session = createSession();
+		long start = System.nanoTime();
+		for(int i=0; i<6; i++) {
+			pool.send(createMessage(session, i));
+		}
+		long duration = (System.nanoTime() - start) / 1000000l;
+		Assert.assertEquals(6, smtpServer.getReceivedMails());
+		Assert.assertTrue(duration >= 500l);
+	}
+	
+	@Test
+	public void configurationChanged() throws Exception {
+		pool.send(createMessage(createSession(), 1));
+		Assert.assertEquals(1l, pool.getOpenedConnections());
+		
+		Session session = createSession();
+		session.getProperties().put("mail.smtp.timeout", "9000");
+		pool.send(createMessage(session, 2));
+		Assert.assertEquals(2, smtpServer.getReceivedMails());
+		Assert.assertEquals(2l, pool.getOpenedConnections());
+		Assert.assertEquals(1l, pool.getClosedConnections());
+	}
+	
+	@Test
+	public void connectionClosedByServer() throws Exception {
+		Session session = createSession();
+		pool.send(createMessage(session, 1));
+		
+		// the server closes the pooled connection
+		smtpServer.closeConnections();
+		
+		pool.send(createMessage(session, 2));
+		Assert.assertEquals(2, smtpServer.getReceivedMails());
+		Assert.assertEquals(2l, pool.getSentMessages());
+		Assert.assertEquals(0l, pool.getFailedMessages());
+		Assert.assertEquals(2l, pool.getOpenedConnections());
+	}
+	
+	private Session createSession() {
+		Properties p = new Properties();
+		p.put("mail.smtp.host", InetAddress.getLoopbackAddress().getHostAddress());
+		p.put("mail.smtp.port", Integer.toString(smtpServer.getPort()));
+		p.put("mail.smtp.timeout", "8000");
+		p.put("mail.smtp.connectiontimeout", "8000");
+		return Session.getInstance(p);
+	}
+	
+	private MimeMessage createMessage(Session session, int pos) throws MessagingException {
+		MimeMessage msg = new MimeMessage(session);
+		msg.setFrom(new InternetAddress("sender@openolat.org"));
+		msg.setRecipient(RecipientType.TO, new InternetAddress("recipient-" + pos + "@openolat.org"));
+		msg.setSubject("Pooled mail " + pos, "utf-8");
+		msg.setText("Hello " + pos, "utf-8");
+		return msg;
+	}
+	
+	/**
+	 * Accept the commands of JavaMail, one thread per connection.
+	 */
+	private static class SmtpServer implements Runnable {
+		
+		private final ServerSocket serverSocket;
+		private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+		private final AtomicInteger connections = new AtomicInteger();
+		private final AtomicInteger receivedMails = new AtomicInteger();
+		
+		public SmtpServer() throws IOException {
+			serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+			Thread acceptor = new Thread(this, "test-smtp-server");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+		
+		public int getPort() {
+			return serverSocket.getLocalPort();
+		}
+		
+		public int getConnections() {
+			return connections.get();
+		}
+		
+		public int getReceivedMails() {
+			return receivedMails.get();
+		}
+		
+		public void closeConnections() throws IOException {
+			for(Socket socket:sockets) {
+				socket.close();
+			}
+		}
+		
+		public void stop() throws IOException {
+			serverSocket.close();
+			closeConnections();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while(!serverSocket.isClosed()) {
+					Socket socket = serverSocket.accept();
+					sockets.add(socket);
+					connections.incrementAndGet();
+					Thread worker = new Thread(() -> handle(socket), "test-smtp-connection");
+					worker.setDaemon(true);
+					worker.start();
+				}
+			} catch (SocketException e) {
+				// server stopped
+			} catch (IOException e) {
+				log.error("", e);
+			}
+		}
+		
+		private void handle(Socket socket) {
+			try(BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+					PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+				reply(out, "220 localhost test SMTP");
+				boolean data = false;
+				for(String line=in.readLine(); line != null; line=in.readLine()) {
+					if(data) {
+						if(".".equals(line)) {
+							data = false;
+							receivedMails.incrementAndGet();
+							reply(out, "250 OK");
+						}
+					} else {
+						String command = line.length() > 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+						if("DATA".equals(command)) {
+							data = true;
+							reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						} else if("QUIT".equals(command)) {
+							reply(out, "221 Bye");
+							break;
+						} else {
+							reply(out, "250 OK");
+						}
+					}
+				}
+			} catch (IOException e) {
+				// connection closed
+			} finally {
+				sockets.remove(socket);
+			}
+		}
+		
+		private void reply(PrintWriter out, String response) {
+			out.print(response);
+			out.print("\r\n");
+			out.flush();
+		}
+	}
+}
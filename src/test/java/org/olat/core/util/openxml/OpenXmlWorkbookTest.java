@@ -22,11 +22,21 @@ package org.olat.core.util.openxml;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.Logger;
 import org.junit.Assert;
+import org.junit.Ignore;
 import org.junit.Test;
+import org.olat.core.logging.Tracing;
 import org.olat.core.util.openxml.OpenXMLWorksheet.Row;
 
 /**
@@ -37,6 +47,8 @@ import org.olat.core.util.openxml.OpenXMLWorksheet.Row;
  */
 public class OpenXmlWorkbookTest {
 	
+	private static final Logger log = Tracing.createLoggerFor(OpenXmlWorkbookTest.class);
+	
 	/**
 	 * Sadly, I can only test if our system produce a non empty file.
 	 * @throws IOException
@@ -85,4 +97,133 @@ public class OpenXmlWorkbookTest {
 		String col_702 = OpenXMLWorksheet.getColumn(702);
 		Assert.assertEquals("AAA", col_702);
 	}
+	
+	@Test
+	public void sharedStrings() {
+		OpenXMLWorkbookSharedStrings sharedStrings = new OpenXMLWorkbookSharedStrings();
+		int helloIndex = sharedStrings.add("Hello");
+		int worldIndex = sharedStrings.add("World");
+		Assert.assertEquals(1, helloIndex);
+		Assert.assertEquals(2, worldIndex);
+		Assert.assertEquals(helloIndex, sharedStrings.add("Hello"));
+		Assert.assertEquals(3, sharedStrings.size());
+		Assert.assertFalse(sharedStrings.isSpilled());
+		sharedStrings.close();
+	}
+	
+	@Test
+	public void sharedStringsSpilled() {
+		OpenXMLWorkbookSharedStrings sharedStrings = new OpenXMLWorkbookSharedStrings(64);
+		List<String> strings = new ArrayList<>();
+		strings.add("OpenOLAT");
+		for(int i=0; i<100; i++) {
+			String string = "String \u00E9 " + i;
+			Assert.assertEquals(i + 1, sharedStrings.add(string));
+			strings.add(string);
+		}
+		Assert.assertTrue(sharedStrings.isSpilled());
+		// a string in memory and a spilled one are still shared
+		Assert.assertEquals(1, sharedStrings.add("String \u00E9 0"));
+		Assert.assertEquals(100, sharedStrings.add("String \u00E9 99"));
+		Assert.assertEquals(101, sharedStrings.size());
+		
+		List<String> iteratedStrings = new ArrayList<>();
+		for(String string:sharedStrings) {
+			iteratedStrings.add(string);
+		}
+		Assert.assertEquals(strings, iteratedStrings);
+		sharedStrings.close();
+	}
+	
+	@Test
+	public void reuseRows() throws IOException {
+		File file = File.createTempFile("workbook", "_rows.xlsx");
+		try(FileOutputStream fileOut = new FileOutputStream(file);
+				OpenXMLWorkbook workbook = new OpenXMLWorkbook(fileOut, 1)) {
+			OpenXMLWorksheet sheet = workbook.nextWorksheet();
+			Row row1 = sheet.newRow();
+			row1.addCell(300, "Far away", null);
+			Assert.assertEquals(301, row1.size());
+			
+			Row row2 = sheet.newRow();
+			Assert.assertSame(row1, row2);
+			Assert.assertTrue(row2.isEmpty());
+			row2.addCell(2, 3.0d, null);
+			Assert.assertEquals(3, row2.size());
+			Assert.assertNull(row2.getCell(1));
+			Assert.assertNull(row2.getCell(300));
+		}
+		Assert.assertTrue(file.delete());
+	}
+	
+	/**
+	 * The distinct strings of the cells are written once in the shared
+	 * strings table of the workbook.
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	public void writeSharedStrings() throws IOException {
+		File file = File.createTempFile("workbook", "_strings.xlsx");
+		try(FileOutputStream fileOut = new FileOutputStream(file);
+				OpenXMLWorkbook workbook = new OpenXMLWorkbook(fileOut, 1)) {
+			OpenXMLWorksheet sheet = workbook.nextWorksheet();
+			sheet.setHeaderRows(1);
+			for(int i=0; i<1000; i++) {
+				Row row = sheet.newRow();
+				for(int j=0; j<20; j++) {
+					if(j % 2 == 0) {
+						row.addCell(j, "Value " + ((i * 20 + j) % 5000), null);
+					} else {
+						row.addCell(j, Double.valueOf(i * j), null);
+					}
+				}
+			}
+			Assert.assertEquals(2501, workbook.getSharedStrings().size());
+		}
+		
+		String sharedStringsXml = null;
+		try(ZipFile zipFile = new ZipFile(file)) {
+			ZipEntry entry = zipFile.getEntry("xl/sharedStrings.xml");
+			Assert.assertNotNull(entry);
+			try(InputStream in = zipFile.getInputStream(entry)) {
+				sharedStringsXml = IOUtils.toString(in, StandardCharsets.UTF_8);
+			}
+		}
+		Assert.assertEquals(2501, StringUtils.countMatches(sharedStringsXml, "<si>"));
+		Assert.assertEquals(1, StringUtils.countMatches(sharedStringsXml, ">Value 4998<"));
+		Assert.assertTrue(file.delete());
+	}
+	
+	/**
+	 * Benchmark, not part of the suite: a workbook with 1 million cells and
+	 * 100'000 distinct strings. Run it manually, it only logs the duration.
+	 * 
+	 * @throws IOException
+	 */
+	@Ignore
+	@Test
+	public void benchmarkLargeWorkbook() throws IOException {
+		File file = File.createTempFile("workbook", "_large.xlsx");
+		long start = System.nanoTime();
+		try(FileOutputStream fileOut = new FileOutputStream(file);
+				OpenXMLWorkbook workbook = new OpenXMLWorkbook(fileOut, 1)) {
+			OpenXMLWorksheet sheet = workbook.nextWorksheet();
+			sheet.setHeaderRows(1);
+			for(int i=0; i<5000; i++) {
+				Row row = sheet.newRow();
+				for(int j=0; j<200; j++) {
+					if(j % 2 == 0) {
+						row.addCell(j, "Value " + ((i * 200 + j) % 200000), null);
+					} else {
+						row.addCell(j, Double.valueOf(i * j), null);
+					}
+				}
+			}
+			Assert.assertEquals(100001, workbook.getSharedStrings().size());
+		}
+		long duration = (System.nanoTime() - start) / 1000000l;
+		log.info("Workbook with 1'000'000 cells written in {} ms ({} bytes)", duration, file.length());
+		Assert.assertTrue(file.delete());
+	}
 }
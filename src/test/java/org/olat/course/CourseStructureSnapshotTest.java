@@ -0,0 +1,97 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CourseStructureSnapshotTest {
+	
+	@Test
+	public void writeReadSnapshot() throws IOException {
+		File dir = Files.createTempDirectory("snapshot").toFile();
+		try {
+			File xmlFile = new File(dir, PersistingCourseImpl.RUNSTRUCTURE_XML);
+			Structure structure = copyAndRead("runstructure_allinone.xml", xmlFile);
+			
+			CourseStructureSnapshot.write(xmlFile, structure);
+			Assert.assertTrue(CourseStructureSnapshot.getSnapshotFile(xmlFile).exists());
+			
+			Object snapshot = CourseStructureSnapshot.read(xmlFile);
+			Assert.assertTrue(snapshot instanceof Structure);
+			Structure snapshotStructure = (Structure)snapshot;
+			Assert.assertEquals(structure.getRootNode().getIdent(), snapshotStructure.getRootNode().getIdent());
+			Assert.assertEquals(structure.getRootNode().getChildCount(), snapshotStructure.getRootNode().getChildCount());
+		} finally {
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+	
+	@Test
+	public void staleSnapshot() throws IOException {
+		File dir = Files.createTempDirectory("snapshot").toFile();
+		try {
+			File xmlFile = new File(dir, PersistingCourseImpl.RUNSTRUCTURE_XML);
+			Structure structure = copyAndRead("runstructure_allinone.xml", xmlFile);
+			CourseStructureSnapshot.write(xmlFile, structure);
+			
+			// the XML file was changed by someone else
+			copyAndRead("runstructure_checklist.xml", xmlFile);
+			Assert.assertNull(CourseStructureSnapshot.read(xmlFile));
+		} finally {
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+	
+	@Test
+	public void missingSnapshot() throws IOException {
+		File dir = Files.createTempDirectory("snapshot").toFile();
+		try {
+			File xmlFile = new File(dir, PersistingCourseImpl.RUNSTRUCTURE_XML);
+			copyAndRead("runstructure_allinone.xml", xmlFile);
+			Assert.assertNull(CourseStructureSnapshot.read(xmlFile));
+		} finally {
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+	
+	private Structure copyAndRead(String resource, File xmlFile) throws IOException {
+		try(InputStream in = CourseStructureSnapshotTest.class.getResourceAsStream(resource)) {
+			Files.copy(in, xmlFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		XStream xStream = CourseXStreamAliases.getReadCourseXStream();
+		return (Structure)xStream.fromXML(xmlFile);
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.course.assessment.manager;
+
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.id.Identity;
+import org.olat.core.util.async.ProgressDelegate;
+import org.olat.course.CourseFactory;
+import org.olat.course.ICourse;
+import org.olat.course.assessment.CourseAssessmentService;
+import org.olat.modules.coach.CoachingLargeTest;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.RepositoryService;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 19 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class CourseAssessmentServiceTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private RepositoryService repositoryService;
+	@Autowired
+	private CourseAssessmentService courseAssessmentService;
+	
+	/**
+	 * More participants than a slice of the evaluation, the slices are
+	 * evaluated in parallel.
+	 */
+	@Test
+	public void evaluateAll() throws Exception {
+		URL courseUrl = CoachingLargeTest.class.getResource("CoachingCourse.zip");
+		RepositoryEntry re = JunitTestHelper.deployCourse(null, "Evaluate all", courseUrl);
+		dbInstance.commitAndCloseSession();
+		
+		int numOfParticipants = 120;
+		for(int i=0; i<numOfParticipants; i++) {
+			Identity participant = JunitTestHelper.createAndPersistIdentityAsRndUser("eval-all-" + i);
+			repositoryService.addRole(participant, re, GroupRoles.participant.name());
+		}
+		dbInstance.commitAndCloseSession();
+		
+		ICourse course = CourseFactory.loadCourse(re);
+		CountingProgress progress = new CountingProgress();
+		List<Identity> failedIdentities = courseAssessmentService.evaluateAll(course, progress);
+		
+		Assert.assertTrue(failedIdentities.isEmpty());
+		Assert.assertEquals(numOfParticipants, progress.getMax(), 0.1f);
+		Assert.assertEquals(numOfParticipants, progress.getActual(), 0.1f);
+		Assert.assertEquals(1, progress.getFinished());
+	}
+	
+	private static class CountingProgress implements ProgressDelegate {
+		
+		private volatile float max;
+		private volatile float actual;
+		private final AtomicInteger finished = new AtomicInteger();
+		
+		public float getMax() {
+			return max;
+		}
+		
+		public float getActual() {
+			return actual;
+		}
+		
+		public int getFinished() {
+			return finished.get();
+		}
+
+		@Override
+		public void setMax(float max) {
+			this.max = max;
+		}
+
+		@Override
+		public synchronized void setActual(float value) {
+			actual = Math.max(actual, value);
+		}
+
+		@Override
+		public void setInfo(String message) {
+			//
+		}
+
+		@Override
+		public void finished() {
+			finished.incrementAndGet();
+		}
+	}
+}
@@ -19,6 +19,8 @@
  */
 package org.olat.course.condition;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.olat.basesecurity.Authentication;
@@ -29,6 +31,7 @@ import org.olat.core.id.Roles;
 import org.olat.course.CourseFactory;
 import org.olat.course.ICourse;
 import org.olat.course.condition.interpreter.ConditionInterpreter;
+import org.olat.course.condition.interpreter.ConditionInterpreter.EvaluationPass;
 import org.olat.course.run.userview.UserCourseEnvironment;
 import org.olat.course.run.userview.UserCourseEnvironmentImpl;
 import org.olat.repository.RepositoryEntry;
@@ -36,6 +39,9 @@ import org.olat.test.JunitTestHelper;
 import org.olat.test.OlatTestCase;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.neemsoft.jmep.Environment;
+import com.neemsoft.jmep.FunctionCB;
+
 /**
  * 
  * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
@@ -354,6 +360,84 @@ public class ConditionTest extends OlatTestCase {
 		Assert.assertFalse(condition, result);
 	}
 
+	/**
+	 * The parsed expressions are cached by the interpreter, the
+	 * variables must be evaluated again.
+	 */
+	@Test
+	public void cachedExpression() throws Exception {
+		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
+		ConditionInterpreter interpreter = new ConditionInterpreter(uce);
+
+		for(int i=0; i<3; i++) {
+			String condition = "now > date(\"01.01.2000 00:00\")";
+			Assert.assertTrue(condition, interpreter.evaluateCondition(condition));
+			
+			condition = "isUser(\"administrator\")";
+			Assert.assertFalse(condition, interpreter.evaluateCondition(condition));
+			
+			condition = "2 / 0";
+			Assert.assertFalse(condition, interpreter.evaluateCondition(condition));
+			
+		}
+	}
+	
+	/**
+	 * The parsed expressions of a course are shared by its users, the
+	 * functions must evaluate the user of the interpreter.
+	 */
+	@Test
+	public void sharedExpressions() throws Exception {
+		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("junit_auth");
+		Identity id1 = JunitTestHelper.createAndPersistIdentityAsRndUser("condition-1");
+		Identity id2 = JunitTestHelper.createAndPersistIdentityAsRndUser("condition-2");
+		RepositoryEntry re = JunitTestHelper.deployDemoCourse(author);
+		ICourse course = CourseFactory.loadCourse(re);
+		ConditionInterpreter interpreter1 = new ConditionInterpreter(new UserCourseEnvironmentImpl(
+				new IdentityEnvironment(id1, Roles.userRoles()), course.getCourseEnvironment()));
+		ConditionInterpreter interpreter2 = new ConditionInterpreter(new UserCourseEnvironmentImpl(
+				new IdentityEnvironment(id2, Roles.userRoles()), course.getCourseEnvironment()));
+
+		String condition = "isUser(\"" + id1.getName() + "\")";
+		for(int i=0; i<3; i++) {
+			Assert.assertTrue(interpreter1.evaluateCondition(condition));
+			Assert.assertFalse(interpreter2.evaluateCondition(condition));
+		}
+	}
+	
+	/**
+	 * The memoized functions are called once per arguments in a pass,
+	 * nested passes share the results of the outer one.
+	 */
+	@Test
+	public void evaluationPass() throws Exception {
+		UserCourseEnvironment uce = getUserDemoCourseEnvironment();
+		CountingFunction counter = new CountingFunction();
+		ConditionInterpreter interpreter = new CountingConditionInterpreter(uce, counter);
+
+		String calculation = "count(\"a\") + count(\"b\") + count(\"a\")";
+		try(EvaluationPass pass = interpreter.openEvaluationPass()) {
+			Assert.assertEquals(3.0f, interpreter.evaluateCalculation(calculation), 0.0001);
+			Assert.assertEquals(2, counter.getCalls());
+			// nested pass
+			try(EvaluationPass nestedPass = interpreter.openEvaluationPass()) {
+				Assert.assertEquals(3.0f, interpreter.evaluateCalculation(calculation), 0.0001);
+			}
+			Assert.assertEquals(3.0f, interpreter.evaluateCalculation(calculation), 0.0001);
+			Assert.assertEquals(2, counter.getCalls());
+		}
+		// without pass, every call is done
+		Assert.assertEquals(3.0f, interpreter.evaluateCalculation(calculation), 0.0001);
+		Assert.assertEquals(5, counter.getCalls());
+		
+		// the memoized functions of the standard environment
+		ConditionInterpreter standardInterpreter = new ConditionInterpreter(uce);
+		String condition = "(((inLearningGroup(\"Rule1Group1\") | inLearningGroup(\"Rule1Group2\"))|inLearningArea(\"Rule1Area1\")))";
+		try(EvaluationPass pass = standardInterpreter.openEvaluationPass()) {
+			Assert.assertFalse(standardInterpreter.evaluateCondition(condition));
+			Assert.assertFalse(standardInterpreter.evaluateCondition(condition));
+		}
+	}
 	
 	private UserCourseEnvironment getUserDemoCourseEnvironment() {
 		Identity author = JunitTestHelper.createAndPersistIdentityAsRndUser("junit_auth");
@@ -364,4 +448,28 @@ public class ConditionTest extends OlatTestCase {
 		IdentityEnvironment identityEnv = new IdentityEnvironment(id, roles);
 		return new UserCourseEnvironmentImpl(identityEnv, course.getCourseEnvironment());
 	}
+	
+	private static class CountingConditionInterpreter extends ConditionInterpreter {
+		
+		public CountingConditionInterpreter(UserCourseEnvironment userCourseEnv, CountingFunction counter) {
+			super(userCourseEnv);
+			env = new Environment();
+			env.addFunction("count", memoized("count", counter));
+		}
+	}
+	
+	private static class CountingFunction extends FunctionCB {
+		
+		private final AtomicInteger calls = new AtomicInteger();
+		
+		public int getCalls() {
+			return calls.get();
+		}
+
+		@Override
+		public Object call(Object[] inStack) {
+			calls.incrementAndGet();
+			return ConditionInterpreter.INT_TRUE;
+		}
+	}
 }
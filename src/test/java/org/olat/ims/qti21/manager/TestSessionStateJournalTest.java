@@ -0,0 +1,298 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.logging.Tracing;
+import org.olat.core.util.FileUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import uk.ac.ed.ph.jqtiplus.xmlutils.XmlFactories;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class TestSessionStateJournalTest {
+	
+	private static final Logger log = Tracing.createLoggerFor(TestSessionStateJournalTest.class);
+	
+	@Test
+	public void storeAndReplay() throws Exception {
+		File dir = Files.createTempDirectory("journal").toFile();
+		File sessionFile = new File(dir, "testSessionState.xml");
+		TestSessionStateJournal journal = new TestSessionStateJournal();
+		journal.setEnabled(true);
+		journal.setMaxRecords(200);
+		
+		Document state = createState(10);
+		journal.store(state, sessionFile);
+		Assert.assertEquals(1l, journal.getNumOfSnapshots());
+		
+		// change an item
+		answer(state, 3, "choice-3");
+		journal.store(state, sessionFile);
+		// change the root
+		state.getDocumentElement().setAttribute("durationAccumulated", "1200");
+		journal.store(state, sessionFile);
+		// remove an item
+		Element item = getItem(state, 5);
+		item.getParentNode().removeChild(item);
+		journal.store(state, sessionFile);
+		// add an item at the end
+		state.getDocumentElement().appendChild(createItem(state, 10));
+		journal.store(state, sessionFile);
+		
+		Assert.assertEquals(1l, journal.getNumOfSnapshots());
+		Assert.assertEquals(4l, journal.getNumOfRecords());
+		Assert.assertTrue(TestSessionStateJournal.getJournalFile(sessionFile).exists());
+		
+		Document snapshot = XmlFactories.newDocumentBuilder().parse(sessionFile);
+		Document replayed = journal.replay(snapshot, sessionFile);
+		Assert.assertTrue(isSame(state.getDocumentElement(), replayed.getDocumentElement()));
+		
+		journal.delete(sessionFile);
+		Assert.assertFalse(TestSessionStateJournal.getJournalFile(sessionFile).exists());
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+	
+	@Test
+	public void compaction() throws Exception {
+		File dir = Files.createTempDirectory("journal").toFile();
+		File sessionFile = new File(dir, "testSessionState.xml");
+		TestSessionStateJournal journal = new TestSessionStateJournal();
+		journal.setEnabled(true);
+		journal.setMaxRecords(5);
+		
+		Document state = createState(10);
+		for(int i=0; i<10; i++) {
+			answer(state, i, "choice-" + i);
+			journal.store(state, sessionFile);
+		}
+		// 1 snapshot, 5 records, 1 snapshot and 3 records
+		Assert.assertEquals(2l, journal.getNumOfSnapshots());
+		Assert.assertEquals(8l, journal.getNumOfRecords());
+		
+		Document snapshot = XmlFactories.newDocumentBuilder().parse(sessionFile);
+		Document replayed = journal.replay(snapshot, sessionFile);
+		Assert.assertTrue(isSame(state.getDocumentElement(), replayed.getDocumentElement()));
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+	
+	/**
+	 * A snapshot written without removing the journal, like an interrupted
+	 * compaction, must not be replayed with the deltas of the old snapshot.
+	 */
+	@Test
+	public void staleJournal() throws Exception {
+		File dir = Files.createTempDirectory("journal").toFile();
+		File sessionFile = new File(dir, "testSessionState.xml");
+		File journalFile = TestSessionStateJournal.getJournalFile(sessionFile);
+		TestSessionStateJournal journal = new TestSessionStateJournal();
+		journal.setEnabled(true);
+		journal.setMaxRecords(200);
+
+		Document state = createState(5);
+		journal.store(state, sessionFile);
+		answer(state, 1, "choice-1");
+		journal.store(state, sessionFile);
+		Assert.assertTrue(journalFile.exists());
+
+		// keep the journal of the first snapshot and write a new snapshot
+		File staleJournalFile = new File(dir, "stale.journal");
+		Files.copy(journalFile.toPath(), staleJournalFile.toPath());
+		Document newState = createState(5);
+		answer(newState, 2, "choice-2");
+		journal.setEnabled(false);
+		journal.store(newState, sessionFile);
+		Files.copy(staleJournalFile.toPath(), journalFile.toPath());
+
+		Document snapshot = XmlFactories.newDocumentBuilder().parse(sessionFile);
+		Document replayed = journal.replay(snapshot, sessionFile);
+		Assert.assertTrue(isSame(newState.getDocumentElement(), replayed.getDocumentElement()));
+		Assert.assertFalse(new File(dir, sessionFile.getName() + ".tmp").exists());
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+
+	/**
+	 * Simulate a test with 100 items answered by 500 candidates
+	 * at the same time.
+	 */
+	@Test
+	public void concurrentCandidates() throws Exception {
+		final int numOfItems = 100;
+		final int numOfCandidates = 500;
+		
+		TestSessionStateJournal journal = new TestSessionStateJournal();
+		journal.setEnabled(true);
+		journal.setMaxRecords(200);
+		
+		File dir = Files.createTempDirectory("journal").toFile();
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		long start = System.nanoTime();
+		List<Future<Boolean>> results = new ArrayList<>();
+		for(int i=0; i<numOfCandidates; i++) {
+			File sessionFile = new File(new File(dir, "candidate_" + i), "testSessionState.xml");
+			results.add(executor.submit(() -> {
+				sessionFile.getParentFile().mkdirs();
+				Document state = createState(numOfItems);
+				journal.store(state, sessionFile);
+				for(int j=0; j<numOfItems; j++) {
+					answer(state, j, "choice-" + j);
+					journal.store(state, sessionFile);
+				}
+				Document snapshot = XmlFactories.newDocumentBuilder().parse(sessionFile);
+				return isSame(state.getDocumentElement(), journal.replay(snapshot, sessionFile).getDocumentElement());
+			}));
+		}
+		for(Future<Boolean> result:results) {
+			Assert.assertTrue(result.get());
+		}
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+		
+		long duration = (System.nanoTime() - start) / 1000000l;
+		long snapshotLength = new File(new File(dir, "candidate_0"), "testSessionState.xml").length();
+		log.info("{} candidates x {} items saved in {} ms, {} bytes written (about {} bytes with full snapshots)",
+				numOfCandidates, numOfItems, duration, journal.getBytesWritten(), snapshotLength * numOfCandidates * (numOfItems + 1));
+		Assert.assertEquals(numOfCandidates, journal.getNumOfSnapshots());
+		Assert.assertEquals(numOfCandidates * numOfItems, journal.getNumOfRecords());
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+	
+	private static Document createState(int numOfItems) throws Exception {
+		Document document = XmlFactories.newDocumentBuilder().newDocument();
+		Element root = document.createElement("testSessionState");
+		root.setAttribute("entryTime", "2026-10-18T10:00:00.000");
+		root.setAttribute("durationAccumulated", "0");
+		document.appendChild(root);
+		
+		Element testPlan = document.createElement("testPlan");
+		for(int i=0; i<numOfItems; i++) {
+			Element node = document.createElement("node");
+			node.setAttribute("type", "ASSESSMENT_ITEM_REF");
+			node.setAttribute("key", "item-" + i + ":1:1");
+			testPlan.appendChild(node);
+		}
+		root.appendChild(testPlan);
+		for(int i=0; i<numOfItems; i++) {
+			root.appendChild(createItem(document, i));
+		}
+		return document;
+	}
+	
+	private static Element createItem(Document document, int pos) {
+		Element item = document.createElement("itemSessionState");
+		item.setAttribute("key", "item-" + pos + ":1:1");
+		item.setAttribute("sessionStatus", "initial");
+		Element outcome = document.createElement("outcomeVariable");
+		outcome.setAttribute("identifier", "SCORE");
+		Element value = document.createElement("value");
+		value.setTextContent("0.0");
+		outcome.appendChild(value);
+		item.appendChild(outcome);
+		return item;
+	}
+	
+	private static Element getItem(Document document, int pos) {
+		String key = "item-" + pos + ":1:1";
+		for(Node node=document.getDocumentElement().getFirstChild(); node != null; node=node.getNextSibling()) {
+			if(node instanceof Element && key.equals(((Element)node).getAttribute("key"))) {
+				return (Element)node;
+			}
+		}
+		return null;
+	}
+	
+	private static void answer(Document document, int pos, String choice) {
+		Element item = getItem(document, pos);
+		item.setAttribute("sessionStatus", "final");
+		Element response = document.createElement("responseVariable");
+		response.setAttribute("identifier", "RESPONSE_1");
+		Element value = document.createElement("value");
+		value.setTextContent(choice);
+		response.appendChild(value);
+		item.appendChild(response);
+	}
+	
+	/**
+	 * Compare the elements, attributes and texts, ignore the whitespaces
+	 * added by the indentation of the snapshot.
+	 */
+	private static boolean isSame(Element expected, Element actual) {
+		if(!expected.getNodeName().equals(actual.getNodeName())
+				|| !getText(expected).equals(getText(actual))
+				|| expected.getAttributes().getLength() != actual.getAttributes().getLength()) {
+			return false;
+		}
+		for(int i=expected.getAttributes().getLength(); i-->0; ) {
+			Node attribute = expected.getAttributes().item(i);
+			if(!attribute.getNodeValue().equals(actual.getAttribute(attribute.getNodeName()))) {
+				return false;
+			}
+		}
+		List<Element> expectedChildren = getElements(expected);
+		List<Element> actualChildren = getElements(actual);
+		if(expectedChildren.size() != actualChildren.size()) {
+			return false;
+		}
+		for(int i=0; i<expectedChildren.size(); i++) {
+			if(!isSame(expectedChildren.get(i), actualChildren.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static String getText(Element element) {
+		StringBuilder sb = new StringBuilder();
+		for(Node node=element.getFirstChild(); node != null; node=node.getNextSibling()) {
+			if(node.getNodeType() == Node.TEXT_NODE) {
+				sb.append(node.getNodeValue());
+			}
+		}
+		return sb.toString().trim();
+	}
+	
+	private static List<Element> getElements(Element element) {
+		List<Element> elements = new ArrayList<>();
+		for(Node node=element.getFirstChild(); node != null; node=node.getNextSibling()) {
+			if(node instanceof Element) {
+				elements.add((Element)node);
+			}
+		}
+		return elements;
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.ims.qti21.manager.audit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class AssessmentSessionAuditLogWriterTest {
+	
+	@Test
+	public void appendAndFlush() throws Exception {
+		File dir = Files.createTempDirectory("audit").toFile();
+		File auditLog = new File(dir, "audit.log");
+		
+		AssessmentSessionAuditLogWriter logWriter = new AssessmentSessionAuditLogWriter();
+		logWriter.setFlushInterval(60000l);
+		logWriter.setFlushBytes(1024l * 1024l);
+		logWriter.afterPropertiesSet();
+		try {
+			for(int i=0; i<100; i++) {
+				logWriter.append(auditLog, "Record " + i + "\n");
+			}
+			// the records are written immediately, the file is opened once and not synced
+			List<String> lines = Files.readAllLines(auditLog.toPath(), StandardCharsets.UTF_8);
+			Assert.assertEquals(100, lines.size());
+			Assert.assertEquals("Record 0", lines.get(0));
+			Assert.assertEquals("Record 99", lines.get(99));
+			Assert.assertEquals(100l, logWriter.getNumOfRecords());
+			Assert.assertEquals(1l, logWriter.getNumOfOpens());
+			Assert.assertEquals(0l, logWriter.getNumOfSyncs());
+			
+			logWriter.flush(auditLog);
+			Assert.assertEquals(1l, logWriter.getNumOfSyncs());
+			
+			// already synced
+			logWriter.flush(auditLog);
+			Assert.assertEquals(1l, logWriter.getNumOfSyncs());
+		} finally {
+			logWriter.destroy();
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+	
+	@Test
+	public void periodicGroupSync() throws Exception {
+		File dir = Files.createTempDirectory("audit").toFile();
+		File auditLog1 = new File(dir, "audit1.log");
+		File auditLog2 = new File(dir, "audit2.log");
+		
+		AssessmentSessionAuditLogWriter logWriter = new AssessmentSessionAuditLogWriter();
+		logWriter.setFlushInterval(200l);
+		logWriter.setFlushBytes(1024l * 1024l);
+		logWriter.afterPropertiesSet();
+		try {
+			for(int i=0; i<10; i++) {
+				logWriter.append(auditLog1, "Record " + i + "\n");
+				logWriter.append(auditLog2, "Record " + i + "\n");
+			}
+			for(int i=0; i<100 && logWriter.getNumOfSyncs() < 2; i++) {
+				Thread.sleep(50);
+			}
+			// one sync per dirty file for all their records
+			Assert.assertEquals(2l, logWriter.getNumOfSyncs());
+			Assert.assertEquals(2l, logWriter.getNumOfOpens());
+			Assert.assertEquals(20l, logWriter.getNumOfRecords());
+		} finally {
+			logWriter.destroy();
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+	
+	@Test
+	public void syncOnBytesThreshold() throws Exception {
+		File dir = Files.createTempDirectory("audit").toFile();
+		File auditLog = new File(dir, "audit.log");
+		
+		AssessmentSessionAuditLogWriter logWriter = new AssessmentSessionAuditLogWriter();
+		logWriter.setFlushInterval(60000l);
+		logWriter.setFlushBytes(16l);
+		logWriter.afterPropertiesSet();
+		try {
+			logWriter.append(auditLog, "Record with more than 16 bytes\n");
+			for(int i=0; i<100 && logWriter.getNumOfSyncs() == 0; i++) {
+				Thread.sleep(50);
+			}
+			Assert.assertEquals(1l, logWriter.getNumOfSyncs());
+		} finally {
+			logWriter.destroy();
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+	
+	@Test
+	public void flushOnDestroy() throws Exception {
+		File dir = Files.createTempDirectory("audit").toFile();
+		File auditLog = new File(dir, "audit.log");
+		
+		AssessmentSessionAuditLogWriter logWriter = new AssessmentSessionAuditLogWriter();
+		logWriter.setFlushInterval(60000l);
+		logWriter.setFlushBytes(1024l * 1024l);
+		logWriter.afterPropertiesSet();
+		logWriter.append(auditLog, "Record before shutdown\n");
+		logWriter.destroy();
+		
+		List<String> lines = Files.readAllLines(auditLog.toPath(), StandardCharsets.UTF_8);
+		Assert.assertEquals(1, lines.size());
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+	
+	@Test
+	public void recoverIncompleteRecord() throws Exception {
+		File dir = Files.createTempDirectory("audit").toFile();
+		File auditLog = new File(dir, "audit.log");
+		try(FileOutputStream out = new FileOutputStream(auditLog)) {
+			out.write("Record 0\nRecord cut by a cra".getBytes(StandardCharsets.UTF_8));
+		}
+		
+		// without writer thread, the records are written immediately
+		AssessmentSessionAuditLogWriter logWriter = new AssessmentSessionAuditLogWriter();
+		logWriter.append(auditLog, "Record 1\n");
+		
+		List<String> lines = Files.readAllLines(auditLog.toPath(), StandardCharsets.UTF_8);
+		Assert.assertEquals(4, lines.size());
+		Assert.assertEquals("Record cut by a cra", lines.get(1));
+		Assert.assertTrue(lines.get(2).endsWith("Audit log recovered, the previous record is incomplete"));
+		Assert.assertEquals("Record 1", lines.get(3));
+		Assert.assertEquals(1l, logWriter.getNumOfRecoveries());
+		FileUtils.deleteDirsAndFiles(dir, true, true);
+	}
+}
@@ -635,6 +635,30 @@ public class AssessmentEntryDAOTest extends OlatTestCase {
 		Assert.assertFalse(assessedIdentities.contains(assessedIdentity4));
 	}
 	
+	@Test
+	public void getAllIdentityKeysWithAssessmentData() {
+		Identity assessedIdentity1 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-9b");
+		Identity assessedIdentity2 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-10b");
+		Identity assessedIdentity3 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-11b");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry();
+		RepositoryEntry refEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		
+		String subIdent = UUID.randomUUID().toString();
+		assessmentEntryDao.createAssessmentEntry(assessedIdentity1, null, entry, subIdent, null, refEntry);
+		assessmentEntryDao.createAssessmentEntry(assessedIdentity1, null, entry, null, null, entry);
+		assessmentEntryDao.createAssessmentEntry(assessedIdentity2, null, entry, subIdent, null, refEntry);
+		assessmentEntryDao.createAssessmentEntry(assessedIdentity3, null, refEntry, subIdent, null, refEntry);
+		dbInstance.commitAndCloseSession();
+
+		// id 1 has 2 entries but is only once in the list, 3 is in an other entry
+		List<Long> assessedIdentityKeys = assessmentEntryDao.getAllIdentityKeysWithAssessmentData(entry);
+		Assert.assertNotNull(assessedIdentityKeys);
+		Assert.assertEquals(2, assessedIdentityKeys.size());
+		Assert.assertTrue(assessedIdentityKeys.contains(assessedIdentity1.getKey()));
+		Assert.assertTrue(assessedIdentityKeys.contains(assessedIdentity2.getKey()));
+		Assert.assertFalse(assessedIdentityKeys.contains(assessedIdentity3.getKey()));
+	}
+	
 	@Test
 	public void loadAssessmentEntriesByAssessedIdentity() {
 		Identity assessedIdentity1 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-13");
@@ -680,6 +704,42 @@ public class AssessmentEntryDAOTest extends OlatTestCase {
 		Assert.assertEquals(0, assessmentEntriesId3.size());
 	}
 	
+	@Test
+	public void loadAssessmentEntriesByAssessedIdentities() {
+		Identity assessedIdentity1 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-13b");
+		Identity assessedIdentity2 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-14b");
+		Identity assessedIdentity3 = JunitTestHelper.createAndPersistIdentityAsRndUser("as-node-15b");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry();
+		RepositoryEntry refEntry = JunitTestHelper.createAndPersistRepositoryEntry();
+		String subIdent = UUID.randomUUID().toString();
+		AssessmentEntry nodeAssessmentId1 = assessmentEntryDao.createAssessmentEntry(assessedIdentity1, null, entry,
+				subIdent, null, refEntry);
+		AssessmentEntry nodeAssessmentId2 = assessmentEntryDao.createAssessmentEntry(assessedIdentity2, null, entry,
+				subIdent, null, refEntry);
+		AssessmentEntry nodeAssessmentId3 = assessmentEntryDao.createAssessmentEntry(assessedIdentity2, null, entry,
+				null, null, entry);
+		AssessmentEntry nodeAssessmentId4 = assessmentEntryDao.createAssessmentEntry(assessedIdentity1, null, refEntry,
+				subIdent, null, refEntry);
+		AssessmentEntry nodeAssessmentId5 = assessmentEntryDao.createAssessmentEntry(assessedIdentity3, null, entry,
+				subIdent, null, refEntry);
+		dbInstance.commitAndCloseSession();
+		
+		List<Long> identityKeys = List.of(assessedIdentity1.getKey(), assessedIdentity2.getKey());
+		List<AssessmentEntry> assessmentEntries = assessmentEntryDao
+				.loadAssessmentEntriesByAssessedIdentities(entry, identityKeys);
+		Assert.assertNotNull(assessmentEntries);
+		Assert.assertEquals(3, assessmentEntries.size());
+		Assert.assertTrue(assessmentEntries.contains(nodeAssessmentId1));
+		Assert.assertTrue(assessmentEntries.contains(nodeAssessmentId2));
+		Assert.assertTrue(assessmentEntries.contains(nodeAssessmentId3));
+		Assert.assertFalse(assessmentEntries.contains(nodeAssessmentId4));
+		Assert.assertFalse(assessmentEntries.contains(nodeAssessmentId5));
+		
+		List<AssessmentEntry> noEntries = assessmentEntryDao
+				.loadAssessmentEntriesByAssessedIdentities(entry, List.of());
+		Assert.assertTrue(noEntries.isEmpty());
+	}
+	
 	@Test
 	public void loadAssessmentEntryByGroup() {
 		// a simulated course with 2 groups
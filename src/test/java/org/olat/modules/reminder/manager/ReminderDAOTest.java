@@ -333,6 +333,33 @@ public class ReminderDAOTest extends OlatTestCase {
 		Assert.assertTrue(recipientKeys.contains(recepient3.getKey()));
 	}
 	
+	@Test
+	public void getRecipients() {
+		Identity creator = JunitTestHelper.createAndPersistIdentityAsRndUser("creator-rem-13");
+		Identity coach = JunitTestHelper.createAndPersistIdentityAsRndUser("coach-rem-13");
+		Identity participant1 = JunitTestHelper.createAndPersistIdentityAsRndUser("participant-rem-13a");
+		Identity participant2 = JunitTestHelper.createAndPersistIdentityAsRndUser("participant-rem-13b");
+		RepositoryEntry entry = JunitTestHelper.createAndPersistRepositoryEntry();
+		repositoryEntryRelationDao.addRole(coach, entry, GroupRoles.coach.name());
+		repositoryEntryRelationDao.addRole(participant1, entry, GroupRoles.participant.name());
+		repositoryEntryRelationDao.addRole(participant2, entry, GroupRoles.participant.name());
+		Reminder reminder = createAndSaveReminder(entry, creator, 13);
+		dbInstance.commitAndCloseSession();
+
+		reminderDao.markAsSend(reminder, participant1, "ok");
+		dbInstance.commitAndCloseSession();
+
+		// the first participant already received the reminder
+		List<Identity> recipients = reminderDao.getRecipients(entry, reminder, false, null);
+		Assert.assertEquals(2, recipients.size());
+		Assert.assertTrue(recipients.contains(coach));
+		Assert.assertTrue(recipients.contains(participant2));
+
+		List<Identity> allRecipients = reminderDao.getRecipients(entry, reminder, true, null);
+		Assert.assertEquals(3, allRecipients.size());
+		Assert.assertTrue(allRecipients.contains(participant1));
+	}
+
 	@Test
 	public void duplicateReminder() {
 		Identity creator = JunitTestHelper.createAndPersistIdentityAsRndUser("creator-rem-12");
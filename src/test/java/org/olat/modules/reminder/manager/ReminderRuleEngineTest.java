@@ -440,7 +440,54 @@ public class ReminderRuleEngineTest extends OlatTestCase {
 			Assert.assertEquals(0, all.size());
 		}
 	}
-	
+
+	/**
+	 * The initial launch rule is evaluated in the query of the members.
+	 */
+	@Test
+	public void initialLaunchDate_query() {
+		Identity id1 = JunitTestHelper.createAndPersistIdentityAsRndUser("initial-launch-q-1");
+		Identity id2 = JunitTestHelper.createAndPersistIdentityAsRndUser("initial-launch-q-2");
+		Identity id3 = JunitTestHelper.createAndPersistIdentityAsRndUser("initial-launch-q-3");
+		Identity id4 = JunitTestHelper.createAndPersistIdentityAsRndUser("initial-launch-q-4");
+
+		RepositoryEntry re = JunitTestHelper.deployBasicCourse(null);
+		repositoryEntryRelationDao.addRole(id1, re, GroupRoles.owner.name());
+		repositoryEntryRelationDao.addRole(id2, re, GroupRoles.coach.name());
+		repositoryEntryRelationDao.addRole(id3, re, GroupRoles.participant.name());
+		repositoryEntryRelationDao.addRole(id4, re, GroupRoles.participant.name());
+		dbInstance.commit();
+
+		// id4 never launched the course
+		userCourseInformationsManager.updateUserCourseInformations(re.getOlatResource(), id1);
+		userCourseInformationsManager.updateUserCourseInformations(re.getOlatResource(), id2);
+		userCourseInformationsManager.updateUserCourseInformations(re.getOlatResource(), id3);
+		dbInstance.commit();
+
+		updateInitialLaunchDate(re.getOlatResource(), id1, -5, Calendar.DATE);
+		updateInitialLaunchDate(re.getOlatResource(), id2, -35, Calendar.DATE);
+		updateInitialLaunchDate(re.getOlatResource(), id3, -75, Calendar.DATE);
+		dbInstance.commitAndCloseSession();
+
+		{ // check after 7 days
+			List<ReminderRule> rules = getInitialLaunchRules(7, LaunchUnit.day);
+			List<Identity> all = ruleEngine.getIdentities(re, null, rules, true);
+
+			Assert.assertTrue(rules.isEmpty());
+			Assert.assertEquals(2, all.size());
+			Assert.assertTrue(all.contains(id2));
+			Assert.assertTrue(all.contains(id3));
+		}
+
+		{ // check after 2 months
+			List<ReminderRule> rules = getInitialLaunchRules(2, LaunchUnit.month);
+			List<Identity> all = ruleEngine.getIdentities(re, null, rules, true);
+
+			Assert.assertEquals(1, all.size());
+			Assert.assertTrue(all.contains(id3));
+		}
+	}
+
 	private void updateInitialLaunchDate(OLATResource courseRes, Identity id, int amount, int field) {
 		UserCourseInfosImpl userCourseInfos = (UserCourseInfosImpl)userCourseInformationsManager.getUserCourseInformations(courseRes, id);
 		Date initialLaunch = userCourseInfos.getInitialLaunch();
@@ -21,6 +21,7 @@ package org.olat.repository.manager;
 
 import static org.olat.test.JunitTestHelper.random;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -558,6 +559,47 @@ public class RepositoryEntryAuthorQueriesTest extends OlatTestCase {
 		}
 	}
 	
+	/**
+	 * Load the entries page by page after the last loaded entry
+	 * and compare the order with a single query.
+	 */
+	@Test
+	public void searchViews_afterKey() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndAuthor("view-4-");
+		for(int i=0; i<7; i++) {
+			RepositoryEntry re = JunitTestHelper.createAndPersistRepositoryEntry(true);
+			repositoryManager.setAccess(re, RepositoryEntryStatusEnum.preparation, false, false);
+			repositoryEntryRelationDao.addRole(id, re, GroupRoles.owner.name());
+		}
+		dbInstance.commitAndCloseSession();
+		
+		SearchAuthorRepositoryEntryViewParams params = new SearchAuthorRepositoryEntryViewParams(id, Roles.authorRoles());
+		params.setOwnedResourcesOnly(true);
+		
+		for(OrderBy orderBy:new OrderBy[] { OrderBy.key, OrderBy.displayname }) {
+			for(boolean asc:new boolean[] { true, false }) {
+				params.setOrderBy(orderBy);
+				params.setOrderByAsc(asc);
+				params.setAfterKey(null);
+				List<RepositoryEntryAuthorView> allViews = repositoryEntryAuthorViewQueries.searchViews(params, 0, -1).getViews();
+				Assert.assertEquals(7, allViews.size());
+				
+				List<RepositoryEntryAuthorView> pagedViews = new ArrayList<>();
+				List<RepositoryEntryAuthorView> page = repositoryEntryAuthorViewQueries.searchViews(params, 0, 3).getViews();
+				while(!page.isEmpty()) {
+					pagedViews.addAll(page);
+					params.setAfterKey(page.get(page.size() - 1).getKey());
+					page = repositoryEntryAuthorViewQueries.searchViews(params, 0, 3).getViews();
+				}
+				
+				Assert.assertEquals(allViews.size(), pagedViews.size());
+				for(int i=0; i<allViews.size(); i++) {
+					Assert.assertEquals(allViews.get(i).getKey(), pagedViews.get(i).getKey());
+				}
+			}
+		}
+	}
+	
 	private final boolean contains(RepositoryEntry re, RepositoryEntryAuthorViewResults results) {
 		if(results == null || results.getViews() == null) return false;
 		
@@ -0,0 +1,169 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.repository.manager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.basesecurity.GroupRoles;
+import org.olat.core.commons.persistence.DB;
+import org.olat.core.commons.services.mark.MarkManager;
+import org.olat.core.id.Identity;
+import org.olat.repository.RepositoryEntry;
+import org.olat.repository.model.RepositoryEntryMyCourseMembership;
+import org.olat.test.JunitTestHelper;
+import org.olat.test.OlatTestCase;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class RepositoryEntryMyCourseMembershipDAOTest extends OlatTestCase {
+	
+	@Autowired
+	private DB dbInstance;
+	@Autowired
+	private MarkManager markManager;
+	@Autowired
+	private RepositoryEntryRelationDAO repositoryEntryRelationDao;
+	@Autowired
+	private RepositoryEntryMyCourseMembershipDAO myCourseMembershipDao;
+	
+	@Test
+	public void refresh() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("mycourses-mym-1-");
+		RepositoryEntry re = JunitTestHelper.createAndPersistRepositoryEntry();
+		repositoryEntryRelationDao.addRole(id, re, GroupRoles.owner.name());
+		repositoryEntryRelationDao.addRole(id, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		
+		myCourseMembershipDao.refresh(Collections.singletonList(id.getKey()));
+		dbInstance.commitAndCloseSession();
+		
+		RepositoryEntryMyCourseMembership membership = myCourseMembershipDao.loadMembership(id, re);
+		Assert.assertNotNull(membership);
+		Assert.assertTrue(membership.isOwner());
+		Assert.assertFalse(membership.isCoach());
+		Assert.assertTrue(membership.isParticipant());
+		Assert.assertTrue(membership.isMember());
+		Assert.assertFalse(membership.isMarked());
+		
+		// a second refresh doesn't change anything
+		int changes = myCourseMembershipDao.refresh(Collections.singletonList(id.getKey()));
+		dbInstance.commitAndCloseSession();
+		Assert.assertEquals(0, changes);
+	}
+	
+	@Test
+	public void refresh_concurrent() throws Exception {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("mycourses-mym-5-");
+		RepositoryEntry re = JunitTestHelper.createAndPersistRepositoryEntry();
+		repositoryEntryRelationDao.addRole(id, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		
+		final CountDownLatch startSignal = new CountDownLatch(1);
+		final CountDownLatch doneSignal = new CountDownLatch(2);
+		final List<Exception> exceptions = new CopyOnWriteArrayList<>();
+		for(int i=0; i<2; i++) {
+			new Thread(() -> {
+				try {
+					startSignal.await();
+					myCourseMembershipDao.refresh(Collections.singletonList(id.getKey()));
+					dbInstance.commitAndCloseSession();
+				} catch(Exception e) {
+					exceptions.add(e);
+					dbInstance.rollbackAndCloseSession();
+				} finally {
+					doneSignal.countDown();
+				}
+			}).start();
+		}
+		startSignal.countDown();
+		Assert.assertTrue(doneSignal.await(30, TimeUnit.SECONDS));
+		
+		// both refreshes succeed and only one row is created
+		Assert.assertTrue(exceptions.isEmpty());
+		List<RepositoryEntryMyCourseMembership> memberships = myCourseMembershipDao.loadMemberships(Collections.singletonList(id.getKey()));
+		Assert.assertEquals(1, memberships.size());
+	}
+	
+	@Test
+	public void refresh_removeMembership() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("mycourses-mym-2-");
+		RepositoryEntry re = JunitTestHelper.createAndPersistRepositoryEntry();
+		repositoryEntryRelationDao.addRole(id, re, GroupRoles.coach.name());
+		dbInstance.commitAndCloseSession();
+		myCourseMembershipDao.refresh(Collections.singletonList(id.getKey()));
+		dbInstance.commitAndCloseSession();
+		Assert.assertNotNull(myCourseMembershipDao.loadMembership(id, re));
+		
+		repositoryEntryRelationDao.removeRole(id, re, GroupRoles.coach.name());
+		dbInstance.commitAndCloseSession();
+		myCourseMembershipDao.refresh(Collections.singletonList(id.getKey()));
+		dbInstance.commitAndCloseSession();
+		
+		List<RepositoryEntryMyCourseMembership> memberships = myCourseMembershipDao.loadMemberships(Collections.singletonList(id.getKey()));
+		Assert.assertTrue(memberships.isEmpty());
+	}
+	
+	@Test
+	public void markWriteThrough() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("mycourses-mym-3-");
+		RepositoryEntry re = JunitTestHelper.createAndPersistRepositoryEntry();
+		repositoryEntryRelationDao.addRole(id, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		myCourseMembershipDao.refresh(Collections.singletonList(id.getKey()));
+		dbInstance.commitAndCloseSession();
+		
+		markManager.setMark(re, id, null, "[RepositoryEntry:" + re.getKey() + "]");
+		dbInstance.commitAndCloseSession();
+		Assert.assertTrue(myCourseMembershipDao.loadMembership(id, re).isMarked());
+		
+		markManager.removeMark(re, id, null);
+		dbInstance.commitAndCloseSession();
+		Assert.assertFalse(myCourseMembershipDao.loadMembership(id, re).isMarked());
+	}
+	
+	@Test
+	public void reconcile() {
+		Identity id = JunitTestHelper.createAndPersistIdentityAsRndUser("mycourses-mym-4-");
+		RepositoryEntry re = JunitTestHelper.createAndPersistRepositoryEntry();
+		repositoryEntryRelationDao.addRole(id, re, GroupRoles.participant.name());
+		dbInstance.commitAndCloseSession();
+		
+		List<Long> identityKeys = myCourseMembershipDao.getMemberIdentityKeys(id.getKey() - 1, 10);
+		Assert.assertTrue(identityKeys.contains(id.getKey()));
+		
+		myCourseMembershipDao.refresh(identityKeys);
+		dbInstance.commitAndCloseSession();
+		
+		myCourseMembershipDao.deleteOrphans();
+		dbInstance.commitAndCloseSession();
+		Assert.assertNotNull(myCourseMembershipDao.loadMembership(id, re));
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * <a href="http://www.openolat.org">
+ * OpenOLAT - Online Learning and Training</a><br>
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); <br>
+ * you may not use this file except in compliance with the License.<br>
+ * You may obtain a copy of the License at the
+ * <a href="http://www.apache.org/licenses/LICENSE-2.0">Apache homepage</a>
+ * <p>
+ * Unless required by applicable law or agreed to in writing,<br>
+ * software distributed under the License is distributed on an "AS IS" BASIS, <br>
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. <br>
+ * See the License for the specific language governing permissions and <br>
+ * limitations under the License.
+ * <p>
+ * Initial code contributed and copyrighted by<br>
+ * frentix GmbH, http://www.frentix.com
+ * <p>
+ */
+package org.olat.search.service.indexer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.olat.core.util.FileUtils;
+
+/**
+ * 
+ * Initial date: 18 oct. 2026<br>
+ * @author srosse, stephane.rosse@frentix.com, http://www.frentix.com
+ *
+ */
+public class IndexerFingerprintTest {
+	
+	@Test
+	public void saveLoad() throws IOException {
+		File dir = Files.createTempDirectory("fingerprints").toFile();
+		try {
+			File file = new File(dir, "fingerprints.properties");
+			Map<String,IndexerFingerprint> fingerprints = new HashMap<>();
+			fingerprints.put("LibrarySite", new IndexerFingerprint("LibrarySite", 1603011234567l, 42));
+			fingerprints.put("Identity", new IndexerFingerprint("Identity", -1l, 1234));
+			IndexerFingerprint.save(file, fingerprints);
+			
+			Map<String,IndexerFingerprint> reloaded = IndexerFingerprint.load(file);
+			Assert.assertEquals(2, reloaded.size());
+			IndexerFingerprint library = reloaded.get("LibrarySite");
+			Assert.assertEquals(1603011234567l, library.getLastModified());
+			Assert.assertEquals(42, library.getDocumentCount());
+		} finally {
+			FileUtils.deleteDirsAndFiles(dir, true, true);
+		}
+	}
+	
+	@Test
+	public void loadMissingFile() {
+		Map<String,IndexerFingerprint> fingerprints = IndexerFingerprint.load(new File("/tmp/not_a_fingerprints_file.properties"));
+		Assert.assertNotNull(fingerprints);
+		Assert.assertTrue(fingerprints.isEmpty());
+	}
+	
+	@Test
+	public void matches() {
+		IndexerFingerprint fingerprint = new IndexerFingerprint("LibrarySite", 1603011234567l, 42);
+		Assert.assertTrue(fingerprint.matches(1603011234567l));
+		// data changed
+		Assert.assertFalse(fingerprint.matches(1603011299999l));
+		
+		// unknown last modification never matches
+		IndexerFingerprint unknown = new IndexerFingerprint("Identity", -1l, 1234);
+		Assert.assertFalse(unknown.matches(-1l));
+	}
+}
@@ -59,6 +59,7 @@ public class Deployments {
 		if(dumbster != null) {
 			overrideSettings.put("smtp.port", String.valueOf(dumbster.getPort()));
 			overrideSettings.put("smtp.host", "localhost");
+			overrideSettings.put("smtp.pool.enabled", "false");
 			log.info("Simple smtp server started on port: " + dumbster.getPort());
 		}
 		overrideSettings.put("ldap.enable", "false");
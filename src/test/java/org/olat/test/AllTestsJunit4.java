@@ -49,6 +49,8 @@ import org.junit.runners.Suite;
 	org.olat.core.gui.components.table.TableEventTest.class,
 	org.olat.core.gui.components.table.TableMultiSelectEventTest.class,
 	org.olat.core.gui.components.table.SorterTest.class,
+	org.olat.core.gui.components.form.flexible.impl.elements.table.SortableFlexiTableModelDelegateTest.class,
+	org.olat.core.gui.components.form.flexible.impl.elements.table.DefaultFlexiTableDataSourceModelTest.class,
 	org.olat.core.commons.chiefcontrollers.ChiefControllerMessageEventTest.class,
 	org.olat.core.util.vfs.VFSTest.class,
 	org.olat.core.util.vfs.VFSManagerTest.class,
@@ -62,6 +64,7 @@ import org.junit.runners.Suite;
 	org.olat.core.util.filter.impl.XMLValidEntityFilterTest.class,
 	org.olat.core.helpers.SettingsTest.class,
 	org.olat.core.util.coordinate.LockEntryTest.class,
+	org.olat.core.logging.activity.UserActivityLogWriterTest.class,
 	org.olat.modules.iq.DBPersistentLockManagerTest.class,
 	org.olat.core.util.StringHelperTest.class,
 	org.olat.core.util.FileUtilsTest.class,
@@ -77,6 +80,7 @@ import org.junit.runners.Suite;
 	org.olat.core.util.mail.EmailAddressValidatorTest.class,
 	org.olat.core.util.mail.manager.MailManagerTest.class,
 	org.olat.core.util.mail.manager.MailUserDataManagerTest.class,
+	org.olat.core.util.mail.manager.MailTransportPoolTest.class,
 	org.olat.core.util.openxml.OpenXmlWorkbookTest.class,
 	org.olat.core.util.openxml.OpenXMLDocumentTest.class,
 	org.olat.core.util.pdf.PdfDocumentTest.class,
@@ -86,6 +90,8 @@ import org.junit.runners.Suite;
 	org.olat.core.id.context.HistoryManagerTest.class,
 	org.olat.core.id.IdentityEnvironmentTest.class,
 	org.olat.core.gui.render.VelocityTemplateTest.class,
+	org.olat.core.gui.render.StringOutputPoolTest.class,
+	org.olat.core.gui.media.LocalFileDeliveryTest.class,
 	org.olat.core.gui.control.generic.iframe.IFrameDeliveryMapperTest.class,
 	org.olat.note.NoteTest.class,
 	org.olat.user.UserTest.class,
@@ -98,8 +104,10 @@ import org.junit.runners.Suite;
 	org.olat.commons.calendar.manager.CalendarUserConfigurationDAOTest.class,
 	org.olat.commons.lifecycle.LifeCycleManagerTest.class,
 	org.olat.commons.coordinate.cluster.jms.JMSTest.class,
+	org.olat.commons.coordinate.cluster.jms.ClusterEventBusTest.class,
 	org.olat.commons.coordinate.cluster.lock.LockTest.class,
 	org.olat.commons.coordinate.CoordinatorTest.class,
+	org.olat.commons.coordinate.singlevm.SingleVMEventBusTest.class,
 	org.olat.core.commons.services.csp.manager.CSPManagerTest.class,
 	org.olat.core.commons.services.doceditor.manager.DocEditorIdentityServiceTest.class,
 	org.olat.core.commons.services.doceditor.manager.AccessDAOTest.class,
@@ -113,6 +121,7 @@ import org.junit.runners.Suite;
 	org.olat.core.commons.services.vfs.manager.VFSRepositoryModuleTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSLockManagerTest.class,
 	org.olat.core.commons.services.vfs.manager.VFSVersioningTest.class,
+	org.olat.core.commons.services.vfs.manager.VFSQuotaUsageLedgerTest.class,
 	org.olat.core.commons.services.help.ConfluenceHelperTest.class,
 	org.olat.core.commons.services.help.spi.ConfluenceLinkSPITest.class,
 	org.olat.core.commons.services.license.manager.LicenseTypeActivationDAOTest.class,
@@ -164,6 +173,7 @@ import org.junit.runners.Suite;
 	org.olat.repository.manager.RepositoryEntryStatisticsDAOTest.class,
 	org.olat.repository.manager.RepositoryEntryAuthorQueriesTest.class,
 	org.olat.repository.manager.RepositoryEntryMyCourseQueriesTest.class,
+	org.olat.repository.manager.RepositoryEntryMyCourseMembershipDAOTest.class,
 	org.olat.repository.manager.RepositoryEntryMembershipProcessorTest.class,
 	org.olat.repository.manager.RepositoryEntryToOrganisationDAOTest.class,
 	org.olat.repository.manager.RepositoryEntryToTaxonomyLevelDAOTest.class,
@@ -198,6 +208,7 @@ import org.junit.runners.Suite;
 	org.olat.course.assessment.AssessmentManagerTest.class,
 	org.olat.course.assessment.manager.UserCourseInformationsManagerTest.class,
 	org.olat.course.assessment.manager.AssessmentModeManagerTest.class,
+	org.olat.course.assessment.manager.CourseAssessmentServiceTest.class,
 	org.olat.course.reminder.manager.ReminderRuleDAOTest.class,
 	org.olat.course.run.scoring.AssessmentAccountingTest.class,
 	org.olat.course.statistic.DailyStatisticUpdateManagerTest.class,
@@ -210,6 +221,7 @@ import org.junit.runners.Suite;
 	org.olat.course.groupsandrights.CourseGroupManagementTest.class,
 	org.olat.course.editor.PublishProcessTest.class,
 	org.olat.course.CourseXStreamAliasesTest.class,
+	org.olat.course.CourseStructureSnapshotTest.class,
 	org.olat.course.wizard.CourseWizardServiceTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectProviderTest.class,
 	org.olat.modules.adobeconnect.manager.AdobeConnectUserDAOTest.class,
@@ -357,6 +369,7 @@ import org.junit.runners.Suite;
 	org.olat.properties.PropertyTest.class,
 	org.olat.search.service.document.file.FileDocumentFactoryTest.class,
 	org.olat.search.service.indexer.repository.course.SPCourseNodeIndexerTest.class,
+	org.olat.search.service.indexer.IndexerFingerprintTest.class,
 	org.olat.search.service.document.file.HtmlDocumentTest.class,
 	org.olat.search.service.document.file.PDFDocumentTest.class,
 	org.olat.search.service.document.file.OfficeDocumentTest.class,
@@ -378,6 +391,8 @@ import org.junit.runners.Suite;
 	org.olat.ims.qti21.manager.AssessmentItemSessionDAOTest.class,
 	org.olat.ims.qti21.manager.AssessmentResponseDAOTest.class,
 	org.olat.ims.qti21.manager.CorrectResponsesUtilTest.class,
+	org.olat.ims.qti21.manager.TestSessionStateJournalTest.class,
+	org.olat.ims.qti21.manager.audit.AssessmentSessionAuditLogWriterTest.class,
 	org.olat.ims.qti21.model.xml.AssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.MultipleChoiceAssessmentItemBuilderTest.class,
 	org.olat.ims.qti21.model.xml.SingleChoiceAssessmentItemBuilderTest.class,